@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,7 @@
 
 package com.sun.xml.fastinfoset;
 
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
 import com.sun.xml.fastinfoset.alphabet.BuiltInRestrictedAlphabets;
 import com.sun.xml.fastinfoset.org.apache.xerces.util.XMLChar;
 import com.sun.xml.fastinfoset.util.CharArray;
@@ -25,19 +27,31 @@ import com.sun.xml.fastinfoset.util.CharArrayArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
 import com.sun.xml.fastinfoset.util.ContiguousCharArrayArray;
 import com.sun.xml.fastinfoset.util.DuplicateAttributeVerifier;
+import com.sun.xml.fastinfoset.util.MappedFileInputStream;
 import com.sun.xml.fastinfoset.util.PrefixArray;
 import com.sun.xml.fastinfoset.util.QualifiedNameArray;
 import com.sun.xml.fastinfoset.util.StringArray;
+import com.sun.xml.fastinfoset.util.SymbolTable;
 import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
+import org.jvnet.fastinfoset.BufferRecycler;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.ExternalVocabulary;
 import org.jvnet.fastinfoset.FastInfosetException;
@@ -77,6 +91,8 @@ public abstract class Decoder implements FastInfosetParser {
     private static final char[] XMLNS_NAMESPACE_NAME_CHARS =
             EncodingConstants.XMLNS_NAMESPACE_NAME.toCharArray();
     
+    private static final ByteBuffer EMPTY_INPUT_BUFFER = ByteBuffer.allocate(0);
+    
     /**
      * String interning system property.
      */
@@ -114,16 +130,109 @@ public abstract class Decoder implements FastInfosetParser {
      */
     private boolean _stringInterning = _stringInterningSystemDefault;
     
+    /**
+     * The table of canonical strings used when string interning is
+     * performed by the decoder.
+     */
+    private SymbolTable _symbolTable = SymbolTable.getDefault();
+    
     /**
      * The input stream from which the fast infoset document is being read.
      */
     private InputStream _s;
     
+    /**
+     * The buffer from which the fast infoset document is being read, when
+     * the buffer is not backed by an accessible array, otherwise null. The
+     * octets are copied from the buffer as the internal buffer is refilled.
+     */
+    private ByteBuffer _inputBuffer;
+    
+    /**
+     * The stream of a mapped file whose windows are read as the input
+     * buffer, otherwise null.
+     */
+    private MappedFileInputStream _inputWindows;
+    
+    /**
+     * True if the fast infoset document is decoded directly from an array
+     * of octets supplied by the application, in which case the internal
+     * buffer is never refilled.
+     */
+    private boolean _octetBufferIsInput;
+    
+    /**
+     * The internal buffer, retained while decoding directly from an array of
+     * octets supplied by the application.
+     */
+    private byte[] _internalOctetBuffer;
+    
     /**
      * The map of URIs to referenced vocabularies.
      */
     private Map<String, ParserVocabulary> _externalVocabularies;
     
+    /**
+     * True if the fast infoset document is compressed.
+     */
+    private boolean _transportCompression;
+    
+    /**
+     * The maximum number of octets of a document that is decompressed.
+     */
+    private long _transportCompressionMaximumLength = DEFAULT_TRANSPORT_COMPRESSION_MAXIMUM_LENGTH;
+    
+    /**
+     * The decompressed stream, reused for each document.
+     */
+    private TransportInputStream _transportInputStream;
+    
+    /**
+     * The decompressor of character content chunks, reused for each chunk
+     * of a document.
+     */
+    private Inflater _compressionInflater;
+    
+    /**
+     * The recycler the working buffers are borrowed from, or null.
+     */
+    private BufferRecycler _bufferRecycler;
+    
+    /**
+     * The internal buffer of octets, retained while a buffer borrowed from
+     * the recycler is used, otherwise null.
+     */
+    private byte[] _ownedOctetBuffer;
+    
+    /**
+     * The internal buffer of characters, retained while a buffer borrowed
+     * from the recycler is used, otherwise null.
+     */
+    private char[] _ownedCharBuffer;
+    
+    /**
+     * True if documents are decoded in session mode.
+     */
+    private boolean _session;
+    
+    /**
+     * The expected session checkpoint of the next document, zero if only
+     * a document that resets the session is expected.
+     */
+    private int _sessionCheckpoint;
+    
+    /**
+     * True while the session checkpoint of the document being decoded in
+     * session mode has not been decoded.
+     */
+    private boolean _sessionCheckpointPending;
+    
+    /**
+     * The limit on the number of entries of each dynamic table of non
+     * identifying strings.
+     */
+    private int _dynamicTableSizeLimit = Integer.MAX_VALUE;
+    
     /**
      * True if can parse fragments.
      */
@@ -258,6 +367,12 @@ public abstract class Decoder implements FastInfosetParser {
      */
     protected int _charBufferLength;
     
+    /**
+     * The buffer of octets used to construct strings whose characters
+     * are all in the Latin-1 range.
+     */
+    private byte[] _latin1Buffer = new byte[512];
+    
     /**
      * Helper class that checks for duplicate attribute information items.
      */
@@ -289,6 +404,25 @@ public abstract class Decoder implements FastInfosetParser {
         return _stringInterning;
     }
     
+    /**
+     * Set the table of canonical strings used when string interning is
+     * performed.
+     * <p>
+     * The table may be shared by decoders in different threads.
+     * By default the table returned by {@link SymbolTable#getDefault()}
+     * is used.
+     *
+     * @param table the table of canonical strings, or null to use the
+     *        default table.
+     */
+    public void setSymbolTable(SymbolTable table) {
+        _symbolTable = (table != null) ? table : SymbolTable.getDefault();
+    }
+    
+    public SymbolTable getSymbolTable() {
+        return _symbolTable;
+    }
+    
     @Override
     public void setBufferSize(int bufferSize) {
         if (_bufferSize > _octetBuffer.length) {
@@ -351,6 +485,66 @@ public abstract class Decoder implements FastInfosetParser {
         return _needForceStreamClose;
     }
     
+    @Override
+    public void setTransportCompression(boolean compression) {
+        _transportCompression = compression;
+    }
+    
+    @Override
+    public boolean getTransportCompression() {
+        return _transportCompression;
+    }
+    
+    @Override
+    public void setTransportCompressionMaximumLength(long length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalInflatedLength", new Object[]{length}));
+        }
+        _transportCompressionMaximumLength = length;
+    }
+    
+    @Override
+    public long getTransportCompressionMaximumLength() {
+        return _transportCompressionMaximumLength;
+    }
+    
+    @Override
+    public void setSession(boolean session) {
+        _session = session;
+        _sessionCheckpoint = 0;
+    }
+    
+    @Override
+    public boolean getSession() {
+        return _session;
+    }
+    
+    @Override
+    public void setDynamicTableSizeLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalTableSizeLimit", new Object[]{limit}));
+        }
+        _dynamicTableSizeLimit = limit;
+    }
+    
+    @Override
+    public int getDynamicTableSizeLimit() {
+        return _dynamicTableSizeLimit;
+    }
+    
+    @Override
+    public void setBufferRecycler(BufferRecycler recycler) {
+        releaseBuffers();
+        _bufferRecycler = recycler;
+    }
+    
+    @Override
+    public BufferRecycler getBufferRecycler() {
+        return _bufferRecycler;
+    }
+    
 // End FastInfosetParser interface
     
     /**
@@ -360,6 +554,35 @@ public abstract class Decoder implements FastInfosetParser {
         _terminate = _doubleTerminate = false;
     }
     
+    /**
+     * Restore the properties of the decoder to their defaults.
+     * <p>
+     * The properties set using the {@link FastInfosetParser} interface,
+     * the table of canonical strings and the vocabulary are restored, so
+     * that a decoder may be reused by another application, such as when
+     * a decoder is retained by a pool. The size of the internal buffer is
+     * retained.
+     */
+    protected void restoreDefaultProperties() {
+        _stringInterning = _stringInterningSystemDefault;
+        _symbolTable = SymbolTable.getDefault();
+        _registeredEncodingAlgorithms = new HashMap<>();
+        _externalVocabularies = null;
+        _parseFragments = false;
+        _needForceStreamClose = false;
+        _transportCompression = false;
+        _transportCompressionMaximumLength = DEFAULT_TRANSPORT_COMPRESSION_MAXIMUM_LENGTH;
+        _session = false;
+        _sessionCheckpoint = 0;
+        _dynamicTableSizeLimit = Integer.MAX_VALUE;
+        setBufferRecycler(null);
+        
+        if (!_vIsInternal) {
+            setVocabulary(new ParserVocabulary());
+            _vIsInternal = true;
+        }
+    }
+    
     /**
      * Set the ParserVocabulary to be used for decoding.
      *
@@ -373,22 +596,189 @@ public abstract class Decoder implements FastInfosetParser {
         _characterContentChunkTable = _v.characterContentChunk;
         _attributeValueTable = _v.attributeValue;
         _vIsInternal = false;
+        _sessionCheckpoint = 0;
     }
     
     /**
      * Set the InputStream to decode the fast infoset document.
+     * <p>
+     * The windows of a {@link MappedFileInputStream} are read directly, the
+     * internal buffer is refilled from the mapped region of the current
+     * window and a window is crossed when the octets of the window have all
+     * been copied.
      *
      * @param s the InputStream where the fast infoset document is decoded from.
      */
     public void setInputStream(InputStream s) {
+        setStream(s);
+    }
+    
+    private void setStream(InputStream s) {
+        restoreInternalOctetBuffer();
+        if (_transportCompression) {
+            if (_transportInputStream == null) {
+                _transportInputStream = new TransportInputStream();
+            }
+            _transportInputStream.reset(s);
+            s = _transportInputStream;
+        }
         _s = s;
+        if (s instanceof MappedFileInputStream) {
+            // The mapped windows are read directly rather than by the stream
+            _inputWindows = (MappedFileInputStream) s;
+            _inputBuffer = EMPTY_INPUT_BUFFER;
+        } else {
+            _inputWindows = null;
+            _inputBuffer = null;
+        }
+        _octetBufferOffset = 0;
+        _octetBufferEnd = 0;
+        clearInternalVocabulary();
+    }
+    
+    /**
+     * Set an array of octets to decode the fast infoset document.
+     * <p>
+     * The octets are decoded in place, without copying them to the internal
+     * buffer. The array must not be modified until decoding has completed.
+     *
+     * @param b the array of octets where the fast infoset document is
+     *        decoded from.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     */
+    public void setInput(byte[] b, int offset, int length) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (offset < 0 || length < 0 || offset > b.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        if (_transportCompression) {
+            setStream(new ByteArrayInputStream(b, offset, length));
+            return;
+        }
+        
+        if (_internalOctetBuffer == null) {
+            _internalOctetBuffer = _octetBuffer;
+        }
+        _s = null;
+        _inputWindows = null;
+        _inputBuffer = null;
+        _octetBufferIsInput = true;
+        _octetBuffer = b;
+        _octetBufferOffset = offset;
+        _octetBufferEnd = offset + length;
+        clearInternalVocabulary();
+    }
+    
+    /**
+     * Set a {@link ByteBuffer} to decode the fast infoset document.
+     * <p>
+     * The remaining octets of the buffer are decoded. If the buffer is backed
+     * by an accessible array then the octets are decoded in place, otherwise
+     * (for example a direct buffer) the octets are copied to the internal
+     * buffer as it is refilled, in the same manner as when decoding from an
+     * {@link InputStream}, so that the internal buffer does not grow to the
+     * size of the document. The position of the buffer is not modified.
+     *
+     * @param b the buffer where the fast infoset document is decoded from.
+     */
+    public void setInput(ByteBuffer b) {
+        if (b.hasArray()) {
+            setInput(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            return;
+        } else if (_transportCompression) {
+            final byte[] a = new byte[b.remaining()];
+            b.duplicate().get(a);
+            setStream(new ByteArrayInputStream(a));
+            return;
+        }
+        
+        restoreInternalOctetBuffer();
+        _s = null;
+        _inputWindows = null;
+        _inputBuffer = b.duplicate();
         _octetBufferOffset = 0;
         _octetBufferEnd = 0;
-        if (_vIsInternal) {
+        clearInternalVocabulary();
+    }
+    
+    /**
+     * Check if the fast infoset document is decoded from an array of octets
+     * rather than an {@link InputStream}.
+     *
+     * @return true if the document is decoded from an array of octets.
+     */
+    protected final boolean isOctetBufferInput() {
+        return _octetBufferIsInput;
+    }
+    
+    /**
+     * Clear the internal vocabulary before a fast infoset document is
+     * decoded, unless the vocabulary is retained for a session or has been
+     * set using {@link #setVocabulary(ParserVocabulary)}.
+     */
+    protected final void clearInternalVocabulary() {
+        if (_vIsInternal && !_session) {
             _v.clear();
         }
     }
     
+    private void restoreInternalOctetBuffer() {
+        if (_internalOctetBuffer != null) {
+            _octetBuffer = _internalOctetBuffer;
+            _internalOctetBuffer = null;
+        }
+        _octetBufferIsInput = false;
+    }
+    
+    /**
+     * Borrow the working buffers from the recycler. The buffer of octets
+     * is only borrowed when decoding from an InputStream and no octets
+     * are buffered.
+     */
+    private void borrowBuffers() {
+        if (_ownedCharBuffer == null) {
+            _ownedCharBuffer = _charBuffer;
+            _charBuffer = _bufferRecycler.allocateCharacters(_charBuffer.length);
+        }
+        
+        if (_ownedOctetBuffer == null && !_octetBufferIsInput
+                && _octetBufferOffset == _octetBufferEnd) {
+            _ownedOctetBuffer = _octetBuffer;
+            _octetBuffer = _bufferRecycler.allocateOctets(Math.max(_bufferSize, _octetBuffer.length));
+            _octetBufferOffset = _octetBufferEnd = 0;
+        }
+    }
+    
+    /**
+     * Release the working buffers borrowed from the recycler, if any, when
+     * a fast infoset document has been decoded. The buffer of octets is
+     * retained while it is decoded from or holds octets that are not decoded.
+     * The decompressor of character content chunks is released.
+     */
+    protected final void releaseBuffers() {
+        if (_compressionInflater != null) {
+            _compressionInflater.end();
+            _compressionInflater = null;
+        }
+        
+        if (_ownedCharBuffer != null) {
+            _bufferRecycler.releaseCharacters(_charBuffer);
+            _charBuffer = _ownedCharBuffer;
+            _ownedCharBuffer = null;
+        }
+        
+        if (_ownedOctetBuffer != null && !_octetBufferIsInput
+                && _octetBufferOffset == _octetBufferEnd) {
+            _bufferRecycler.releaseOctets(_octetBuffer);
+            _octetBuffer = _ownedOctetBuffer;
+            _ownedOctetBuffer = null;
+            _octetBufferOffset = _octetBufferEnd = 0;
+        }
+    }
+    
     protected final void decodeDII() throws FastInfosetException, IOException {
         final int b = read();
         if (b == EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG) {
@@ -403,16 +793,66 @@ public abstract class Decoder implements FastInfosetParser {
         final int noOfItems = decodeNumberOfItemsOfSequence();
         
         for (int i = 0; i < noOfItems; i++) {
-            /*String URI = */decodeNonEmptyOctetStringOnSecondBitAsUtf8String();
+            final String URI = decodeNonEmptyOctetStringOnSecondBitAsUtf8String();
 
             decodeNonEmptyOctetStringLengthOnSecondBit();
             ensureOctetBufferSize();
             _octetBufferStart = _octetBufferOffset;
             _octetBufferOffset += _octetBufferLength;
+            
+            if (_sessionCheckpointPending && URI.equals(EncodingConstants.SESSION_CHECKPOINT_URI)) {
+                decodeSessionCheckpoint();
+            }
+        }
+    }
+    
+    private void decodeSessionCheckpoint() throws FastInfosetException {
+        if (_octetBufferLength != EncodingConstants.SESSION_CHECKPOINT_LENGTH) {
+            throw new FastInfosetException(CommonResourceBundle.getInstance().
+                    getString("message.sessionCheckpointLength", new Object[]{_octetBufferLength}));
+        }
+        
+        final int checkpoint = ((_octetBuffer[_octetBufferStart] & 0xFF) << 24) |
+                ((_octetBuffer[_octetBufferStart + 1] & 0xFF) << 16) |
+                ((_octetBuffer[_octetBufferStart + 2] & 0xFF) << 8) |
+                (_octetBuffer[_octetBufferStart + 3] & 0xFF);
+        if (checkpoint == 0) {
+            // The serializer cleared the dynamic vocabulary, a vocabulary
+            // set by the application is not cleared
+            if (_vIsInternal) {
+                _v.clear();
+            }
+        } else if (checkpoint != _sessionCheckpoint) {
+            throw new FastInfosetException(CommonResourceBundle.getInstance().
+                    getString("message.sessionCheckpoint",
+                    new Object[]{checkpoint, _sessionCheckpoint}));
+        }
+        
+        _sessionCheckpoint = (checkpoint == Integer.MAX_VALUE) ? 1 : checkpoint + 1;
+        _sessionCheckpointPending = false;
+    }
+    
+    /**
+     * Check the session checkpoint of a document decoded in session mode
+     * once the additional data has been decoded.
+     * <p>
+     * A document without a session checkpoint is not serialized in session
+     * mode, in which case the dynamic vocabulary is cleared as when not
+     * decoding in session mode, and the session must then be reset.
+     */
+    protected final void checkSessionCheckpoint() {
+        if (_sessionCheckpointPending) {
+            if (_vIsInternal) {
+                _v.clear();
+            }
+            _sessionCheckpoint = 0;
+            _sessionCheckpointPending = false;
         }
     }
     
     protected final void decodeInitialVocabulary() throws FastInfosetException, IOException {
+        checkSessionCheckpoint();
+        
         // First 5 optionals of 13 bit optional field
         int b = read();
         // Next 8 optionals of 13 bit optional field
@@ -850,6 +1290,25 @@ public abstract class Decoder implements FastInfosetParser {
     }
     
     protected final void decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(int b) throws FastInfosetException, IOException {
+        decodeOctetsLengthOnSeventhBitOfNonIdentifyingStringOnThirdBit(b);
+        decodeOctetsIntoOctetBuffer();
+    }
+    
+    /**
+     * Read the octets, whose length has been decoded, into the octet buffer.
+     */
+    protected final void decodeOctetsIntoOctetBuffer() throws IOException {
+        ensureOctetBufferSize();
+        _octetBufferStart = _octetBufferOffset;
+        _octetBufferOffset += _octetBufferLength;
+    }
+    
+    /**
+     * Decode the length of the octets of a restricted alphabet or encoding
+     * algorithm, leaving the octets to be read into the octet buffer or
+     * streamed with {@link #openOctetStringInputStream()}.
+     */
+    protected final void decodeOctetsLengthOnSeventhBitOfNonIdentifyingStringOnThirdBit(int b) throws FastInfosetException, IOException {
         // Remove top 6 bits of restricted alphabet or encoding algorithm integer
         switch (b & 0x03) {
             // Small length
@@ -873,10 +1332,29 @@ public abstract class Decoder implements FastInfosetParser {
                 _octetBufferLength += EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT;
                 break;
         }
-        
-        ensureOctetBufferSize();
-        _octetBufferStart = _octetBufferOffset;
-        _octetBufferOffset += _octetBufferLength;
+    }
+    
+    /**
+     * Check if reading the octets, whose length has been decoded, into the
+     * octet buffer would require the buffer to grow.
+     * <p>
+     * Such octets may be streamed with {@link #openOctetStringInputStream()}
+     * rather than read into the octet buffer.
+     */
+    protected final boolean isOctetBufferSizeExceeded() {
+        return !_octetBufferIsInput && _octetBufferLength > _octetBuffer.length;
+    }
+    
+    /**
+     * Open a stream of the octets, whose length has been decoded, that reads
+     * the octets in bounded windows rather than reading all the octets into
+     * the octet buffer.
+     * <p>
+     * No other information item may be decoded until all the octets have been
+     * read or {@link OctetStringInputStream#skipRemaining()} has been invoked.
+     */
+    protected final OctetStringInputStream openOctetStringInputStream() {
+        return new OctetStringInputStream(_octetBufferLength);
     }
     
     /*
@@ -888,14 +1366,14 @@ public abstract class Decoder implements FastInfosetParser {
             case DecoderStateTables.ISTRING_SMALL_LENGTH:
             {
                 _octetBufferLength = b + 1;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _identifier = table.add(s) - 1;
                 return s;
             }
             case DecoderStateTables.ISTRING_MEDIUM_LENGTH:
             {
                 _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_SMALL_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _identifier = table.add(s) - 1;
                 return s;
             }
@@ -906,7 +1384,7 @@ public abstract class Decoder implements FastInfosetParser {
                         (read() << 8) |
                         read();
                 _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_MEDIUM_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _identifier = table.add(s) - 1;
                 return s;
             }
@@ -945,7 +1423,7 @@ public abstract class Decoder implements FastInfosetParser {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.prefixIllegal"));
                 }
                 
-                final String s = (_stringInterning) ? new String(_charBuffer, 0, _charBufferLength).intern() :
+                final String s = (_stringInterning) ? getCharBufferAsSymbol() :
                     new String(_charBuffer, 0, _charBufferLength);
                 _prefixIndex = _v.prefix.add(s);
                 return s;
@@ -963,7 +1441,7 @@ public abstract class Decoder implements FastInfosetParser {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.xmlns"));
                 }
                 
-                final String s = (_stringInterning) ? new String(_charBuffer, 0, _charBufferLength).intern() :
+                final String s = (_stringInterning) ? getCharBufferAsSymbol() :
                     new String(_charBuffer, 0, _charBufferLength);
                 _prefixIndex = _v.prefix.add(s);
                 return s;
@@ -973,14 +1451,14 @@ public abstract class Decoder implements FastInfosetParser {
             case DecoderStateTables.ISTRING_PREFIX_NAMESPACE_LENGTH_36:
             {
                 _octetBufferLength = b + 1;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _prefixIndex = _v.prefix.add(s);
                 return s;
             }
             case DecoderStateTables.ISTRING_MEDIUM_LENGTH:
             {
                 _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_SMALL_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _prefixIndex = _v.prefix.add(s);
                 return s;
             }
@@ -991,7 +1469,7 @@ public abstract class Decoder implements FastInfosetParser {
                         (read() << 8) |
                         read();
                 _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_MEDIUM_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _prefixIndex = _v.prefix.add(s);
                 return s;
             }
@@ -1070,7 +1548,7 @@ public abstract class Decoder implements FastInfosetParser {
             case DecoderStateTables.ISTRING_SMALL_LENGTH:
             {
                 _octetBufferLength = b + 1;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _namespaceNameIndex = _v.namespaceName.add(s);
                 return s;
             }
@@ -1083,7 +1561,7 @@ public abstract class Decoder implements FastInfosetParser {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.xmlnsConnotBeBoundToPrefix"));
                 }
                 
-                final String s = (_stringInterning) ? new String(_charBuffer, 0, _charBufferLength).intern() :
+                final String s = (_stringInterning) ? getCharBufferAsSymbol() :
                     new String(_charBuffer, 0, _charBufferLength);
                 _namespaceNameIndex = _v.namespaceName.add(s);
                 return s;
@@ -1097,7 +1575,7 @@ public abstract class Decoder implements FastInfosetParser {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.illegalNamespaceName"));
                 }
                 
-                final String s = (_stringInterning) ? new String(_charBuffer, 0, _charBufferLength).intern() :
+                final String s = (_stringInterning) ? getCharBufferAsSymbol() :
                     new String(_charBuffer, 0, _charBufferLength);
                 _namespaceNameIndex = _v.namespaceName.add(s);
                 return s;
@@ -1105,7 +1583,7 @@ public abstract class Decoder implements FastInfosetParser {
             case DecoderStateTables.ISTRING_MEDIUM_LENGTH:
             {
                 _octetBufferLength = read() + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_SMALL_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _namespaceNameIndex = _v.namespaceName.add(s);
                 return s;
             }
@@ -1116,7 +1594,7 @@ public abstract class Decoder implements FastInfosetParser {
                         (read() << 8) |
                         read();
                 _octetBufferLength = length + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_MEDIUM_LIMIT;
-                final String s = (_stringInterning) ? decodeUtf8StringAsString().intern() : decodeUtf8StringAsString();
+                final String s = (_stringInterning) ? decodeUtf8StringAsSymbol() : decodeUtf8StringAsString();
                 _namespaceNameIndex = _v.namespaceName.add(s);
                 return s;
             }
@@ -1186,8 +1664,8 @@ public abstract class Decoder implements FastInfosetParser {
      * C.22
      */
     protected final String decodeNonEmptyOctetStringOnSecondBitAsUtf8String() throws FastInfosetException, IOException {
-        decodeNonEmptyOctetStringOnSecondBitAsUtf8CharArray();
-        return new String(_charBuffer, 0, _charBufferLength);
+        decodeNonEmptyOctetStringLengthOnSecondBit();
+        return decodeUtf8StringAsString();
     }
     
     /*
@@ -1250,6 +1728,12 @@ public abstract class Decoder implements FastInfosetParser {
     }
     
     protected final void decodeHeader() throws FastInfosetException, IOException {
+        if (_bufferRecycler != null) {
+            borrowBuffers();
+        }
+        _sessionCheckpointPending = _session;
+        _v.setDynamicTableSizeLimit(_dynamicTableSizeLimit);
+        
         if (!_isFastInfosetDocument()) {
             throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.notFIDocument"));
         }
@@ -1273,6 +1757,41 @@ public abstract class Decoder implements FastInfosetParser {
         }
     }
     
+    /**
+     * Get the registered encoding algorithm of character content that is
+     * compressed.
+     *
+     * @param identifier the encoding algorithm identifier.
+     * @return the algorithm, or null if the identifier is not of an
+     *         application-defined algorithm registered as a
+     *         {@link DeflateEncodingAlgorithm}.
+     */
+    protected final DeflateEncodingAlgorithm getCompressedCharactersAlgorithm(int identifier) {
+        if (identifier < EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
+            return null;
+        }
+        
+        final String URI = _v.encodingAlgorithm.get(identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
+        final EncodingAlgorithm ea = (URI != null) ? _registeredEncodingAlgorithms.get(URI) : null;
+        return (ea instanceof DeflateEncodingAlgorithm) ? (DeflateEncodingAlgorithm) ea : null;
+    }
+    
+    /**
+     * Decode the compressed characters of the octet buffer into the
+     * char buffer.
+     */
+    protected final void decodeCompressedCharactersIntoCharBuffer(DeflateEncodingAlgorithm ea) throws FastInfosetException {
+        if (_compressionInflater == null) {
+            _compressionInflater = new Inflater();
+        }
+        final String s = ea.decodeToString(_compressionInflater, _octetBuffer, _octetBufferStart, _octetBufferLength);
+        _charBufferLength = s.length();
+        if (_charBuffer.length < _charBufferLength) {
+            _charBuffer = new char[_charBufferLength];
+        }
+        s.getChars(0, _charBufferLength, _charBuffer, 0);
+    }
+    
     protected final String decodeRestrictedAlphabetAsString() throws FastInfosetException, IOException {
         decodeRestrictedAlphabetAsCharBuffer();
         return new String(_charBuffer, 0, _charBufferLength);
@@ -1325,11 +1844,21 @@ public abstract class Decoder implements FastInfosetParser {
             _charBuffer = new char[characters];
         }
         
-        resetBits();
+        // Read the bits of each character from a 64 bit big-endian word
+        // starting at the octet holding the first bit of the character
+        final byte[] b = _octetBuffer;
+        final int start = _octetBufferStart;
+        final int end = start + _octetBufferLength;
+        final int shift = 64 - bitsPerCharacter;
         for (int i = 0; i < characters; i++) {
-            int value = readBits(bitsPerCharacter);
+            final int bitIndex = i * bitsPerCharacter;
+            final int octet = start + (bitIndex >>> 3);
+            final long w = (octet + 8 <= end)
+                    ? Long.reverseBytes((long) LONG_VIEW.get(b, octet))
+                    : readLastOctets(octet, end);
+            final int value = (int)((w << (bitIndex & 7)) >>> shift);
             if (bitsPerCharacter < 8 && value == terminatingValue) {
-                int octetPosition = (i * bitsPerCharacter) >>> 3;
+                int octetPosition = bitIndex >>> 3;
                 if (octetPosition != _octetBufferLength - 1) {
                     throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.alphabetIncorrectlyTerminated"));
                 }
@@ -1337,26 +1866,22 @@ public abstract class Decoder implements FastInfosetParser {
             }
             _charBuffer[_charBufferLength++] = restrictedAlphabet[value];
         }
+        _octetBufferStart = end;
     }
     
-    private int _bitsLeftInOctet;
-    
-    private void resetBits() {
-        _bitsLeftInOctet = 0;
-    }
-    
-    private int readBits(int bits) throws IOException {
-        int value = 0;
-        while (bits > 0) {
-            if (_bitsLeftInOctet == 0) {
-                _b = _octetBuffer[_octetBufferStart++] & 0xFF;
-                _bitsLeftInOctet = 8;
+    /**
+     * Read the octets from a position to the end of the octets as a
+     * big-endian word, the missing octets being zero.
+     */
+    private long readLastOctets(int octet, int end) {
+        long w = 0;
+        for (int i = 0; i < 8; i++, octet++) {
+            w <<= 8;
+            if (octet < end) {
+                w |= _octetBuffer[octet] & 0xFF;
             }
-            int bit = ((_b & (1 << --_bitsLeftInOctet)) > 0) ? 1 : 0;
-            value |= (bit << --bits);
         }
-        
-        return value;
+        return w;
     }
     
     protected final void decodeUtf8StringAsCharBuffer() throws IOException {
@@ -1369,11 +1894,118 @@ public abstract class Decoder implements FastInfosetParser {
         decodeUtf8StringIntoCharBuffer(ch, offset);
     }
     
+    /**
+     * Decode a UTF-8 encoded string as a String.
+     * <p>
+     * A string whose characters are all in the Latin-1 range is constructed
+     * from octets, otherwise the string is decoded into the buffer of
+     * characters and constructed from the characters.
+     */
     protected final String decodeUtf8StringAsString() throws IOException {
-        decodeUtf8StringAsCharBuffer();
+        ensureOctetBufferSize();
+        final String s = decodeUtf8StringAsLatin1String();
+        if (s != null) {
+            return s;
+        }
+
+        decodeUtf8StringIntoCharBuffer();
         return new String(_charBuffer, 0, _charBufferLength);
     }
     
+    /**
+     * Decode a UTF-8 encoded string as a canonical String.
+     * <p>
+     * The string is resolved from the table of canonical strings by its
+     * octets, otherwise the string is decoded and added to the table.
+     */
+    private String decodeUtf8StringAsSymbol() throws IOException {
+        ensureOctetBufferSize();
+        final int start = _octetBufferOffset;
+        final String s = _symbolTable.get(_octetBuffer, start, _octetBufferLength);
+        if (s != null) {
+            _octetBufferOffset += _octetBufferLength;
+            _charBufferLength = s.length();
+            return s;
+        }
+        
+        return _symbolTable.add(_octetBuffer, start, _octetBufferLength, decodeUtf8StringAsString());
+    }
+    
+    /**
+     * Get the canonical String of the characters in the buffer of characters
+     * that were decoded from the UTF-8 encoded octets just read.
+     */
+    private String getCharBufferAsSymbol() {
+        final int start = _octetBufferOffset - _octetBufferLength;
+        final String s = _symbolTable.get(_octetBuffer, start, _octetBufferLength);
+        if (s != null) {
+            return s;
+        }
+        
+        return _symbolTable.add(_octetBuffer, start, _octetBufferLength,
+                new String(_charBuffer, 0, _charBufferLength));
+    }
+    
+    /**
+     * Decode a UTF-8 encoded string whose characters are all in the Latin-1
+     * range directly as a String.
+     * <p>
+     * Octets of ASCII characters are used as is, and the String does not
+     * need to test that characters may be compacted to Latin-1.
+     *
+     * @return the string, or null if a character is not in the Latin-1
+     *         range or is not legal, in which case no octets are consumed.
+     */
+    private String decodeUtf8StringAsLatin1String() {
+        final int start = _octetBufferOffset;
+        final int end = start + _octetBufferLength;
+        int offset = start;
+        
+        // Skip the run of ASCII characters, a block of octets at a time
+        // when the block has no octets that are not in the range [#x20, #x7F]
+        while (offset < end) {
+            if (end - offset >= ASCII_BLOCK_SIZE) {
+                final long w = (long) LONG_VIEW.get(_octetBuffer, offset);
+                if (((w | ((w - ASCII_SPACES) & ~w)) & ASCII_HIGH_BITS) == 0) {
+                    offset += ASCII_BLOCK_SIZE;
+                    continue;
+                }
+            }
+            if (DecoderStateTables.UTF8(_octetBuffer[offset] & 0xFF) != DecoderStateTables.UTF8_ONE_BYTE) {
+                break;
+            }
+            offset++;
+        }
+        
+        if (offset == end) {
+            _octetBufferOffset = end;
+            _charBufferLength = _octetBufferLength;
+            return new String(_octetBuffer, start, _octetBufferLength, StandardCharsets.ISO_8859_1);
+        }
+        
+        // Decode the remaining two byte characters in the range [#x80, #xFF]
+        if (_latin1Buffer.length < _octetBufferLength) {
+            _latin1Buffer = new byte[_octetBufferLength];
+        }
+        int length = offset - start;
+        System.arraycopy(_octetBuffer, start, _latin1Buffer, 0, length);
+        while (offset < end) {
+            final int b1 = _octetBuffer[offset++] & 0xFF;
+            if (DecoderStateTables.UTF8(b1) == DecoderStateTables.UTF8_ONE_BYTE) {
+                _latin1Buffer[length++] = (byte) b1;
+            } else if ((b1 & 0xFE) == 0xC2 && offset < end
+                    && (_octetBuffer[offset] & 0xC0) == 0x80) {
+                _latin1Buffer[length++] = (byte) (((b1 & 0x1F) << 6) | (_octetBuffer[offset++] & 0x3F));
+            } else {
+                return null;
+            }
+        }
+        
+        _octetBufferOffset = end;
+        _charBufferLength = length;
+        return new String(_latin1Buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+    
     protected final void decodeUtf16StringAsCharBuffer() throws IOException {
         ensureOctetBufferSize();
         decodeUtf16StringIntoCharBuffer();
@@ -1386,6 +2018,10 @@ public abstract class Decoder implements FastInfosetParser {
     
     private void ensureOctetBufferSize() throws IOException {
         if (_octetBufferEnd < (_octetBufferOffset + _octetBufferLength)) {
+            if (_octetBufferIsInput) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            
             final int octetsInBuffer = _octetBufferEnd - _octetBufferOffset;
             
             if (_octetBuffer.length < _octetBufferLength) {
@@ -1401,7 +2037,7 @@ public abstract class Decoder implements FastInfosetParser {
             _octetBufferOffset = 0;
             
             // Read as many octets as possible to fill the buffer
-            final int octetsRead = _s.read(_octetBuffer, octetsInBuffer, _octetBuffer.length - octetsInBuffer);
+            final int octetsRead = readInput(_octetBuffer, octetsInBuffer, _octetBuffer.length - octetsInBuffer);
             if (octetsRead < 0) {
                 throw new EOFException("Unexpeceted EOF");
             }
@@ -1419,7 +2055,7 @@ public abstract class Decoder implements FastInfosetParser {
         // Check if the number of octets that have been read is not enough
         while (_octetBufferEnd < _octetBufferLength) {
             // Read as many octets as possible to fill the buffer
-            final int octetsRead = _s.read(_octetBuffer, _octetBufferEnd, _octetBuffer.length - _octetBufferEnd);
+            final int octetsRead = readInput(_octetBuffer, _octetBufferEnd, _octetBuffer.length - _octetBufferEnd);
             if (octetsRead < 0) {
                 throw new EOFException("Unexpeceted EOF");
             }
@@ -1436,11 +2072,20 @@ public abstract class Decoder implements FastInfosetParser {
         final int end = _octetBufferLength + _octetBufferOffset;
         int b1;
         while (end != _octetBufferOffset) {
-            b1 = _octetBuffer[_octetBufferOffset++] & 0xFF;
-            if (DecoderStateTables.UTF8(b1) == DecoderStateTables.UTF8_ONE_BYTE) {
-                _charBuffer[_charBufferLength++] = (char) b1;
-            } else {
-                decodeTwoToFourByteUtf8Character(b1, end);
+            final int ascii = decodeAsciiOctets(_octetBuffer, _octetBufferOffset, end,
+                    _charBuffer, _charBufferLength);
+            _octetBufferOffset += ascii;
+            _charBufferLength += ascii;
+            
+            // Decode at least the block of octets that is not ASCII
+            final int blockEnd = Math.min(end, _octetBufferOffset + ASCII_BLOCK_SIZE);
+            while (blockEnd > _octetBufferOffset) {
+                b1 = _octetBuffer[_octetBufferOffset++] & 0xFF;
+                if (DecoderStateTables.UTF8(b1) == DecoderStateTables.UTF8_ONE_BYTE) {
+                    _charBuffer[_charBufferLength++] = (char) b1;
+                } else {
+                    decodeTwoToFourByteUtf8Character(b1, end);
+                }
             }
         }
     }
@@ -1450,16 +2095,61 @@ public abstract class Decoder implements FastInfosetParser {
         final int end = _octetBufferLength + _octetBufferOffset;
         int b1;
         while (end != _octetBufferOffset) {
-            b1 = _octetBuffer[_octetBufferOffset++] & 0xFF;
-            if (DecoderStateTables.UTF8(b1) == DecoderStateTables.UTF8_ONE_BYTE) {
-                ch[_charBufferLength++] = (char) b1;
-            } else {
-                decodeTwoToFourByteUtf8Character(ch, b1, end);
+            final int ascii = decodeAsciiOctets(_octetBuffer, _octetBufferOffset, end,
+                    ch, _charBufferLength);
+            _octetBufferOffset += ascii;
+            _charBufferLength += ascii;
+            
+            // Decode at least the block of octets that is not ASCII
+            final int blockEnd = Math.min(end, _octetBufferOffset + ASCII_BLOCK_SIZE);
+            while (blockEnd > _octetBufferOffset) {
+                b1 = _octetBuffer[_octetBufferOffset++] & 0xFF;
+                if (DecoderStateTables.UTF8(b1) == DecoderStateTables.UTF8_ONE_BYTE) {
+                    ch[_charBufferLength++] = (char) b1;
+                } else {
+                    decodeTwoToFourByteUtf8Character(ch, b1, end);
+                }
             }
         }
         _charBufferLength -= offset;
     }
     
+    private static final int ASCII_BLOCK_SIZE = 8;
+    
+    private static final long ASCII_HIGH_BITS = 0x8080808080808080L;
+    
+    private static final long ASCII_SPACES = 0x2020202020202020L;
+    
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    
+    /**
+     * Decode a run of octets that are UTF-8 encoded characters in the range
+     * [#x20, #x7F], one block of eight octets at a time.
+     * <p>
+     * All the octets of a block are tested at once, the run ends at the
+     * first block containing an octet that is not in the range, or when
+     * less than a block of octets remain.
+     *
+     * @return the number of octets decoded, which is the number of
+     *         characters decoded.
+     */
+    private static int decodeAsciiOctets(byte[] b, int offset, int end, char[] ch, int chOffset) {
+        final int start = offset;
+        while (end - offset >= ASCII_BLOCK_SIZE) {
+            final long w = (long) LONG_VIEW.get(b, offset);
+            // Test for octets >= 0x80 or < 0x20
+            if (((w | ((w - ASCII_SPACES) & ~w)) & ASCII_HIGH_BITS) != 0) {
+                break;
+            }
+            
+            for (int i = 0; i < ASCII_BLOCK_SIZE; i++) {
+                ch[chOffset++] = (char) b[offset++];
+            }
+        }
+        return offset - start;
+    }
+    
     private void decodeTwoToFourByteUtf8Character(int b1, int end) throws IOException {
         switch(DecoderStateTables.UTF8(b1)) {
             case DecoderStateTables.UTF8_TWO_BYTES:
@@ -1791,11 +2481,35 @@ public abstract class Decoder implements FastInfosetParser {
         }
     }
     
+    /**
+     * Read octets of the document from the input buffer or the input stream.
+     */
+    private int readInput(byte[] b, int off, int len) throws IOException {
+        if (_inputBuffer == null) {
+            return _s.read(b, off, len);
+        } else if (!_inputBuffer.hasRemaining()) {
+            // Cross to the next window of a mapped file
+            final ByteBuffer window = (_inputWindows != null) ? _inputWindows.nextWindow() : null;
+            if (window == null) {
+                return -1;
+            }
+            _inputBuffer = window;
+        }
+        
+        len = Math.min(len, _inputBuffer.remaining());
+        _inputBuffer.get(b, off, len);
+        return len;
+    }
+    
     protected final int read() throws IOException {
         if (_octetBufferOffset < _octetBufferEnd) {
             return _octetBuffer[_octetBufferOffset++] & 0xFF;
         } else {
-            _octetBufferEnd = _s.read(_octetBuffer);
+            if (_octetBufferIsInput) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            
+            _octetBufferEnd = readInput(_octetBuffer, 0, _octetBuffer.length);
             if (_octetBufferEnd < 0) {
                 throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
             }
@@ -1819,11 +2533,15 @@ public abstract class Decoder implements FastInfosetParser {
         if (_octetBufferOffset < _octetBufferEnd) {
             return _octetBuffer[_octetBufferOffset] & 0xFF;
         } else {
+            if (_octetBufferIsInput) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            
             if (octetBufferListener != null) {
                 octetBufferListener.onBeforeOctetBufferOverwrite();
             }
             
-            _octetBufferEnd = _s.read(_octetBuffer);
+            _octetBufferEnd = readInput(_octetBuffer, 0, _octetBuffer.length);
             if (_octetBufferEnd < 0) {
                 throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
             }
@@ -1837,6 +2555,10 @@ public abstract class Decoder implements FastInfosetParser {
         if (_octetBufferOffset + 1 < _octetBufferEnd) {
             return _octetBuffer[_octetBufferOffset + 1] & 0xFF;
         } else {
+            if (_octetBufferIsInput) {
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            
             if (octetBufferListener != null) {
                 octetBufferListener.onBeforeOctetBufferOverwrite();
             }
@@ -1846,7 +2568,7 @@ public abstract class Decoder implements FastInfosetParser {
                 _octetBuffer[0] = _octetBuffer[_octetBufferOffset];
                 offset = 1;
             }
-            _octetBufferEnd = _s.read(_octetBuffer, offset, _octetBuffer.length - offset);
+            _octetBufferEnd = readInput(_octetBuffer, offset, _octetBuffer.length - offset);
             
             if (_octetBufferEnd < 0) {
                 throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
@@ -1903,27 +2625,248 @@ public abstract class Decoder implements FastInfosetParser {
         }
     }
     
+    /**
+     * A stream that decompresses a fast infoset document from the zlib
+     * format, whose decompressor and buffer are reused for each document.
+     * <p>
+     * A preset dictionary is selected from the external vocabularies by
+     * the identifier of the dictionary.
+     */
+    private final class TransportInputStream extends InputStream {
+        private static final int BUFFER_SIZE = 4096;
+        
+        private final Inflater _inflater = new Inflater();
+        
+        private final byte[] _buffer = new byte[BUFFER_SIZE];
+        
+        private final byte[] _octet = new byte[1];
+        
+        private InputStream _in;
+        
+        /**
+         * The number of octets decompressed.
+         */
+        private long _length;
+        
+        /**
+         * Reset the decompressor to decompress a document from a stream.
+         */
+        void reset(InputStream s) {
+            _in = s;
+            _inflater.reset();
+            _length = 0;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            return (read(_octet, 0, 1) == -1) ? -1 : _octet[0] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            
+            try {
+                int n;
+                while ((n = _inflater.inflate(b, off, len)) == 0) {
+                    if (_inflater.finished()) {
+                        return -1;
+                    } else if (_inflater.needsDictionary()) {
+                        _inflater.setDictionary(getPresetDictionary(_inflater.getAdler()));
+                    } else if (_inflater.needsInput()) {
+                        final int read = _in.read(_buffer);
+                        if (read == -1) {
+                            return -1;
+                        }
+                        _inflater.setInput(_buffer, 0, read);
+                    }
+                }
+                _length += n;
+                if (_length > _transportCompressionMaximumLength) {
+                    final String message = CommonResourceBundle.getInstance().getString(
+                            "message.transportDataTooLarge", new Object[]{_transportCompressionMaximumLength});
+                    throw new IOException(message, new FastInfosetException(message));
+                }
+                return n;
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+        
+        private byte[] getPresetDictionary(int id) throws IOException {
+            if (_externalVocabularies != null) {
+                for (Map.Entry<String, ParserVocabulary> e : _externalVocabularies.entrySet()) {
+                    ParserVocabulary v;
+                    final Object o = e.getValue();
+                    if (o instanceof ExternalVocabulary) {
+                        v = new ParserVocabulary(((ExternalVocabulary) o).vocabulary);
+                        e.setValue(v);
+                    } else if (o instanceof ParserVocabulary) {
+                        v = (ParserVocabulary) o;
+                    } else {
+                        continue;
+                    }
+                    
+                    if (v.getPresetDictionaryId() == id) {
+                        return v.getPresetDictionary();
+                    }
+                }
+            }
+            throw new ZipException(CommonResourceBundle.getInstance().getString("message.transportDictionary"));
+        }
+        
+        @Override
+        public void close() throws IOException {
+            _in.close();
+        }
+    }
+    
+    /**
+     * A stream of the octets of a restricted alphabet or encoding algorithm,
+     * which reads the octets from the octet buffer and then from the
+     * underlying stream.
+     * <p>
+     * Reads that are larger than the octet buffer are performed directly
+     * into the array supplied by the caller, otherwise the octet buffer is
+     * refilled. The octet buffer never grows.
+     */
+    protected final class OctetStringInputStream extends InputStream {
+        private int _remaining;
+        
+        private final int _length;
+        
+        OctetStringInputStream(int length) {
+            _remaining = _length = length;
+        }
+        
+        /**
+         * @return true if no octets have been read.
+         */
+        public boolean isUnread() {
+            return _remaining == _length;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            if (_remaining == 0) {
+                return -1;
+            }
+            
+            if (_octetBufferOffset == _octetBufferEnd) {
+                fill();
+            }
+            _remaining--;
+            return _octetBuffer[_octetBufferOffset++] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (b == null) {
+                throw new NullPointerException();
+            } else if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            } else if (_remaining == 0) {
+                return -1;
+            }
+            
+            len = Math.min(len, _remaining);
+            if (_octetBufferOffset == _octetBufferEnd) {
+                if (len >= _octetBuffer.length) {
+                    // Read directly into the caller's array
+                    final int octetsRead = readInput(b, off, len);
+                    if (octetsRead < 0) {
+                        throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+                    }
+                    _remaining -= octetsRead;
+                    return octetsRead;
+                }
+                fill();
+            }
+            
+            len = Math.min(len, _octetBufferEnd - _octetBufferOffset);
+            System.arraycopy(_octetBuffer, _octetBufferOffset, b, off, len);
+            _octetBufferOffset += len;
+            _remaining -= len;
+            return len;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0 || _remaining == 0) {
+                return 0;
+            }
+            
+            if (_octetBufferOffset == _octetBufferEnd) {
+                fill();
+            }
+            final int skipped = (int)Math.min(n, Math.min(_remaining, _octetBufferEnd - _octetBufferOffset));
+            _octetBufferOffset += skipped;
+            _remaining -= skipped;
+            return skipped;
+        }
+        
+        @Override
+        public int available() {
+            return Math.min(_remaining, _octetBufferEnd - _octetBufferOffset);
+        }
+        
+        /**
+         * Skip the octets that have not been read, after which decoding of
+         * information items may continue.
+         */
+        public void skipRemaining() throws IOException {
+            while (_remaining > 0) {
+                skip(_remaining);
+            }
+        }
+        
+        /**
+         * Skips the octets that have not been read, the underlying stream
+         * is not closed.
+         */
+        @Override
+        public void close() throws IOException {
+            skipRemaining();
+        }
+        
+        private void fill() throws IOException {
+            _octetBufferEnd = readInput(_octetBuffer, 0, _octetBuffer.length);
+            if (_octetBufferEnd < 0) {
+                _octetBufferEnd = _octetBufferOffset;
+                throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+            }
+            _octetBufferOffset = 0;
+        }
+    }
+    
     protected final boolean _isFastInfosetDocument() throws IOException {
         // Fill up the octet buffer
         peek();
         
         _octetBufferLength = EncodingConstants.BINARY_HEADER.length;
         ensureOctetBufferSize();
+        // The document may not start at the beginning of an application
+        // supplied array of octets
+        final int start = _octetBufferOffset;
         _octetBufferOffset += _octetBufferLength;
         
         // Check for binary header
-        if (_octetBuffer[0] != EncodingConstants.BINARY_HEADER[0] ||
-                _octetBuffer[1] != EncodingConstants.BINARY_HEADER[1] ||
-                _octetBuffer[2] != EncodingConstants.BINARY_HEADER[2] ||
-                _octetBuffer[3] != EncodingConstants.BINARY_HEADER[3]) {
+        if (_octetBuffer[start] != EncodingConstants.BINARY_HEADER[0] ||
+                _octetBuffer[start + 1] != EncodingConstants.BINARY_HEADER[1] ||
+                _octetBuffer[start + 2] != EncodingConstants.BINARY_HEADER[2] ||
+                _octetBuffer[start + 3] != EncodingConstants.BINARY_HEADER[3]) {
             
             // Check for each form of XML declaration
             for (byte[] values : EncodingConstants.XML_DECLARATION_VALUES) {
-                _octetBufferLength = values.length - _octetBufferOffset;
+                _octetBufferLength = values.length - (_octetBufferOffset - start);
                 ensureOctetBufferSize();
                 _octetBufferOffset += _octetBufferLength;
                 // Check XML declaration
-                if (arrayEquals(_octetBuffer, 0, values, values.length)) {
+                if (arrayEquals(_octetBuffer, start, values, values.length)) {
                     _octetBufferLength = EncodingConstants.BINARY_HEADER.length;
                     ensureOctetBufferSize();
                     
@@ -20,19 +20,31 @@
 package com.sun.xml.fastinfoset;
 
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
+import com.sun.xml.fastinfoset.alphabet.RestrictedAlphabetCodeTable;
 import com.sun.xml.fastinfoset.org.apache.xerces.util.XMLChar;
+import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayIntMap;
 import com.sun.xml.fastinfoset.util.KeyIntMap;
 import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
 import com.sun.xml.fastinfoset.util.StringIntMap;
+import com.sun.xml.fastinfoset.util.TableAdmission;
+import com.sun.xml.fastinfoset.vocab.FrozenSerializerVocabulary;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
+import org.jvnet.fastinfoset.BufferRecycler;
+import org.jvnet.fastinfoset.ByteBufferPool;
+import org.jvnet.fastinfoset.ByteBufferSink;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
@@ -40,6 +52,7 @@ import org.jvnet.fastinfoset.ExternalVocabulary;
 import org.jvnet.fastinfoset.FastInfosetException;
 import org.jvnet.fastinfoset.FastInfosetSerializer;
 import org.jvnet.fastinfoset.RestrictedAlphabet;
+import org.jvnet.fastinfoset.TableStatistics;
 import org.jvnet.fastinfoset.VocabularyApplicationData;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -62,6 +75,12 @@ import org.xml.sax.helpers.DefaultHandler;
  * Combining buffering with encoding enables better performance.
  *
  * <p>
+ * Alternatively octets may be written to buffers acquired from a
+ * {@link ByteBufferPool}, which are passed to a {@link ByteBufferSink} or
+ * written to a {@link WritableByteChannel} when full. Buffers backed by an
+ * array are encoded to in place.
+ *
+ * <p>
  * More than one fast infoset document may be encoded to the
  * {@link java.io.OutputStream}.
  *
@@ -81,6 +100,18 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     protected static final String _characterEncodingSchemeSystemDefault = getDefaultEncodingScheme();
 
+    /**
+     * The maximum number of octets of the encoded length of an octet string.
+     */
+    private static final int OCTET_STRING_LENGTH_MAXIMUM_SIZE = 5;
+
+    /**
+     * The maximum number of characters of a string whose UTF-8 encoding
+     * may be encoded directly into the internal buffer.
+     */
+    private static final int MAXIMUM_IN_PLACE_UTF8_STRING_LENGTH =
+        (Integer.MAX_VALUE - OCTET_STRING_LENGTH_MAXIMUM_SIZE) / 3;
+
     private static String getDefaultEncodingScheme() {
         String p = System.getProperty(CHARACTER_ENCODING_SCHEME_SYSTEM_PROPERTY,
             UTF_8);
@@ -218,6 +249,18 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     protected int _octetBufferIndex;
 
+    /**
+     * The output to pooled buffers, or null if octets are written to an
+     * {@link java.io.OutputStream}.
+     */
+    private ByteBufferOutput _byteBufferOutput;
+
+    /**
+     * The internal buffer of bytes, saved while the array of a pooled
+     * buffer is encoded to.
+     */
+    private byte[] _internalOctetBuffer;
+
     /**
      * The current mark in the internal buffer.
      *
@@ -238,6 +281,13 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     protected int maxAttributeValueSize = FastInfosetSerializer.MAX_ATTRIBUTE_VALUE_SIZE;
 
+    /**
+     * The maximum size of [normalized value] of Attribute Information
+     * Items that will be indexed, as adapted to the hit rate of the table
+     * of attribute values, at most the maximum size.
+     */
+    private int _adaptedMaxAttributeValueSize = FastInfosetSerializer.MAX_ATTRIBUTE_VALUE_SIZE;
+
     /**
      * The limit on the size of indexed Map for attribute values
      * Limit is measured in characters number
@@ -258,12 +308,142 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     protected int maxCharacterContentChunkSize = FastInfosetSerializer.MAX_CHARACTER_CONTENT_CHUNK_SIZE;
 
+    /**
+     * The maximum size of character content chunks that will be indexed,
+     * as adapted to the hit rate of the table of character content chunks,
+     * at most the maximum size.
+     */
+    private int _adaptedMaxCharacterContentChunkSize = FastInfosetSerializer.MAX_CHARACTER_CONTENT_CHUNK_SIZE;
+
+    /**
+     * The URI of the encoding algorithm used to compress character content
+     * chunks, or null if character content chunks are not compressed.
+     */
+    private String _characterContentCompressionAlgorithmURI;
+
+    /**
+     * The compressor of character content chunks, reused for each chunk of
+     * a document, and the algorithm that created it.
+     */
+    private Deflater _compressionDeflater;
+
+    private DeflateEncodingAlgorithm _compressionDeflaterAlgorithm;
+
+    /**
+     * The minimum size of character content chunks of Character Information
+     * Items that will be compressed.
+     */
+    protected int minCompressedCharacterContentChunkSize = FastInfosetSerializer.MIN_COMPRESSED_CHARACTER_CONTENT_CHUNK_SIZE;
+
+    /**
+     * True if the fast infoset document written to an OutputStream is
+     * compressed.
+     */
+    private boolean _transportCompression;
+
+    /**
+     * The level of the transport compression.
+     */
+    private int _transportCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * The vocabulary the preset dictionary of the transport compression is
+     * created from when first required, or null.
+     */
+    private org.jvnet.fastinfoset.Vocabulary _transportCompressionVocabulary;
+
+    /**
+     * The preset dictionary of the transport compression, or null.
+     */
+    private byte[] _transportCompressionDictionary;
+
+    /**
+     * The compressed stream, reused for each document.
+     */
+    private TransportOutputStream _transportOutputStream;
+
+    /**
+     * The recycler the working buffers are borrowed from, or null.
+     */
+    private BufferRecycler _bufferRecycler;
+
+    /**
+     * The internal buffer of bytes, retained while a buffer borrowed from
+     * the recycler is used, otherwise null.
+     */
+    private byte[] _ownedOctetBuffer;
+
+    /**
+     * The internal buffer of characters, retained while a buffer borrowed
+     * from the recycler is used, otherwise null.
+     */
+    private char[] _ownedCharBuffer;
+
+    /**
+     * The internal encoding buffer, retained while a buffer borrowed from
+     * the recycler is used, otherwise null.
+     */
+    private byte[] _ownedEncodingBuffer;
+
+    /**
+     * True if documents are encoded in session mode.
+     */
+    private boolean _session;
+
+    /**
+     * The session checkpoint of the next document, zero if the dynamic
+     * vocabulary is cleared when encoding the next document.
+     */
+    private int _sessionCheckpoint;
+
+    /**
+     * The limit on the number of entries of each dynamic table of non
+     * identifying strings.
+     */
+    private int _dynamicTableSizeLimit = Integer.MAX_VALUE;
+
+    /**
+     * True if the names of elements and attributes are interned.
+     */
+    private boolean _internedNames;
+
     /**
      * The limit on the size of indexed Map for character content chunks
      * Limit is measured in characters number
      */
     protected int characterContentChunkMapTotalCharactersConstraint = FastInfosetSerializer.CHARACTER_CONTENT_CHUNK_MAP_MEMORY_CONSTRAINT / 2;
 
+    /**
+     * The minimum number of times an attribute value is seen before it is
+     * indexed.
+     */
+    private int _minAttributeValueFrequency = 1;
+
+    /**
+     * The minimum number of times a character content chunk is seen
+     * before it is indexed.
+     */
+    private int _minCharacterContentChunkFrequency = 1;
+
+    /**
+     * True if the maximum sizes of the strings indexed are adapted to the
+     * hit rates of the tables after each document.
+     */
+    private boolean _adaptiveMaxSize;
+
+    /**
+     * The admission of attribute values by frequency, null if every
+     * attribute value is admitted and the maximum size is not adapted.
+     */
+    private TableAdmission _attributeValueAdmission;
+
+    /**
+     * The admission of character content chunks by frequency, null if
+     * every character content chunk is admitted and the maximum size is
+     * not adapted.
+     */
+    private TableAdmission _characterContentChunkAdmission;
+
     /**
      * Default constructor for the Encoder.
      */
@@ -377,6 +557,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         }
 
         maxCharacterContentChunkSize = size;
+        _adaptedMaxCharacterContentChunkSize = size;
     }
 
     @Override
@@ -401,7 +582,107 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     public boolean isCharacterContentChunkLengthMatchesLimit(int length) {
         return length >= minCharacterContentChunkSize &&
-                length < maxCharacterContentChunkSize;
+                length < _adaptedMaxCharacterContentChunkSize;
+    }
+
+    @Override
+    public void setCharacterContentCompressionAlgorithmURI(String URI) {
+        _characterContentCompressionAlgorithmURI = URI;
+    }
+
+    @Override
+    public String getCharacterContentCompressionAlgorithmURI() {
+        return _characterContentCompressionAlgorithmURI;
+    }
+
+    @Override
+    public void setMinCompressedCharacterContentChunkSize(int size) {
+        if (size < 1) {
+            size = 1;
+        }
+
+        minCompressedCharacterContentChunkSize = size;
+    }
+
+    @Override
+    public int getMinCompressedCharacterContentChunkSize() {
+        return minCompressedCharacterContentChunkSize;
+    }
+
+    @Override
+    public void setTransportCompression(boolean compression) {
+        _transportCompression = compression;
+    }
+
+    @Override
+    public boolean getTransportCompression() {
+        return _transportCompression;
+    }
+
+    @Override
+    public void setTransportCompressionLevel(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalCompressionLevel", new Object[]{level}));
+        }
+        _transportCompressionLevel = level;
+    }
+
+    @Override
+    public int getTransportCompressionLevel() {
+        return _transportCompressionLevel;
+    }
+
+    @Override
+    public void setSession(boolean session) {
+        _session = session;
+        _sessionCheckpoint = 0;
+    }
+
+    @Override
+    public boolean getSession() {
+        return _session;
+    }
+
+    @Override
+    public void resetSession() {
+        _sessionCheckpoint = 0;
+    }
+
+    @Override
+    public void setDynamicTableSizeLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalTableSizeLimit", new Object[]{limit}));
+        }
+        _dynamicTableSizeLimit = limit;
+    }
+
+    @Override
+    public int getDynamicTableSizeLimit() {
+        return _dynamicTableSizeLimit;
+    }
+
+    @Override
+    public void setInternedNames(boolean interned) {
+        _internedNames = interned;
+    }
+
+    @Override
+    public boolean getInternedNames() {
+        return _internedNames;
+    }
+
+    @Override
+    public void setBufferRecycler(BufferRecycler recycler) {
+        releaseBuffers();
+        _bufferRecycler = recycler;
+    }
+
+    @Override
+    public BufferRecycler getBufferRecycler() {
+        return _bufferRecycler;
     }
 
     /**
@@ -443,6 +724,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         }
 
         maxAttributeValueSize = size;
+        _adaptedMaxAttributeValueSize = size;
     }
 
     @Override
@@ -468,7 +750,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     public boolean isAttributeValueLengthMatchesLimit(int length) {
         return length >= minAttributeValueSize &&
-                length < maxAttributeValueSize;
+                length < _adaptedMaxAttributeValueSize;
     }
 
     /**
@@ -483,6 +765,165 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
                         attributeValueMapTotalCharactersConstraint;
     }
 
+    @Override
+    public int getMinAttributeValueFrequency() {
+        return _minAttributeValueFrequency;
+    }
+
+    @Override
+    public void setMinAttributeValueFrequency(int frequency) {
+        TableAdmission.checkMinFrequency(frequency);
+        _minAttributeValueFrequency = frequency;
+        _attributeValueAdmission = createAdmission(frequency);
+    }
+
+    @Override
+    public int getMinCharacterContentChunkFrequency() {
+        return _minCharacterContentChunkFrequency;
+    }
+
+    @Override
+    public void setMinCharacterContentChunkFrequency(int frequency) {
+        TableAdmission.checkMinFrequency(frequency);
+        _minCharacterContentChunkFrequency = frequency;
+        _characterContentChunkAdmission = createAdmission(frequency);
+    }
+
+    @Override
+    public void setAdaptiveMaxSize(boolean adaptive) {
+        _adaptiveMaxSize = adaptive;
+        _attributeValueAdmission = createAdmission(_minAttributeValueFrequency);
+        _characterContentChunkAdmission = createAdmission(_minCharacterContentChunkFrequency);
+        _adaptedMaxAttributeValueSize = maxAttributeValueSize;
+        _adaptedMaxCharacterContentChunkSize = maxCharacterContentChunkSize;
+    }
+
+    @Override
+    public boolean getAdaptiveMaxSize() {
+        return _adaptiveMaxSize;
+    }
+
+    /**
+     * Gets the maximum size of attribute values that will be indexed, as
+     * adapted to the hit rate of the table of attribute values.
+     *
+     * @return the adapted maximum attribute value size.
+     */
+    public int getAdaptedMaxAttributeValueSize() {
+        return _adaptedMaxAttributeValueSize;
+    }
+
+    /**
+     * Gets the maximum size of character content chunks that will be
+     * indexed, as adapted to the hit rate of the table of character
+     * content chunks.
+     *
+     * @return the adapted maximum character content chunk size.
+     */
+    public int getAdaptedMaxCharacterContentChunkSize() {
+        return _adaptedMaxCharacterContentChunkSize;
+    }
+
+    @Override
+    public TableStatistics getAttributeValueStatistics() {
+        return _attributeValueAdmission;
+    }
+
+    @Override
+    public TableStatistics getCharacterContentChunkStatistics() {
+        return _characterContentChunkAdmission;
+    }
+
+    /**
+     * Gets the admission of attribute values, recording the attribute
+     * values found in, added to and not admitted to the table since the
+     * minimum attribute value frequency was set.
+     *
+     * @return the admission, or null if every attribute value is admitted
+     *         and the maximum size is not adapted.
+     */
+    public TableAdmission getAttributeValueAdmission() {
+        return _attributeValueAdmission;
+    }
+
+    /**
+     * Gets the admission of character content chunks, recording the
+     * chunks found in, added to and not admitted to the table since the
+     * minimum character content chunk frequency was set.
+     *
+     * @return the admission, or null if every chunk is admitted and the
+     *         maximum size is not adapted.
+     */
+    public TableAdmission getCharacterContentChunkAdmission() {
+        return _characterContentChunkAdmission;
+    }
+
+    private TableAdmission createAdmission(int frequency) {
+        return (frequency > 1 || _adaptiveMaxSize) ? new TableAdmission(frequency) : null;
+    }
+
+    /**
+     * Adapt the maximum sizes of the strings indexed to the hit rates of
+     * the tables, between the minimum and maximum sizes.
+     */
+    private void adaptMaxSizes() {
+        if (_attributeValueAdmission != null) {
+            _adaptedMaxAttributeValueSize = _attributeValueAdmission.adaptMaximumSize(
+                    _adaptedMaxAttributeValueSize, minAttributeValueSize + 1, maxAttributeValueSize);
+        }
+        if (_characterContentChunkAdmission != null) {
+            _adaptedMaxCharacterContentChunkSize = _characterContentChunkAdmission.adaptMaximumSize(
+                    _adaptedMaxCharacterContentChunkSize, minCharacterContentChunkSize + 1,
+                    maxCharacterContentChunkSize);
+        }
+    }
+
+    /**
+     * Checks whether an attribute value that could be added to the table
+     * has been seen often enough to be added.
+     * <p>
+     * An attribute value that is present in the table is not admitted, as
+     * it is then obtained from the table without being added.
+     *
+     * @param s the attribute value.
+     * @param map the table of attribute values.
+     * @return whether the attribute value should be added.
+     */
+    private boolean admitAttributeValue(String s, StringIntMap map) {
+        final TableAdmission admission = _attributeValueAdmission;
+        if (admission == null) {
+            return true;
+        } else if (map.get(s) != KeyIntMap.NOT_PRESENT) {
+            admission.hit();
+            return false;
+        }
+        return admission.admit(s.hashCode());
+    }
+
+    /**
+     * Checks whether a character content chunk that could be added to the
+     * table has been seen often enough to be added.
+     * <p>
+     * A chunk that is present in the table is not admitted, as it is then
+     * obtained from the table without being added.
+     *
+     * @param ch the array of characters.
+     * @param offset the offset into the array of characters.
+     * @param length the length of characters.
+     * @param map the table of character content chunks.
+     * @return whether the chunk should be added.
+     */
+    private boolean admitCharacterContentChunk(char[] ch, int offset, int length, CharArrayIntMap map) {
+        final TableAdmission admission = _characterContentChunkAdmission;
+        if (admission == null) {
+            return true;
+        } else if (map.get(ch, offset, length) != KeyIntMap.NOT_PRESENT) {
+            admission.hit();
+            return false;
+        }
+        return admission.admit(CharArray.hashCode(ch, offset, length));
+    }
+
     @Override
     public void setExternalVocabulary(ExternalVocabulary v) {
         // Create internal serializer vocabulary
@@ -494,6 +935,38 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
                 ev, false);
 
         _vIsInternal = true;
+        _sessionCheckpoint = 0;
+        _transportCompressionVocabulary = v.vocabulary;
+        _transportCompressionDictionary = null;
+    }
+
+    /**
+     * Set the external vocabulary as a frozen vocabulary.
+     * <p>
+     * A frozen vocabulary is compiled once and may be shared by many
+     * serializers, which avoids building the tables of the external
+     * vocabulary for each serializer.
+     *
+     * @param externalVocabularyURI the URI of the external vocabulary.
+     * @param v the frozen vocabulary, whose qualified names must be keyed
+     *        in the same way as those of this serializer.
+     */
+    public void setExternalVocabulary(String externalVocabularyURI, FrozenSerializerVocabulary v) {
+        if (v.isLocalNameUsedAsKey() != _useLocalNameAsKeyForQualifiedNameLookup) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalQualifiedNameKey"));
+        }
+
+        // Create internal serializer vocabulary, whose tables must be
+        // chained to have a frozen read only vocabulary
+        _v = new SerializerVocabulary(false);
+        _v.setExternalVocabulary(externalVocabularyURI,
+                v, false);
+
+        _vIsInternal = true;
+        _sessionCheckpoint = 0;
+        _transportCompressionVocabulary = null;
+        _transportCompressionDictionary = v.getPresetDictionary();
     }
 
     @Override
@@ -516,6 +989,50 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         _terminate = false;
     }
 
+    /**
+     * Restore the properties of the encoder to their defaults.
+     * <p>
+     * The properties set using the {@link FastInfosetSerializer} interface
+     * and the vocabulary are restored, so that an encoder may be reused by
+     * another application, such as when an encoder is retained by a pool.
+     * The internal vocabulary, without an external vocabulary, and the
+     * sizes of the internal buffers are retained.
+     */
+    protected void restoreDefaultProperties() {
+        _ignoreDTD = false;
+        _ignoreComments = false;
+        _ignoreProcessingInstructions = false;
+        _ignoreWhiteSpaceTextContent = false;
+        setCharacterEncodingScheme(_characterEncodingSchemeSystemDefault);
+        _registeredEncodingAlgorithms = new HashMap<>();
+        minAttributeValueSize = FastInfosetSerializer.MIN_ATTRIBUTE_VALUE_SIZE;
+        maxAttributeValueSize = FastInfosetSerializer.MAX_ATTRIBUTE_VALUE_SIZE;
+        attributeValueMapTotalCharactersConstraint = FastInfosetSerializer.ATTRIBUTE_VALUE_MAP_MEMORY_CONSTRAINT / 2;
+        minCharacterContentChunkSize = FastInfosetSerializer.MIN_CHARACTER_CONTENT_CHUNK_SIZE;
+        maxCharacterContentChunkSize = FastInfosetSerializer.MAX_CHARACTER_CONTENT_CHUNK_SIZE;
+        characterContentChunkMapTotalCharactersConstraint = FastInfosetSerializer.CHARACTER_CONTENT_CHUNK_MAP_MEMORY_CONSTRAINT / 2;
+        _characterContentCompressionAlgorithmURI = null;
+        minCompressedCharacterContentChunkSize = FastInfosetSerializer.MIN_COMPRESSED_CHARACTER_CONTENT_CHUNK_SIZE;
+        _transportCompression = false;
+        _transportCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+        _session = false;
+        _dynamicTableSizeLimit = Integer.MAX_VALUE;
+        _internedNames = false;
+        _minAttributeValueFrequency = 1;
+        _minCharacterContentChunkFrequency = 1;
+        setAdaptiveMaxSize(false);
+        setBufferRecycler(null);
+        _vData = null;
+        
+        if (!_vIsInternal || _v.hasExternalVocabulary()) {
+            _v = null;
+            _vIsInternal = false;
+        }
+        _sessionCheckpoint = 0;
+        _transportCompressionVocabulary = null;
+        _transportCompressionDictionary = null;
+    }
+
     /**
      * Set the OutputStream to encode the XML infoset to a
      * fast infoset document.
@@ -524,9 +1041,82 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      */
     @Override
     public void setOutputStream(OutputStream s) {
+        releaseByteBufferOutput();
+        _octetBufferIndex = 0;
+        _markIndex = -1;
+        _s = (_transportCompression) ? getTransportOutputStream(s) : s;
+    }
+
+    private OutputStream getTransportOutputStream(OutputStream s) {
+        if (_transportCompressionDictionary == null && _transportCompressionVocabulary != null) {
+            _transportCompressionDictionary = DeflateEncodingAlgorithm.createDictionary(_transportCompressionVocabulary);
+            _transportCompressionVocabulary = null;
+        }
+
+        if (_transportOutputStream == null
+                || _transportOutputStream.getLevel() != _transportCompressionLevel) {
+            _transportOutputStream = new TransportOutputStream(_transportCompressionLevel);
+        }
+        _transportOutputStream.reset(s, _transportCompressionDictionary);
+        return _transportOutputStream;
+    }
+
+    /**
+     * Set the buffers to encode the XML infoset to a fast infoset document.
+     * <p>
+     * Octets are written to buffers acquired from the pool. A buffer is
+     * passed to the sink when it is full and when the encoding of a
+     * fast infoset document has completed.
+     *
+     * @param pool the pool the buffers are acquired from.
+     * @param sink the sink the buffers of encoded octets are passed to.
+     */
+    public void setOutput(ByteBufferPool pool, ByteBufferSink sink) {
+        if (pool == null || sink == null) {
+            throw new NullPointerException();
+        }
+
+        releaseByteBufferOutput();
         _octetBufferIndex = 0;
         _markIndex = -1;
-        _s = s;
+        _byteBufferOutput = new ByteBufferOutput(pool, sink);
+        _s = _byteBufferOutput;
+    }
+
+    /**
+     * Set the channel to encode the XML infoset to a fast infoset document.
+     * <p>
+     * Octets are written to buffers acquired from the pool. A buffer is
+     * written to the channel when it is full and when the encoding of a
+     * fast infoset document has completed, and then released to the pool.
+     *
+     * @param channel the channel where the fast infoset document is written to.
+     * @param pool the pool the buffers are acquired from.
+     */
+    public void setOutput(final WritableByteChannel channel, final ByteBufferPool pool) {
+        if (channel == null) {
+            throw new NullPointerException();
+        }
+
+        setOutput(pool, new ByteBufferSink() {
+            @Override
+            public void write(ByteBuffer b) throws IOException {
+                try {
+                    while (b.hasRemaining()) {
+                        channel.write(b);
+                    }
+                } finally {
+                    pool.release(b);
+                }
+            }
+        });
+    }
+
+    private void releaseByteBufferOutput() {
+        if (_byteBufferOutput != null) {
+            _byteBufferOutput.release();
+            _byteBufferOutput = null;
+        }
     }
 
     /**
@@ -537,6 +1127,9 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
     public void setVocabulary(SerializerVocabulary vocabulary) {
         _v = vocabulary;
         _vIsInternal = false;
+        _sessionCheckpoint = 0;
+        _transportCompressionVocabulary = null;
+        _transportCompressionDictionary = null;
     }
 
     /**
@@ -546,10 +1139,13 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException  on error
      */
     protected final void encodeHeader(boolean encodeXmlDecl) throws IOException {
+        if (_bufferRecycler != null) {
+            borrowBuffers();
+        }
         if (encodeXmlDecl) {
-            _s.write(EncodingConstants.XML_DECLARATION_VALUES[0]);
+            write(EncodingConstants.XML_DECLARATION_VALUES[0], EncodingConstants.XML_DECLARATION_VALUES[0].length);
         }
-        _s.write(EncodingConstants.BINARY_HEADER);
+        write(EncodingConstants.BINARY_HEADER, EncodingConstants.BINARY_HEADER.length);
     }
 
     /**
@@ -561,17 +1157,33 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         if (_v == null) {
             _v = new SerializerVocabulary();
             _vIsInternal = true;
-        } else if (_vIsInternal) {
+        } else if (_vIsInternal && (!_session || _sessionCheckpoint == 0)) {
+            // A session keeps the dynamic vocabulary of the previous documents
             _v.clear();
             if (_vData != null)
                 _vData.clear();
         }
+        _v.setDynamicTableSizeLimit(_dynamicTableSizeLimit);
+        _v.setInternedNames(_internedNames);
+
+        if (_session) {
+            _b = EncodingConstants.DOCUMENT_ADDITIONAL_DATA_FLAG;
+            if (_v.hasInitialVocabulary() || _v.hasExternalVocabulary()) {
+                _b |= EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
+            }
+            write(_b);
+            encodeSessionCheckpoint();
+        }
 
         if (!_v.hasInitialVocabulary() && !_v.hasExternalVocabulary()) {
-            write(0);
+            if (!_session) {
+                write(0);
+            }
         } else if (_v.hasInitialVocabulary()) {
-            _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
-            write(_b);
+            if (!_session) {
+                _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
+                write(_b);
+            }
 
             SerializerVocabulary initialVocabulary = _v.getReadOnlyVocabulary();
 
@@ -588,8 +1200,10 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
 
             // TODO check for contents of vocabulary to encode values
         } else if (_v.hasExternalVocabulary()) {
-            _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
-            write(_b);
+            if (!_session) {
+                _b = EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG;
+                write(_b);
+            }
 
             _b = EncodingConstants.INITIAL_VOCABULARY_EXTERNAL_VOCABULARY_FLAG;
             write(_b);
@@ -599,6 +1213,29 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         }
     }
 
+    /**
+     * Encode the session checkpoint of the document as additional data.
+     * <p>
+     * The checkpoints of the documents of a session are numbered in
+     * sequence, so that a parser can verify that no document of the session
+     * is missing. The checkpoint zero clears the dynamic vocabulary.
+     *
+     * @throws java.io.IOException on error
+     */
+    private void encodeSessionCheckpoint() throws IOException {
+        // One item of additional data
+        write(0);
+        encodeNonEmptyOctetStringOnSecondBit(EncodingConstants.SESSION_CHECKPOINT_URI);
+        encodeNonZeroOctetStringLengthOnSecondBit(EncodingConstants.SESSION_CHECKPOINT_LENGTH);
+        write(_sessionCheckpoint >>> 24);
+        write((_sessionCheckpoint >> 16) & 0xFF);
+        write((_sessionCheckpoint >> 8) & 0xFF);
+        write(_sessionCheckpoint & 0xFF);
+
+        // Wrap to the checkpoint one, zero is reserved for a reset
+        _sessionCheckpoint = (_sessionCheckpoint == Integer.MAX_VALUE) ? 1 : _sessionCheckpoint + 1;
+    }
+
     /**
      * Encode the termination of the Document Information Item.
      *
@@ -608,7 +1245,63 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         encodeElementTermination();
         encodeTermination();
         _flush();
+        if (_s == _transportOutputStream) {
+            _transportOutputStream.finish();
+        }
         _s.flush();
+        if (_adaptiveMaxSize) {
+            adaptMaxSizes();
+        }
+        releaseBuffers();
+    }
+
+    /**
+     * Borrow the working buffers from the recycler. The buffer of bytes
+     * is only borrowed when encoding to an OutputStream and no bytes are
+     * buffered.
+     */
+    private void borrowBuffers() {
+        if (_ownedCharBuffer == null) {
+            _ownedCharBuffer = _charBuffer;
+            _charBuffer = _bufferRecycler.allocateCharacters(_charBuffer.length);
+            _ownedEncodingBuffer = _encodingBuffer;
+            _encodingBuffer = _bufferRecycler.allocateOctets(_encodingBuffer.length);
+        }
+
+        if (_ownedOctetBuffer == null && _byteBufferOutput == null && _octetBufferIndex == 0) {
+            _ownedOctetBuffer = _octetBuffer;
+            _octetBuffer = _bufferRecycler.allocateOctets(_octetBuffer.length);
+        }
+    }
+
+    /**
+     * Release the working buffers borrowed from the recycler, if any, when
+     * a fast infoset document has been encoded. The buffer of bytes is
+     * retained while it holds bytes that are not written or while encoding
+     * to pooled buffers. The compressor of character content chunks is
+     * released.
+     */
+    protected final void releaseBuffers() {
+        if (_compressionDeflater != null) {
+            _compressionDeflater.end();
+            _compressionDeflater = null;
+            _compressionDeflaterAlgorithm = null;
+        }
+
+        if (_ownedCharBuffer != null) {
+            _bufferRecycler.releaseCharacters(_charBuffer);
+            _charBuffer = _ownedCharBuffer;
+            _ownedCharBuffer = null;
+            _bufferRecycler.releaseOctets(_encodingBuffer);
+            _encodingBuffer = _ownedEncodingBuffer;
+            _ownedEncodingBuffer = null;
+        }
+
+        if (_ownedOctetBuffer != null && _byteBufferOutput == null && _octetBufferIndex == 0) {
+            _bufferRecycler.releaseOctets(_octetBuffer);
+            _octetBuffer = _ownedOctetBuffer;
+            _ownedOctetBuffer = null;
+        }
     }
 
     /**
@@ -686,6 +1379,10 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws ArrayIndexOutOfBoundsException on error
      */
     protected final void encodeCharacters(char[] ch, int offset, int length) throws IOException {
+        if (isCharacterContentChunkCompressed(length) && encodeCompressedCharacters(ch, offset, length)) {
+            return;
+        }
+
         final boolean addToTable = isCharacterContentChunkLengthMatchesLimit(length);
         encodeNonIdentifyingStringOnThirdBit(ch, offset, length, _v.characterContentChunk, addToTable, true);
     }
@@ -703,10 +1400,65 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws ArrayIndexOutOfBoundsException on error
      */
     protected final void encodeCharactersNoClone(char[] ch, int offset, int length) throws IOException {
+        if (isCharacterContentChunkCompressed(length) && encodeCompressedCharacters(ch, offset, length)) {
+            return;
+        }
+
         final boolean addToTable = isCharacterContentChunkLengthMatchesLimit(length);
         encodeNonIdentifyingStringOnThirdBit(ch, offset, length, _v.characterContentChunk, addToTable, false);
     }
 
+    private boolean isCharacterContentChunkCompressed(int length) {
+        return _characterContentCompressionAlgorithmURI != null &&
+                length >= minCompressedCharacterContentChunkSize;
+    }
+
+    /**
+     * Encode a chunk of Character Information Items compressed using the
+     * character content compression algorithm.
+     *
+     * @param ch the array of characters.
+     * @param offset the offset into the array of characters.
+     * @param length the length of characters.
+     * @return true if the characters are encoded, otherwise false if the
+     *         algorithm is not present in the vocabulary or registered, or
+     *         the compressed octets are not fewer than the characters.
+     * @throws java.io.IOException on error
+     */
+    protected final boolean encodeCompressedCharacters(char[] ch, int offset, int length) throws IOException {
+        final int index = _v.encodingAlgorithm.get(_characterContentCompressionAlgorithmURI);
+        if (index == KeyIntMap.NOT_PRESENT) {
+            return false;
+        }
+        final EncodingAlgorithm ea = _registeredEncodingAlgorithms.get(_characterContentCompressionAlgorithmURI);
+        if (!(ea instanceof DeflateEncodingAlgorithm)) {
+            return false;
+        }
+
+        final DeflateEncodingAlgorithm dea = (DeflateEncodingAlgorithm) ea;
+        if (_compressionDeflaterAlgorithm != dea) {
+            if (_compressionDeflater != null) {
+                _compressionDeflater.end();
+            }
+            _compressionDeflater = dea.createDeflater();
+            _compressionDeflaterAlgorithm = dea;
+        }
+
+        _encodingBufferOutputStream.reset();
+        dea.encodeToOutputStream(_compressionDeflater, ch, offset, length, _encodingBufferOutputStream);
+        if (_encodingBufferIndex >= length) {
+            return false;
+        }
+
+        final int id = index + EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START;
+        write (EncodingConstants.CHARACTER_CHUNK | EncodingConstants.CHARACTER_CHUNK_ENCODING_ALGORITHM_FLAG |
+                ((id & 0xC0) >> 6));
+        _b = (id & 0x3F) << 2;
+        encodeNonZeroOctetStringLengthOnSenventhBit(_encodingBufferIndex);
+        write(_encodingBuffer, _encodingBufferIndex);
+        return true;
+    }
+
     /**
      * Encode a chunk of Character Information Items using a numeric
      * alphabet that results in the encoding of a character in 4 bits
@@ -764,7 +1516,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         if (addToTable) {
             // if char array could be added to table
             boolean canAddCharacterContentToTable =
-                    canAddCharacterContentToTable(length, _v.characterContentChunk);
+                    canAddCharacterContentToTable(length, _v.characterContentChunk) &&
+                    admitCharacterContentChunk(ch, offset, length, _v.characterContentChunk);
 
             // obtain/get index
             int index = canAddCharacterContentToTable ?
@@ -815,7 +1568,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         if (addToTable) {
             // if char array could be added to table
             boolean canAddCharacterContentToTable =
-                    canAddCharacterContentToTable(length, _v.characterContentChunk);
+                    canAddCharacterContentToTable(length, _v.characterContentChunk) &&
+                    admitCharacterContentChunk(ch, offset, length, _v.characterContentChunk);
 
             // obtain/get index
             int index = canAddCharacterContentToTable ?
@@ -1131,7 +1885,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
             if (addToTable || mustBeAddedToTable) {
                 // if attribute value could be added to table
                 boolean canAddAttributeToTable = mustBeAddedToTable ||
-                        canAddAttributeToTable(s.length());
+                        (canAddAttributeToTable(s.length()) && admitAttributeValue(s, map));
 
                 // obtain/get index
                 int index = canAddAttributeToTable ?
@@ -1500,7 +2254,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         if (addToTable) {
             // if char array could be added to table
             boolean canAddCharacterContentToTable =
-                    canAddCharacterContentToTable(length, map);
+                    canAddCharacterContentToTable(length, map) &&
+                    admitCharacterContentChunk(ch, offset, length, map);
 
             // obtain/get index
             int index = canAddCharacterContentToTable ?
@@ -1732,9 +2487,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         _b = EncodingAlgorithmIndexes.CDATA << 2;
 
 
-        length = encodeUTF8String(ch, offset, length);
-        encodeNonZeroOctetStringLengthOnSenventhBit(length);
-        write(_encodingBuffer, length);
+        encodeNonEmptyUTF8StringAsOctetString(_b, ch, offset, length,
+                EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_VALUES);
     }
 
     /**
@@ -1766,9 +2520,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyOctetStringOnSecondBit(String s) throws IOException {
-        final int length = encodeUTF8String(s);
-        encodeNonZeroOctetStringLengthOnSecondBit(length);
-        write(_encodingBuffer, length);
+        encodeNonEmptyUTF8StringAsOctetString(0, s,
+                EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_VALUES);
     }
 
     /**
@@ -1806,7 +2559,13 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyCharacterStringOnFifthBit(String s) throws IOException {
-        final int length = (_encodingStringsAsUtf8) ? encodeUTF8String(s) : encodeUtf16String(s);
+        if (_encodingStringsAsUtf8) {
+            encodeNonEmptyUTF8StringAsOctetString(_b, s,
+                    EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_VALUES);
+            return;
+        }
+
+        final int length = encodeUtf16String(s);
         encodeNonZeroOctetStringLengthOnFifthBit(length);
         write(_encodingBuffer, length);
     }
@@ -1822,7 +2581,13 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyCharacterStringOnFifthBit(char[] ch, int offset, int length) throws IOException {
-        length = (_encodingStringsAsUtf8) ? encodeUTF8String(ch, offset, length) : encodeUtf16String(ch, offset, length);
+        if (_encodingStringsAsUtf8) {
+            encodeNonEmptyUTF8StringAsOctetString(_b, ch, offset, length,
+                    EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_VALUES);
+            return;
+        }
+
+        length = encodeUtf16String(ch, offset, length);
         encodeNonZeroOctetStringLengthOnFifthBit(length);
         write(_encodingBuffer, length);
     }
@@ -1865,7 +2630,13 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyCharacterStringOnSeventhBit(char[] ch, int offset, int length) throws IOException {
-        length = (_encodingStringsAsUtf8) ? encodeUTF8String(ch, offset, length) : encodeUtf16String(ch, offset, length);
+        if (_encodingStringsAsUtf8) {
+            encodeNonEmptyUTF8StringAsOctetString(_b, ch, offset, length,
+                    EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_VALUES);
+            return;
+        }
+
+        length = encodeUtf16String(ch, offset, length);
         encodeNonZeroOctetStringLengthOnSenventhBit(length);
         write(_encodingBuffer, length);
     }
@@ -1925,10 +2696,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyNBitCharacterStringOnSeventhBit(String alphabet, char[] ch, int offset, int length) throws FastInfosetException, IOException {
-        int bitsPerCharacter = 1;
-        while ((1 << bitsPerCharacter) <= alphabet.length()) {
-            bitsPerCharacter++;
-        }
+        final RestrictedAlphabetCodeTable table = getRestrictedAlphabetCodeTable(alphabet);
+        final int bitsPerCharacter = table.getBitsPerCharacter();
 
         final int bits = length * bitsPerCharacter;
         final int octets = bits / 8;
@@ -1938,46 +2707,56 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         // Encode the length
         encodeNonZeroOctetStringLengthOnSenventhBit(totalOctets);
 
-        resetBits();
         ensureSize(totalOctets);
-        for (int i = 0; i < length; i++) {
-            final char c = ch[offset + i];
-            // This is grotesquely slow, need to use hash table of character to int value
-            int v;
-            for (v = 0; v < alphabet.length(); v++) {
-                if (c == alphabet.charAt(v)) {
-                    break;
-                }
-            }
-            if (v == alphabet.length()) {
+        final byte[] b = _octetBuffer;
+        int index = _octetBufferIndex;
+
+        // Pack the values of the characters in a 64 bit buffer and write
+        // the buffer 32 bits at a time
+        long bitBuffer = 0;
+        int bitCount = 0;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            final int v = table.getCode(ch[i]);
+            if (v < 0) {
                 throw new FastInfosetException(CommonResourceBundle.getInstance().getString("message.characterOutofAlphabetRange"));
             }
-            writeBits(bitsPerCharacter, v);
+            bitBuffer = (bitBuffer << bitsPerCharacter) | v;
+            bitCount += bitsPerCharacter;
+            if (bitCount >= 32) {
+                bitCount -= 32;
+                final int w = (int)(bitBuffer >>> bitCount);
+                b[index] = (byte)(w >>> 24);
+                b[index + 1] = (byte)(w >>> 16);
+                b[index + 2] = (byte)(w >>> 8);
+                b[index + 3] = (byte)w;
+                index += 4;
+            }
         }
-
-        if (bitsOfLastOctet > 0) {
-            _b |= (1 << (8 - bitsOfLastOctet)) - 1;
-            write(_b);
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            b[index++] = (byte)(bitBuffer >>> bitCount);
         }
-    }
-
-    private int _bitsLeftInOctet;
 
-    private void resetBits() {
-        _bitsLeftInOctet = 8;
+        if (bitCount > 0) {
+            // Terminate with the bits of the last octet set
+            final int padding = 8 - bitCount;
+            b[index++] = (byte)((bitBuffer << padding) | ((1 << padding) - 1));
+        }
+        _octetBufferIndex = index;
+        // The identifier bits are not mistaken for a pending termination
         _b = 0;
     }
 
-    private void writeBits(int bits, int v) throws IOException {
-        while (bits > 0) {
-            final int bit = (v & (1 << --bits)) > 0 ? 1 : 0;
-            _b |= bit << (--_bitsLeftInOctet);
-            if (_bitsLeftInOctet == 0) {
-                write(_b);
-                _bitsLeftInOctet = 8;
-                _b = 0;
-            }
+    private final Map<String, RestrictedAlphabetCodeTable> _restrictedAlphabetCodeTables = new HashMap<>();
+
+    private RestrictedAlphabetCodeTable getRestrictedAlphabetCodeTable(String alphabet) {
+        RestrictedAlphabetCodeTable table = _restrictedAlphabetCodeTables.get(alphabet);
+        if (table == null) {
+            table = RestrictedAlphabetCodeTable.valueOf(alphabet);
+            _restrictedAlphabetCodeTables.put(alphabet, table);
         }
+        return table;
     }
 
     /**
@@ -2163,8 +2942,14 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final void encodeNonEmptyUTF8StringAsOctetString(int b, String s, int[] constants) throws IOException {
-        final char[] ch = s.toCharArray();
-        encodeNonEmptyUTF8StringAsOctetString(b, ch, 0, ch.length, constants);
+        final int length = s.length();
+        if (length < _charBuffer.length) {
+            s.getChars(0, length, _charBuffer, 0);
+            encodeNonEmptyUTF8StringAsOctetString(b, _charBuffer, 0, length, constants);
+        } else {
+            final char[] ch = s.toCharArray();
+            encodeNonEmptyUTF8StringAsOctetString(b, ch, 0, length, constants);
+        }
     }
 
     /**
@@ -2179,11 +2964,86 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      *        how the length of the UTF-8 encoded string is encoded.
      */
     protected final void encodeNonEmptyUTF8StringAsOctetString(int b, char[] ch, int offset, int length, int[] constants) throws IOException {
+        if (encodeNonEmptyUTF8StringInPlace(b, ch, offset, length, constants)) {
+            return;
+        }
+
         length = encodeUTF8String(ch, offset, length);
         encodeNonZeroOctetStringLength(b, length, constants);
         write(_encodingBuffer, length);
     }
 
+    /**
+     * Encode a non empty string using the UTF-8 encoding, and the length
+     * of the UTF-8 encoded string, directly into the octet buffer.
+     * <p>
+     * The octets of the length are reserved for the minimum UTF-8 length
+     * of the string, which is the number of characters, and the length is
+     * back-patched once the string has been encoded. In the rare case that
+     * more octets are required for the length the encoded string is moved
+     * along.
+     *
+     * @param b the current octet that is being written.
+     * @param ch the array of characters.
+     * @param offset the offset into the array of characters.
+     * @param length the length of characters.
+     * @param constants the array of constants to use when encoding to determin
+     *        how the length of the UTF-8 encoded string is encoded.
+     * @return true if the string was encoded, otherwise false if the
+     *         octet buffer cannot hold the largest UTF-8 encoding of
+     *         the string.
+     */
+    private boolean encodeNonEmptyUTF8StringInPlace(int b, char[] ch, int offset, int length, int[] constants) throws IOException {
+        if (length > MAXIMUM_IN_PLACE_UTF8_STRING_LENGTH) {
+            return false;
+        }
+
+        final int maximumSize = OCTET_STRING_LENGTH_MAXIMUM_SIZE + 3 * length;
+        if (_octetBuffer.length - _octetBufferIndex < maximumSize) {
+            // Only an unmarked stream may be flushed before the buffer is full
+            if (_markIndex != -1 || _byteBufferOutput != null || _octetBuffer.length < maximumSize) {
+                return false;
+            }
+            _s.write(_octetBuffer, 0, _octetBufferIndex);
+            _octetBufferIndex = 0;
+        }
+
+        final int reserved = getOctetStringLengthSize(length, constants);
+        final int start = _octetBufferIndex + reserved;
+        final int octets = encodeUTF8String(ch, offset, length, _octetBuffer, start) - start;
+        final int actual = getOctetStringLengthSize(octets, constants);
+        if (actual != reserved) {
+            System.arraycopy(_octetBuffer, start, _octetBuffer, _octetBufferIndex + actual, octets);
+        }
+
+        int i = _octetBufferIndex;
+        if (actual == 1) {
+            _octetBuffer[i] = (byte) (b | (octets - 1));
+        } else if (actual == 2) {
+            _octetBuffer[i++] = (byte) (b | constants[EncodingConstants.OCTET_STRING_LENGTH_MEDIUM_FLAG]);
+            _octetBuffer[i] = (byte) (octets - constants[EncodingConstants.OCTET_STRING_LENGTH_SMALL_LIMIT]);
+        } else {
+            final int l = octets - constants[EncodingConstants.OCTET_STRING_LENGTH_MEDIUM_LIMIT];
+            _octetBuffer[i++] = (byte) (b | constants[EncodingConstants.OCTET_STRING_LENGTH_LARGE_FLAG]);
+            _octetBuffer[i++] = (byte) (l >>> 24);
+            _octetBuffer[i++] = (byte) (l >> 16);
+            _octetBuffer[i++] = (byte) (l >> 8);
+            _octetBuffer[i] = (byte) l;
+        }
+        _octetBufferIndex += actual + octets;
+        return true;
+    }
+
+    private static int getOctetStringLengthSize(int length, int[] constants) {
+        if (length < constants[EncodingConstants.OCTET_STRING_LENGTH_SMALL_LIMIT]) {
+            return 1;
+        } else if (length < constants[EncodingConstants.OCTET_STRING_LENGTH_MEDIUM_LIMIT]) {
+            return 2;
+        } else {
+            return OCTET_STRING_LENGTH_MAXIMUM_SIZE;
+        }
+    }
+
     /**
      * Encode the length of non empty UTF-8 encoded string.
      *
@@ -2277,7 +3137,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
                 _octetBufferIndex = 1;
                 _octetBuffer[0] = (byte)i;
             } else {
-                resize(_octetBuffer.length * 3 / 2);
+                resize(_octetBuffer.length * 3 / 2 + 1);
                 _octetBuffer[_octetBufferIndex++] = (byte)i;
             }
         }
@@ -2307,7 +3167,21 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
             System.arraycopy(b, offset, _octetBuffer, _octetBufferIndex, length);
             _octetBufferIndex += length;
         } else {
-            if (_markIndex == -1) {
+            if (_markIndex == -1 && _byteBufferOutput != null) {
+                // Fill and pass on buffers, rather than writing
+                // the octets directly, so the pooled buffers are full
+                do {
+                    final int n = Math.min(length, _octetBuffer.length - _octetBufferIndex);
+                    System.arraycopy(b, offset, _octetBuffer, _octetBufferIndex, n);
+                    _octetBufferIndex += n;
+                    offset += n;
+                    length -= n;
+                    if (_octetBufferIndex == _octetBuffer.length) {
+                        _s.write(_octetBuffer, 0, _octetBufferIndex);
+                        _octetBufferIndex = 0;
+                    }
+                } while (length > 0);
+            } else if (_markIndex == -1) {
                 _s.write(_octetBuffer, 0, _octetBufferIndex);
                 _s.write(b, offset, length);
                 _octetBufferIndex = 0;
@@ -2332,12 +3206,196 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
     }
 
     private void _flush() throws IOException {
-        if (_octetBufferIndex > 0) {
+        if (_byteBufferOutput != null) {
+            _byteBufferOutput.complete(_octetBufferIndex);
+            _octetBufferIndex = 0;
+        } else if (_octetBufferIndex > 0) {
             _s.write(_octetBuffer, 0, _octetBufferIndex);
             _octetBufferIndex = 0;
         }
     }
 
+    /**
+     * A stream that compresses a fast infoset document in the zlib format,
+     * whose compressor and buffer are reused for each document.
+     */
+    private static final class TransportOutputStream extends DeflaterOutputStream {
+        private static final int BUFFER_SIZE = 4096;
+
+        private final int _level;
+
+        private byte[] _dictionary;
+
+        TransportOutputStream(int level) {
+            super(OutputStream.nullOutputStream(), new Deflater(level), BUFFER_SIZE);
+            _level = level;
+        }
+
+        int getLevel() {
+            return _level;
+        }
+
+        /**
+         * Reset the compressor to compress a document to a stream.
+         */
+        void reset(OutputStream s, byte[] dictionary) {
+            out = s;
+            _dictionary = dictionary;
+            restart();
+        }
+
+        private void restart() {
+            def.reset();
+            if (_dictionary != null && _dictionary.length > 0) {
+                def.setDictionary(_dictionary);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // Another document is written to the same stream
+            if (def.finished()) {
+                restart();
+            }
+            super.write(b, off, len);
+        }
+    }
+
+    /**
+     * The output of octets to pooled buffers.
+     * <p>
+     * If the buffers are backed by an array then the internal buffer is
+     * replaced with the array of a pooled buffer, which is passed to the
+     * sink, without copying, when the internal buffer is written.
+     * Otherwise the internal buffer is copied to pooled buffers.
+     */
+    private final class ByteBufferOutput extends OutputStream {
+        private final ByteBufferPool _pool;
+
+        private final ByteBufferSink _sink;
+
+        /**
+         * The pooled buffer being written to, or whose array is the
+         * internal buffer, or null.
+         */
+        private ByteBuffer _buffer;
+
+        ByteBufferOutput(ByteBufferPool pool, ByteBufferSink sink) {
+            _pool = pool;
+            _sink = sink;
+            if (_internalOctetBuffer == null) {
+                _internalOctetBuffer = _octetBuffer;
+            }
+            acquireOctetBuffer();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (_buffer == null) {
+                _buffer = acquire();
+            }
+            _buffer.put((byte)b);
+            if (!_buffer.hasRemaining()) {
+                _buffer.flip();
+                pass();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            final boolean isOctetBuffer = (b == _octetBuffer);
+            if (isOctetBuffer && _buffer != null && _buffer.hasArray() && b == _buffer.array()) {
+                // The internal buffer is the array of the pooled buffer
+                _buffer.limit(offset + length).position(offset);
+                pass();
+            } else {
+                while (length > 0) {
+                    if (_buffer == null) {
+                        _buffer = acquire();
+                    }
+                    final int n = Math.min(length, _buffer.remaining());
+                    _buffer.put(b, offset, n);
+                    offset += n;
+                    length -= n;
+                    if (!_buffer.hasRemaining()) {
+                        _buffer.flip();
+                        pass();
+                    }
+                }
+            }
+
+            if (isOctetBuffer) {
+                acquireOctetBuffer();
+            }
+        }
+
+        /**
+         * Pass the octets of the internal buffer, and any buffered octets,
+         * to the sink on completion of a fast infoset document.
+         */
+        void complete(int length) throws IOException {
+            if (length > 0) {
+                write(_octetBuffer, 0, length);
+            }
+            if (_buffer != null && _buffer.hasArray() && _buffer.array() == _octetBuffer) {
+                // Avoid retaining a buffer that is not written to
+                _octetBuffer = _internalOctetBuffer;
+                _pool.release(_buffer);
+                _buffer = null;
+            } else if (_buffer != null && _buffer.position() > 0) {
+                _buffer.flip();
+                pass();
+            }
+        }
+
+        /**
+         * Release any pooled buffer and restore the internal buffer.
+         */
+        void release() {
+            if (_buffer != null) {
+                _pool.release(_buffer);
+                _buffer = null;
+            }
+            _octetBuffer = _internalOctetBuffer;
+            _internalOctetBuffer = null;
+        }
+
+        private ByteBuffer acquire() {
+            final ByteBuffer b = _pool.acquire();
+            b.clear();
+            return b;
+        }
+
+        private void pass() throws IOException {
+            final ByteBuffer b = _buffer;
+            _buffer = null;
+            _sink.write(b);
+        }
+
+        /**
+         * Replace the internal buffer with the array of a pooled buffer,
+         * if the pooled buffers are backed by an array and octets are not
+         * being copied to a pooled buffer.
+         */
+        private void acquireOctetBuffer() {
+            if (_buffer != null) {
+                if (_buffer.position() > 0 || !_buffer.hasArray()) {
+                    _octetBuffer = _internalOctetBuffer;
+                    return;
+                }
+            } else {
+                _buffer = acquire();
+            }
+
+            if (_buffer.hasArray() && _buffer.arrayOffset() == 0
+                    && _buffer.array().length == _buffer.capacity()) {
+                _octetBuffer = _buffer.array();
+            } else {
+                _octetBuffer = _internalOctetBuffer;
+            }
+        }
+    }
+
 
     private final EncodingBufferOutputStream _encodingBufferOutputStream = new EncodingBufferOutputStream();
 
@@ -2403,7 +3461,8 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
     }
 
     private void ensureEncodingBufferSizeForUtf8String(int length) {
-        final int newLength = 4 * length;
+        // A character is encoded in at most 3 octets, a surrogate pair in 4
+        final int newLength = 3 * length;
         if (_encodingBuffer.length < newLength) {
             _encodingBuffer = new byte[newLength];
         }
@@ -2418,36 +3477,51 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
      * @throws java.io.IOException on error
      */
     protected final int encodeUTF8String(char[] ch, int offset, int length) throws IOException {
-        int bpos = 0;
-
         // Make sure buffer is large enough
         ensureEncodingBufferSizeForUtf8String(length);
 
+        return encodeUTF8String(ch, offset, length, _encodingBuffer, 0);
+    }
+
+    /**
+     * Encode a string using the UTF-8 encoding into an array of octets
+     * that is large enough to hold 3 octets for each character.
+     *
+     * @return the position in the array of octets after the last octet
+     *         of the encoded string.
+     */
+    private static int encodeUTF8String(char[] ch, int offset, int length, byte[] b, int bpos) throws IOException {
         final int end = offset + length;
         int c;
         while (end != offset) {
             c = ch[offset++];
             if (c < 0x80) {
                 // 1 byte, 7 bits
-                _encodingBuffer[bpos++] = (byte) c;
+                b[bpos++] = (byte) c;
+
+                // Copy the run of ASCII characters that follows
+                while (end != offset && (c = ch[offset]) < 0x80) {
+                    b[bpos++] = (byte) c;
+                    offset++;
+                }
             } else if (c < 0x800) {
                 // 2 bytes, 11 bits
-                _encodingBuffer[bpos++] =
+                b[bpos++] =
                     (byte) (0xC0 | (c >> 6));    // first 5
-                _encodingBuffer[bpos++] =
+                b[bpos++] =
                     (byte) (0x80 | (c & 0x3F));  // second 6
             } else if (c <= '\uFFFF') {
                 if (!XMLChar.isHighSurrogate(c) && !XMLChar.isLowSurrogate(c)) {
                     // 3 bytes, 16 bits
-                    _encodingBuffer[bpos++] =
+                    b[bpos++] =
                         (byte) (0xE0 | (c >> 12));   // first 4
-                    _encodingBuffer[bpos++] =
+                    b[bpos++] =
                         (byte) (0x80 | ((c >> 6) & 0x3F));  // second 6
-                    _encodingBuffer[bpos++] =
+                    b[bpos++] =
                         (byte) (0x80 | (c & 0x3F));  // third 6
                 } else {
                     // 4 bytes, high and low surrogate
-                    encodeCharacterAsUtf8FourByte(c, ch, offset, end, bpos);
+                    encodeCharacterAsUtf8FourByte(c, ch, offset, end, b, bpos);
                     bpos += 4;
                     offset++;
                 }
@@ -2457,7 +3531,7 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         return bpos;
     }
 
-    private void encodeCharacterAsUtf8FourByte(int c, char[] ch, int chpos, int chend, int bpos) throws IOException {
+    private static void encodeCharacterAsUtf8FourByte(int c, char[] ch, int chpos, int chend, byte[] b, int bpos) throws IOException {
         if (chpos == chend) {
             throw new IOException("");
         }
@@ -2472,10 +3546,10 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
             throw new IOException("");
         }
 
-        _encodingBuffer[bpos++] = (byte)(0xF0 | (uc >> 18));
-        _encodingBuffer[bpos++] = (byte)(0x80 | ((uc >> 12) & 0x3F));
-        _encodingBuffer[bpos++] = (byte)(0x80 | ((uc >> 6) & 0x3F));
-        _encodingBuffer[bpos++] = (byte)(0x80 | (uc & 0x3F));
+        b[bpos++] = (byte)(0xF0 | (uc >> 18));
+        b[bpos++] = (byte)(0x80 | ((uc >> 12) & 0x3F));
+        b[bpos++] = (byte)(0x80 | ((uc >> 6) & 0x3F));
+        b[bpos++] = (byte)(0x80 | (uc & 0x3F));
     }
 
     /**
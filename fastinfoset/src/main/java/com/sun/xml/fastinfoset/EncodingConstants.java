@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -41,6 +42,13 @@ public final class EncodingConstants {
             EncodingConstants.XMLNS_NAMESPACE_PREFIX,
             EncodingConstants.XMLNS_NAMESPACE_PREFIX);
     
+    /**
+     * The identifier of the additional data that is the session checkpoint
+     * of a document encoded in session mode.
+     */
+    public static final String SESSION_CHECKPOINT_URI = "http://jvnet.org/fastinfoset/session/checkpoint";
+    public static final int SESSION_CHECKPOINT_LENGTH = 4;
+    
     public static final int DOCUMENT_ADDITIONAL_DATA_FLAG = 0x40; // 01000000
     public static final int DOCUMENT_INITIAL_VOCABULARY_FLAG = 0x20; // 00100000
     public static final int DOCUMENT_NOTATIONS_FLAG = 0x10; // 00010000
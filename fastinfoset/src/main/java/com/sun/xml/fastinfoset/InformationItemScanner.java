@@ -0,0 +1,768 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset;
+
+/**
+ * Scanner that determines whether an array of octets contains the complete
+ * encoding of the next information item of a fast infoset document.
+ * <p>
+ * The scanner follows the structure of the encoding, using the lengths of
+ * octet strings and the sizes of integers, but does not decode strings or
+ * modify any vocabulary tables. It is used by non-blocking parsers to
+ * ensure that the blocking decoding methods of {@link Decoder} are only
+ * invoked once all the octets of an information item are available.
+ * <p>
+ * Octets that do not conform to the encoding are not reported by the
+ * scanner. The information item is reported as complete so that the
+ * decoder reports the error.
+ * <p>
+ * When an information item is incomplete the scanner retains the number
+ * of octets, from the start of the item, that must be available before
+ * the item can be complete, such as the length of an octet string that
+ * has been decoded. Subsequent scans of the same item return
+ * {@link #INCOMPLETE} without examining the octets until that many octets
+ * are available, so an item fed in many small parts is not scanned again
+ * from its start for each part.
+ */
+public final class InformationItemScanner {
+    
+    /**
+     * The value returned when the octets of an information item are
+     * incomplete.
+     */
+    public static final int INCOMPLETE = -1;
+    
+    private byte[] _b;
+    
+    private int _end;
+    
+    private boolean _endOfInput;
+    
+    private int _offset;
+    
+    private long _required;
+    
+    public InformationItemScanner() {
+    }
+    
+    /**
+     * Reset the scanner so that the next scan is of a new information
+     * item.
+     * <p>
+     * The scanner is reset when an information item is complete, this
+     * method is only required when an incomplete information item is
+     * abandoned.
+     */
+    public void reset() {
+        _required = 0;
+    }
+    
+    /**
+     * Get the number of octets, from the start of the information item last
+     * scanned, that are required before the information item can be
+     * complete.
+     *
+     * @return the number of octets, or 0 if the information item last
+     *         scanned was complete.
+     */
+    public long getRequiredLength() {
+        return _required;
+    }
+    
+    /**
+     * Scan the header, the properties of the document information item and
+     * the first child information item of a document.
+     *
+     * @param b the array of octets.
+     * @param offset the offset of the start of the document.
+     * @param end the end of the octets available.
+     * @param endOfInput true if no further octets will be available.
+     * @return the offset after the first child information item, or
+     *         {@link #INCOMPLETE} if more octets are required.
+     */
+    public int scanDocumentStart(byte[] b, int offset, int end, boolean endOfInput) {
+        if (!start(b, offset, end, endOfInput)) {
+            return INCOMPLETE;
+        }
+        try {
+            int p = header(offset);
+            if (p < 0) {
+                return incomplete();
+            }
+            
+            if (p >= _end) {
+                return incomplete();
+            }
+            final int dii = _b[p++] & 0xFF;
+            if (dii > 0) {
+                p = documentProperties(p, dii);
+                if (p < 0) {
+                    return incomplete();
+                }
+            }
+            return end(item(p));
+        } finally {
+            _b = null;
+        }
+    }
+    
+    /**
+     * Scan the next child information item of an element or of the document
+     * information item, as decoded by a single invocation of a pull parser.
+     * <p>
+     * An unexpanded entity reference information item is scanned together
+     * with the information item that follows it.
+     *
+     * @param b the array of octets.
+     * @param offset the offset of the start of the information item.
+     * @param end the end of the octets available.
+     * @param endOfInput true if no further octets will be available.
+     * @return the offset after the information item, or {@link #INCOMPLETE}
+     *         if more octets are required.
+     */
+    public int scanItem(byte[] b, int offset, int end, boolean endOfInput) {
+        if (!start(b, offset, end, endOfInput)) {
+            return INCOMPLETE;
+        }
+        try {
+            return end(item(offset));
+        } finally {
+            _b = null;
+        }
+    }
+    
+    private boolean start(byte[] b, int offset, int end, boolean endOfInput) {
+        if (!endOfInput && end - offset < _required) {
+            // The octets of the item known to be required are not available
+            return false;
+        }
+        
+        _b = b;
+        _offset = offset;
+        _end = end;
+        _endOfInput = endOfInput;
+        _required = 0;
+        return true;
+    }
+    
+    private int end(int p) {
+        return (p < 0) ? incomplete() : p;
+    }
+    
+    private int incomplete() {
+        // At least one more octet is required, or more if the length of
+        // an octet string that is not available has been decoded
+        _required = Math.max(_required, (long)_end - _offset + 1);
+        return INCOMPLETE;
+    }
+    
+    private int header(int p) {
+        if (_end - p < EncodingConstants.BINARY_HEADER.length) {
+            return INCOMPLETE;
+        }
+        if (matches(p, EncodingConstants.BINARY_HEADER)) {
+            return p + EncodingConstants.BINARY_HEADER.length;
+        }
+        
+        for (byte[] values : EncodingConstants.XML_DECLARATION_VALUES) {
+            if (_end - p < values.length) {
+                return INCOMPLETE;
+            }
+            if (matches(p, values)) {
+                return octets(p + values.length, EncodingConstants.BINARY_HEADER.length);
+            }
+        }
+        
+        // Not a fast infoset document, let the decoder report it
+        return p;
+    }
+    
+    private boolean matches(int p, byte[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (_b[p + i] != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private int documentProperties(int p, int b) {
+        if ((b & EncodingConstants.DOCUMENT_ADDITIONAL_DATA_FLAG) > 0) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            final int first = _b[p] & 0xFF;
+            final int items = numberOfItems(p);
+            p = skip(p, (first < 128) ? 1 : 3);
+            for (int i = 0; p >= 0 && i < items; i++) {
+                p = nonEmptyOctetStringOnSecondBit(p);
+                if (p >= 0) {
+                    p = nonEmptyOctetStringOnSecondBit(p);
+                }
+            }
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_INITIAL_VOCABULARY_FLAG) > 0) {
+            p = initialVocabulary(p);
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_NOTATIONS_FLAG) > 0) {
+            p = notations(p);
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_UNPARSED_ENTITIES_FLAG) > 0) {
+            p = unparsedEntities(p);
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_CHARACTER_ENCODING_SCHEME) > 0) {
+            p = nonEmptyOctetStringOnSecondBit(p);
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_STANDALONE_FLAG) > 0) {
+            p = skip(p, 1);
+        }
+        
+        if (p >= 0 && (b & EncodingConstants.DOCUMENT_VERSION_FLAG) > 0) {
+            p = nonIdentifyingStringOnFirstBit(p);
+        }
+        
+        return p;
+    }
+    
+    private int initialVocabulary(int p) {
+        if (_end - p < 2) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        final int b2 = _b[p++] & 0xFF;
+        
+        if ((b & EncodingConstants.INITIAL_VOCABULARY_EXTERNAL_VOCABULARY_FLAG) > 0) {
+            p = nonEmptyOctetStringOnSecondBit(p);
+        }
+        if ((b & EncodingConstants.INITIAL_VOCABULARY_RESTRICTED_ALPHABETS_FLAG) > 0) {
+            p = nonIdentifyingStringItems(p);
+        }
+        if ((b & EncodingConstants.INITIAL_VOCABULARY_ENCODING_ALGORITHMS_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b & EncodingConstants.INITIAL_VOCABULARY_PREFIXES_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b & EncodingConstants.INITIAL_VOCABULARY_NAMESPACE_NAMES_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_LOCAL_NAMES_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_OTHER_NCNAMES_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_OTHER_URIS_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_ATTRIBUTE_VALUES_FLAG) > 0) {
+            p = octetStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_CONTENT_CHARACTER_CHUNKS_FLAG) > 0) {
+            p = nonIdentifyingStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_OTHER_STRINGS_FLAG) > 0) {
+            p = nonIdentifyingStringItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_ELEMENT_NAME_SURROGATES_FLAG) > 0) {
+            p = nameSurrogateItems(p);
+        }
+        if ((b2 & EncodingConstants.INITIAL_VOCABULARY_ATTRIBUTE_NAME_SURROGATES_FLAG) > 0) {
+            p = nameSurrogateItems(p);
+        }
+        return p;
+    }
+    
+    private int numberOfItems(int p) {
+        final int b = _b[p] & 0xFF;
+        if (b < 128) {
+            return b + 1;
+        } else if (_end - p < 3) {
+            return 0;
+        } else {
+            return (((b & 0x0F) << 16) | ((_b[p + 1] & 0xFF) << 8) | (_b[p + 2] & 0xFF)) + 129;
+        }
+    }
+    
+    private int octetStringItems(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int first = _b[p] & 0xFF;
+        final int items = numberOfItems(p);
+        p = skip(p, (first < 128) ? 1 : 3);
+        for (int i = 0; p >= 0 && i < items; i++) {
+            p = nonEmptyOctetStringOnSecondBit(p);
+        }
+        return p;
+    }
+    
+    private int nonIdentifyingStringItems(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int first = _b[p] & 0xFF;
+        final int items = numberOfItems(p);
+        p = skip(p, (first < 128) ? 1 : 3);
+        for (int i = 0; p >= 0 && i < items; i++) {
+            p = nonIdentifyingStringOnFirstBit(p);
+        }
+        return p;
+    }
+    
+    private int nameSurrogateItems(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int first = _b[p] & 0xFF;
+        final int items = numberOfItems(p);
+        p = skip(p, (first < 128) ? 1 : 3);
+        for (int i = 0; p >= 0 && i < items; i++) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            final int b = _b[p++] & 0xFF;
+            if ((b & EncodingConstants.NAME_SURROGATE_PREFIX_FLAG) > 0) {
+                p = integerOnSecondBit(p);
+            }
+            if (p >= 0 && (b & EncodingConstants.NAME_SURROGATE_NAME_FLAG) > 0) {
+                p = integerOnSecondBit(p);
+            }
+            if (p >= 0) {
+                p = integerOnSecondBit(p);
+            }
+        }
+        return p;
+    }
+    
+    private int notations(int p) {
+        while (p >= 0) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            final int b = _b[p++] & 0xFF;
+            if ((b & EncodingConstants.NOTATIONS_MASK) != EncodingConstants.NOTATIONS) {
+                return p;
+            }
+            p = identifyingStringOnFirstBit(p);
+            if (p >= 0 && (b & EncodingConstants.NOTATIONS_SYSTEM_IDENTIFIER_FLAG) > 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+            if (p >= 0 && (b & EncodingConstants.NOTATIONS_PUBLIC_IDENTIFIER_FLAG) > 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+        }
+        return p;
+    }
+    
+    private int unparsedEntities(int p) {
+        while (p >= 0) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            final int b = _b[p++] & 0xFF;
+            if ((b & EncodingConstants.UNPARSED_ENTITIES_MASK) != EncodingConstants.UNPARSED_ENTITIES) {
+                return p;
+            }
+            p = identifyingStringOnFirstBit(p);
+            if (p >= 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+            if (p >= 0 && (b & EncodingConstants.UNPARSED_ENTITIES_PUBLIC_IDENTIFIER_FLAG) > 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+            if (p >= 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+        }
+        return p;
+    }
+    
+    private int item(int p) {
+        if (p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                return p;
+            case DecoderStateTables.EII_AIIS_INDEX_SMALL:
+                return attributes(p);
+            case DecoderStateTables.EII_INDEX_MEDIUM:
+            case DecoderStateTables.EII_INDEX_LARGE:
+            case DecoderStateTables.EII_LITERAL:
+                return elementName(p, b, (b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
+            case DecoderStateTables.EII_NAMESPACES:
+                return elementWithNamespaces(p, (b & EncodingConstants.ELEMENT_ATTRIBUTE_FLAG) > 0);
+            case DecoderStateTables.CII_UTF8_SMALL_LENGTH:
+            case DecoderStateTables.CII_UTF16_SMALL_LENGTH:
+                return octets(p, (b & EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_MASK) + 1);
+            case DecoderStateTables.CII_UTF8_MEDIUM_LENGTH:
+            case DecoderStateTables.CII_UTF16_MEDIUM_LENGTH:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT);
+            case DecoderStateTables.CII_UTF8_LARGE_LENGTH:
+            case DecoderStateTables.CII_UTF16_LARGE_LENGTH:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT);
+            case DecoderStateTables.CII_RA:
+                return octetsOnSeventhBit(p);
+            case DecoderStateTables.CII_EA:
+            {
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                final int algorithmId = ((b & 0x02) << 6) | ((_b[p] & 0xFC) >> 2);
+                p = octetsOnSeventhBit(p);
+                // Chunks of base64 data are converted to characters with a
+                // look ahead at the first two octets of the next item
+                if (p >= 0 && algorithmId == org.jvnet.fastinfoset.EncodingAlgorithmIndexes.BASE64
+                        && !_endOfInput && _end - p < 2) {
+                    return INCOMPLETE;
+                }
+                return p;
+            }
+            case DecoderStateTables.CII_INDEX_SMALL:
+                return p;
+            case DecoderStateTables.CII_INDEX_MEDIUM:
+                return skip(p, 1);
+            case DecoderStateTables.CII_INDEX_LARGE:
+                return skip(p, 2);
+            case DecoderStateTables.CII_INDEX_LARGE_LARGE:
+                return skip(p, 3);
+            case DecoderStateTables.COMMENT_II:
+                return nonIdentifyingStringOnFirstBit(p);
+            case DecoderStateTables.PROCESSING_INSTRUCTION_II:
+                p = identifyingStringOnFirstBit(p);
+                return (p < 0) ? INCOMPLETE : nonIdentifyingStringOnFirstBit(p);
+            case DecoderStateTables.UNEXPANDED_ENTITY_REFERENCE_II:
+                p = identifyingStringOnFirstBit(p);
+                if (p >= 0 && (b & EncodingConstants.UNEXPANDED_ENTITY_SYSTEM_IDENTIFIER_FLAG) > 0) {
+                    p = identifyingStringOnFirstBit(p);
+                }
+                if (p >= 0 && (b & EncodingConstants.UNEXPANDED_ENTITY_PUBLIC_IDENTIFIER_FLAG) > 0) {
+                    p = identifyingStringOnFirstBit(p);
+                }
+                // The reference is skipped and the next item is decoded
+                return (p < 0) ? INCOMPLETE : item(p);
+            case DecoderStateTables.TERMINATOR_SINGLE:
+            case DecoderStateTables.TERMINATOR_DOUBLE:
+            default:
+                return p;
+        }
+    }
+    
+    private int elementWithNamespaces(int p, boolean hasAttributes) {
+        int b;
+        while (true) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            b = _b[p++] & 0xFF;
+            if ((b & EncodingConstants.NAMESPACE_ATTRIBUTE_MASK) != EncodingConstants.NAMESPACE_ATTRIBUTE) {
+                break;
+            }
+            if ((b & EncodingConstants.NAMESPACE_ATTRIBUTE_PREFIX_FLAG) > 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+            if (p >= 0 && (b & EncodingConstants.NAMESPACE_ATTRIBUTE_NAME_FLAG) > 0) {
+                p = identifyingStringOnFirstBit(p);
+            }
+            if (p < 0) {
+                return INCOMPLETE;
+            }
+        }
+        if (b != EncodingConstants.TERMINATOR) {
+            return p;
+        }
+        
+        if (p >= _end) {
+            return INCOMPLETE;
+        }
+        b = _b[p++] & 0xFF;
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
+                return (hasAttributes) ? attributes(p) : p;
+            case DecoderStateTables.EII_INDEX_MEDIUM:
+            case DecoderStateTables.EII_INDEX_LARGE:
+            case DecoderStateTables.EII_LITERAL:
+                return elementName(p, b, hasAttributes);
+            default:
+                return p;
+        }
+    }
+    
+    private int elementName(int p, int b, boolean hasAttributes) {
+        switch(DecoderStateTables.EII(b)) {
+            case DecoderStateTables.EII_INDEX_MEDIUM:
+                p = skip(p, 1);
+                break;
+            case DecoderStateTables.EII_INDEX_LARGE:
+                p = skip(p, ((b & EncodingConstants.INTEGER_3RD_BIT_LARGE_LARGE_FLAG) == 0x20) ? 2 : 3);
+                break;
+            case DecoderStateTables.EII_LITERAL:
+                p = literalQualifiedName(p, b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK);
+                break;
+        }
+        if (p < 0) {
+            return INCOMPLETE;
+        }
+        return (hasAttributes) ? attributes(p) : p;
+    }
+    
+    private int literalQualifiedName(int p, int state) {
+        if ((state & EncodingConstants.LITERAL_QNAME_PREFIX_FLAG) > 0) {
+            p = identifyingStringOnFirstBit(p);
+        }
+        if (p >= 0 && (state & EncodingConstants.LITERAL_QNAME_NAMESPACE_NAME_FLAG) > 0) {
+            p = identifyingStringOnFirstBit(p);
+        }
+        return (p < 0) ? INCOMPLETE : identifyingStringOnFirstBit(p);
+    }
+    
+    private int attributes(int p) {
+        while (true) {
+            if (p >= _end) {
+                return INCOMPLETE;
+            }
+            final int b = _b[p++] & 0xFF;
+            switch (DecoderStateTables.AII(b)) {
+                case DecoderStateTables.AII_INDEX_SMALL:
+                    break;
+                case DecoderStateTables.AII_INDEX_MEDIUM:
+                    p = skip(p, 1);
+                    break;
+                case DecoderStateTables.AII_INDEX_LARGE:
+                    p = skip(p, 2);
+                    break;
+                case DecoderStateTables.AII_LITERAL:
+                    p = literalQualifiedName(p, b & EncodingConstants.LITERAL_QNAME_PREFIX_NAMESPACE_NAME_MASK);
+                    break;
+                case DecoderStateTables.AII_TERMINATOR_SINGLE:
+                case DecoderStateTables.AII_TERMINATOR_DOUBLE:
+                default:
+                    return p;
+            }
+            
+            if (p < 0) {
+                return INCOMPLETE;
+            }
+            p = nonIdentifyingStringOnFirstBit(p);
+            if (p < 0) {
+                return INCOMPLETE;
+            }
+        }
+    }
+    
+    /*
+     * C.13
+     */
+    private int identifyingStringOnFirstBit(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        switch(DecoderStateTables.ISTRING(b)) {
+            case DecoderStateTables.ISTRING_SMALL_LENGTH:
+                return octets(p, b + 1);
+            case DecoderStateTables.ISTRING_MEDIUM_LENGTH:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_SMALL_LIMIT);
+            case DecoderStateTables.ISTRING_LARGE_LENGTH:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_MEDIUM_LIMIT);
+            case DecoderStateTables.ISTRING_INDEX_SMALL:
+                return p;
+            case DecoderStateTables.ISTRING_INDEX_MEDIUM:
+                return skip(p, 1);
+            case DecoderStateTables.ISTRING_INDEX_LARGE:
+                return skip(p, 2);
+            default:
+                return p;
+        }
+    }
+    
+    /*
+     * C.14
+     */
+    private int nonIdentifyingStringOnFirstBit(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        switch(DecoderStateTables.NISTRING(b)) {
+            case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
+            case DecoderStateTables.NISTRING_UTF16_SMALL_LENGTH:
+                return octets(p, (b & EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_MASK) + 1);
+            case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
+            case DecoderStateTables.NISTRING_UTF16_MEDIUM_LENGTH:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT);
+            case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
+            case DecoderStateTables.NISTRING_UTF16_LARGE_LENGTH:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT);
+            case DecoderStateTables.NISTRING_RA:
+            case DecoderStateTables.NISTRING_EA:
+                return octetsOnFifthBit(p);
+            case DecoderStateTables.NISTRING_INDEX_SMALL:
+                return p;
+            case DecoderStateTables.NISTRING_INDEX_MEDIUM:
+                return skip(p, 1);
+            case DecoderStateTables.NISTRING_INDEX_LARGE:
+                return skip(p, 2);
+            case DecoderStateTables.NISTRING_EMPTY:
+            default:
+                return p;
+        }
+    }
+    
+    private int octetsOnFifthBit(int p) {
+        if (p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0x0F;
+        switch(DecoderStateTables.NISTRING(b)) {
+            case DecoderStateTables.NISTRING_UTF8_SMALL_LENGTH:
+                return octets(p, b + 1);
+            case DecoderStateTables.NISTRING_UTF8_MEDIUM_LENGTH:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_SMALL_LIMIT);
+            case DecoderStateTables.NISTRING_UTF8_LARGE_LENGTH:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_5TH_BIT_MEDIUM_LIMIT);
+            default:
+                return p;
+        }
+    }
+    
+    private int octetsOnSeventhBit(int p) {
+        if (p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        switch (b & 0x03) {
+            case 0:
+                return octets(p, 1);
+            case 1:
+                return octets(p, 2);
+            case 2:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_SMALL_LIMIT);
+            default:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_7TH_BIT_MEDIUM_LIMIT);
+        }
+    }
+    
+    /*
+     * C.22
+     */
+    private int nonEmptyOctetStringOnSecondBit(int p) {
+        if (p < 0 || p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = _b[p++] & 0xFF;
+        switch(DecoderStateTables.ISTRING(b)) {
+            case DecoderStateTables.ISTRING_SMALL_LENGTH:
+                return octets(p, b + 1);
+            case DecoderStateTables.ISTRING_MEDIUM_LENGTH:
+                if (p >= _end) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 1, (_b[p] & 0xFF) + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_SMALL_LIMIT);
+            case DecoderStateTables.ISTRING_LARGE_LENGTH:
+                if (_end - p < 4) {
+                    return INCOMPLETE;
+                }
+                return octets(p + 4, int32(p) + EncodingConstants.OCTET_STRING_LENGTH_2ND_BIT_MEDIUM_LIMIT);
+            default:
+                return p;
+        }
+    }
+    
+    /*
+     * C.25
+     */
+    private int integerOnSecondBit(int p) {
+        if (p >= _end) {
+            return INCOMPLETE;
+        }
+        final int b = (_b[p++] & 0xFF) | 0x80;
+        switch(DecoderStateTables.ISTRING(b)) {
+            case DecoderStateTables.ISTRING_INDEX_MEDIUM:
+                return skip(p, 1);
+            case DecoderStateTables.ISTRING_INDEX_LARGE:
+                return skip(p, 2);
+            case DecoderStateTables.ISTRING_INDEX_SMALL:
+            default:
+                return p;
+        }
+    }
+    
+    private int int32(int p) {
+        return ((_b[p] & 0xFF) << 24) |
+                ((_b[p + 1] & 0xFF) << 16) |
+                ((_b[p + 2] & 0xFF) << 8) |
+                (_b[p + 3] & 0xFF);
+    }
+    
+    private int octets(int p, int length) {
+        if (p < 0) {
+            return INCOMPLETE;
+        } else if (length < 0) {
+            // Overflow of the length, let the decoder report it
+            return p;
+        }
+        if (length <= _end - p) {
+            return p + length;
+        }
+        _required = Math.max(_required, (long)p + length - _offset);
+        return INCOMPLETE;
+    }
+    
+    private int skip(int p, int length) {
+        return octets(p, length);
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -21,6 +22,10 @@ package com.sun.xml.fastinfoset.algorithm;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 
@@ -34,75 +39,18 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
         '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'
     };
 
-    /* package */ static final int[] decodeBase64 = {
-        /*'+'*/ 62,
-        -1, -1, -1,
-        /*'/'*/ 63,
-        /*'0'*/ 52,
-        /*'1'*/ 53,
-        /*'2'*/ 54,
-        /*'3'*/ 55,
-        /*'4'*/ 56,
-        /*'5'*/ 57,
-        /*'6'*/ 58,
-        /*'7'*/ 59,
-        /*'8'*/ 60,
-        /*'9'*/ 61,
-        -1, -1, -1, -1, -1, -1, -1,
-        /*'A'*/ 0,
-        /*'B'*/ 1,
-        /*'C'*/ 2,
-        /*'D'*/ 3,
-        /*'E'*/ 4,
-        /*'F'*/ 5,
-        /*'G'*/ 6,
-        /*'H'*/ 7,
-        /*'I'*/ 8,
-        /*'J'*/ 9,
-        /*'K'*/ 10,
-        /*'L'*/ 11,
-        /*'M'*/ 12,
-        /*'N'*/ 13,
-        /*'O'*/ 14,
-        /*'P'*/ 15,
-        /*'Q'*/ 16,
-        /*'R'*/ 17,
-        /*'S'*/ 18,
-        /*'T'*/ 19,
-        /*'U'*/ 20,
-        /*'V'*/ 21,
-        /*'W'*/ 22,
-        /*'X'*/ 23,
-        /*'Y'*/ 24,
-        /*'Z'*/ 25,
-        -1, -1, -1, -1, -1, -1,
-        /*'a'*/ 26,
-        /*'b'*/ 27,
-        /*'c'*/ 28,
-        /*'d'*/ 29,
-        /*'e'*/ 30,
-        /*'f'*/ 31,
-        /*'g'*/ 32,
-        /*'h'*/ 33,
-        /*'i'*/ 34,
-        /*'j'*/ 35,
-        /*'k'*/ 36,
-        /*'l'*/ 37,
-        /*'m'*/ 38,
-        /*'n'*/ 39,
-        /*'o'*/ 40,
-        /*'p'*/ 41,
-        /*'q'*/ 42,
-        /*'r'*/ 43,
-        /*'s'*/ 44,
-        /*'t'*/ 45,
-        /*'u'*/ 46,
-        /*'v'*/ 47,
-        /*'w'*/ 48,
-        /*'x'*/ 49,
-        /*'y'*/ 50,
-        /*'z'*/ 51
-    };
+    /**
+     * The values of the BASE64 characters, indexed by character, otherwise
+     * -1 for characters less than 128 that are not BASE64 characters.
+     */
+    /* package */ static final int[] decodeBase64 = new int[128];
+    
+    static {
+        Arrays.fill(decodeBase64, -1);
+        for (int i = 0; i < encodeBase64.length; i++) {
+            decodeBase64[encodeBase64[i]] = i;
+        }
+    }
 
     public BASE64EncodingAlgorithm() {
     }
@@ -131,47 +79,33 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        if (length == 0) {
-            return new byte[0];
+        // Remove white space, the remaining characters must be ASCII
+        final byte[] encoded = new byte[length];
+        int encodedLength = 0;
+        for (int i = start; i < start + length; i++) {
+            final char c = ch[i];
+            if (c < 128) {
+                if (!isWhiteSpace(c)) {
+                    encoded[encodedLength++] = (byte) c;
+                }
+            } else if (!Character.isWhitespace(c)) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalBase64"));
+            }
         }
-        
-        StringBuilder encodedValue = removeWhitespace(ch, start, length);
-        int encodedLength = encodedValue.length();
         if (encodedLength == 0) {
             return new byte[0];
         }
         
-        int blockCount = encodedLength / 4;
-        int partialBlockLength = 3;
-
-        if (encodedValue.charAt(encodedLength - 1) == '=') {
-            --partialBlockLength;
-            if (encodedValue.charAt(encodedLength - 2) == '=') {
-                --partialBlockLength;
-            }
-        }
-
-        int valueLength = (blockCount - 1) * 3 + partialBlockLength;
-        byte[] value = new byte[valueLength];
-
-        int idx = 0;
-        int encodedIdx = 0;
-        for (int i = 0; i < blockCount; ++i) {
-            int x1 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x2 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x3 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-            int x4 = decodeBase64[encodedValue.charAt(encodedIdx++) - '+'];
-
-            value[idx++] = (byte) ((x1 << 2) | (x2 >> 4));
-            if (idx < valueLength) {
-                value[idx++] = (byte) (((x2 & 0x0f) << 4) | (x3 >> 2));
-            }
-            if (idx < valueLength) {
-                value[idx++] = (byte) (((x3 & 0x03) << 6) | x4);
-            }
+        final ByteBuffer value;
+        try {
+            value = Base64.getDecoder().decode(ByteBuffer.wrap(encoded, 0, encodedLength));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalBase64"), e);
         }
-
-        return value;
+        
+        return (value.remaining() == value.array().length)
+                ? value.array()
+                : Arrays.copyOf(value.array(), value.remaining());
     }
     
     @Override
@@ -200,45 +134,14 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
     }
 
     public final void convertToCharacters(byte[] data, int offset, int length, StringBuilder s) {
-        if (data == null) {
-            return;
-        }
-        final byte[] value = data;
-        if (length == 0) {
+        if (data == null || length == 0) {
             return;
         }
         
-        final int partialBlockLength = length % 3;
-        final int blockCount = (partialBlockLength != 0) ? 
-            length / 3 + 1 : 
-            length / 3;
-
-        final int encodedLength = blockCount * 4;
-        final int originalBufferSize = s.length();
-        s.ensureCapacity(encodedLength + originalBufferSize);
-
-        int idx = offset;
-        int lastIdx = offset + length;
-        for (int i = 0; i < blockCount; ++i) {
-            int b1 = value[idx++] & 0xFF;
-            int b2 = (idx < lastIdx) ? value[idx++] & 0xFF : 0;
-            int b3 = (idx < lastIdx) ? value[idx++] & 0xFF : 0;
-
-            s.append(encodeBase64[b1 >> 2]);
-
-            s.append(encodeBase64[((b1 & 0x03) << 4) | (b2 >> 4)]);
-
-            s.append(encodeBase64[((b2 & 0x0f) << 2) | (b3 >> 6)]);
-
-            s.append(encodeBase64[b3 & 0x3f]);
-        }
-
-        if (partialBlockLength == 1) {
-            s.setCharAt(originalBufferSize + encodedLength - 1, '=');
-            s.setCharAt(originalBufferSize + encodedLength - 2, '=');
-        } else if (partialBlockLength == 2) {
-            s.setCharAt(originalBufferSize + encodedLength - 1, '=');
-        }
+        // The ASCII characters are appended as a Latin-1 string
+        final ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(data, offset, length));
+        s.append(new String(encoded.array(), encoded.arrayOffset() + encoded.position(),
+                encoded.remaining(), StandardCharsets.ISO_8859_1));
     }
 
     /**
@@ -249,4 +152,155 @@ public class BASE64EncodingAlgorithm extends BuiltInEncodingAlgorithm {
         convertToCharacters(data, offset, length, new StringBuilder(s));
     }
 
+    /**
+     * Decodes BASE64 characters to octets incrementally, as the characters
+     * are reported in many chunks, for example by many calls to
+     * {@link org.xml.sax.ContentHandler#characters(char[], int, int)},
+     * without concatenating the characters.
+     * <p>
+     * White space is ignored. The characters are decoded in the same
+     * manner as {@link BASE64EncodingAlgorithm#convertFromCharacters(char[], int, int)}.
+     * The decoded octets may be encoded using
+     * {@link org.jvnet.fastinfoset.sax.EncodingAlgorithmContentHandler#octets(String, int, byte[], int, int)}
+     * with the "base64" encoding algorithm.
+     * <p>
+     * A decoder may be reused after it is reset.
+     */
+    public static final class IncrementalDecoder {
+        private byte[] _octets = new byte[0];
+        
+        private int _octetsLength;
+        
+        private int _bits;
+        
+        private int _characters;
+        
+        private int _padding;
+        
+        public IncrementalDecoder() {
+        }
+        
+        /**
+         * Decode a chunk of characters.
+         *
+         * @param ch the array of characters.
+         * @param start the start of the characters.
+         * @param length the number of characters.
+         * @throws IllegalArgumentException if a character is not a BASE64
+         *         character or white space, or follows padding.
+         */
+        public void decode(char[] ch, int start, int length) {
+            final int end = start + length;
+            // Ensure the capacity for the characters and those pending
+            ensureCapacity((_characters + length) / 4 * 3 + 3);
+            
+            final byte[] octets = _octets;
+            int octetsLength = _octetsLength;
+            int bits = _bits;
+            int characters = _characters;
+            int padding = _padding;
+            for (int i = start; i < end; i++) {
+                final char c = ch[i];
+                final int v = (c < 128) ? decodeBase64[c] : -1;
+                if (v >= 0 && padding == 0) {
+                    bits = (bits << 6) | v;
+                    if (++characters == 4) {
+                        octets[octetsLength++] = (byte) (bits >> 16);
+                        octets[octetsLength++] = (byte) (bits >> 8);
+                        octets[octetsLength++] = (byte) bits;
+                        bits = characters = 0;
+                    }
+                } else if (c == '=' && characters >= 2 && characters + padding < 4) {
+                    padding++;
+                } else if (!(c < 128 ? isWhiteSpace(c) : Character.isWhitespace(c))) {
+                    throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalBase64"));
+                }
+            }
+            _octetsLength = octetsLength;
+            _bits = bits;
+            _characters = characters;
+            _padding = padding;
+        }
+        
+        /**
+         * Complete the decoding of the characters, decoding the characters
+         * of the final unit that is not padded or is padded.
+         *
+         * @throws IllegalArgumentException if the final unit has one
+         *         character.
+         */
+        public void finish() {
+            if (_characters == 1 || (_padding > 0 && _characters + _padding != 4)) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalBase64"));
+            } else if (_characters == 2) {
+                _octets[_octetsLength++] = (byte) (_bits >> 4);
+            } else if (_characters == 3) {
+                _octets[_octetsLength++] = (byte) (_bits >> 10);
+                _octets[_octetsLength++] = (byte) (_bits >> 2);
+            }
+            _bits = _characters = _padding = 0;
+        }
+        
+        /**
+         * Get the decoded octets, which are valid up to the length of the
+         * decoded octets. The array may be modified by further decoding.
+         *
+         * @return the array of decoded octets.
+         */
+        public byte[] getOctets() {
+            return _octets;
+        }
+        
+        /**
+         * @return the number of decoded octets.
+         */
+        public int getOctetsLength() {
+            return _octetsLength;
+        }
+        
+        /**
+         * Get the characters decoded so far, before {@link #finish()} is
+         * invoked, including those of a final unit that is not complete.
+         * The characters are those of the
+         * canonical representation, white space is not included.
+         * <p>
+         * A decoder retains its state when a chunk of characters is not
+         * valid, so the characters may be obtained to recover the content
+         * decoded before that chunk.
+         *
+         * @return the array of characters.
+         */
+        public char[] getCharacters() {
+            final char[] ch = new char[_octetsLength / 3 * 4 + _characters + _padding];
+            int j = 0;
+            for (int i = 0; i + 3 <= _octetsLength; i += 3) {
+                final int bits = ((_octets[i] & 0xFF) << 16) | ((_octets[i + 1] & 0xFF) << 8) | (_octets[i + 2] & 0xFF);
+                ch[j++] = encodeBase64[bits >> 18];
+                ch[j++] = encodeBase64[(bits >> 12) & 0x3F];
+                ch[j++] = encodeBase64[(bits >> 6) & 0x3F];
+                ch[j++] = encodeBase64[bits & 0x3F];
+            }
+            for (int i = _characters - 1; i >= 0; i--) {
+                ch[j++] = encodeBase64[(_bits >> (i * 6)) & 0x3F];
+            }
+            for (int i = 0; i < _padding; i++) {
+                ch[j++] = '=';
+            }
+            return ch;
+        }
+        
+        /**
+         * Reset the decoder to decode other characters, retaining the
+         * array of octets for reuse.
+         */
+        public void reset() {
+            _octetsLength = _bits = _characters = _padding = 0;
+        }
+        
+        private void ensureCapacity(int length) {
+            if (_octets.length - _octetsLength < length) {
+                _octets = Arrays.copyOf(_octets, Math.max(_octets.length * 2, _octetsLength + length));
+            }
+        }
+    }
 }
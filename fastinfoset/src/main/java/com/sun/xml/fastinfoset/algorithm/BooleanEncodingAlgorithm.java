@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -23,8 +24,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -145,18 +146,20 @@ public class BooleanEncodingAlgorithm extends BuiltInEncodingAlgorithm {
             return new boolean[0];
         }
 
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Boolean> booleanList = new ArrayList<>();
+        boolean[] bdata = new boolean[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
 
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            if (cb.charAt(start1) == 't') {
-                booleanList.add(Boolean.TRUE);
-            } else {
-                booleanList.add(Boolean.FALSE);
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            if (size == bdata.length) {
+                bdata = Arrays.copyOf(bdata, size * 2);
             }
-        });
+            bdata[size++] = ch[i] == 't';
+            i = skipWhiteSpace(ch, skipWord(ch, i, end), end);
+        }
 
-        return generateArrayFromList(booleanList);
+        return Arrays.copyOf(bdata, size);
     }
 
     @Override
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,12 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.nio.CharBuffer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,6 +34,25 @@ import org.jvnet.fastinfoset.EncodingAlgorithmException;
 public abstract class BuiltInEncodingAlgorithm implements EncodingAlgorithm {
     protected static final Pattern SPACE_PATTERN = Pattern.compile("\\s");
 
+    /**
+     * The maximum number of primitives whose octets are read from a stream
+     * at a time.
+     */
+    protected static final int STREAM_CHUNK_LENGTH = 1024;
+
+    /*
+     * Big-endian views of arrays of octets, the octets of a primitive are
+     * read or written with a single access rather than shifting each octet.
+     */
+    static final VarHandle SHORT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    static final VarHandle INT_VIEW =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     public abstract int getPrimtiveLengthFromOctetLength(int octetLength) throws EncodingAlgorithmException;
 
     public abstract int getOctetLengthFromPrimitiveLength(int primitiveLength);
@@ -40,6 +66,59 @@ public abstract class BuiltInEncodingAlgorithm implements EncodingAlgorithm {
     protected BuiltInEncodingAlgorithm() {
     }
 
+    /**
+     * Read the octets of whole primitives from a stream, until the length of
+     * octets have been read or the end of the stream has been reached.
+     *
+     * @return the number of octets read, a multiple of the primitive size.
+     * @throws EOFException if the stream ends part way through a primitive.
+     */
+    protected static int readPrimitiveOctets(InputStream s, byte[] b, int length, int size) throws IOException {
+        int n = 0;
+        while (n < length) {
+            final int m = s.read(b, n, length - n);
+            if (m == -1) {
+                break;
+            }
+            n += m;
+        }
+        
+        if (n % size != 0) {
+            throw new EOFException();
+        }
+        return n;
+    }
+
+    /**
+     * Check if a character is white space, as matched by
+     * {@link #SPACE_PATTERN}.
+     */
+    protected static boolean isWhiteSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * @return the index of the first character, from the start index, that
+     *         is not white space, otherwise the end index.
+     */
+    protected static int skipWhiteSpace(char[] ch, int start, int end) {
+        while (start < end && isWhiteSpace(ch[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * @return the index of the first character, from the start index, that
+     *         is white space, otherwise the end index.
+     */
+    protected static int skipWord(char[] ch, int start, int end) {
+        while (start < end && !isWhiteSpace(ch[start])) {
+            start++;
+        }
+        return start;
+    }
+
     public void matchWhiteSpaceDelimnatedWords(CharBuffer cb, WordListener wl) {
         Matcher m = SPACE_PATTERN.matcher(cb);
         int i = 0;
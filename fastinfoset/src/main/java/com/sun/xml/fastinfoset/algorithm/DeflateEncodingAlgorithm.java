@@ -0,0 +1,281 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+import org.jvnet.fastinfoset.Vocabulary;
+
+/**
+ * An application-defined encoding algorithm that compresses character
+ * content, the UTF-8 encoded characters are compressed in the zlib format
+ * using {@link Deflater}.
+ * <p>
+ * The data of the algorithm is a {@link String}, or an array of characters
+ * when encoding. A serializer compresses large character content chunks
+ * with the algorithm if it is registered and set as the character content
+ * compression algorithm, see
+ * {@link org.jvnet.fastinfoset.FastInfosetSerializer#setCharacterContentCompressionAlgorithmURI(String)},
+ * and parsers with the algorithm registered report the chunks as
+ * characters.
+ * <p>
+ * A preset dictionary, such as one created from the strings of an external
+ * vocabulary, improves the compression of small chunks. The serializer and
+ * parser must use the same dictionary.
+ */
+public class DeflateEncodingAlgorithm implements EncodingAlgorithm {
+    public static final String URI = "http://jvnet.org/fastinfoset/algorithm/deflate";
+
+    /**
+     * The maximum size of a preset dictionary, the size of the window of
+     * the deflate format.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * The default maximum number of octets of the UTF-8 encoded characters
+     * decompressed from a character content chunk.
+     */
+    public static final int DEFAULT_MAXIMUM_INFLATED_LENGTH = 16 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final int _level;
+
+    private final byte[] _dictionary;
+
+    private final int _maximumInflatedLength;
+
+    public DeflateEncodingAlgorithm() {
+        this(Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * @param level the compression level, see {@link Deflater#setLevel(int)}.
+     * @param dictionary the preset dictionary, or null.
+     */
+    public DeflateEncodingAlgorithm(int level, byte[] dictionary) {
+        this(level, dictionary, DEFAULT_MAXIMUM_INFLATED_LENGTH);
+    }
+
+    /**
+     * @param level the compression level, see {@link Deflater#setLevel(int)}.
+     * @param dictionary the preset dictionary, or null.
+     * @param maximumInflatedLength the maximum number of octets of the UTF-8
+     *        encoded characters decompressed from a character content chunk,
+     *        larger chunks are rejected when decoded.
+     */
+    public DeflateEncodingAlgorithm(int level, byte[] dictionary, int maximumInflatedLength) {
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalCompressionLevel", new Object[]{level}));
+        }
+        if (maximumInflatedLength <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalInflatedLength", new Object[]{maximumInflatedLength}));
+        }
+        _level = level;
+        _dictionary = (dictionary != null) ? dictionary.clone() : null;
+        _maximumInflatedLength = maximumInflatedLength;
+    }
+
+    /**
+     * Create a preset dictionary from the strings of a vocabulary.
+     * <p>
+     * The dictionary is that of a parser vocabulary of the vocabulary,
+     * see {@link ParserVocabulary#getPresetDictionary()}.
+     *
+     * @param v the vocabulary.
+     * @return the dictionary.
+     */
+    public static byte[] createDictionary(Vocabulary v) {
+        return new ParserVocabulary(v).getPresetDictionary();
+    }
+
+    public final int getLevel() {
+        return _level;
+    }
+
+    public final int getMaximumInflatedLength() {
+        return _maximumInflatedLength;
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        return decodeToString(b, start, length);
+    }
+
+    /**
+     * Decode the characters of compressed octets.
+     */
+    public final String decodeToString(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final Inflater inflater = new Inflater();
+        try {
+            return decodeToString(inflater, b, start, length);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decode the characters of compressed octets using a decompressor,
+     * which is reset before it is used so that it may be reused for each
+     * chunk.
+     *
+     * @throws EncodingAlgorithmException if the octets are not valid, or
+     *         decompress to more octets than the maximum inflated length.
+     */
+    public final String decodeToString(Inflater inflater, byte[] b, int start, int length) throws EncodingAlgorithmException {
+        inflater.reset();
+        try {
+            inflater.setInput(b, start, length);
+
+            byte[] data = new byte[(int) Math.min(Math.max((long) length * 4, BUFFER_SIZE),
+                    _maximumInflatedLength)];
+            int dataLength = 0;
+            while (!inflater.finished()) {
+                if (dataLength == data.length) {
+                    if (dataLength == _maximumInflatedLength) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().
+                                getString("message.deflateDataTooLarge", new Object[]{_maximumInflatedLength}));
+                    }
+                    data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2, _maximumInflatedLength));
+                }
+                final int n = inflater.inflate(data, dataLength, data.length - dataLength);
+                dataLength += n;
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (_dictionary == null) {
+                            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateDictionary"));
+                        }
+                        try {
+                            inflater.setDictionary(_dictionary);
+                        } catch (IllegalArgumentException e) {
+                            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateDictionary"), e);
+                        }
+                    } else if (inflater.needsInput()) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateDataTruncated"));
+                    }
+                }
+            }
+            if (inflater.getRemaining() > 0) {
+                throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.deflateDataTruncated"));
+            }
+
+            return new String(data, 0, dataLength, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new EncodingAlgorithmException(e);
+        }
+    }
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] b = s.readAllBytes();
+        return decodeToString(b, 0, b.length);
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        if (data instanceof String) {
+            encodeToOutputStream(((String) data).getBytes(StandardCharsets.UTF_8), s);
+        } else if (data instanceof char[]) {
+            final char[] ch = (char[]) data;
+            encodeToOutputStream(ch, 0, ch.length, s);
+        } else {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotStringOrCharArray"));
+        }
+    }
+
+    /**
+     * Compress an array of characters.
+     */
+    public final void encodeToOutputStream(char[] ch, int offset, int length, OutputStream s) throws IOException {
+        encodeToOutputStream(new String(ch, offset, length).getBytes(StandardCharsets.UTF_8), s);
+    }
+
+    /**
+     * Compress an array of characters using a compressor created by
+     * {@link #createDeflater()}, which is reset before it is used so that it
+     * may be reused for each chunk.
+     */
+    public final void encodeToOutputStream(Deflater deflater, char[] ch, int offset, int length, OutputStream s) throws IOException {
+        encodeToOutputStream(deflater, new String(ch, offset, length).getBytes(StandardCharsets.UTF_8), s);
+    }
+
+    /**
+     * Create a compressor of the compression level of the algorithm.
+     *
+     * @return the compressor, which should be released with
+     *         {@link Deflater#end()}.
+     */
+    public final Deflater createDeflater() {
+        return new Deflater(_level);
+    }
+
+    private void encodeToOutputStream(byte[] b, OutputStream s) throws IOException {
+        final Deflater deflater = createDeflater();
+        try {
+            encodeToOutputStream(deflater, b, s);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void encodeToOutputStream(Deflater deflater, byte[] b, OutputStream s) throws IOException {
+        deflater.reset();
+        if (_dictionary != null) {
+            deflater.setDictionary(_dictionary);
+        }
+        deflater.setInput(b);
+        deflater.finish();
+
+        final byte[] buffer = new byte[Math.min(b.length + 64, BUFFER_SIZE)];
+        while (!deflater.finished()) {
+            final int n = deflater.deflate(buffer);
+            s.write(buffer, 0, n);
+        }
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return new String(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (data instanceof String) {
+            s.append((String) data);
+        } else if (data instanceof char[]) {
+            s.append((char[]) data);
+        } else {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotStringOrCharArray"));
+        }
+    }
+}
@@ -19,12 +19,10 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -78,15 +76,21 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Double> doubleList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String fStringValue = cb.subSequence(start1, end).toString();
-            doubleList.add(Double.valueOf(fStringValue));
-        });
-        
-        return generateArrayFromList(doubleList);
+        double[] ddata = new double[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == ddata.length) {
+                ddata = Arrays.copyOf(ddata, size * 2);
+            }
+            ddata[size++] = parseDouble(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+
+        return Arrays.copyOf(ddata, size);
     }
     
     @Override
@@ -104,67 +108,56 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
     public final void decodeFromBytesToDoubleArray(double[] data, int fstart, byte[] b, int start, int length) {
         final int size = length / DOUBLE_SIZE;
         for (int i = 0; i < size; i++) {
-            final long bits =
-                    ((long)(b[start++] & 0xFF) << 56) | 
-                    ((long)(b[start++] & 0xFF) << 48) | 
-                    ((long)(b[start++] & 0xFF) << 40) | 
-                    ((long)(b[start++] & 0xFF) << 32) | 
-                    ((long)(b[start++] & 0xFF) << 24) | 
-                    ((long)(b[start++] & 0xFF) << 16) | 
-                    ((long)(b[start++] & 0xFF) << 8) | 
-                    (long)(b[start++] & 0xFF);
-            data[fstart++] = Double.longBitsToDouble(bits);
+            data[fstart++] = Double.longBitsToDouble((long) LONG_VIEW.get(b, start));
+            start += DOUBLE_SIZE;
         }
     }
     
     public final double[] decodeFromInputStreamToDoubleArray(InputStream s) throws IOException {
-        final List<Double> doubleList = new ArrayList<>();
-        final byte[] b = new byte[DOUBLE_SIZE];
-        
+        double[] ddata = new double[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int length = 0;
         while (true) {
-            int n = s.read(b);
-            if (n != DOUBLE_SIZE) {
-                if (n == -1) {
-                    break;
-                }
-                
-                while(n != DOUBLE_SIZE) {
-                    final int m = s.read(b, n, DOUBLE_SIZE - n);
-                    if (m == -1) {
-                        throw new EOFException();
-                    }
-                    n += m;
-                }
+            final int n = decodeFromInputStreamToDoubleArray(ddata, length, ddata.length - length, s);
+            length += n;
+            if (length < ddata.length) {
+                break;
+            }
+            ddata = Arrays.copyOf(ddata, ddata.length * 2);
+        }
+        
+        return Arrays.copyOf(ddata, length);
+    }
+    
+    /**
+     * Decode doubles from a stream into an array, reading the octets of at
+     * most {@code length} doubles in bounded windows.
+     *
+     * @return the number of doubles decoded, which is less than
+     *         {@code length} only if the end of the stream has been reached.
+     */
+    public final int decodeFromInputStreamToDoubleArray(double[] ddata, int start, int length, InputStream s) throws IOException {
+        final byte[] b = new byte[Math.min(length, STREAM_CHUNK_LENGTH) * DOUBLE_SIZE];
+        int decoded = 0;
+        while (decoded < length) {
+            final int octetLength = Math.min(length - decoded, STREAM_CHUNK_LENGTH) * DOUBLE_SIZE;
+            final int n = readPrimitiveOctets(s, b, octetLength, DOUBLE_SIZE);
+            decodeFromBytesToDoubleArray(ddata, start + decoded, b, 0, n);
+            decoded += n / DOUBLE_SIZE;
+            if (n < octetLength) {
+                break;
             }
-            
-            final long bits = 
-                    ((long)(b[0] & 0xFF) << 56) | 
-                    ((long)(b[1] & 0xFF) << 48) | 
-                    ((long)(b[2] & 0xFF) << 40) | 
-                    ((long)(b[3] & 0xFF) << 32) | 
-                    ((b[4] & 0xFF) << 24) | 
-                    ((b[5] & 0xFF) << 16) | 
-                    ((b[6] & 0xFF) << 8) | 
-                    (b[7] & 0xFF);
-            
-            doubleList.add(Double.longBitsToDouble(bits));
         }
         
-        return generateArrayFromList(doubleList);
+        return decoded;
     }
     
     
     public final void encodeToOutputStreamFromDoubleArray(double[] fdata, OutputStream s) throws IOException {
-        for (double fdatum : fdata) {
-            final long bits = Double.doubleToLongBits(fdatum);
-            s.write((int) ((bits >>> 56) & 0xFF));
-            s.write((int) ((bits >>> 48) & 0xFF));
-            s.write((int) ((bits >>> 40) & 0xFF));
-            s.write((int) ((bits >>> 32) & 0xFF));
-            s.write((int) ((bits >>> 24) & 0xFF));
-            s.write((int) ((bits >>> 16) & 0xFF));
-            s.write((int) ((bits >>> 8) & 0xFF));
-            s.write((int) (bits & 0xFF));
+        final byte[] b = new byte[Math.min(fdata.length, STREAM_CHUNK_LENGTH) * DOUBLE_SIZE];
+        for (int i = 0; i < fdata.length; i += STREAM_CHUNK_LENGTH) {
+            final int length = Math.min(fdata.length - i, STREAM_CHUNK_LENGTH);
+            encodeToBytesFromDoubleArray(fdata, i, length, b, 0);
+            s.write(b, 0, length * DOUBLE_SIZE);
         }
     }
     
@@ -176,22 +169,16 @@ public class DoubleEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorit
     public final void encodeToBytesFromDoubleArray(double[] fdata, int fstart, int flength, byte[] b, int start) {
         final int fend = fstart + flength;
         for (int i = fstart; i < fend; i++) {
-            final long bits = Double.doubleToLongBits(fdata[i]);
-            b[start++] = (byte)((bits >>> 56) & 0xFF);
-            b[start++] = (byte)((bits >>> 48) & 0xFF);
-            b[start++] = (byte)((bits >>> 40) & 0xFF);
-            b[start++] = (byte)((bits >>> 32) & 0xFF);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+            LONG_VIEW.set(b, start, Double.doubleToLongBits(fdata[i]));
+            start += DOUBLE_SIZE;
         }
     }
 
     public final void convertToCharactersFromDoubleArray(double[] fdata, StringBuilder s) {
+        final FloatingPointDecimal d = new FloatingPointDecimal();
         final int end = fdata.length - 1;
         for (int i = 0; i <= end; i++) {
-            s.append(fdata[i]);
+            d.append(fdata[i], s);
             if (i != end) {
                 s.append(' ');
             }
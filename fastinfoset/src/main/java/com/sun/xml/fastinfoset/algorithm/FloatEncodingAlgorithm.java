@@ -19,12 +19,10 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -78,15 +76,21 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Float> floatList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String fStringValue = cb.subSequence(start1, end).toString();
-            floatList.add(Float.valueOf(fStringValue));
-        });
-        
-        return generateArrayFromList(floatList);
+        float[] fdata = new float[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == fdata.length) {
+                fdata = Arrays.copyOf(fdata, size * 2);
+            }
+            fdata[size++] = parseFloat(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+
+        return Arrays.copyOf(fdata, size);
     }
     
     @Override
@@ -104,52 +108,56 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
     public final void decodeFromBytesToFloatArray(float[] data, int fstart, byte[] b, int start, int length) {
         final int size = length / FLOAT_SIZE;
         for (int i = 0; i < size; i++) {
-            final int bits = ((b[start++] & 0xFF) << 24) | 
-                    ((b[start++] & 0xFF) << 16) | 
-                    ((b[start++] & 0xFF) << 8) | 
-                    (b[start++] & 0xFF);
-            data[fstart++] = Float.intBitsToFloat(bits);
+            data[fstart++] = Float.intBitsToFloat((int) INT_VIEW.get(b, start));
+            start += FLOAT_SIZE;
         }
     }
     
     public final float[] decodeFromInputStreamToFloatArray(InputStream s) throws IOException {
-        final List<Float> floatList = new ArrayList<>();
-        final byte[] b = new byte[FLOAT_SIZE];
-        
+        float[] fdata = new float[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int length = 0;
         while (true) {
-            int n = s.read(b);
-            if (n != 4) {
-                if (n == -1) {
-                    break;
-                }
-                
-                while(n != 4) {
-                    final int m = s.read(b, n, FLOAT_SIZE - n);
-                    if (m == -1) {
-                        throw new EOFException();
-                    }
-                    n += m;
-                }
+            final int n = decodeFromInputStreamToFloatArray(fdata, length, fdata.length - length, s);
+            length += n;
+            if (length < fdata.length) {
+                break;
+            }
+            fdata = Arrays.copyOf(fdata, fdata.length * 2);
+        }
+        
+        return Arrays.copyOf(fdata, length);
+    }
+    
+    /**
+     * Decode floats from a stream into an array, reading the octets of at
+     * most {@code length} floats in bounded windows.
+     *
+     * @return the number of floats decoded, which is less than
+     *         {@code length} only if the end of the stream has been reached.
+     */
+    public final int decodeFromInputStreamToFloatArray(float[] fdata, int start, int length, InputStream s) throws IOException {
+        final byte[] b = new byte[Math.min(length, STREAM_CHUNK_LENGTH) * FLOAT_SIZE];
+        int decoded = 0;
+        while (decoded < length) {
+            final int octetLength = Math.min(length - decoded, STREAM_CHUNK_LENGTH) * FLOAT_SIZE;
+            final int n = readPrimitiveOctets(s, b, octetLength, FLOAT_SIZE);
+            decodeFromBytesToFloatArray(fdata, start + decoded, b, 0, n);
+            decoded += n / FLOAT_SIZE;
+            if (n < octetLength) {
+                break;
             }
-            
-            final int bits = ((b[0] & 0xFF) << 24) | 
-                    ((b[1] & 0xFF) << 16) | 
-                    ((b[2] & 0xFF) << 8) | 
-                    (b[3] & 0xFF);
-            floatList.add(Float.intBitsToFloat(bits));
         }
         
-        return generateArrayFromList(floatList);
+        return decoded;
     }
     
     
     public final void encodeToOutputStreamFromFloatArray(float[] fdata, OutputStream s) throws IOException {
-        for (float fdatum : fdata) {
-            final int bits = Float.floatToIntBits(fdatum);
-            s.write((bits >>> 24) & 0xFF);
-            s.write((bits >>> 16) & 0xFF);
-            s.write((bits >>> 8) & 0xFF);
-            s.write(bits & 0xFF);
+        final byte[] b = new byte[Math.min(fdata.length, STREAM_CHUNK_LENGTH) * FLOAT_SIZE];
+        for (int i = 0; i < fdata.length; i += STREAM_CHUNK_LENGTH) {
+            final int length = Math.min(fdata.length - i, STREAM_CHUNK_LENGTH);
+            encodeToBytesFromFloatArray(fdata, i, length, b, 0);
+            s.write(b, 0, length * FLOAT_SIZE);
         }
     }
     
@@ -161,18 +169,16 @@ public class FloatEncodingAlgorithm extends IEEE754FloatingPointEncodingAlgorith
     public final void encodeToBytesFromFloatArray(float[] fdata, int fstart, int flength, byte[] b, int start) {
         final int fend = fstart + flength;
         for (int i = fstart; i < fend; i++) {
-            final int bits = Float.floatToIntBits(fdata[i]);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+            INT_VIEW.set(b, start, Float.floatToIntBits(fdata[i]));
+            start += FLOAT_SIZE;
         }
     }
 
     public final void convertToCharactersFromFloatArray(float[] fdata, StringBuilder s) {
+        final FloatingPointDecimal d = new FloatingPointDecimal();
         final int end = fdata.length - 1;
         for (int i = 0; i <= end; i++) {
-            s.append(fdata[i]);
+            d.append(fdata[i], s);
             if (i != end) {
                 s.append(' ');
             }
@@ -0,0 +1,505 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import java.math.BigInteger;
+
+/**
+ * Formats float and double values as the shortest decimal that rounds to
+ * the value, using the Schubfach algorithm of R. Giulietti, "The Schubfach
+ * way to render doubles".
+ * <p>
+ * The characters are the same as those of {@link Double#toString(double)}
+ * and {@link Float#toString(float)} of recent Java releases, which use the
+ * same algorithm. The values are formatted without allocation into an
+ * internal buffer, so an instance is not thread-safe.
+ */
+final class FloatingPointDecimal {
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    // double
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+    private static final int DOUBLE_BQ_MASK = 0x7FF;
+    private static final long DOUBLE_T_MASK = DOUBLE_C_MIN - 1;
+    private static final long DOUBLE_C_TINY = 3;
+    private static final int DOUBLE_H = 17;
+
+    // float
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+    private static final int FLOAT_BQ_MASK = 0xFF;
+    private static final int FLOAT_T_MASK = FLOAT_C_MIN - 1;
+    private static final int FLOAT_C_TINY = 8;
+    private static final int FLOAT_H = 9;
+
+    private static final long[] POW10 = new long[DOUBLE_H + 1];
+
+    /*
+     * For each k, 10^-k = beta 2^r with 2^125 <= beta < 2^126, and
+     * g = floor(beta) + 1 is held as the two 63 bit halves of g.
+     */
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                final BigInteger n = BigInteger.TEN.pow(-k);
+                final int r = n.bitLength() - 126;
+                g = (r >= 0) ? n.shiftRight(r) : n.shiftLeft(-r);
+            } else {
+                final BigInteger d = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + d.bitLength()).divide(d);
+            }
+            g = g.add(BigInteger.ONE);
+
+            final int i = (k - K_MIN) << 1;
+            G[i] = g.shiftRight(63).longValue();
+            G[i + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private final char[] _buffer = new char[32];
+
+    private int _index;
+
+    /**
+     * Append the characters of a double value.
+     */
+    void append(double v, StringBuilder s) {
+        _index = -1;
+        toDecimal(v);
+        s.append(_buffer, 0, _index + 1);
+    }
+
+    /**
+     * Append the characters of a float value.
+     */
+    void append(float v, StringBuilder s) {
+        _index = -1;
+        toDecimal(v);
+        s.append(_buffer, 0, _index + 1);
+    }
+
+    private void toDecimal(double v) {
+        final long bits = Double.doubleToRawLongBits(v);
+        final long t = bits & DOUBLE_T_MASK;
+        final int bq = (int) (bits >>> (DOUBLE_P - 1)) & DOUBLE_BQ_MASK;
+        if (bq < DOUBLE_BQ_MASK) {
+            if (bits < 0) {
+                append('-');
+            }
+            if (bq != 0) {
+                // Normal value, v = c 2^-mq
+                final int mq = -DOUBLE_Q_MIN + 1 - bq;
+                final long c = DOUBLE_C_MIN | t;
+                // Integer value
+                if (0 < mq & mq < DOUBLE_P) {
+                    final long f = c >> mq;
+                    if (f << mq == c) {
+                        toChars(f, 0);
+                        return;
+                    }
+                }
+                toDecimal(-mq, c, 0);
+            } else if (t != 0) {
+                // Subnormal value
+                if (t < DOUBLE_C_TINY) {
+                    toDecimal(DOUBLE_Q_MIN, 10 * t, -1);
+                } else {
+                    toDecimal(DOUBLE_Q_MIN, t, 0);
+                }
+            } else {
+                append("0.0");
+            }
+        } else if (t != 0) {
+            append("NaN");
+        } else {
+            append(bits < 0 ? "-Infinity" : "Infinity");
+        }
+    }
+
+    private void toDecimal(int q, long c, int dk) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != DOUBLE_C_MIN | q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+
+        final int i = (k - K_MIN) << 1;
+        final long g1 = G[i];
+        final long g0 = G[i + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // Try one digit less, floor(s / 10) 10 or the next multiple of 10
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+
+        // Both s and t are in the rounding interval, select the closest
+        final long cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private void toDecimal(float v) {
+        final int bits = Float.floatToRawIntBits(v);
+        final int t = bits & FLOAT_T_MASK;
+        final int bq = (bits >>> (FLOAT_P - 1)) & FLOAT_BQ_MASK;
+        if (bq < FLOAT_BQ_MASK) {
+            if (bits < 0) {
+                append('-');
+            }
+            if (bq != 0) {
+                // Normal value, v = c 2^-mq
+                final int mq = -FLOAT_Q_MIN + 1 - bq;
+                final int c = FLOAT_C_MIN | t;
+                // Integer value
+                if (0 < mq & mq < FLOAT_P) {
+                    final int f = c >> mq;
+                    if (f << mq == c) {
+                        toChars(f, 0);
+                        return;
+                    }
+                }
+                toDecimal(-mq, c, 0);
+            } else if (t != 0) {
+                // Subnormal value
+                if (t < FLOAT_C_TINY) {
+                    toDecimal(FLOAT_Q_MIN, 10 * t, -1);
+                } else {
+                    toDecimal(FLOAT_Q_MIN, t, 0);
+                }
+            } else {
+                append("0.0");
+            }
+        } else if (t != 0) {
+            append("NaN");
+        } else {
+            append(bits < 0 ? "-Infinity" : "Infinity");
+        }
+    }
+
+    private void toDecimal(int q, int c, int dk) {
+        final int out = c & 0x1;
+        final long cb = (long) c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != FLOAT_C_MIN | q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 33;
+
+        final long g = G[(k - K_MIN) << 1] + 1;
+
+        final int vb = rop(g, cb << h);
+        final int vbl = rop(g, cbl << h);
+        final int vbr = rop(g, cbr << h);
+
+        final int s = vb >> 2;
+        if (s >= 100) {
+            // Try one digit less, floor(s / 10) 10 or the next multiple of 10
+            final int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            final int tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        final int t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+
+        // Both s and t are in the rounding interval, select the closest
+        final int cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static int rop(long g, long cp) {
+        final long x1 = Math.multiplyHigh(g, cp);
+        final long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /*
+     * Format f 10^e, where f has at most 17 digits.
+     */
+    private void toChars(long f, int e) {
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+
+        // Scale f to 17 digits, f 10^e = 0.f 10^e
+        f *= POW10[DOUBLE_H - len];
+        e += len;
+
+        // Split f into the most significant digit h, the next 8 digits m
+        // and the last 8 digits l
+        final long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        final int l = (int) (f - 100_000_000L * hm);
+        final int h = (int) (hm * 1_441_151_881L >>> 57);
+        final int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            // Plain format without leading zeros
+            appendDigit(h);
+            int y = y(m);
+            int i = 1;
+            for (; i < e; ++i) {
+                final int t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            append('.');
+            for (; i <= 8; ++i) {
+                final int t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            lowDigits(l);
+        } else if (-3 < e && e <= 0) {
+            // Plain format with leading zeros
+            appendDigit(0);
+            append('.');
+            for (; e < 0; ++e) {
+                appendDigit(0);
+            }
+            appendDigit(h);
+            append8Digits(m);
+            lowDigits(l);
+        } else {
+            // Computerized scientific notation
+            appendDigit(h);
+            append('.');
+            append8Digits(m);
+            lowDigits(l);
+            exponent(e - 1);
+        }
+    }
+
+    /*
+     * Format f 10^e, where f has at most 9 digits.
+     */
+    private void toChars(int f, int e) {
+        int len = flog10pow2(Integer.SIZE - Integer.numberOfLeadingZeros(f));
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+
+        // Scale f to 9 digits, f 10^e = 0.f 10^e
+        f *= (int) POW10[FLOAT_H - len];
+        e += len;
+
+        // Split f into the most significant digit h and the last 8 digits l
+        final int h = (int) (f * 1_441_151_881L >>> 57);
+        final int l = f - 100_000_000 * h;
+
+        if (0 < e && e <= 7) {
+            // Plain format without leading zeros
+            appendDigit(h);
+            int y = y(l);
+            int i = 1;
+            for (; i < e; ++i) {
+                final int t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            append('.');
+            for (; i <= 8; ++i) {
+                final int t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            removeTrailingZeroes();
+        } else if (-3 < e && e <= 0) {
+            // Plain format with leading zeros
+            appendDigit(0);
+            append('.');
+            for (; e < 0; ++e) {
+                appendDigit(0);
+            }
+            appendDigit(h);
+            append8Digits(l);
+            removeTrailingZeroes();
+        } else {
+            // Computerized scientific notation
+            appendDigit(h);
+            append('.');
+            append8Digits(l);
+            removeTrailingZeroes();
+            exponent(e - 1);
+        }
+    }
+
+    private void lowDigits(int l) {
+        if (l != 0) {
+            append8Digits(l);
+        }
+        removeTrailingZeroes();
+    }
+
+    private void append8Digits(int m) {
+        // Left-to-right digit extraction using a 28 bit binary fraction
+        int y = y(m);
+        for (int i = 0; i < 8; ++i) {
+            final int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    private void removeTrailingZeroes() {
+        while (_buffer[_index] == '0') {
+            --_index;
+        }
+        // Keep the zero directly to the right of the decimal point
+        if (_buffer[_index] == '.') {
+            ++_index;
+        }
+    }
+
+    /*
+     * Compute floor((a + 1) 2^28 / 10^8) - 1, for a < 10^8.
+     */
+    private static int y(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28,
+                193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private void exponent(int e) {
+        append('E');
+        if (e < 0) {
+            append('-');
+            e = -e;
+        }
+        if (e < 10) {
+            appendDigit(e);
+            return;
+        }
+
+        int d;
+        if (e >= 100) {
+            // floor(e / 100)
+            d = e * 1_311 >>> 17;
+            appendDigit(d);
+            e -= 100 * d;
+        }
+        // floor(e / 10)
+        d = e * 103 >>> 10;
+        appendDigit(d);
+        appendDigit(e - 10 * d);
+    }
+
+    private void append(char c) {
+        _buffer[++_index] = c;
+    }
+
+    private void append(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            append(s.charAt(i));
+        }
+    }
+
+    private void appendDigit(int d) {
+        _buffer[++_index] = (char) ('0' + d);
+    }
+
+    /*
+     * floor(e log10(2))
+     */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /*
+     * floor(log10(3/4 2^e))
+     */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /*
+     * floor(e log2(10))
+     */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
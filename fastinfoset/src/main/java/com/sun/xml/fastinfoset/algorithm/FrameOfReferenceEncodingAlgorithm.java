@@ -0,0 +1,240 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * Encode the values of an array in blocks, as the minimum value of a block
+ * followed by the differences of the values from the minimum, packed with
+ * the number of bits of the largest difference.
+ * <p>
+ * The octets are the number of values as a 32 bit big-endian integer,
+ * followed by the blocks of {@link #BLOCK_LENGTH} values, the last block
+ * may have fewer values. A block is an octet for the number of bits of
+ * each difference, the minimum value as a big-endian integer of the size
+ * of the primitive type, and the differences packed least significant bit
+ * first, padded with zero bits to a whole octet.
+ */
+public class FrameOfReferenceEncodingAlgorithm extends IntegerArrayEncodingAlgorithm {
+    public static final int BLOCK_LENGTH = 128;
+
+    private static final int COUNT_SIZE = 4;
+
+    public FrameOfReferenceEncodingAlgorithm(boolean isLong) {
+        super(isLong);
+    }
+
+    @Override
+    protected int getMaximumOctetLength(int length) {
+        final int size = (_isLong) ? IntegerEncodingAlgorithm.LONG_SIZE : IntegerEncodingAlgorithm.INT_SIZE;
+        final int blocks = (length + BLOCK_LENGTH - 1) / BLOCK_LENGTH;
+        return COUNT_SIZE + blocks * (1 + size) + length * size;
+    }
+
+    @Override
+    protected int encodeToBytes(int[] data, byte[] b) {
+        BuiltInEncodingAlgorithm.INT_VIEW.set(b, 0, data.length);
+        int i = COUNT_SIZE;
+        for (int start = 0; start < data.length; start += BLOCK_LENGTH) {
+            final int end = Math.min(start + BLOCK_LENGTH, data.length);
+
+            int min = data[start];
+            int max = min;
+            for (int k = start + 1; k < end; k++) {
+                min = Math.min(min, data[k]);
+                max = Math.max(max, data[k]);
+            }
+            final int width = Long.SIZE - Long.numberOfLeadingZeros((long) max - min);
+
+            b[i++] = (byte) width;
+            BuiltInEncodingAlgorithm.INT_VIEW.set(b, i, min);
+            i += IntegerEncodingAlgorithm.INT_SIZE;
+
+            long bits = 0;
+            int n = 0;
+            for (int k = start; k < end; k++) {
+                bits |= ((data[k] - min) & 0xFFFFFFFFL) << n;
+                n += width;
+                while (n >= 8) {
+                    b[i++] = (byte) bits;
+                    bits >>>= 8;
+                    n -= 8;
+                }
+            }
+            if (n > 0) {
+                b[i++] = (byte) bits;
+            }
+        }
+        return i;
+    }
+
+    @Override
+    protected int encodeToBytes(long[] data, byte[] b) {
+        BuiltInEncodingAlgorithm.INT_VIEW.set(b, 0, data.length);
+        int i = COUNT_SIZE;
+        for (int start = 0; start < data.length; start += BLOCK_LENGTH) {
+            final int end = Math.min(start + BLOCK_LENGTH, data.length);
+
+            long min = data[start];
+            long max = min;
+            for (int k = start + 1; k < end; k++) {
+                min = Math.min(min, data[k]);
+                max = Math.max(max, data[k]);
+            }
+            // The difference is unsigned and may use all 64 bits
+            final int width = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+            final int lowWidth = Math.min(width, 32);
+            final int highWidth = width - lowWidth;
+
+            b[i++] = (byte) width;
+            BuiltInEncodingAlgorithm.LONG_VIEW.set(b, i, min);
+            i += IntegerEncodingAlgorithm.LONG_SIZE;
+
+            long bits = 0;
+            int n = 0;
+            for (int k = start; k < end; k++) {
+                final long d = data[k] - min;
+                bits |= (d & 0xFFFFFFFFL) << n;
+                n += lowWidth;
+                while (n >= 8) {
+                    b[i++] = (byte) bits;
+                    bits >>>= 8;
+                    n -= 8;
+                }
+                if (highWidth > 0) {
+                    bits |= (d >>> 32) << n;
+                    n += highWidth;
+                    while (n >= 8) {
+                        b[i++] = (byte) bits;
+                        bits >>>= 8;
+                        n -= 8;
+                    }
+                }
+            }
+            if (n > 0) {
+                b[i++] = (byte) bits;
+            }
+        }
+        return i;
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        if (length < COUNT_SIZE) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalFrameOfReference"));
+        }
+        final int count = (int) BuiltInEncodingAlgorithm.INT_VIEW.get(b, start);
+        // Check the number of blocks against the length before allocating
+        // the array, as a block has at least the octets of its header
+        final int headerSize = 1 + ((_isLong) ? IntegerEncodingAlgorithm.LONG_SIZE : IntegerEncodingAlgorithm.INT_SIZE);
+        if (count < 0 || count > 0 && (count - 1) / BLOCK_LENGTH >= (length - COUNT_SIZE) / headerSize) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalFrameOfReference"));
+        }
+
+        final int end = start + length;
+        final int i;
+        final Object data;
+        if (_isLong) {
+            final long[] ldata = new long[count];
+            i = decodeFromBytesToLongArray(ldata, b, start + COUNT_SIZE, end);
+            data = ldata;
+        } else {
+            final int[] idata = new int[count];
+            i = decodeFromBytesToIntArray(idata, b, start + COUNT_SIZE, end);
+            data = idata;
+        }
+        if (i != end) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalFrameOfReference"));
+        }
+        return data;
+    }
+
+    private static int decodeFromBytesToIntArray(int[] data, byte[] b, int i, int end) throws EncodingAlgorithmException {
+        for (int start = 0; start < data.length; start += BLOCK_LENGTH) {
+            final int blockEnd = Math.min(start + BLOCK_LENGTH, data.length);
+            final int width = (i < end) ? b[i++] : -1;
+            if (width < 0 || width > Integer.SIZE
+                    || end - i < IntegerEncodingAlgorithm.INT_SIZE + packedLength(blockEnd - start, width)) {
+                throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalFrameOfReference"));
+            }
+            final int min = (int) BuiltInEncodingAlgorithm.INT_VIEW.get(b, i);
+            i += IntegerEncodingAlgorithm.INT_SIZE;
+
+            final long mask = (1L << width) - 1;
+            long bits = 0;
+            int n = 0;
+            for (int k = start; k < blockEnd; k++) {
+                while (n < width) {
+                    bits |= (b[i++] & 0xFFL) << n;
+                    n += 8;
+                }
+                data[k] = min + (int) (bits & mask);
+                bits >>>= width;
+                n -= width;
+            }
+        }
+        return i;
+    }
+
+    private static int decodeFromBytesToLongArray(long[] data, byte[] b, int i, int end) throws EncodingAlgorithmException {
+        for (int start = 0; start < data.length; start += BLOCK_LENGTH) {
+            final int blockEnd = Math.min(start + BLOCK_LENGTH, data.length);
+            final int width = (i < end) ? b[i++] : -1;
+            if (width < 0 || width > Long.SIZE
+                    || end - i < IntegerEncodingAlgorithm.LONG_SIZE + packedLength(blockEnd - start, width)) {
+                throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalFrameOfReference"));
+            }
+            final long min = (long) BuiltInEncodingAlgorithm.LONG_VIEW.get(b, i);
+            i += IntegerEncodingAlgorithm.LONG_SIZE;
+
+            final int lowWidth = Math.min(width, 32);
+            final int highWidth = width - lowWidth;
+            final long lowMask = (1L << lowWidth) - 1;
+            final long highMask = (1L << highWidth) - 1;
+            long bits = 0;
+            int n = 0;
+            for (int k = start; k < blockEnd; k++) {
+                while (n < lowWidth) {
+                    bits |= (b[i++] & 0xFFL) << n;
+                    n += 8;
+                }
+                long d = bits & lowMask;
+                bits >>>= lowWidth;
+                n -= lowWidth;
+                if (highWidth > 0) {
+                    while (n < highWidth) {
+                        bits |= (b[i++] & 0xFFL) << n;
+                        n += 8;
+                    }
+                    d |= (bits & highMask) << 32;
+                    bits >>>= highWidth;
+                    n -= highWidth;
+                }
+                data[k] = min + d;
+            }
+        }
+        return i;
+    }
+
+    private static int packedLength(int length, int width) {
+        return (int) (((long) length * width + 7) >>> 3);
+    }
+}
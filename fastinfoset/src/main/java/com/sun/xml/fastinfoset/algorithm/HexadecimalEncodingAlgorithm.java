@@ -22,6 +22,7 @@ package com.sun.xml.fastinfoset.algorithm;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 
@@ -30,31 +31,32 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
         {   '0','1','2','3','4','5','6','7',
             '8','9','A','B','C','D','E','F' };
     
-    private static final int[] HEXADECIMAL_TO_NIBBLE_TABLE = {
-        /*'0'*/ 0,
-        /*'1'*/ 1,
-        /*'2'*/ 2,
-        /*'3'*/ 3,
-        /*'4'*/ 4,
-        /*'5'*/ 5,
-        /*'6'*/ 6,
-        /*'7'*/ 7,
-        /*'8'*/ 8,
-        /*'9'*/ 9, -1, -1, -1, -1, -1, -1, -1,
-        /*'A'*/ 10,
-        /*'B'*/ 11,
-        /*'C'*/ 12,
-        /*'D'*/ 13,
-        /*'E'*/ 14,
-        /*'F'*/ 15,
-        /*'G'-'Z'*/-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,
-        /*'[' - '`'*/ -1, -1, -1, -1, -1, -1,
-        /*'a'*/ 10,
-        /*'b'*/ 11,
-        /*'c'*/ 12,
-        /*'d'*/ 13,
-        /*'e'*/ 14,
-        /*'f'*/ 15 };
+    /**
+     * The pairs of hexadecimal characters of each octet.
+     */
+    private static final char[] OCTET_TO_HEXADECIMAL_TABLE = new char[256 * 2];
+    
+    /**
+     * The values of the hexadecimal characters, indexed by character,
+     * otherwise -1 for characters less than 128 that are not hexadecimal
+     * characters.
+     */
+    private static final int[] HEXADECIMAL_TO_NIBBLE_TABLE = new int[128];
+    
+    static {
+        for (int i = 0; i < 256; i++) {
+            OCTET_TO_HEXADECIMAL_TABLE[i * 2] = NIBBLE_TO_HEXADECIMAL_TABLE[i >> 4];
+            OCTET_TO_HEXADECIMAL_TABLE[i * 2 + 1] = NIBBLE_TO_HEXADECIMAL_TABLE[i & 0xf];
+        }
+        
+        Arrays.fill(HEXADECIMAL_TO_NIBBLE_TABLE, -1);
+        for (int i = 0; i < 16; i++) {
+            HEXADECIMAL_TO_NIBBLE_TABLE[NIBBLE_TO_HEXADECIMAL_TABLE[i]] = i;
+            HEXADECIMAL_TO_NIBBLE_TABLE[Character.toLowerCase(NIBBLE_TO_HEXADECIMAL_TABLE[i])] = i;
+        }
+    }
+    
+    private static final int CHARACTERS_BUFFER_SIZE = 1024;
 
     public HexadecimalEncodingAlgorithm() {
     }
@@ -83,27 +85,13 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        if (length == 0) {
-            return new byte[0];
-        }
+        final IncrementalDecoder decoder = new IncrementalDecoder(length / 2);
+        decoder.decode(ch, start, length);
         
-        StringBuilder encodedValue = removeWhitespace(ch, start, length);
-        int encodedLength = encodedValue.length();
-        if (encodedLength == 0) {
-            return new byte[0];
-        }
-        
-        int valueLength = encodedValue.length() / 2;
-        byte[] value = new byte[valueLength];
-
-        int encodedIdx = 0;
-        for (int i = 0; i < valueLength; ++i) {
-            int nibble1 = HEXADECIMAL_TO_NIBBLE_TABLE[encodedValue.charAt(encodedIdx++) - '0'];
-            int nibble2 = HEXADECIMAL_TO_NIBBLE_TABLE[encodedValue.charAt(encodedIdx++) - '0'];
-            value[i] = (byte) ((nibble1 << 4) | nibble2);
-        }
-
-        return value;
+        final byte[] value = decoder.getOctets();
+        return (value.length == decoder.getOctetsLength())
+                ? value
+                : Arrays.copyOf(value, decoder.getOctetsLength());
     }
     
     @Override
@@ -116,10 +104,18 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
             return;
         }
 
-        s.ensureCapacity(value.length * 2);
-        for (byte b : value) {
-            s.append(NIBBLE_TO_HEXADECIMAL_TABLE[(b >>> 4) & 0xf]);
-            s.append(NIBBLE_TO_HEXADECIMAL_TABLE[b & 0xf]);
+        s.ensureCapacity(s.length() + value.length * 2);
+        final char[] ch = new char[Math.min(value.length * 2, CHARACTERS_BUFFER_SIZE)];
+        int i = 0;
+        while (i < value.length) {
+            final int end = Math.min(value.length, i + ch.length / 2);
+            int j = 0;
+            for (; i < end; i++) {
+                final int o = (value[i] & 0xFF) * 2;
+                ch[j++] = OCTET_TO_HEXADECIMAL_TABLE[o];
+                ch[j++] = OCTET_TO_HEXADECIMAL_TABLE[o + 1];
+            }
+            s.append(ch, 0, j);
         }
     }
     
@@ -137,4 +133,138 @@ public class HexadecimalEncodingAlgorithm extends BuiltInEncodingAlgorithm {
     public final void encodeToBytes(Object array, int astart, int alength, byte[] b, int start) {
         System.arraycopy(array, astart, b, start, alength);
     }    
+
+    /**
+     * Decodes hexadecimal characters to octets incrementally, as the
+     * characters are reported in many chunks, for example by many calls to
+     * {@link org.xml.sax.ContentHandler#characters(char[], int, int)},
+     * without concatenating the characters.
+     * <p>
+     * White space is ignored. A final character that does not form an
+     * octet is reported by {@link #finish()}, whereas
+     * {@link HexadecimalEncodingAlgorithm#convertFromCharacters(char[], int, int)}
+     * ignores it. The decoded octets may be encoded using
+     * {@link org.jvnet.fastinfoset.sax.EncodingAlgorithmContentHandler#octets(String, int, byte[], int, int)}
+     * with the "hexadecimal" encoding algorithm.
+     * <p>
+     * A decoder may be reused after it is reset.
+     */
+    public static final class IncrementalDecoder {
+        private byte[] _octets;
+        
+        private int _octetsLength;
+        
+        /**
+         * The pending high nibble, otherwise -1.
+         */
+        private int _nibble = -1;
+        
+        public IncrementalDecoder() {
+            this(0);
+        }
+        
+        IncrementalDecoder(int capacity) {
+            _octets = new byte[capacity];
+        }
+        
+        /**
+         * Decode a chunk of characters.
+         *
+         * @param ch the array of characters.
+         * @param start the start of the characters.
+         * @param length the number of characters.
+         * @throws IllegalArgumentException if a character is not a
+         *         hexadecimal character or white space.
+         */
+        public void decode(char[] ch, int start, int length) {
+            final int end = start + length;
+            if (_octets.length - _octetsLength < (length + 1) / 2) {
+                _octets = Arrays.copyOf(_octets, Math.max(_octets.length * 2, _octetsLength + (length + 1) / 2));
+            }
+            
+            final byte[] octets = _octets;
+            int octetsLength = _octetsLength;
+            int nibble = _nibble;
+            for (int i = start; i < end; i++) {
+                final char c = ch[i];
+                final int v = (c < 128) ? HEXADECIMAL_TO_NIBBLE_TABLE[c] : -1;
+                if (v >= 0) {
+                    if (nibble < 0) {
+                        nibble = v;
+                    } else {
+                        octets[octetsLength++] = (byte) ((nibble << 4) | v);
+                        nibble = -1;
+                    }
+                } else if (!(c < 128 ? isWhiteSpace(c) : Character.isWhitespace(c))) {
+                    throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalHexadecimal"));
+                }
+            }
+            _octetsLength = octetsLength;
+            _nibble = nibble;
+        }
+        
+        /**
+         * Complete the decoding of the characters.
+         *
+         * @throws IllegalArgumentException if the final character does not
+         *         form an octet.
+         */
+        public void finish() {
+            if (_nibble >= 0) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.illegalHexadecimal"));
+            }
+        }
+        
+        /**
+         * Get the decoded octets, which are valid up to the length of the
+         * decoded octets. The array may be modified by further decoding.
+         *
+         * @return the array of decoded octets.
+         */
+        public byte[] getOctets() {
+            return _octets;
+        }
+        
+        /**
+         * @return the number of decoded octets.
+         */
+        public int getOctetsLength() {
+            return _octetsLength;
+        }
+        
+        /**
+         * Get the characters decoded so far, including a final character
+         * that does not yet form an octet. The characters are those of
+         * the canonical representation, white space is not included and
+         * letters are upper case.
+         * <p>
+         * A decoder retains its state when a chunk of characters is not
+         * valid, so the characters may be obtained to recover the content
+         * decoded before that chunk.
+         *
+         * @return the array of characters.
+         */
+        public char[] getCharacters() {
+            final char[] ch = new char[_octetsLength * 2 + ((_nibble >= 0) ? 1 : 0)];
+            int j = 0;
+            for (int i = 0; i < _octetsLength; i++) {
+                final int o = (_octets[i] & 0xFF) * 2;
+                ch[j++] = OCTET_TO_HEXADECIMAL_TABLE[o];
+                ch[j++] = OCTET_TO_HEXADECIMAL_TABLE[o + 1];
+            }
+            if (_nibble >= 0) {
+                ch[j] = NIBBLE_TO_HEXADECIMAL_TABLE[_nibble];
+            }
+            return ch;
+        }
+        
+        /**
+         * Reset the decoder to decode other characters, retaining the
+         * array of octets for reuse.
+         */
+        public void reset() {
+            _octetsLength = 0;
+            _nibble = -1;
+        }
+    }
 }
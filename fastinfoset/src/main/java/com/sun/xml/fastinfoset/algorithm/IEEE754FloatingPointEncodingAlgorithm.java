@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -25,6 +26,136 @@ public abstract class IEEE754FloatingPointEncodingAlgorithm extends BuiltInEncod
     public static final int FLOAT_MAX_CHARACTER_SIZE    = 14;
     public static final int DOUBLE_MAX_CHARACTER_SIZE   = 24;
 
+    /*
+     * Powers of ten that are exact as a double, and as a float.
+     */
+    private static final double[] DOUBLE_POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POW10 = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private static final int MAX_SIGNIFICAND_DIGITS = 18;
+
     protected IEEE754FloatingPointEncodingAlgorithm() {
     }
+
+    /**
+     * Parse the characters of a double value.
+     * <p>
+     * A decimal whose significand and power of ten are exact as doubles is
+     * parsed without creating a String, since a single correctly rounded
+     * multiplication or division gives the value. Otherwise the characters
+     * are parsed by {@link Double#parseDouble}, so any error is reported
+     * as before.
+     */
+    protected static double parseDouble(char[] ch, int start, int end) {
+        final double v = parseExactDecimal(ch, start, end, false);
+        return (v == v) ? v : Double.parseDouble(new String(ch, start, end - start));
+    }
+
+    /**
+     * Parse the characters of a float value, see
+     * {@link #parseDouble(char[], int, int)}.
+     */
+    protected static float parseFloat(char[] ch, int start, int end) {
+        final double v = parseExactDecimal(ch, start, end, true);
+        return (v == v) ? (float) v : Float.parseFloat(new String(ch, start, end - start));
+    }
+
+    /*
+     * Parse an optionally signed decimal, with an optional fraction and
+     * exponent, whose significand and power of ten are exact as a float or
+     * double.
+     *
+     * @return the value, or NaN if the characters are not such a decimal.
+     */
+    private static double parseExactDecimal(char[] ch, int i, int end, boolean isFloat) {
+        boolean negative = false;
+        if (i < end) {
+            final char c = ch[i];
+            if (c == '-') {
+                negative = true;
+                i++;
+            } else if (c == '+') {
+                i++;
+            }
+        }
+
+        long significand = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            final char c = ch[i];
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            final int d = c - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            digits++;
+            if (significand != 0 || d != 0) {
+                if (++significantDigits > MAX_SIGNIFICAND_DIGITS) {
+                    return Double.NaN;
+                }
+                significand = significand * 10 + d;
+            }
+            if (fraction) {
+                exponent--;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end) {
+            final char c = ch[i++];
+            if (c != 'e' && c != 'E' || i == end) {
+                return Double.NaN;
+            }
+            boolean negativeExponent = false;
+            if (ch[i] == '-') {
+                negativeExponent = true;
+                i++;
+            } else if (ch[i] == '+') {
+                i++;
+            }
+            // Larger exponents are never exact
+            if (i == end || end - i > 3) {
+                return Double.NaN;
+            }
+            int e = 0;
+            for (; i < end; i++) {
+                final int d = ch[i] - '0';
+                if (d < 0 || d > 9) {
+                    return Double.NaN;
+                }
+                e = e * 10 + d;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (isFloat) {
+            if (significand > 1L << 24 || exponent < -10 || exponent > 10) {
+                return Double.NaN;
+            }
+            float v = significand;
+            v = (exponent < 0) ? v / FLOAT_POW10[-exponent] : v * FLOAT_POW10[exponent];
+            return negative ? -v : v;
+        } else {
+            if (significand > 1L << 53 || exponent < -22 || exponent > 22) {
+                return Double.NaN;
+            }
+            double v = significand;
+            v = (exponent < 0) ? v / DOUBLE_POW10[-exponent] : v * DOUBLE_POW10[exponent];
+            return negative ? -v : v;
+        }
+    }
 }
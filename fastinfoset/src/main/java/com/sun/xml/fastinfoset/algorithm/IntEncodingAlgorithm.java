@@ -19,12 +19,10 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -79,15 +77,21 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Integer> integerList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String iStringValue = cb.subSequence(start1, end).toString();
-            integerList.add(Integer.valueOf(iStringValue));
-        });
-        
-        return generateArrayFromList(integerList);
+        int[] idata = new int[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == idata.length) {
+                idata = Arrays.copyOf(idata, size * 2);
+            }
+            idata[size++] = parseInt(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+
+        return Arrays.copyOf(idata, size);
     }
     
     @Override
@@ -105,50 +109,56 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void decodeFromBytesToIntArray(int[] idata, int istart, byte[] b, int start, int length) {
         final int size = length / INT_SIZE;
         for (int i = 0; i < size; i++) {
-            idata[istart++] = ((b[start++] & 0xFF) << 24) | 
-                    ((b[start++] & 0xFF) << 16) | 
-                    ((b[start++] & 0xFF) << 8) | 
-                    (b[start++] & 0xFF);
-        }        
+            idata[istart++] = (int) INT_VIEW.get(b, start);
+            start += INT_SIZE;
+        }
     }
     
     public final int[] decodeFromInputStreamToIntArray(InputStream s) throws IOException {
-        final List<Integer> integerList = new ArrayList<>();
-        final byte[] b = new byte[INT_SIZE];
-        
+        int[] idata = new int[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int length = 0;
         while (true) {
-            int n = s.read(b);
-            if (n != 4) {
-                if (n == -1) {
-                    break;
-                }
-                
-                while(n != 4) {
-                    final int m = s.read(b, n, INT_SIZE - n);
-                    if (m == -1) {
-                        throw new EOFException();
-                    }
-                    n += m;
-                }
+            final int n = decodeFromInputStreamToIntArray(idata, length, idata.length - length, s);
+            length += n;
+            if (length < idata.length) {
+                break;
             }
-            
-            final int i = ((b[0] & 0xFF) << 24) | 
-                    ((b[1] & 0xFF) << 16) | 
-                    ((b[2] & 0xFF) << 8) | 
-                    (b[3] & 0xFF);
-            integerList.add(i);
+            idata = Arrays.copyOf(idata, idata.length * 2);
         }
         
-        return generateArrayFromList(integerList);
+        return Arrays.copyOf(idata, length);
+    }
+    
+    /**
+     * Decode ints from a stream into an array, reading the octets of at
+     * most {@code length} ints in bounded windows.
+     *
+     * @return the number of ints decoded, which is less than
+     *         {@code length} only if the end of the stream has been reached.
+     */
+    public final int decodeFromInputStreamToIntArray(int[] idata, int start, int length, InputStream s) throws IOException {
+        final byte[] b = new byte[Math.min(length, STREAM_CHUNK_LENGTH) * INT_SIZE];
+        int decoded = 0;
+        while (decoded < length) {
+            final int octetLength = Math.min(length - decoded, STREAM_CHUNK_LENGTH) * INT_SIZE;
+            final int n = readPrimitiveOctets(s, b, octetLength, INT_SIZE);
+            decodeFromBytesToIntArray(idata, start + decoded, b, 0, n);
+            decoded += n / INT_SIZE;
+            if (n < octetLength) {
+                break;
+            }
+        }
+        
+        return decoded;
     }
     
     
     public final void encodeToOutputStreamFromIntArray(int[] idata, OutputStream s) throws IOException {
-        for (final int bits : idata) {
-            s.write((bits >>> 24) & 0xFF);
-            s.write((bits >>> 16) & 0xFF);
-            s.write((bits >>> 8) & 0xFF);
-            s.write(bits & 0xFF);
+        final byte[] b = new byte[Math.min(idata.length, STREAM_CHUNK_LENGTH) * INT_SIZE];
+        for (int i = 0; i < idata.length; i += STREAM_CHUNK_LENGTH) {
+            final int length = Math.min(idata.length - i, STREAM_CHUNK_LENGTH);
+            encodeToBytesFromIntArray(idata, i, length, b, 0);
+            s.write(b, 0, length * INT_SIZE);
         }
     }
     
@@ -160,11 +170,8 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void encodeToBytesFromIntArray(int[] idata, int istart, int ilength, byte[] b, int start) {
         final int iend = istart + ilength;
         for (int i = istart; i < iend; i++) {
-            final int bits = idata[i];
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+            INT_VIEW.set(b, start, idata[i]);
+            start += INT_SIZE;
         }
     }
     
@@ -186,6 +193,12 @@ public class IntEncodingAlgorithm extends IntegerEncodingAlgorithm {
         convertToCharactersFromIntArray(idata, new StringBuilder(s));
     }
 
+    private static int parseInt(char[] ch, int start, int end) {
+        final long v = parseDecimal(ch, start, end);
+        return (v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE)
+                ? (int) v : Integer.parseInt(new String(ch, start, end - start));
+    }
+
     public final int[] generateArrayFromList(List<Integer> array) {
         int[] idata = new int[array.size()];
         for (int i = 0; i < idata.length; i++) {
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * An application-defined encoding algorithm for arrays of int or long
+ * values, whose encoded length depends on the magnitude of the values
+ * rather than being a fixed 4 or 8 octets per value.
+ * <p>
+ * The algorithms are identified by the URIs declared by this class. To
+ * use an algorithm the URI must be present in the vocabulary of the
+ * serializer and the parser, and the algorithm registered with both, see
+ * {@link #registerEncodingAlgorithms(Map)}. The lexical forms of the
+ * values are those of the built-in "int" and "long" algorithms.
+ */
+public abstract class IntegerArrayEncodingAlgorithm implements EncodingAlgorithm {
+    private static final String URI_PREFIX = "http://jvnet.org/fastinfoset/algorithm/";
+
+    public static final String INT_VARINT_URI = URI_PREFIX + "int-varint";
+    public static final String INT_ZIGZAG_URI = URI_PREFIX + "int-zigzag";
+    public static final String INT_DELTA_URI = URI_PREFIX + "int-delta";
+    public static final String INT_FRAME_OF_REFERENCE_URI = URI_PREFIX + "int-frame-of-reference";
+
+    public static final String LONG_VARINT_URI = URI_PREFIX + "long-varint";
+    public static final String LONG_ZIGZAG_URI = URI_PREFIX + "long-zigzag";
+    public static final String LONG_DELTA_URI = URI_PREFIX + "long-delta";
+    public static final String LONG_FRAME_OF_REFERENCE_URI = URI_PREFIX + "long-frame-of-reference";
+
+    /**
+     * The URIs of the algorithms, in the order they may be added to a
+     * vocabulary.
+     */
+    public static final List<String> URIS = List.of(
+            INT_VARINT_URI, INT_ZIGZAG_URI, INT_DELTA_URI, INT_FRAME_OF_REFERENCE_URI,
+            LONG_VARINT_URI, LONG_ZIGZAG_URI, LONG_DELTA_URI, LONG_FRAME_OF_REFERENCE_URI);
+
+    protected final boolean _isLong;
+
+    protected IntegerArrayEncodingAlgorithm(boolean isLong) {
+        _isLong = isLong;
+    }
+
+    /**
+     * Register the algorithms, keyed by their URIs, with a map of
+     * registered encoding algorithms.
+     *
+     * @param algorithms the map of registered encoding algorithms.
+     * @return the map.
+     */
+    public static Map<String, EncodingAlgorithm> registerEncodingAlgorithms(Map<String, EncodingAlgorithm> algorithms) {
+        algorithms.put(INT_VARINT_URI, new VarIntEncodingAlgorithm(false, VarIntEncodingAlgorithm.UNSIGNED));
+        algorithms.put(INT_ZIGZAG_URI, new VarIntEncodingAlgorithm(false, VarIntEncodingAlgorithm.ZIGZAG));
+        algorithms.put(INT_DELTA_URI, new VarIntEncodingAlgorithm(false, VarIntEncodingAlgorithm.DELTA));
+        algorithms.put(INT_FRAME_OF_REFERENCE_URI, new FrameOfReferenceEncodingAlgorithm(false));
+        algorithms.put(LONG_VARINT_URI, new VarIntEncodingAlgorithm(true, VarIntEncodingAlgorithm.UNSIGNED));
+        algorithms.put(LONG_ZIGZAG_URI, new VarIntEncodingAlgorithm(true, VarIntEncodingAlgorithm.ZIGZAG));
+        algorithms.put(LONG_DELTA_URI, new VarIntEncodingAlgorithm(true, VarIntEncodingAlgorithm.DELTA));
+        algorithms.put(LONG_FRAME_OF_REFERENCE_URI, new FrameOfReferenceEncodingAlgorithm(true));
+        return algorithms;
+    }
+
+    public final boolean isLong() {
+        return _isLong;
+    }
+
+    /**
+     * Encode an array of int values.
+     *
+     * @return the number of octets encoded.
+     */
+    protected abstract int encodeToBytes(int[] data, byte[] b);
+
+    /**
+     * Encode an array of long values.
+     *
+     * @return the number of octets encoded.
+     */
+    protected abstract int encodeToBytes(long[] data, byte[] b);
+
+    /**
+     * @return the maximum number of octets of the encoding of a number of
+     *         values.
+     */
+    protected abstract int getMaximumOctetLength(int length);
+
+    @Override
+    public final Object decodeFromInputStream(InputStream s) throws EncodingAlgorithmException, IOException {
+        final byte[] b = s.readAllBytes();
+        return decodeFromBytes(b, 0, b.length);
+    }
+
+    @Override
+    public final void encodeToOutputStream(Object data, OutputStream s) throws IOException {
+        final byte[] b;
+        final int length;
+        if (_isLong) {
+            if (!(data instanceof long[])) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotLongArray"));
+            }
+            final long[] ldata = (long[]) data;
+            b = new byte[getMaximumOctetLength(ldata.length)];
+            length = encodeToBytes(ldata, b);
+        } else {
+            if (!(data instanceof int[])) {
+                throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.dataNotIntArray"));
+            }
+            final int[] idata = (int[]) data;
+            b = new byte[getMaximumOctetLength(idata.length)];
+            length = encodeToBytes(idata, b);
+        }
+        s.write(b, 0, length);
+    }
+
+    @Override
+    public final Object convertFromCharacters(char[] ch, int start, int length) {
+        return (_isLong)
+                ? BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.convertFromCharacters(ch, start, length)
+                : BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.convertFromCharacters(ch, start, length);
+    }
+
+    @Override
+    public final void convertToCharacters(Object data, StringBuilder s) {
+        if (_isLong) {
+            BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.convertToCharacters(data, s);
+        } else {
+            BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.convertToCharacters(data, s);
+        }
+    }
+
+    /**
+     * Write an unsigned LEB128 varint, 7 bits per octet with the most
+     * significant bit of an octet set if more octets follow.
+     *
+     * @return the index after the varint.
+     */
+    protected static int writeVarInt(long v, byte[] b, int i) {
+        while ((v & ~0x7FL) != 0) {
+            b[i++] = (byte) (v | 0x80);
+            v >>>= 7;
+        }
+        b[i++] = (byte) v;
+        return i;
+    }
+
+    /**
+     * @return the number of varints in a range of octets, which is the
+     *         number of octets whose most significant bit is not set.
+     */
+    protected static int countVarInts(byte[] b, int start, int end) {
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            n += ~b[i] >>> 7 & 1;
+        }
+        return n;
+    }
+
+    protected static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    protected static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    protected static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    protected static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -27,6 +28,52 @@ public abstract class IntegerEncodingAlgorithm extends BuiltInEncodingAlgorithm
     public static final int INT_MAX_CHARACTER_SIZE      = 11;
     public static final int LONG_MAX_CHARACTER_SIZE     = 20;
 
+    /**
+     * The value returned by {@link #parseDecimal} if the characters are not
+     * an optionally signed decimal integer of at most 18 digits.
+     */
+    protected static final long NOT_DECIMAL = Long.MIN_VALUE;
+
+    private static final int MAX_DECIMAL_DIGITS = 18;
+
     protected IntegerEncodingAlgorithm() {
     }
+
+    /**
+     * Parse the characters of an optionally signed decimal integer, without
+     * creating a String.
+     * <p>
+     * Characters that are not matched, such as those of an integer with
+     * more digits than can be held without overflow, are left to the
+     * parse methods of the Java wrapper classes so that any error is
+     * reported as before.
+     *
+     * @return the integer, or {@link #NOT_DECIMAL}.
+     */
+    protected static long parseDecimal(char[] ch, int start, int end) {
+        boolean negative = false;
+        if (start < end) {
+            final char c = ch[start];
+            if (c == '-') {
+                negative = true;
+                start++;
+            } else if (c == '+') {
+                start++;
+            }
+        }
+
+        if (start == end || end - start > MAX_DECIMAL_DIGITS) {
+            return NOT_DECIMAL;
+        }
+
+        long v = 0;
+        for (int i = start; i < end; i++) {
+            final int d = ch[i] - '0';
+            if (d < 0 || d > 9) {
+                return NOT_DECIMAL;
+            }
+            v = v * 10 + d;
+        }
+        return negative ? -v : v;
+    }
 }
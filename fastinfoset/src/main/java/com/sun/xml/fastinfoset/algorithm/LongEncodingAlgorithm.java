@@ -19,12 +19,10 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -78,15 +76,21 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
     
     @Override
     public Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Long> longList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String lStringValue = cb.subSequence(start1, end).toString();
-            longList.add(Long.valueOf(lStringValue));
-        });
-        
-        return generateArrayFromList(longList);
+        long[] ldata = new long[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == ldata.length) {
+                ldata = Arrays.copyOf(ldata, size * 2);
+            }
+            ldata[size++] = parseLong(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+
+        return Arrays.copyOf(ldata, size);
     }
     
     @Override
@@ -104,65 +108,56 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void decodeFromBytesToLongArray(long[] ldata, int istart, byte[] b, int start, int length) {
         final int size = length / LONG_SIZE;
         for (int i = 0; i < size; i++) {
-            ldata[istart++] = 
-                    ((long)(b[start++] & 0xFF) << 56) | 
-                    ((long)(b[start++] & 0xFF) << 48) | 
-                    ((long)(b[start++] & 0xFF) << 40) | 
-                    ((long)(b[start++] & 0xFF) << 32) | 
-                    ((long)(b[start++] & 0xFF) << 24) | 
-                    ((long)(b[start++] & 0xFF) << 16) | 
-                    ((long)(b[start++] & 0xFF) << 8) | 
-                    (long)(b[start++] & 0xFF);
-        }        
+            ldata[istart++] = (long) LONG_VIEW.get(b, start);
+            start += LONG_SIZE;
+        }
     }
     
     public final long[] decodeFromInputStreamToIntArray(InputStream s) throws IOException {
-        final List<Long> longList = new ArrayList<>();
-        final byte[] b = new byte[LONG_SIZE];
-        
+        long[] ldata = new long[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int length = 0;
         while (true) {
-            int n = s.read(b);
-            if (n != LONG_SIZE) {
-                if (n == -1) {
-                    break;
-                }
-                
-                while(n != LONG_SIZE) {
-                    final int m = s.read(b, n, LONG_SIZE - n);
-                    if (m == -1) {
-                        throw new EOFException();
-                    }
-                    n += m;
-                }
+            final int n = decodeFromInputStreamToLongArray(ldata, length, ldata.length - length, s);
+            length += n;
+            if (length < ldata.length) {
+                break;
             }
-            
-            final long l =
-                    (((long) b[0] << 56) +
-                    ((long) (b[1] & 0xFF) << 48) +
-                    ((long) (b[2] & 0xFF) << 40) +
-                    ((long) (b[3] & 0xFF) << 32) +
-                    ((long) (b[4] & 0xFF) << 24) +
-                    ((b[5] & 0xFF) << 16) +
-                    ((b[6] & 0xFF) << 8) +
-                    (b[7] & 0xFF));
-
-            longList.add(l);
+            ldata = Arrays.copyOf(ldata, ldata.length * 2);
         }
         
-        return generateArrayFromList(longList);
+        return Arrays.copyOf(ldata, length);
+    }
+    
+    /**
+     * Decode longs from a stream into an array, reading the octets of at
+     * most {@code length} longs in bounded windows.
+     *
+     * @return the number of longs decoded, which is less than
+     *         {@code length} only if the end of the stream has been reached.
+     */
+    public final int decodeFromInputStreamToLongArray(long[] ldata, int start, int length, InputStream s) throws IOException {
+        final byte[] b = new byte[Math.min(length, STREAM_CHUNK_LENGTH) * LONG_SIZE];
+        int decoded = 0;
+        while (decoded < length) {
+            final int octetLength = Math.min(length - decoded, STREAM_CHUNK_LENGTH) * LONG_SIZE;
+            final int n = readPrimitiveOctets(s, b, octetLength, LONG_SIZE);
+            decodeFromBytesToLongArray(ldata, start + decoded, b, 0, n);
+            decoded += n / LONG_SIZE;
+            if (n < octetLength) {
+                break;
+            }
+        }
+        
+        return decoded;
     }
     
     
     public final void encodeToOutputStreamFromLongArray(long[] ldata, OutputStream s) throws IOException {
-        for (final long bits : ldata) {
-            s.write((int) ((bits >>> 56) & 0xFF));
-            s.write((int) ((bits >>> 48) & 0xFF));
-            s.write((int) ((bits >>> 40) & 0xFF));
-            s.write((int) ((bits >>> 32) & 0xFF));
-            s.write((int) ((bits >>> 24) & 0xFF));
-            s.write((int) ((bits >>> 16) & 0xFF));
-            s.write((int) ((bits >>> 8) & 0xFF));
-            s.write((int) (bits & 0xFF));
+        final byte[] b = new byte[Math.min(ldata.length, STREAM_CHUNK_LENGTH) * LONG_SIZE];
+        for (int i = 0; i < ldata.length; i += STREAM_CHUNK_LENGTH) {
+            final int length = Math.min(ldata.length - i, STREAM_CHUNK_LENGTH);
+            encodeToBytesFromLongArray(ldata, i, length, b, 0);
+            s.write(b, 0, length * LONG_SIZE);
         }
     }
     
@@ -174,15 +169,8 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void encodeToBytesFromLongArray(long[] ldata, int lstart, int llength, byte[] b, int start) {
         final int lend = lstart + llength;
         for (int i = lstart; i < lend; i++) {
-            final long bits = ldata[i];
-            b[start++] = (byte)((bits >>> 56) & 0xFF);
-            b[start++] = (byte)((bits >>> 48) & 0xFF);
-            b[start++] = (byte)((bits >>> 40) & 0xFF);
-            b[start++] = (byte)((bits >>> 32) & 0xFF);
-            b[start++] = (byte)((bits >>> 24) & 0xFF);
-            b[start++] = (byte)((bits >>> 16) & 0xFF);
-            b[start++] = (byte)((bits >>>  8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+            LONG_VIEW.set(b, start, ldata[i]);
+            start += LONG_SIZE;
         }
     }
 
@@ -204,6 +192,11 @@ public class LongEncodingAlgorithm extends IntegerEncodingAlgorithm {
         convertToCharactersFromLongArray(ldata, new StringBuilder(s));
     }
 
+    private static long parseLong(char[] ch, int start, int end) {
+        final long v = parseDecimal(ch, start, end);
+        return (v != NOT_DECIMAL) ? v : Long.parseLong(new String(ch, start, end - start));
+    }
+
     public final long[] generateArrayFromList(List<Long> array) {
         long[] ldata = new long[array.size()];
         for (int i = 0; i < ldata.length; i++) {
@@ -19,12 +19,10 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.CharBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
@@ -84,15 +82,21 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
 
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Short> shortList = new ArrayList<>();
-
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String iStringValue = cb.subSequence(start1, end).toString();
-            shortList.add(Short.valueOf(iStringValue));
-        });
+        short[] sdata = new short[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == sdata.length) {
+                sdata = Arrays.copyOf(sdata, size * 2);
+            }
+            sdata[size++] = parseShort(ch, i, wordEnd);
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
 
-        return generateArrayFromList(shortList);
+        return Arrays.copyOf(sdata, size);
     }
 
     @Override
@@ -110,44 +114,56 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void decodeFromBytesToShortArray(short[] sdata, int istart, byte[] b, int start, int length) {
         final int size = length / SHORT_SIZE;
         for (int i = 0; i < size; i++) {
-            sdata[istart++] = (short) (((b[start++] & 0xFF) << 8) |
-                    (b[start++] & 0xFF));
+            sdata[istart++] = (short) SHORT_VIEW.get(b, start);
+            start += SHORT_SIZE;
         }
     }
 
     public final short[] decodeFromInputStreamToShortArray(InputStream s) throws IOException {
-        final List<Short> shortList = new ArrayList<>();
-        final byte[] b = new byte[SHORT_SIZE];
-
+        short[] sdata = new short[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int length = 0;
         while (true) {
-            int n = s.read(b);
-            if (n != 2) {
-                if (n == -1) {
-                    break;
-                }
-
-                while(n != 2) {
-                    final int m = s.read(b, n, SHORT_SIZE - n);
-                    if (m == -1) {
-                        throw new EOFException();
-                    }
-                    n += m;
-                }
+            final int n = decodeFromInputStreamToShortArray(sdata, length, sdata.length - length, s);
+            length += n;
+            if (length < sdata.length) {
+                break;
             }
-
-            final int i = ((b[0] & 0xFF) << 8) |
-                    (b[1] & 0xFF);
-            shortList.add((short)i);
+            sdata = Arrays.copyOf(sdata, sdata.length * 2);
         }
-
-        return generateArrayFromList(shortList);
+        
+        return Arrays.copyOf(sdata, length);
+    }
+    
+    /**
+     * Decode shorts from a stream into an array, reading the octets of at
+     * most {@code length} shorts in bounded windows.
+     *
+     * @return the number of shorts decoded, which is less than
+     *         {@code length} only if the end of the stream has been reached.
+     */
+    public final int decodeFromInputStreamToShortArray(short[] sdata, int start, int length, InputStream s) throws IOException {
+        final byte[] b = new byte[Math.min(length, STREAM_CHUNK_LENGTH) * SHORT_SIZE];
+        int decoded = 0;
+        while (decoded < length) {
+            final int octetLength = Math.min(length - decoded, STREAM_CHUNK_LENGTH) * SHORT_SIZE;
+            final int n = readPrimitiveOctets(s, b, octetLength, SHORT_SIZE);
+            decodeFromBytesToShortArray(sdata, start + decoded, b, 0, n);
+            decoded += n / SHORT_SIZE;
+            if (n < octetLength) {
+                break;
+            }
+        }
+        
+        return decoded;
     }
 
 
     public final void encodeToOutputStreamFromShortArray(short[] idata, OutputStream s) throws IOException {
-        for (final int bits : idata) {
-            s.write((bits >>> 8) & 0xFF);
-            s.write(bits & 0xFF);
+        final byte[] b = new byte[Math.min(idata.length, STREAM_CHUNK_LENGTH) * SHORT_SIZE];
+        for (int i = 0; i < idata.length; i += STREAM_CHUNK_LENGTH) {
+            final int length = Math.min(idata.length - i, STREAM_CHUNK_LENGTH);
+            encodeToBytesFromShortArray(idata, i, length, b, 0);
+            s.write(b, 0, length * SHORT_SIZE);
         }
     }
 
@@ -159,9 +175,8 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
     public final void encodeToBytesFromShortArray(short[] sdata, int istart, int ilength, byte[] b, int start) {
         final int iend = istart + ilength;
         for (int i = istart; i < iend; i++) {
-            final short bits = sdata[i];
-            b[start++] = (byte)((bits >>> 8) & 0xFF);
-            b[start++] = (byte)(bits & 0xFF);
+            SHORT_VIEW.set(b, start, sdata[i]);
+            start += SHORT_SIZE;
         }
     }
 
@@ -183,6 +198,12 @@ public class ShortEncodingAlgorithm extends IntegerEncodingAlgorithm {
         convertToCharactersFromShortArray(sdata, new StringBuilder(s));
     }
 
+    private static short parseShort(char[] ch, int start, int end) {
+        final long v = parseDecimal(ch, start, end);
+        return (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE)
+                ? (short) v : Short.parseShort(new String(ch, start, end - start));
+    }
+
     public final short[] generateArrayFromList(List<Short> array) {
         short[] sdata = new short[array.size()];
         for (int i = 0; i < sdata.length; i++) {
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,9 +19,7 @@
 
 package com.sun.xml.fastinfoset.algorithm;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.nio.CharBuffer;
+import java.util.Arrays;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
 
@@ -41,17 +40,23 @@ public class UUIDEncodingAlgorithm extends LongEncodingAlgorithm {
     
     @Override
     public final Object convertFromCharacters(char[] ch, int start, int length) {
-        final CharBuffer cb = CharBuffer.wrap(ch, start, length);
-        final List<Long> longList = new ArrayList<>();
-        
-        matchWhiteSpaceDelimnatedWords(cb, (int start1, int end) -> {
-            String uuidValue = cb.subSequence(start1, end).toString();
-            fromUUIDString(uuidValue);
-            longList.add(_msb);
-            longList.add(_lsb);
-        });
-        
-        return generateArrayFromList(longList);
+        long[] ldata = new long[BuiltInEncodingAlgorithmState.INITIAL_LENGTH];
+        int size = 0;
+
+        final int end = start + length;
+        int i = skipWhiteSpace(ch, start, end);
+        while (i < end) {
+            final int wordEnd = skipWord(ch, i, end);
+            if (size == ldata.length) {
+                ldata = Arrays.copyOf(ldata, size * 2);
+            }
+            fromUUIDString(new String(ch, i, wordEnd - i));
+            ldata[size++] = _msb;
+            ldata[size++] = _lsb;
+            i = skipWhiteSpace(ch, wordEnd, end);
+        }
+
+        return Arrays.copyOf(ldata, size);
     }
     
     @Override
@@ -0,0 +1,206 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.algorithm;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
+
+/**
+ * Encode each value of an array as a LEB128 varint, optionally zig-zag
+ * encoded so that values of a small magnitude, positive or negative, have
+ * few octets, and optionally as the difference from the previous value so
+ * that increasing values, such as identifiers or timestamps, have few
+ * octets.
+ * <p>
+ * The number of values is the number of octets that terminate a varint,
+ * so it is not encoded.
+ */
+public class VarIntEncodingAlgorithm extends IntegerArrayEncodingAlgorithm {
+    /**
+     * The values are encoded as unsigned integers.
+     */
+    public static final int UNSIGNED = 0;
+
+    /**
+     * The values are zig-zag encoded.
+     */
+    public static final int ZIGZAG = 1;
+
+    /**
+     * The differences between a value and the previous value, or zero for
+     * the first value, are zig-zag encoded.
+     */
+    public static final int DELTA = 2;
+
+    private static final int INT_MAX_OCTETS = 5;
+    private static final int LONG_MAX_OCTETS = 10;
+
+    private final int _mode;
+
+    public VarIntEncodingAlgorithm(boolean isLong, int mode) {
+        super(isLong);
+        if (mode < UNSIGNED || mode > DELTA) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalVarIntMode", new Object[]{mode}));
+        }
+        _mode = mode;
+    }
+
+    public final int getMode() {
+        return _mode;
+    }
+
+    @Override
+    protected int getMaximumOctetLength(int length) {
+        return length * ((_isLong) ? LONG_MAX_OCTETS : INT_MAX_OCTETS);
+    }
+
+    @Override
+    protected int encodeToBytes(int[] data, byte[] b) {
+        int i = 0;
+        switch (_mode) {
+            case UNSIGNED:
+                for (int v : data) {
+                    i = writeVarInt(v & 0xFFFFFFFFL, b, i);
+                }
+                break;
+            case ZIGZAG:
+                for (int v : data) {
+                    i = writeVarInt(zigZag(v) & 0xFFFFFFFFL, b, i);
+                }
+                break;
+            case DELTA:
+                int previous = 0;
+                for (int v : data) {
+                    i = writeVarInt(zigZag(v - previous) & 0xFFFFFFFFL, b, i);
+                    previous = v;
+                }
+                break;
+        }
+        return i;
+    }
+
+    @Override
+    protected int encodeToBytes(long[] data, byte[] b) {
+        int i = 0;
+        switch (_mode) {
+            case UNSIGNED:
+                for (long v : data) {
+                    i = writeVarInt(v, b, i);
+                }
+                break;
+            case ZIGZAG:
+                for (long v : data) {
+                    i = writeVarInt(zigZag(v), b, i);
+                }
+                break;
+            case DELTA:
+                long previous = 0;
+                for (long v : data) {
+                    i = writeVarInt(zigZag(v - previous), b, i);
+                    previous = v;
+                }
+                break;
+        }
+        return i;
+    }
+
+    @Override
+    public final Object decodeFromBytes(byte[] b, int start, int length) throws EncodingAlgorithmException {
+        final int end = start + length;
+        if (length > 0 && b[end - 1] < 0) {
+            throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalVarInt"));
+        }
+
+        final int n = countVarInts(b, start, end);
+        if (_isLong) {
+            final long[] data = new long[n];
+            decodeFromBytesToLongArray(data, b, start);
+            return data;
+        } else {
+            final int[] data = new int[n];
+            decodeFromBytesToIntArray(data, b, start);
+            return data;
+        }
+    }
+
+    private void decodeFromBytesToIntArray(int[] data, byte[] b, int i) throws EncodingAlgorithmException {
+        for (int k = 0; k < data.length; k++) {
+            int v = b[i++];
+            if (v < 0) {
+                v &= 0x7F;
+                int shift = 7;
+                int o;
+                do {
+                    if (shift == INT_MAX_OCTETS * 7) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalVarInt"));
+                    }
+                    o = b[i++];
+                    v |= (o & 0x7F) << shift;
+                    shift += 7;
+                } while (o < 0);
+            }
+            data[k] = v;
+        }
+
+        // Separate passes over the decoded values, which the compiler may
+        // unroll or vectorize
+        if (_mode != UNSIGNED) {
+            for (int k = 0; k < data.length; k++) {
+                data[k] = unZigZag(data[k]);
+            }
+        }
+        if (_mode == DELTA) {
+            for (int k = 1; k < data.length; k++) {
+                data[k] += data[k - 1];
+            }
+        }
+    }
+
+    private void decodeFromBytesToLongArray(long[] data, byte[] b, int i) throws EncodingAlgorithmException {
+        for (int k = 0; k < data.length; k++) {
+            long v = b[i++];
+            if (v < 0) {
+                v &= 0x7F;
+                int shift = 7;
+                int o;
+                do {
+                    if (shift == LONG_MAX_OCTETS * 7) {
+                        throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.illegalVarInt"));
+                    }
+                    o = b[i++];
+                    v |= (long) (o & 0x7F) << shift;
+                    shift += 7;
+                } while (o < 0);
+            }
+            data[k] = v;
+        }
+
+        if (_mode != UNSIGNED) {
+            for (int k = 0; k < data.length; k++) {
+                data[k] = unZigZag(data[k]);
+            }
+        }
+        if (_mode == DELTA) {
+            for (int k = 1; k < data.length; k++) {
+                data[k] += data[k - 1];
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -29,6 +30,16 @@ public final class BuiltInRestrictedAlphabets {
         table[RestrictedAlphabet.NUMERIC_CHARACTERS_INDEX] = RestrictedAlphabet.NUMERIC_CHARACTERS.toCharArray();
         table[RestrictedAlphabet.DATE_TIME_CHARACTERS_INDEX] = RestrictedAlphabet.DATE_TIME_CHARACTERS.toCharArray();
     }
+    
+    public static final RestrictedAlphabetCodeTable[] codeTable =
+            new RestrictedAlphabetCodeTable[EncodingConstants.RESTRICTED_ALPHABET_BUILTIN_END + 1];
+    
+    static {
+        codeTable[RestrictedAlphabet.NUMERIC_CHARACTERS_INDEX] = 
+                new RestrictedAlphabetCodeTable(RestrictedAlphabet.NUMERIC_CHARACTERS);
+        codeTable[RestrictedAlphabet.DATE_TIME_CHARACTERS_INDEX] = 
+                new RestrictedAlphabetCodeTable(RestrictedAlphabet.DATE_TIME_CHARACTERS);
+    }
 
     private BuiltInRestrictedAlphabets() {
     }
@@ -0,0 +1,108 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.alphabet;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.Arrays;
+
+/**
+ * The mapping of the characters of a restricted alphabet to the integer
+ * values that encode the characters, a character being encoded as its
+ * position in the alphabet.
+ * <p>
+ * The values are held in a table indexed by character, so a character is
+ * encoded with one lookup. Instances are immutable and may be shared.
+ */
+public final class RestrictedAlphabetCodeTable {
+    
+    private final String _alphabet;
+    
+    private final int[] _codes;
+    
+    private final int _bitsPerCharacter;
+    
+    /**
+     * @param alphabet the restricted alphabet, containing 2 or more characters.
+     */
+    public RestrictedAlphabetCodeTable(String alphabet) {
+        if (alphabet.length() < 2) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().getString("message.alphabetMustContain2orMoreChars"));
+        }
+        
+        int maximumCharacter = 0;
+        for (int i = 0; i < alphabet.length(); i++) {
+            maximumCharacter = Math.max(maximumCharacter, alphabet.charAt(i));
+        }
+        
+        _codes = new int[maximumCharacter + 1];
+        Arrays.fill(_codes, -1);
+        for (int i = 0; i < alphabet.length(); i++) {
+            final char c = alphabet.charAt(i);
+            // A character occurring more than once is encoded as its first position
+            if (_codes[c] == -1) {
+                _codes[c] = i;
+            }
+        }
+        
+        int bitsPerCharacter = 1;
+        while ((1 << bitsPerCharacter) <= alphabet.length()) {
+            bitsPerCharacter++;
+        }
+        
+        _alphabet = alphabet;
+        _bitsPerCharacter = bitsPerCharacter;
+    }
+    
+    /**
+     * Obtain the table of a restricted alphabet. The tables of the built-in
+     * restricted alphabets are shared.
+     *
+     * @param alphabet the restricted alphabet.
+     * @return the table of the restricted alphabet.
+     */
+    public static RestrictedAlphabetCodeTable valueOf(String alphabet) {
+        for (RestrictedAlphabetCodeTable table : BuiltInRestrictedAlphabets.codeTable) {
+            if (table != null && table._alphabet.equals(alphabet)) {
+                return table;
+            }
+        }
+        return new RestrictedAlphabetCodeTable(alphabet);
+    }
+    
+    public String getAlphabet() {
+        return _alphabet;
+    }
+    
+    /**
+     * @return the number of bits that encode a character, the value with
+     *         all bits set terminating the encoded characters.
+     */
+    public int getBitsPerCharacter() {
+        return _bitsPerCharacter;
+    }
+    
+    /**
+     * @param c the character.
+     * @return the integer value of the character, or -1 if the character
+     *         is not a member of the alphabet.
+     */
+    public int getCode(char c) {
+        return (c < _codes.length) ? _codes[c] : -1;
+    }
+}
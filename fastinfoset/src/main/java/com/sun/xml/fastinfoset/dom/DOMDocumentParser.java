@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -27,6 +28,7 @@ import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
@@ -81,6 +83,41 @@ public class DOMDocumentParser extends Decoder {
         parse(s);
     }
     
+    /**
+     * Parse a fast infoset document, contained in an array of octets, into
+     * a {@link Document} instance.
+     * <p>
+     * The octets are decoded in place, without copying them to an internal
+     * buffer.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the array of octets containing the fast infoset document.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     */
+    public void parse(Document d, byte[] b, int offset, int length) throws FastInfosetException, IOException {
+        _currentNode = _document = d;
+        _namespaceAttributesIndex = 0;
+        
+        setInput(b, offset, length);
+        parse();
+    }
+    
+    /**
+     * Parse a fast infoset document, contained in the remaining octets of a
+     * {@link ByteBuffer}, into a {@link Document} instance.
+     *
+     * @param d the {@link Document} instance.
+     * @param b the buffer containing the fast infoset document.
+     */
+    public void parse(Document d, ByteBuffer b) throws FastInfosetException, IOException {
+        _currentNode = _document = d;
+        _namespaceAttributesIndex = 0;
+        
+        setInput(b);
+        parse();
+    }
+    
     protected final void parse(InputStream s) throws FastInfosetException, IOException {
         setInputStream(s);
         parse();
@@ -107,6 +144,8 @@ public class DOMDocumentParser extends Decoder {
         } catch (FastInfosetException | IOException e) {
             resetOnError();
             throw e;
+        } finally {
+            releaseBuffers();
         }
     }
     
@@ -116,6 +155,7 @@ public class DOMDocumentParser extends Decoder {
         if (_b > 0) {
             processDIIOptionalProperties();
         }
+        checkSessionCheckpoint();
         
         // Decode one Document Type II, Comment IIs, PI IIs and one EII
         boolean firstElementHasOccured = false;
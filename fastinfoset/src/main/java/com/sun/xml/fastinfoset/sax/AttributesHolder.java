@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -181,6 +182,10 @@ public class AttributesHolder implements EncodingAlgorithmAttributes {
         }
     }
 
+    public final void setRegisteredEncodingAlgorithms(Map<String, EncodingAlgorithm> registeredEncodingAlgorithms) {
+        _registeredEncodingAlgorithms = registeredEncodingAlgorithms;
+    }
+
     public final void clear() {
         for (int i = 0; i < _attributeCount; i++) {
             _values[i] = null;
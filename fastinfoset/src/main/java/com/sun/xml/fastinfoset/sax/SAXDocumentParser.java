@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -22,6 +23,7 @@ import com.sun.xml.fastinfoset.Decoder;
 import com.sun.xml.fastinfoset.DecoderStateTables;
 import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmState;
 import org.jvnet.fastinfoset.FastInfosetParser;
@@ -30,10 +32,12 @@ import org.jvnet.fastinfoset.sax.FastInfosetReader;
 import org.jvnet.fastinfoset.sax.PrimitiveTypeContentHandler;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
 import org.jvnet.fastinfoset.EncodingAlgorithmException;
@@ -161,6 +165,16 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
     protected BuiltInEncodingAlgorithmState builtInAlgorithmState =
             new BuiltInEncodingAlgorithmState();
     
+    /**
+     * The maximum number of primitives reported in a chunk, or zero.
+     */
+    protected int _primitiveTypeChunkSize;
+    
+    /**
+     * The octets of a chunk of primitives read from a stream.
+     */
+    private byte[] _primitiveTypeChunkOctets;
+    
     protected AttributesHolder _attributes;
     
     protected int[] _namespacePrefixes = new int[16];
@@ -251,6 +265,8 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 return getEncodingAlgorithmContentHandler();
             case FastInfosetReader.PRIMITIVE_TYPE_CONTENT_HANDLER_PROPERTY:
                 return getPrimitiveTypeContentHandler();
+            case FastInfosetReader.PRIMITIVE_TYPE_CHUNK_SIZE_PROPERTY:
+                return getPrimitiveTypeChunkSize();
             default:
                 throw new SAXNotRecognizedException(CommonResourceBundle.getInstance().
                         getString("message.propertyNotRecognized", new Object[]{name}));
@@ -298,6 +314,12 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 } else {
                     throw new SAXNotSupportedException(FastInfosetReader.PRIMITIVE_TYPE_CONTENT_HANDLER_PROPERTY);
                 }   break;
+            case FastInfosetReader.PRIMITIVE_TYPE_CHUNK_SIZE_PROPERTY:
+                if (value instanceof Integer) {
+                    setPrimitiveTypeChunkSize(((Integer)value));
+                } else {
+                    throw new SAXNotSupportedException(FastInfosetReader.PRIMITIVE_TYPE_CHUNK_SIZE_PROPERTY);
+                }   break;
             case FastInfosetParser.BUFFER_SIZE_PROPERTY:
                 if (value instanceof Integer) {
                     setBufferSize(((Integer)value));
@@ -390,6 +412,32 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         parse();
     }
     
+    /**
+     * Parse a fast infoset document from an array of octets.
+     * <p>
+     * The octets are decoded in place, without copying them to an internal
+     * buffer.
+     *
+     * @param b the array of octets containing the fast infoset document.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     */
+    public final void parse(byte[] b, int offset, int length) throws IOException, FastInfosetException {
+        setInput(b, offset, length);
+        parse();
+    }
+    
+    /**
+     * Parse a fast infoset document from the remaining octets of a
+     * {@link ByteBuffer}.
+     *
+     * @param b the buffer containing the fast infoset document.
+     */
+    public final void parse(ByteBuffer b) throws IOException, FastInfosetException {
+        setInput(b);
+        parse();
+    }
+    
     @Override
     public void setLexicalHandler(LexicalHandler handler) {
         _lexicalHandler = handler;
@@ -430,11 +478,33 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         return _primitiveHandler;
     }
     
+    @Override
+    public void setPrimitiveTypeChunkSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalPrimitiveTypeChunkSize", new Object[]{size}));
+        }
+        _primitiveTypeChunkSize = size;
+    }
+    
+    @Override
+    public int getPrimitiveTypeChunkSize() {
+        return _primitiveTypeChunkSize;
+    }
+    
+    @Override
+    public void setRegisteredEncodingAlgorithms(Map<String, EncodingAlgorithm> algorithms) {
+        super.setRegisteredEncodingAlgorithms(algorithms);
+        // The attributes convert application-defined algorithm data to
+        // values using the registered algorithms
+        _attributes.setRegisteredEncodingAlgorithms(_registeredEncodingAlgorithms);
+    }
+    
     
     
     
     public final void parse() throws FastInfosetException, IOException {
-        if (_octetBuffer.length < _bufferSize) {
+        if (!isOctetBufferInput() && _octetBuffer.length < _bufferSize) {
             _octetBuffer = new byte[_bufferSize];
         }
         
@@ -463,6 +533,8 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
             }
             resetOnError();
             throw e;
+        } finally {
+            releaseBuffers();
         }
     }
     
@@ -478,6 +550,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         if (_b > 0) {
             processDIIOptionalProperties();
         }
+        checkSessionCheckpoint();
         
         // Decode one Document Type II, Comment IIs, PI IIs and one EII
         boolean firstElementHasOccured = false;
@@ -614,6 +687,7 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         if (_b > 0) {
             processDIIOptionalProperties();
         }
+        checkSessionCheckpoint();
         
         while(!_terminate) {
             _b = read();
@@ -736,9 +810,14 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                     _b = read();
                     _identifier |= (_b & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
+                    decodeOctetsLengthOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
                     
-                    processCIIEncodingAlgorithm(addToTable);
+                    if (!addToTable && isOctetBufferSizeExceeded() && isCIIEncodingAlgorithmStreamed()) {
+                        processCIIEncodingAlgorithmAsStream();
+                    } else {
+                        decodeOctetsIntoOctetBuffer();
+                        processCIIEncodingAlgorithm(addToTable);
+                    }
                     break;
                 }
                 case DecoderStateTables.CII_INDEX_SMALL:
@@ -1052,9 +1131,14 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                     _b = read();
                     _identifier |= (_b & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
+                    decodeOctetsLengthOnSeventhBitOfNonIdentifyingStringOnThirdBit(_b);
                     
-                    processCIIEncodingAlgorithm(addToTable);
+                    if (!addToTable && isOctetBufferSizeExceeded() && isCIIEncodingAlgorithmStreamed()) {
+                        processCIIEncodingAlgorithmAsStream();
+                    } else {
+                        decodeOctetsIntoOctetBuffer();
+                        processCIIEncodingAlgorithm(addToTable);
+                    }
                     break;
                 }
                 case DecoderStateTables.CII_INDEX_SMALL:
@@ -1566,7 +1650,11 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
     protected final void processCIIEncodingAlgorithm(boolean addToTable) throws FastInfosetException, IOException {
         if (_identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
             if (_primitiveHandler != null) {
-                processCIIBuiltInEncodingAlgorithmAsPrimitive();
+                if (!addToTable && isCIIEncodingAlgorithmChunked()) {
+                    processCIIBuiltInEncodingAlgorithmAsPrimitiveChunks(null);
+                } else {
+                    processCIIBuiltInEncodingAlgorithmAsPrimitive();
+                }
             } else if (_algorithmHandler != null) {
                 Object array = processBuiltInEncodingAlgorithmAsObject();
                 
@@ -1604,6 +1692,18 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
                 throw new FastInfosetException(e);
             }
             
+            if (addToTable) {
+                _characterContentChunkTable.add(_charBuffer, _charBufferLength);
+            }
+        } else if (getCompressedCharactersAlgorithm(_identifier) != null) {
+            decodeCompressedCharactersIntoCharBuffer(getCompressedCharactersAlgorithm(_identifier));
+            
+            try {
+                _contentHandler.characters(_charBuffer, 0, _charBufferLength);
+            } catch (SAXException e) {
+                throw new FastInfosetException(e);
+            }
+            
             if (addToTable) {
                 _characterContentChunkTable.add(_charBuffer, _charBufferLength);
             }
@@ -1644,6 +1744,159 @@ public class SAXDocumentParser extends Decoder implements FastInfosetReader {
         }
     }
     
+    /**
+     * Check if encoding algorithm data of character content, that is not
+     * added to the table, is reported as a stream of octets rather than as
+     * an array of octets or an object.
+     */
+    private boolean isCIIEncodingAlgorithmStreamed() {
+        if (_primitiveHandler != null && _identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
+            return isCIIEncodingAlgorithmChunked();
+        } else if (_algorithmHandler == null) {
+            return false;
+        } else if (_identifier == EncodingAlgorithmIndexes.HEXADECIMAL ||
+                _identifier == EncodingAlgorithmIndexes.BASE64) {
+            return _primitiveHandler == null;
+        } else if (_identifier >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
+            final String URI = _v.encodingAlgorithm.get(_identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
+            return URI != null && _registeredEncodingAlgorithms.get(URI) == null;
+        } else {
+            return false;
+        }
+    }
+    
+    /**
+     * Check if encoding algorithm data of character content is reported
+     * to the primitive type handler in chunks.
+     */
+    private boolean isCIIEncodingAlgorithmChunked() {
+        if (_primitiveTypeChunkSize == 0) {
+            return false;
+        }
+        
+        switch (_identifier) {
+            case EncodingAlgorithmIndexes.SHORT:
+            case EncodingAlgorithmIndexes.INT:
+            case EncodingAlgorithmIndexes.LONG:
+            case EncodingAlgorithmIndexes.FLOAT:
+            case EncodingAlgorithmIndexes.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    protected final void processCIIEncodingAlgorithmAsStream() throws FastInfosetException, IOException {
+        if (_primitiveHandler != null && _identifier < EncodingConstants.ENCODING_ALGORITHM_BUILTIN_END) {
+            final OctetStringInputStream s = openOctetStringInputStream();
+            processCIIBuiltInEncodingAlgorithmAsPrimitiveChunks(s);
+            s.skipRemaining();
+            return;
+        }
+        
+        final String URI = (_identifier >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START)
+                ? _v.encodingAlgorithm.get(_identifier - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START)
+                : null;
+        
+        final OctetStringInputStream s = openOctetStringInputStream();
+        try {
+            _algorithmHandler.octets(URI, _identifier, s, _octetBufferLength);
+        } catch (SAXException e) {
+            throw new FastInfosetException(e);
+        }
+        s.skipRemaining();
+    }
+    
+    /**
+     * Report the data of the "short", "int", "long", "float" or "double"
+     * encoding algorithms to the primitive type handler in chunks, decoding
+     * the octets from the octet buffer or, if not null, from a stream.
+     */
+    protected final void processCIIBuiltInEncodingAlgorithmAsPrimitiveChunks(InputStream s) throws FastInfosetException, IOException {
+        final BuiltInEncodingAlgorithm ea = BuiltInEncodingAlgorithmFactory.getAlgorithm(_identifier);
+        final int chunkSize = _primitiveTypeChunkSize;
+        final int chunkOctetLength = ea.getOctetLengthFromPrimitiveLength(chunkSize);
+        int remaining = ea.getPrimtiveLengthFromOctetLength(_octetBufferLength);
+        
+        byte[] b = _octetBuffer;
+        int start = _octetBufferStart;
+        if (s != null) {
+            if (_primitiveTypeChunkOctets == null || _primitiveTypeChunkOctets.length < chunkOctetLength) {
+                _primitiveTypeChunkOctets = new byte[chunkOctetLength];
+            }
+            b = _primitiveTypeChunkOctets;
+        }
+        
+        try {
+            do {
+                final int length = Math.min(chunkSize, remaining);
+                final int octetLength = ea.getOctetLengthFromPrimitiveLength(length);
+                if (s != null) {
+                    start = 0;
+                    if (s.readNBytes(b, 0, octetLength) != octetLength) {
+                        throw new EOFException(CommonResourceBundle.getInstance().getString("message.EOF"));
+                    }
+                }
+                remaining -= length;
+                final boolean isLast = remaining == 0;
+                
+                switch(_identifier) {
+                    case EncodingAlgorithmIndexes.SHORT:
+                        if (builtInAlgorithmState.shortArray.length < chunkSize) {
+                            builtInAlgorithmState.shortArray = new short[chunkSize];
+                        }
+                        BuiltInEncodingAlgorithmFactory.shortEncodingAlgorithm.
+                                decodeFromBytesToShortArray(builtInAlgorithmState.shortArray, 0,
+                                b, start, octetLength);
+                        _primitiveHandler.shorts(builtInAlgorithmState.shortArray, 0, length, isLast);
+                        break;
+                    case EncodingAlgorithmIndexes.INT:
+                        if (builtInAlgorithmState.intArray.length < chunkSize) {
+                            builtInAlgorithmState.intArray = new int[chunkSize];
+                        }
+                        BuiltInEncodingAlgorithmFactory.intEncodingAlgorithm.
+                                decodeFromBytesToIntArray(builtInAlgorithmState.intArray, 0,
+                                b, start, octetLength);
+                        _primitiveHandler.ints(builtInAlgorithmState.intArray, 0, length, isLast);
+                        break;
+                    case EncodingAlgorithmIndexes.LONG:
+                        if (builtInAlgorithmState.longArray.length < chunkSize) {
+                            builtInAlgorithmState.longArray = new long[chunkSize];
+                        }
+                        BuiltInEncodingAlgorithmFactory.longEncodingAlgorithm.
+                                decodeFromBytesToLongArray(builtInAlgorithmState.longArray, 0,
+                                b, start, octetLength);
+                        _primitiveHandler.longs(builtInAlgorithmState.longArray, 0, length, isLast);
+                        break;
+                    case EncodingAlgorithmIndexes.FLOAT:
+                        if (builtInAlgorithmState.floatArray.length < chunkSize) {
+                            builtInAlgorithmState.floatArray = new float[chunkSize];
+                        }
+                        BuiltInEncodingAlgorithmFactory.floatEncodingAlgorithm.
+                                decodeFromBytesToFloatArray(builtInAlgorithmState.floatArray, 0,
+                                b, start, octetLength);
+                        _primitiveHandler.floats(builtInAlgorithmState.floatArray, 0, length, isLast);
+                        break;
+                    case EncodingAlgorithmIndexes.DOUBLE:
+                        if (builtInAlgorithmState.doubleArray.length < chunkSize) {
+                            builtInAlgorithmState.doubleArray = new double[chunkSize];
+                        }
+                        BuiltInEncodingAlgorithmFactory.doubleEncodingAlgorithm.
+                                decodeFromBytesToDoubleArray(builtInAlgorithmState.doubleArray, 0,
+                                b, start, octetLength);
+                        _primitiveHandler.doubles(builtInAlgorithmState.doubleArray, 0, length, isLast);
+                        break;
+                    default:
+                        throw new FastInfosetException(CommonResourceBundle.getInstance().
+                                getString("message.unsupportedAlgorithm", new Object[]{_identifier}));
+                }
+                start += octetLength;
+            } while (remaining > 0);
+        } catch (SAXException e) {
+            throw new FastInfosetException(e);
+        }
+    }
+    
     protected final void processCIIBuiltInEncodingAlgorithmAsPrimitive() throws FastInfosetException, IOException {
         try {
             int length;
@@ -0,0 +1,247 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.stax;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.InformationItemScanner;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * A non-blocking StAX parser of fast infoset documents.
+ * <p>
+ * The octets of a document are pushed to the parser, in chunks of any size,
+ * using {@link #feedInput(byte[], int, int)} or {@link #feedInput(ByteBuffer)}
+ * and events are pulled from the parser using {@link #next()}. If the octets
+ * of the next information item have not all been fed then {@link #next()}
+ * returns {@link #EVENT_INCOMPLETE}, rather than blocking, and the caller
+ * is expected to feed more input and invoke {@link #next()} again. When all
+ * the octets of the document have been fed the caller invokes
+ * {@link #endOfInput()}.
+ * <p>
+ * An information item is only decoded once all its octets have been fed,
+ * thus the vocabulary tables and the state of the parser are never
+ * modified by a partially available information item.
+ * <p>
+ * Octets fed to the parser are copied, the arrays and buffers passed to
+ * the feed methods may be reused by the caller when the methods return.
+ */
+public class AsyncStAXDocumentParser extends StAXDocumentParser {
+    /**
+     * The event returned by {@link #next()} when more input is required to
+     * decode the next information item.
+     */
+    public static final int EVENT_INCOMPLETE = 257;
+    
+    private final InformationItemScanner _scanner = new InformationItemScanner();
+    
+    private boolean _endOfInput;
+    
+    private boolean _needMoreInput = true;
+    
+    @SuppressWarnings({"this-escape"})
+    public AsyncStAXDocumentParser() {
+        super();
+        super.setInput(new byte[getBufferSize()], 0, 0);
+    }
+    
+    @SuppressWarnings({"this-escape"})
+    public AsyncStAXDocumentParser(StAXManager manager) {
+        this();
+        _manager = manager;
+    }
+    
+    /**
+     * Feed octets of the document to the parser.
+     * <p>
+     * Feeding no octets does not satisfy {@link #needMoreInput()}.
+     *
+     * @param b the array of octets.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     * @throws IllegalStateException if {@link #endOfInput()} has been
+     *         invoked.
+     */
+    public void feedInput(byte[] b, int offset, int length) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (offset < 0 || length < 0 || offset > b.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        ensureInputCapacity(length);
+        System.arraycopy(b, offset, _octetBuffer, _octetBufferEnd, length);
+        _octetBufferEnd += length;
+        if (length > 0) {
+            _needMoreInput = false;
+        }
+    }
+    
+    /**
+     * Feed the remaining octets of a buffer to the parser.
+     * <p>
+     * The position of the buffer is advanced to its limit.
+     *
+     * @param b the buffer of octets.
+     * @throws IllegalStateException if {@link #endOfInput()} has been
+     *         invoked.
+     */
+    public void feedInput(ByteBuffer b) {
+        final int length = b.remaining();
+        ensureInputCapacity(length);
+        b.get(_octetBuffer, _octetBufferEnd, length);
+        _octetBufferEnd += length;
+        if (length > 0) {
+            _needMoreInput = false;
+        }
+    }
+    
+    /**
+     * Indicate that all the octets of the document have been fed.
+     * <p>
+     * Subsequent invocations of {@link #next()} decode the remaining
+     * octets and report an error, rather than {@link #EVENT_INCOMPLETE},
+     * if the document is incomplete.
+     */
+    public void endOfInput() {
+        _endOfInput = true;
+    }
+    
+    /**
+     * Check if more input is required to return an event other than
+     * {@link #EVENT_INCOMPLETE}.
+     *
+     * @return true if no octets have been fed since {@link #next()}
+     *         returned {@link #EVENT_INCOMPLETE}, or since the parser was
+     *         created or reset.
+     */
+    public boolean needMoreInput() {
+        return _needMoreInput && !_endOfInput;
+    }
+    
+    /**
+     * Reset the parser to the state of a newly created parser, so that
+     * another document may be fed, such as when {@link #END_DOCUMENT} has
+     * been returned. The octets fed that have not been decoded are
+     * discarded.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        _endOfInput = false;
+        _needMoreInput = true;
+        _octetBufferOffset = _octetBufferEnd = 0;
+        // Invoked by the constructor of the superclass before the scanner
+        // is created
+        if (_scanner != null) {
+            _scanner.reset();
+        }
+        clearInternalVocabulary();
+    }
+    
+    @Override
+    public int next() throws XMLStreamException {
+        switch (_internalState) {
+            case INTERNAL_STATE_START_ELEMENT_TERMINATE:
+            case INTERNAL_STATE_DOUBLE_TERMINATE_ELEMENT:
+            case INTERNAL_STATE_END_DOCUMENT:
+                // No octets are decoded
+                return super.next();
+        }
+        
+        compactInput();
+        final int end = (_internalState == INTERNAL_STATE_START_DOCUMENT) ?
+            _scanner.scanDocumentStart(_octetBuffer, _octetBufferOffset, _octetBufferEnd, _endOfInput) :
+            _scanner.scanItem(_octetBuffer, _octetBufferOffset, _octetBufferEnd, _endOfInput);
+        if (end == InformationItemScanner.INCOMPLETE && !_endOfInput) {
+            _needMoreInput = true;
+            return _eventType = EVENT_INCOMPLETE;
+        }
+        
+        // All the octets of the information item are available, or the
+        // document is incomplete and the decoder reports the error
+        return super.next();
+    }
+    
+    /**
+     * Unsupported, the input of a non-blocking parser is fed using
+     * {@link #feedInput(byte[], int, int)}.
+     */
+    @Override
+    public void setInputStream(InputStream s) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().getString("message.nonBlockingInput"));
+    }
+    
+    /**
+     * Unsupported, the input of a non-blocking parser is fed using
+     * {@link #feedInput(byte[], int, int)}.
+     */
+    @Override
+    public void setInput(byte[] b, int offset, int length) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().getString("message.nonBlockingInput"));
+    }
+    
+    /**
+     * Unsupported, the input of a non-blocking parser is fed using
+     * {@link #feedInput(ByteBuffer)}.
+     */
+    @Override
+    public void setInput(ByteBuffer b) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().getString("message.nonBlockingInput"));
+    }
+    
+    private void ensureInputCapacity(int length) {
+        if (_endOfInput) {
+            throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.endOfInput"));
+        }
+        if (_octetBuffer.length - _octetBufferEnd >= length) {
+            return;
+        }
+        
+        // The octets of the current event may be referenced from the
+        // buffer so the unread octets are copied to a new buffer
+        final int remaining = _octetBufferEnd - _octetBufferOffset;
+        long capacity = _octetBuffer.length;
+        while (capacity < (long)remaining + length) {
+            capacity <<= 1;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError();
+        }
+        
+        final byte[] buffer = new byte[(int)capacity];
+        System.arraycopy(_octetBuffer, _octetBufferOffset, buffer, 0, remaining);
+        _octetBuffer = buffer;
+        _octetBufferOffset = 0;
+        _octetBufferEnd = remaining;
+    }
+    
+    private void compactInput() {
+        // The octets of the previous event are no longer referenced.
+        // Compacting once half the buffer has been read bounds the
+        // copying to the number of octets fed
+        if (_octetBufferOffset > 0 && _octetBufferOffset >= (_octetBuffer.length >> 1)) {
+            final int remaining = _octetBufferEnd - _octetBufferOffset;
+            System.arraycopy(_octetBuffer, _octetBufferOffset, _octetBuffer, 0, remaining);
+            _octetBufferOffset = 0;
+            _octetBufferEnd = remaining;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -24,11 +25,14 @@ import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.OctetBufferListener;
 import com.sun.xml.fastinfoset.QualifiedName;
 import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithmFactory;
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
 import com.sun.xml.fastinfoset.sax.AttributesHolder;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayString;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import javax.xml.namespace.NamespaceContext;
@@ -118,6 +122,11 @@ public class StAXDocumentParser extends Decoder
     protected byte[] _algorithmData;
     protected int _algorithmDataOffset;
     protected int _algorithmDataLength;
+    /**
+     * Stream of large encoding algorithm data that is not read into the
+     * octet buffer.
+     */
+    protected OctetStringInputStream _algorithmStream;
     
     /**
      * State for processing instruction
@@ -155,6 +164,18 @@ public class StAXDocumentParser extends Decoder
         reset();
     }
     
+    @Override
+    public void setInput(byte[] b, int offset, int length) {
+        super.setInput(b, offset, length);
+        reset();
+    }
+    
+    @Override
+    public void setInput(ByteBuffer b) {
+        super.setInput(b);
+        reset();
+    }
+    
     @Override
     public void reset() {
         super.reset();
@@ -170,6 +191,7 @@ public class StAXDocumentParser extends Decoder
             _namespaceAIIsIndex = 0;
             _characters = null;
             _algorithmData = null;
+            _algorithmStream = null;
         }
         
         _characterEncodingScheme = "UTF-8";
@@ -190,6 +212,7 @@ public class StAXDocumentParser extends Decoder
         _namespaceAIIsIndex = 0;
         _characters = null;
         _algorithmData = null;
+        _algorithmStream = null;
         
         _eventType = START_DOCUMENT;
         _internalState = INTERNAL_STATE_START_DOCUMENT;
@@ -209,6 +232,8 @@ public class StAXDocumentParser extends Decoder
     @Override
     public int next() throws XMLStreamException {
         try {
+            skipAlgorithmStream();
+            
             if (_internalState != INTERNAL_STATE_VOID) {
                 switch (_internalState) {
                     case INTERNAL_STATE_START_DOCUMENT:
@@ -248,6 +273,7 @@ public class StAXDocumentParser extends Decoder
                         }
                         
                         if (_stackCount == -1) {
+                            releaseBuffers();
                             _internalState = INTERNAL_STATE_END_DOCUMENT;
                             return _eventType = END_DOCUMENT;
                         }
@@ -359,7 +385,29 @@ public class StAXDocumentParser extends Decoder
                     final int b2 = read();
                     _algorithmId |= (b2 & 0xFC) >> 2;
                     
-                    decodeOctetsOnSeventhBitOfNonIdentifyingStringOnThirdBit(b2);
+                    decodeOctetsLengthOnSeventhBitOfNonIdentifyingStringOnThirdBit(b2);
+                    
+                    final DeflateEncodingAlgorithm cea = getCompressedCharactersAlgorithm(_algorithmId);
+                    if (cea != null) {
+                        decodeOctetsIntoOctetBuffer();
+                        decodeCompressedCharactersIntoCharBuffer(cea);
+                        
+                        if (addToTable) {
+                            _charactersOffset = _characterContentChunkTable.add(_charBuffer, _charBufferLength);
+                            _characters = _characterContentChunkTable._array;
+                        } else {
+                            _characters = _charBuffer;
+                            _charactersOffset = 0;
+                        }
+                        return _eventType = CHARACTERS;
+                    }
+                    
+                    if (!addToTable && _algorithmId != EncodingAlgorithmIndexes.CDATA
+                            && isOctetBufferSizeExceeded()) {
+                        processCIIEncodingAlgorithmAsStream();
+                        return _eventType = CHARACTERS;
+                    }
+                    decodeOctetsIntoOctetBuffer();
                     processCIIEncodingAlgorithm(addToTable);
                     
                     if (_algorithmId == EncodingAlgorithmIndexes.CDATA) {
@@ -436,6 +484,7 @@ public class StAXDocumentParser extends Decoder
                         return _eventType = END_ELEMENT;
                     }
                     
+                    releaseBuffers();
                     _internalState = INTERNAL_STATE_END_DOCUMENT;
                     return _eventType = END_DOCUMENT;
                 case DecoderStateTables.TERMINATOR_SINGLE:
@@ -449,6 +498,7 @@ public class StAXDocumentParser extends Decoder
                         return _eventType = END_ELEMENT;
                     }
                     
+                    releaseBuffers();
                     _internalState = INTERNAL_STATE_END_DOCUMENT;
                     return _eventType = END_DOCUMENT;
                 default:
@@ -612,6 +662,7 @@ public class StAXDocumentParser extends Decoder
     
     @Override
     public void close() throws XMLStreamException {
+        releaseBuffers();
         try {
             super.closeIfRequired();
         } catch (IOException ex) {
@@ -853,6 +904,7 @@ public class StAXDocumentParser extends Decoder
     }
     
     protected final void checkTextState() {
+        ensureAlgorithmData();
         if (_algorithmData == null) {
             throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.InvalidStateForText"));
         }
@@ -988,7 +1040,30 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final boolean hasTextAlgorithmBytes() {
-        return _algorithmData != null;
+        return _algorithmData != null || _algorithmStream != null;
+    }
+    
+    /**
+     * Returns a stream of the octets of the encoding algorithm data.
+     * <p>
+     * Encoding algorithm data of character content, which is larger than the
+     * internal buffer and is not added to the table, is read lazily from the
+     * underlying stream in bounded windows. Once octets are read from such a
+     * stream the other methods that return encoding algorithm data or text
+     * may no longer be used for the event. The octets that are not read are
+     * skipped by the next event.
+     *
+     * @return the stream, or null if there is no encoding algorithm data.
+     */
+    @Override
+    public final InputStream getTextAlgorithmStream() {
+        if (_algorithmStream != null) {
+            return _algorithmStream;
+        } else if (_algorithmData == null) {
+            return null;
+        }
+        
+        return new ByteArrayInputStream(_algorithmData, _algorithmDataOffset, _algorithmDataLength);
     }
     
     
@@ -1000,6 +1075,7 @@ public class StAXDocumentParser extends Decoder
     public final byte[] getTextAlgorithmBytes() {
         // Do not return the actual _algorithmData due to security reasons
 //        return _algorithmData;
+        ensureAlgorithmData();
         if (_algorithmData == null) {
             return null;
         }
@@ -1010,6 +1086,7 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final byte[] getTextAlgorithmBytesClone() {
+        ensureAlgorithmData();
         if (_algorithmData == null) {
             return null;
         }
@@ -1020,6 +1097,7 @@ public class StAXDocumentParser extends Decoder
     }
     
     public final int getTextAlgorithmStart() {
+        ensureAlgorithmData();
         return _algorithmDataOffset;
     }
     
@@ -1029,6 +1107,7 @@ public class StAXDocumentParser extends Decoder
     
     public final int getTextAlgorithmBytes(int sourceStart, byte[] target,
             int targetStart, int length) throws XMLStreamException {
+        ensureAlgorithmData();
         try {
             System.arraycopy(_algorithmData, sourceStart, target,
                     targetStart, length);
@@ -1043,6 +1122,12 @@ public class StAXDocumentParser extends Decoder
     @Override
     public final int peekNext() throws XMLStreamException {
         try {
+            // Retain the encoding algorithm data unless the stream is read
+            if (_algorithmStream != null && _algorithmStream.isUnread()) {
+                ensureAlgorithmData();
+            }
+            skipAlgorithmStream();
+            
             switch(DecoderStateTables.EII(peek(this))) {
                 case DecoderStateTables.EII_NO_AIIS_INDEX_SMALL:
                 case DecoderStateTables.EII_AIIS_INDEX_SMALL:
@@ -1140,6 +1225,7 @@ public class StAXDocumentParser extends Decoder
         if (b > 0) {
             processDIIOptionalProperties(b);
         }
+        checkSessionCheckpoint();
     }
     
     protected final void processDIIOptionalProperties(int b) throws FastInfosetException, IOException {
@@ -1676,6 +1762,23 @@ public class StAXDocumentParser extends Decoder
         _algorithmDataLength = _octetBufferLength;
         _isAlgorithmDataCloned = false;
         
+        processCIIEncodingAlgorithmURI();
+        
+        if (addToTable) {
+            convertEncodingAlgorithmDataToCharacters();
+            _characterContentChunkTable.add(_characters, _characters.length);
+        }
+    }
+    
+    protected final void processCIIEncodingAlgorithmAsStream() throws FastInfosetException, IOException {
+        _algorithmStream = openOctetStringInputStream();
+        _algorithmDataOffset = 0;
+        _algorithmDataLength = _octetBufferLength;
+        
+        processCIIEncodingAlgorithmURI();
+    }
+    
+    private void processCIIEncodingAlgorithmURI() throws FastInfosetException {
         if (_algorithmId >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
             _algorithmURI = _v.encodingAlgorithm.get(_algorithmId - EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START);
             if (_algorithmURI == null) {
@@ -1687,10 +1790,39 @@ public class StAXDocumentParser extends Decoder
             // reported, allows for support through handler if required.
             throw new EncodingAlgorithmException(CommonResourceBundle.getInstance().getString("message.identifiers10to31Reserved"));
         }
+    }
+    
+    /**
+     * Read the encoding algorithm data from a stream that has not been read,
+     * so that the data may be accessed as an array of octets or as text.
+     */
+    private void ensureAlgorithmData() {
+        if (_algorithmStream == null) {
+            return;
+        } else if (!_algorithmStream.isUnread()) {
+            throw new IllegalStateException(CommonResourceBundle.getInstance().getString("message.algorithmStreamRead"));
+        }
         
-        if (addToTable) {
-            convertEncodingAlgorithmDataToCharacters();
-            _characterContentChunkTable.add(_characters, _characters.length);
+        final byte[] data = new byte[_algorithmDataLength];
+        try {
+            int offset = 0;
+            while (offset < data.length) {
+                offset += _algorithmStream.read(data, offset, data.length - offset);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        
+        _algorithmStream = null;
+        _algorithmData = data;
+        _algorithmDataOffset = 0;
+        _isAlgorithmDataCloned = true;
+    }
+    
+    private void skipAlgorithmStream() throws IOException {
+        if (_algorithmStream != null) {
+            _algorithmStream.skipRemaining();
+            _algorithmStream = null;
         }
     }
     
@@ -1754,7 +1886,7 @@ public class StAXDocumentParser extends Decoder
         } else if (_algorithmId >= EncodingConstants.ENCODING_ALGORITHM_APPLICATION_START) {
             final EncodingAlgorithm ea = _registeredEncodingAlgorithms.get(_algorithmURI);
             if (ea != null) {
-                final Object data = ea.decodeFromBytes(_octetBuffer, _octetBufferStart, _octetBufferLength);
+                final Object data = ea.decodeFromBytes(_algorithmData, _algorithmDataOffset, _algorithmDataLength);
                 ea.convertToCharacters(data, buffer);
             } else {
                 throw new EncodingAlgorithmException(
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -176,6 +177,7 @@ public class StAXDocumentSerializer extends Encoder
     @Override
     public void close() throws XMLStreamException {
         reset();
+        releaseBuffers();
     }
     
     @Override
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -32,6 +33,18 @@ public class StAXManager {
     public static final int CONTEXT_READER = 1;
     public static final int CONTEXT_WRITER = 2;
     
+    /**
+     * The maximum number of parsers or serializers retained by a factory
+     * for reuse once closed. The default value of 0 disables pooling.
+     */
+    public static final String POOL_SIZE = "com.sun.xml.fastinfoset.stax.poolSize";
+    
+    /**
+     * If true the pool of a factory is divided into stripes that threads
+     * prefer, which reduces contention. The default value is false.
+     */
+    public static final String POOL_THREAD_AFFINITY = "com.sun.xml.fastinfoset.stax.poolThreadAffinity";
+    
     
     /** Creates a new instance of StAXManager */
     public StAXManager() {
@@ -48,6 +61,8 @@ public class StAXManager {
                 break;
             }
         }
+        features.put(POOL_SIZE, 0);
+        features.put(POOL_THREAD_AFFINITY, Boolean.FALSE);
     }
 
     // PERF: Why is this so much complicated?
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -23,6 +24,7 @@ import com.sun.xml.fastinfoset.stax.events.StAXEventReader;
 import com.sun.xml.fastinfoset.stax.events.StAXFilteredEvent;
 import com.sun.xml.fastinfoset.stax.util.StAXFilteredParser;
 import com.sun.xml.fastinfoset.tools.XML_SAX_FI;
+import com.sun.xml.fastinfoset.util.InstancePool;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -47,6 +49,9 @@ public class StAXInputFactory extends XMLInputFactory {
     //List of supported properties and default values.
     private StAXManager _manager = new StAXManager(StAXManager.CONTEXT_READER) ;
     
+    // The pool of parsers, or null if pooling is disabled
+    private volatile InstancePool<PooledStAXDocumentParser> _parserPool;
+    
     public StAXInputFactory() {
     }
     
@@ -65,7 +70,17 @@ public class StAXInputFactory extends XMLInputFactory {
     
     @Override
     public XMLStreamReader createXMLStreamReader(InputStream s) throws XMLStreamException {
-        return new StAXDocumentParser(s, _manager);
+        final InstancePool<PooledStAXDocumentParser> pool = _parserPool;
+        if (pool == null) {
+            return new StAXDocumentParser(s, _manager);
+        }
+        
+        PooledStAXDocumentParser parser = pool.poll();
+        if (parser == null) {
+            parser = new PooledStAXDocumentParser(pool);
+        }
+        parser.borrow(s, _manager);
+        return parser;
     }
     
     @Override
@@ -265,7 +280,62 @@ public class StAXInputFactory extends XMLInputFactory {
      */
     @Override
     public void setProperty(String name, Object value) throws IllegalArgumentException {
+        if (StAXManager.POOL_SIZE.equals(name) || StAXManager.POOL_THREAD_AFFINITY.equals(name)) {
+            final int currentPoolSize = (Integer)_manager.getProperty(StAXManager.POOL_SIZE);
+            final boolean currentThreadAffinity = (Boolean)_manager.getProperty(StAXManager.POOL_THREAD_AFFINITY);
+            int poolSize = currentPoolSize;
+            boolean threadAffinity = currentThreadAffinity;
+            if (StAXManager.POOL_SIZE.equals(name)) {
+                poolSize = Integer.parseInt(String.valueOf(value));
+                value = poolSize;
+            } else {
+                threadAffinity = Boolean.parseBoolean(String.valueOf(value));
+                value = threadAffinity;
+            }
+            _manager.setProperty(name,value);
+            
+            // Parsers share the properties of the factory, so the pool
+            // is only replaced when its configuration changes
+            if (poolSize != currentPoolSize || threadAffinity != currentThreadAffinity) {
+                _parserPool = (poolSize != 0) ?
+                    new InstancePool<PooledStAXDocumentParser>(poolSize, threadAffinity) : null;
+            }
+            return;
+        }
         _manager.setProperty(name,value);
     }
     
+    /**
+     * A parser that is offered to the pool of the factory when closed.
+     */
+    private static final class PooledStAXDocumentParser extends StAXDocumentParser {
+        private final InstancePool<PooledStAXDocumentParser> _pool;
+        
+        private boolean _isPooled;
+        
+        PooledStAXDocumentParser(InstancePool<PooledStAXDocumentParser> pool) {
+            _pool = pool;
+        }
+        
+        void borrow(InputStream s, StAXManager manager) {
+            _isPooled = false;
+            setManager(manager);
+            setInputStream(s);
+        }
+        
+        @Override
+        public void close() throws XMLStreamException {
+            super.close();
+            if (!_isPooled) {
+                _isPooled = true;
+                // Release the stream and clear the state and the vocabulary
+                setInputStream(null);
+                // Discard the properties set by the application, the next
+                // parser borrowed from the pool has the defaults
+                restoreDefaultProperties();
+                _pool.offer(this);
+            }
+        }
+    }
+    
 }
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -31,15 +32,24 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.util.InstancePool;
 
 public class StAXOutputFactory extends XMLOutputFactory {
         
     //List of supported properties and default values.
     private StAXManager _manager = null ;
     
+    // The pool of serializers, or null if pooling is disabled
+    private volatile InstancePool<PooledStAXDocumentSerializer> _serializerPool;
+    
+    // The copy of the properties shared by the serializers borrowed from
+    // the pool, replaced when a property is set
+    private volatile StAXManager _serializerManager;
+    
     /** Creates a new instance of StAXOutputFactory */
     public StAXOutputFactory() {
         _manager = new StAXManager(StAXManager.CONTEXT_WRITER);
+        _serializerManager = new StAXManager(_manager);
     }
     
     @Override
@@ -126,13 +136,31 @@ public class StAXOutputFactory extends XMLOutputFactory {
     
     @Override
     public XMLStreamWriter createXMLStreamWriter(OutputStream outputStream) throws XMLStreamException {
-        return new StAXDocumentSerializer(outputStream, new StAXManager(_manager));
+        final InstancePool<PooledStAXDocumentSerializer> pool = _serializerPool;
+        if (pool == null) {
+            return new StAXDocumentSerializer(outputStream, new StAXManager(_manager));
+        }
+        return borrowSerializer(pool, outputStream, null);
     }
     
     @Override
     public XMLStreamWriter createXMLStreamWriter(OutputStream outputStream, String encoding) throws XMLStreamException {
-        StAXDocumentSerializer serializer = new StAXDocumentSerializer(outputStream, new StAXManager(_manager));
-        serializer.setEncoding(encoding);
+        final InstancePool<PooledStAXDocumentSerializer> pool = _serializerPool;
+        if (pool == null) {
+            StAXDocumentSerializer serializer = new StAXDocumentSerializer(outputStream, new StAXManager(_manager));
+            serializer.setEncoding(encoding);
+            return serializer;
+        }
+        return borrowSerializer(pool, outputStream, encoding);
+    }
+    
+    private XMLStreamWriter borrowSerializer(InstancePool<PooledStAXDocumentSerializer> pool,
+            OutputStream outputStream, String encoding) {
+        PooledStAXDocumentSerializer serializer = pool.poll();
+        if (serializer == null) {
+            serializer = new PooledStAXDocumentSerializer(pool);
+        }
+        serializer.borrow(outputStream, encoding, _serializerManager);
         return serializer;
     }
     
@@ -156,8 +184,64 @@ public class StAXOutputFactory extends XMLOutputFactory {
     
     @Override
     public void setProperty(String name, Object value) throws java.lang.IllegalArgumentException {
-        _manager.setProperty(name,value);
+        if (StAXManager.POOL_SIZE.equals(name) || StAXManager.POOL_THREAD_AFFINITY.equals(name)) {
+            final int currentPoolSize = (Integer)_manager.getProperty(StAXManager.POOL_SIZE);
+            final boolean currentThreadAffinity = (Boolean)_manager.getProperty(StAXManager.POOL_THREAD_AFFINITY);
+            int poolSize = currentPoolSize;
+            boolean threadAffinity = currentThreadAffinity;
+            if (StAXManager.POOL_SIZE.equals(name)) {
+                poolSize = Integer.parseInt(String.valueOf(value));
+                value = poolSize;
+            } else {
+                threadAffinity = Boolean.parseBoolean(String.valueOf(value));
+                value = threadAffinity;
+            }
+            _manager.setProperty(name,value);
+            
+            // The pool is only replaced when its configuration changes
+            if (poolSize != currentPoolSize || threadAffinity != currentThreadAffinity) {
+                _serializerPool = (poolSize != 0) ?
+                    new InstancePool<PooledStAXDocumentSerializer>(poolSize, threadAffinity) : null;
+            }
+        } else {
+            _manager.setProperty(name,value);
+        }
         
+        // Serializers borrowed from the pool after this point observe
+        // the new properties, the pooled serializers are retained
+        _serializerManager = new StAXManager(_manager);
+    }
+    
+    /**
+     * A serializer that is offered to the pool of the factory when closed.
+     */
+    private static final class PooledStAXDocumentSerializer extends StAXDocumentSerializer {
+        private final InstancePool<PooledStAXDocumentSerializer> _pool;
+        
+        private boolean _isPooled;
+        
+        PooledStAXDocumentSerializer(InstancePool<PooledStAXDocumentSerializer> pool) {
+            _pool = pool;
+        }
+        
+        void borrow(OutputStream s, String encoding, StAXManager manager) {
+            _isPooled = false;
+            setManager(manager);
+            setOutputStream(s);
+            setEncoding(encoding);
+        }
+        
+        @Override
+        public void close() throws XMLStreamException {
+            super.close();
+            if (!_isPooled) {
+                _isPooled = true;
+                // Release the stream, and the properties set by the borrower
+                restoreDefaultProperties();
+                setOutputStream(null);
+                _pool.offer(this);
+            }
+        }
     }
         
 }
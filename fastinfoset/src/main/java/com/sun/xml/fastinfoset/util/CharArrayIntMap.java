@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -60,7 +61,7 @@ public class CharArrayIntMap extends KeyIntMap {
         
     }
     
-    private Entry[] _table;
+    Entry[] _table;
     
     public CharArrayIntMap(int initialCapacity, float loadFactor) {
         super(initialCapacity, loadFactor);
@@ -77,14 +78,14 @@ public class CharArrayIntMap extends KeyIntMap {
     }
 
     @Override
-    public final void clear() {
+    public void clear() {
         Arrays.fill(_table, null);
         _size = 0;
         _totalCharacterCount = 0;
     }
 
     @Override
-    public final void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+    public void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
         if (!(readOnlyMap instanceof CharArrayIntMap)) {
             throw new IllegalArgumentException(CommonResourceBundle.getInstance().
                     getString("message.illegalClass", new Object[]{readOnlyMap}));
@@ -113,7 +114,7 @@ public class CharArrayIntMap extends KeyIntMap {
      * @return index of character buffer in {@code CharArrayIntMap},
      * otherwise NOT_PRESENT.
      */
-    public final int get(char[] ch, int start, int length) {
+    public int get(char[] ch, int start, int length) {
         final int hash = hashHash(CharArray.hashCode(ch, start, length));
         return get(ch, start, length, hash);
     }
@@ -126,7 +127,15 @@ public class CharArrayIntMap extends KeyIntMap {
      * @return index of character buffer in {@code CharArrayIntMap}, or
      * NOT_PRESENT if character buffer was just added.
      */
-    public final int obtainIndex(char[] ch, int start, int length, boolean clone) {
+    public int obtainIndex(char[] ch, int start, int length, boolean clone) {
+        if (_size == _dynamicSizeLimit) {
+            final int index = get(ch, start, length);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+            clear();
+        }
+        
         final int hash = hashHash(CharArray.hashCode(ch, start, length));
         
         if (_readOnlyMap != null) {
@@ -159,7 +168,7 @@ public class CharArrayIntMap extends KeyIntMap {
         return _totalCharacterCount;
     }
 
-    private int get(char[] ch, int start, int length, int hash) {
+    int get(char[] ch, int start, int length, int hash) {
         if (_readOnlyMap != null) {
             final int i = _readOnlyMap.get(ch, start, length, hash);
             if (i != -1) {
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jvnet.fastinfoset.BufferRecycler;
+
+/**
+ * A thread-safe, lock-free recycler of buffers divided into size classes.
+ * <p>
+ * The size classes are the powers of two from {@link #MINIMUM_BUFFER_SIZE}
+ * to a maximum buffer size. Each size class retains a fixed number of
+ * released buffers in slots that are acquired and released with a compare
+ * and set operation. A thread starts probing the slots at a position
+ * derived from its identifier, so buffers are never associated with a
+ * thread, which suits large numbers of threads, including virtual threads.
+ * <p>
+ * Buffers larger than the maximum buffer size, and buffers released to a
+ * size class whose slots are full, are discarded.
+ */
+public class ConcurrentBufferRecycler implements BufferRecycler {
+    
+    public static final int MINIMUM_BUFFER_SIZE = 512;
+    
+    public static final int DEFAULT_MAXIMUM_BUFFER_SIZE = 1 << 16;
+    
+    public static final int DEFAULT_BUFFERS_PER_SIZE = 16;
+    
+    private static final int MINIMUM_SIZE_SHIFT = Integer.numberOfTrailingZeros(MINIMUM_BUFFER_SIZE);
+    
+    private final AtomicReferenceArray<byte[]> _octets;
+    
+    private final AtomicReferenceArray<char[]> _characters;
+    
+    private final int _maximumBufferSize;
+    
+    private final int _sizeClasses;
+    
+    private final int _slotShift;
+    
+    private final int _slotMask;
+    
+    public ConcurrentBufferRecycler() {
+        this(DEFAULT_MAXIMUM_BUFFER_SIZE, DEFAULT_BUFFERS_PER_SIZE);
+    }
+    
+    /**
+     * @param maximumBufferSize the maximum size of the buffers that are
+     *        retained, rounded down to a power of two.
+     * @param buffersPerSize the maximum number of buffers of a size class
+     *        that are retained, rounded up to a power of two.
+     */
+    public ConcurrentBufferRecycler(int maximumBufferSize, int buffersPerSize) {
+        if (maximumBufferSize < MINIMUM_BUFFER_SIZE) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalBufferSize", new Object[]{maximumBufferSize}));
+        }
+        if (buffersPerSize < 0 || buffersPerSize > (1 << 16)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalPoolSize", new Object[]{buffersPerSize}));
+        }
+        
+        _maximumBufferSize = Integer.highestOneBit(maximumBufferSize);
+        _sizeClasses = sizeClassFloor(_maximumBufferSize) + 1;
+        
+        int slots = 1;
+        while (slots < buffersPerSize) {
+            slots <<= 1;
+        }
+        _slotShift = Integer.numberOfTrailingZeros(slots);
+        _slotMask = (buffersPerSize == 0) ? -1 : slots - 1;
+        
+        final int length = (buffersPerSize == 0) ? 0 : _sizeClasses << _slotShift;
+        _octets = new AtomicReferenceArray<>(length);
+        _characters = new AtomicReferenceArray<>(length);
+    }
+    
+    public final int getMaximumBufferSize() {
+        return _maximumBufferSize;
+    }
+    
+    @Override
+    public byte[] allocateOctets(int minimumSize) {
+        final int sizeClass = sizeClassCeiling(minimumSize);
+        if (sizeClass >= _sizeClasses) {
+            return new byte[minimumSize];
+        }
+        
+        final byte[] b = acquire(_octets, sizeClass);
+        return (b != null) ? b : new byte[MINIMUM_BUFFER_SIZE << sizeClass];
+    }
+    
+    @Override
+    public void releaseOctets(byte[] b) {
+        if (b.length >= MINIMUM_BUFFER_SIZE) {
+            final int sizeClass = sizeClassFloor(b.length);
+            if (sizeClass < _sizeClasses) {
+                release(_octets, sizeClass, b);
+            }
+        }
+    }
+    
+    @Override
+    public char[] allocateCharacters(int minimumSize) {
+        final int sizeClass = sizeClassCeiling(minimumSize);
+        if (sizeClass >= _sizeClasses) {
+            return new char[minimumSize];
+        }
+        
+        final char[] c = acquire(_characters, sizeClass);
+        return (c != null) ? c : new char[MINIMUM_BUFFER_SIZE << sizeClass];
+    }
+    
+    @Override
+    public void releaseCharacters(char[] c) {
+        if (c.length >= MINIMUM_BUFFER_SIZE) {
+            final int sizeClass = sizeClassFloor(c.length);
+            if (sizeClass < _sizeClasses) {
+                release(_characters, sizeClass, c);
+            }
+        }
+    }
+    
+    private <T> T acquire(AtomicReferenceArray<T> slots, int sizeClass) {
+        if (_slotMask == -1) {
+            return null;
+        }
+        
+        final int base = sizeClass << _slotShift;
+        final int probe = probe();
+        for (int i = 0; i <= _slotMask; i++) {
+            final int slot = base + ((probe + i) & _slotMask);
+            final T t = slots.get(slot);
+            if (t != null && slots.compareAndSet(slot, t, null)) {
+                return t;
+            }
+        }
+        return null;
+    }
+    
+    private <T> void release(AtomicReferenceArray<T> slots, int sizeClass, T t) {
+        if (_slotMask == -1) {
+            return;
+        }
+        
+        final int base = sizeClass << _slotShift;
+        final int probe = probe();
+        for (int i = 0; i <= _slotMask; i++) {
+            final int slot = base + ((probe + i) & _slotMask);
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, t)) {
+                return;
+            }
+        }
+    }
+    
+    private static int probe() {
+        final long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40);
+    }
+    
+    /**
+     * @return the smallest size class whose buffers have a length of at
+     *         least the size.
+     */
+    private static int sizeClassCeiling(int size) {
+        if (size <= MINIMUM_BUFFER_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MINIMUM_SIZE_SHIFT;
+    }
+    
+    /**
+     * @return the largest size class whose buffers have a length of at
+     *         most the size.
+     */
+    private static int sizeClassFloor(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size) - MINIMUM_SIZE_SHIFT;
+    }
+}
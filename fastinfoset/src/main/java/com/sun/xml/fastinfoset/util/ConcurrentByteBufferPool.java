@@ -0,0 +1,108 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jvnet.fastinfoset.ByteBufferPool;
+
+/**
+ * A thread-safe pool of buffers of a fixed capacity.
+ * <p>
+ * Buffers are allocated when the pool is empty. At most a maximum number
+ * of released buffers are retained by the pool, other released buffers
+ * are discarded.
+ */
+public class ConcurrentByteBufferPool implements ByteBufferPool {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    public static final int DEFAULT_MAXIMUM_POOL_SIZE = 64;
+    
+    private final ConcurrentLinkedQueue<ByteBuffer> _buffers = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicInteger _size = new AtomicInteger();
+    
+    private final int _bufferSize;
+    
+    private final boolean _direct;
+    
+    private final int _maximumPoolSize;
+    
+    public ConcurrentByteBufferPool() {
+        this(DEFAULT_BUFFER_SIZE, false, DEFAULT_MAXIMUM_POOL_SIZE);
+    }
+    
+    /**
+     * @param bufferSize the capacity of the buffers.
+     * @param direct true if direct buffers are allocated, otherwise
+     *        buffers backed by an array are allocated.
+     * @param maximumPoolSize the maximum number of released buffers that
+     *        are retained.
+     */
+    public ConcurrentByteBufferPool(int bufferSize, boolean direct, int maximumPoolSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalBufferSize", new Object[]{bufferSize}));
+        }
+        if (maximumPoolSize < 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalPoolSize", new Object[]{maximumPoolSize}));
+        }
+        
+        _bufferSize = bufferSize;
+        _direct = direct;
+        _maximumPoolSize = maximumPoolSize;
+    }
+    
+    public final int getBufferSize() {
+        return _bufferSize;
+    }
+    
+    public final boolean isDirect() {
+        return _direct;
+    }
+    
+    @Override
+    public ByteBuffer acquire() {
+        final ByteBuffer b = _buffers.poll();
+        if (b == null) {
+            return (_direct) ? ByteBuffer.allocateDirect(_bufferSize) : ByteBuffer.allocate(_bufferSize);
+        }
+        
+        _size.decrementAndGet();
+        b.clear();
+        return b;
+    }
+    
+    @Override
+    public void release(ByteBuffer b) {
+        if (b.capacity() != _bufferSize || b.isDirect() != _direct || b.isReadOnly()) {
+            return;
+        }
+        
+        if (_size.incrementAndGet() <= _maximumPoolSize) {
+            _buffers.offer(b);
+        } else {
+            _size.decrementAndGet();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -161,7 +162,15 @@ public class ContiguousCharArrayArray extends ValueArray {
         return _cachedStrings[i] = new String(_array, _offset[i], _length[i]);
     }
     
+    /**
+     * Ensure the size of the array of characters before characters are
+     * decoded into the array at the array index and added with
+     * {@link #add(int)}.
+     */
     public final void ensureSize(int l) {
+        if (_size - _readOnlyArraySize == _dynamicSizeLimit) {
+            clear();
+        }
         if (_arrayIndex + l >= _array.length) {
             resizeArray(_arrayIndex + l);
         }        
@@ -180,6 +189,9 @@ public class ContiguousCharArrayArray extends ValueArray {
     }
     
     public final int add(char[] c, int l) {
+        if (_size - _readOnlyArraySize == _dynamicSizeLimit) {
+            clear();
+        }
         if (_size == _offset.length) {
             resize();
         }
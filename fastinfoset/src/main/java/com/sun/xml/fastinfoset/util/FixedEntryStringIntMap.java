@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -51,6 +52,7 @@ public class FixedEntryStringIntMap extends StringIntMap {
     public final void clear() {
         Arrays.fill(_table, null);
         _lastEntry = NULL_ENTRY;
+        clearIdentityCache();
         
         if (_fixedEntry != null) {
             final int tableIndex = indexFor(_fixedEntry._hash, _table.length);
@@ -66,6 +68,11 @@ public class FixedEntryStringIntMap extends StringIntMap {
 
     @Override
     public final void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+        if (readOnlyMap instanceof FrozenStringIntMap) {
+            // The fixed entry is not held by a frozen map
+            setReadOnlyMap((StringIntMap)readOnlyMap, clear);
+            return;
+        }
         if (!(readOnlyMap instanceof FixedEntryStringIntMap)) {
             throw new IllegalArgumentException(CommonResourceBundle.getInstance().
                     getString("message.illegalClass", new Object[]{readOnlyMap}));
@@ -76,6 +83,7 @@ public class FixedEntryStringIntMap extends StringIntMap {
     
     public final void setReadOnlyMap(FixedEntryStringIntMap readOnlyMap, boolean clear) {
         _readOnlyMap = readOnlyMap;
+        clearIdentityCache();
         if (_readOnlyMap != null) {
             readOnlyMap.removeFixedEntry();
             _readOnlyMapSize = readOnlyMap.size();
@@ -88,6 +96,10 @@ public class FixedEntryStringIntMap extends StringIntMap {
         }     
     }
     
+    final Entry getFixedEntry() {
+        return _fixedEntry;
+    }
+    
     private void removeFixedEntry() {
         if (_fixedEntry != null) {
             final int tableIndex = indexFor(_fixedEntry._hash, _table.length);
@@ -0,0 +1,152 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.Arrays;
+
+/**
+ * A count-min sketch estimating how often values, identified by their hash,
+ * have been seen.
+ * <p>
+ * Each value is counted by four counters of four bits, each in a different
+ * row selected by a different hash of the value, and the estimated
+ * frequency of the value is the minimum of its counters, at most 15. The
+ * counters are halved when the number of counted values reaches ten times
+ * the capacity, so that the values seen recently outweigh the values seen
+ * long ago.
+ */
+public final class FrequencySketch {
+    
+    public static final int DEFAULT_CAPACITY = 1 << 10;
+    
+    public static final int MAXIMUM_FREQUENCY = 15;
+    
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    
+    private static final long RESET_MASK = 0x7777777777777777L;
+    
+    private final long[] _table;
+    
+    private final int _tableMask;
+    
+    private final int _sampleSize;
+    
+    private int _size;
+    
+    public FrequencySketch() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param capacity the number of distinct values expected to be counted,
+     *        rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is not positive or
+     *         greater than 2^24.
+     */
+    public FrequencySketch(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalCapacity", new Object[]{capacity}));
+        }
+        
+        final int length = Integer.highestOneBit(capacity - 1) << 1;
+        _table = new long[Math.max(length, 1)];
+        _tableMask = _table.length - 1;
+        _sampleSize = 10 * _table.length;
+    }
+    
+    /**
+     * Count a value.
+     *
+     * @param hash the hash of the value.
+     * @return the estimated frequency of the value, including this count.
+     */
+    public int increment(int hash) {
+        hash = spread(hash);
+        final int start = (hash & 3) << 2;
+        
+        int frequency = MAXIMUM_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int offset = (start + i) << 2;
+            int count = (int)((_table[index] >>> offset) & 0xFL);
+            if (count < MAXIMUM_FREQUENCY) {
+                _table[index] += 1L << offset;
+                count++;
+            }
+            frequency = Math.min(frequency, count);
+        }
+        
+        if (++_size == _sampleSize) {
+            reset();
+        }
+        return frequency;
+    }
+    
+    /**
+     * Estimate the frequency of a value.
+     *
+     * @param hash the hash of the value.
+     * @return the estimated frequency of the value.
+     */
+    public int frequency(int hash) {
+        hash = spread(hash);
+        final int start = (hash & 3) << 2;
+        
+        int frequency = MAXIMUM_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            final int offset = (start + i) << 2;
+            final int count = (int)((_table[indexOf(hash, i)] >>> offset) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+    
+    public void clear() {
+        Arrays.fill(_table, 0L);
+        _size = 0;
+    }
+    
+    /**
+     * Halve the counters.
+     */
+    private void reset() {
+        for (int i = 0; i < _table.length; i++) {
+            _table[i] = (_table[i] >>> 1) & RESET_MASK;
+        }
+        _size >>>= 1;
+    }
+    
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int)h & _tableMask;
+    }
+    
+    private static int spread(int h) {
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+}
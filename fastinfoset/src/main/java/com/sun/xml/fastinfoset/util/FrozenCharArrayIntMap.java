@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+
+import java.util.Arrays;
+
+/**
+ * A {@link CharArrayIntMap} that cannot be modified, and so may be shared
+ * between threads as the read only map of many maps.
+ * <p>
+ * The characters of the keys are held in one array. A key is located with
+ * a minimal perfect hash function of the hash values of the keys, see
+ * {@link FrozenStringIntMap}.
+ */
+public class FrozenCharArrayIntMap extends CharArrayIntMap {
+    
+    private final MinimalPerfectHash _perfectHash;
+    
+    private final char[] _ch;
+    
+    private final int[] _hashes;
+    
+    private final int[] _offsets;
+    
+    private final int[] _lengths;
+    
+    private final int[] _values;
+    
+    private final char[][] _collidingKeys;
+    
+    private final int[] _collidingValues;
+    
+    /**
+     * Create a frozen map holding the entries of a map.
+     *
+     * @param m the map, which must not use open addressing.
+     */
+    public FrozenCharArrayIntMap(CharArrayIntMap m) {
+        super(1);
+        
+        if (m.getClass() != CharArrayIntMap.class) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{m}));
+        }
+        
+        final Entry[] entries = new Entry[m._size];
+        int n = 0;
+        for (Entry e : m._table) {
+            for (; e != null; e = e._next) {
+                entries[n++] = e;
+            }
+        }
+        
+        final int[] hashes = new int[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = entries[i]._hash;
+        }
+        final boolean[] duplicates = MinimalPerfectHash.duplicates(hashes);
+        int collisions = 0;
+        for (int i = 0; i < n; i++) {
+            if (duplicates[i]) {
+                collisions++;
+            } else {
+                _totalCharacterCount += entries[i]._length;
+            }
+        }
+        
+        final int[] distinctHashes = new int[n - collisions];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (!duplicates[i]) {
+                distinctHashes[j++] = hashes[i];
+            }
+        }
+        _perfectHash = new MinimalPerfectHash(distinctHashes);
+        
+        final int slots = _perfectHash.getSlotCount();
+        _ch = new char[_totalCharacterCount];
+        _hashes = new int[slots];
+        _offsets = new int[slots];
+        _lengths = new int[slots];
+        _values = new int[slots];
+        // A slot that holds no key holds no value, as it may match an empty key
+        Arrays.fill(_values, NOT_PRESENT);
+        _collidingKeys = (collisions > 0) ? new char[collisions][] : null;
+        _collidingValues = (collisions > 0) ? new int[collisions] : null;
+        int offset = 0;
+        for (int i = 0, j = 0; i < n; i++) {
+            final Entry e = entries[i];
+            if (duplicates[i]) {
+                _collidingKeys[j] = Arrays.copyOfRange(e._ch, e._start, e._start + e._length);
+                _collidingValues[j++] = e._value;
+                _totalCharacterCount += e._length;
+            } else {
+                final int slot = _perfectHash.slot(e._hash);
+                System.arraycopy(e._ch, e._start, _ch, offset, e._length);
+                _hashes[slot] = e._hash;
+                _offsets[slot] = offset;
+                _lengths[slot] = e._length;
+                _values[slot] = e._value;
+                offset += e._length;
+            }
+        }
+        
+        _size = n;
+    }
+    
+    /**
+     * A frozen map holds no entries that can be removed.
+     */
+    @Override
+    public void clear() {
+    }
+    
+    @Override
+    public void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenMap"));
+    }
+    
+    @Override
+    public int obtainIndex(char[] ch, int start, int length, boolean clone) {
+        final int index = get(ch, start, length);
+        if (index == NOT_PRESENT) {
+            throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                    getString("message.frozenMap"));
+        }
+        return index;
+    }
+    
+    @Override
+    int get(char[] ch, int start, int length, int hash) {
+        final int slot = _perfectHash.slot(hash);
+        if (_hashes[slot] == hash) {
+            final int offset = _offsets[slot];
+            if (_lengths[slot] == length && 
+                    Arrays.equals(_ch, offset, offset + length, ch, start, start + length)) {
+                return _values[slot];
+            }
+            
+            if (_collidingKeys != null) {
+                for (int i = 0; i < _collidingKeys.length; i++) {
+                    if (Arrays.equals(_collidingKeys[i], 0, _collidingKeys[i].length, 
+                            ch, start, start + length)) {
+                        return _collidingValues[i];
+                    }
+                }
+            }
+        }
+        
+        return NOT_PRESENT;
+    }
+}
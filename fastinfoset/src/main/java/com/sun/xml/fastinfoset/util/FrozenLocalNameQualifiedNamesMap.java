@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+
+/**
+ * A {@link LocalNameQualifiedNamesMap} that cannot be modified, and so may be
+ * shared between threads as the read only map of many maps.
+ * <p>
+ * A key is located with a minimal perfect hash function of the hash values
+ * of the keys, see {@link FrozenStringIntMap}. The entries of the map must
+ * not be modified, a map with a frozen read only map copies an entry before
+ * qualified names are added to it, and locates the copy by the ordinal of
+ * the entry.
+ */
+public class FrozenLocalNameQualifiedNamesMap extends LocalNameQualifiedNamesMap {
+    
+    private final MinimalPerfectHash _perfectHash;
+    
+    private final int[] _hashes;
+    
+    private final Entry[] _entries;
+    
+    private final Entry[] _collidingEntries;
+    
+    /**
+     * Create a frozen map holding the entries of a map. The entries are
+     * shared with the map, which must not be modified afterwards.
+     *
+     * @param m the map, which must not use open addressing.
+     */
+    public FrozenLocalNameQualifiedNamesMap(LocalNameQualifiedNamesMap m) {
+        super(1);
+        
+        if (m.getClass() != LocalNameQualifiedNamesMap.class) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{m}));
+        }
+        
+        final Entry[] entries = new Entry[m._size];
+        int n = 0;
+        for (Entry e : m._table) {
+            for (; e != null; e = e._next) {
+                entries[n++] = e;
+            }
+        }
+        
+        final int[] hashes = new int[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = entries[i]._hash;
+        }
+        final boolean[] duplicates = MinimalPerfectHash.duplicates(hashes);
+        int collisions = 0;
+        for (int i = 0; i < n; i++) {
+            if (duplicates[i]) {
+                collisions++;
+            }
+        }
+        
+        final int[] distinctHashes = new int[n - collisions];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (!duplicates[i]) {
+                distinctHashes[j++] = hashes[i];
+            }
+        }
+        _perfectHash = new MinimalPerfectHash(distinctHashes);
+        
+        final int slots = _perfectHash.getSlotCount();
+        _hashes = new int[slots];
+        _entries = new Entry[slots];
+        _collidingEntries = (collisions > 0) ? new Entry[collisions] : null;
+        for (int i = 0, j = 0; i < n; i++) {
+            final Entry e = entries[i];
+            if (duplicates[i]) {
+                _collidingEntries[j++] = e;
+            } else {
+                final int slot = _perfectHash.slot(e._hash);
+                _hashes[slot] = e._hash;
+                _entries[slot] = e;
+            }
+        }
+        
+        _size = n;
+        _index = m._index;
+    }
+    
+    /**
+     * A frozen map holds no entries that can be removed.
+     */
+    @Override
+    public void clear() {
+    }
+    
+    @Override
+    public Entry obtainEntry(String key) {
+        final Entry entry = getEntry(key, hashHash(key.hashCode()));
+        if (entry == null) {
+            throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                    getString("message.frozenMap"));
+        }
+        return entry;
+    }
+    
+    @Override
+    public Entry obtainDynamicEntry(String key) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenMap"));
+    }
+    
+    @Override
+    Entry getEntry(String key, int hash) {
+        final int ordinal = getOrdinal(key, hash);
+        return (ordinal >= 0) ? getEntry(ordinal) : null;
+    }
+    
+    /**
+     * Return the ordinal of the entry of a key. The ordinals of the entries
+     * are distinct and less than {@link #getOrdinalCount()}, so that a map
+     * may hold its copies of the entries in an array.
+     *
+     * @return the ordinal, or -1 if the map holds no entry for the key.
+     */
+    final int getOrdinal(String key, int hash) {
+        final int slot = _perfectHash.slot(hash);
+        if (_hashes[slot] == hash) {
+            final Entry entry = _entries[slot];
+            if (entry != null && key.equals(entry._key)) {
+                return slot;
+            }
+            
+            if (_collidingEntries != null) {
+                for (int i = 0; i < _collidingEntries.length; i++) {
+                    if (key.equals(_collidingEntries[i]._key)) {
+                        return _entries.length + i;
+                    }
+                }
+            }
+        }
+        
+        return -1;
+    }
+    
+    final Entry getEntry(int ordinal) {
+        return (ordinal < _entries.length) ? _entries[ordinal] :
+            _collidingEntries[ordinal - _entries.length];
+    }
+    
+    final int getOrdinalCount() {
+        return (_collidingEntries != null) ?
+            _entries.length + _collidingEntries.length : _entries.length;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+
+/**
+ * A {@link StringIntMap} that cannot be modified, and so may be shared
+ * between threads as the read only map of many maps.
+ * <p>
+ * A key is located with a minimal perfect hash function of the hash values
+ * of the keys, so a lookup probes one slot. Keys with the same hash value as
+ * another key are held separately, and are searched only if the probed slot
+ * holds a different key with the same hash value.
+ */
+public class FrozenStringIntMap extends StringIntMap {
+    
+    private final MinimalPerfectHash _perfectHash;
+    
+    private final int[] _hashes;
+    
+    private final String[] _keys;
+    
+    private final int[] _values;
+    
+    private final String[] _collidingKeys;
+    
+    private final int[] _collidingValues;
+    
+    /**
+     * Create a frozen map holding the entries of a map.
+     * <p>
+     * The fixed entry of a {@link FixedEntryStringIntMap} is not held, as it
+     * is present in the maps that the frozen map is the read only map of.
+     *
+     * @param m the map, which must not use open addressing.
+     */
+    public FrozenStringIntMap(StringIntMap m) {
+        super(1);
+        
+        if (m.getClass() != StringIntMap.class && m.getClass() != FixedEntryStringIntMap.class) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{m}));
+        }
+        
+        final Entry fixedEntry = (m instanceof FixedEntryStringIntMap)
+                ? ((FixedEntryStringIntMap)m).getFixedEntry() : null;
+        final Entry[] entries = new Entry[m._size];
+        int n = 0;
+        for (Entry e : m._table) {
+            for (; e != null; e = e._next) {
+                if (e != fixedEntry) {
+                    entries[n++] = e;
+                }
+            }
+        }
+        
+        final int[] hashes = new int[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = entries[i]._hash;
+        }
+        final boolean[] duplicates = MinimalPerfectHash.duplicates(hashes);
+        int collisions = 0;
+        for (int i = 0; i < n; i++) {
+            if (duplicates[i]) {
+                collisions++;
+            }
+        }
+        
+        final int[] distinctHashes = new int[n - collisions];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (!duplicates[i]) {
+                distinctHashes[j++] = hashes[i];
+            }
+        }
+        _perfectHash = new MinimalPerfectHash(distinctHashes);
+        
+        final int slots = _perfectHash.getSlotCount();
+        _hashes = new int[slots];
+        _keys = new String[slots];
+        _values = new int[slots];
+        _collidingKeys = (collisions > 0) ? new String[collisions] : null;
+        _collidingValues = (collisions > 0) ? new int[collisions] : null;
+        for (int i = 0, j = 0; i < n; i++) {
+            final Entry e = entries[i];
+            if (duplicates[i]) {
+                _collidingKeys[j] = e._key;
+                _collidingValues[j++] = e._value;
+            } else {
+                final int slot = _perfectHash.slot(e._hash);
+                _hashes[slot] = e._hash;
+                _keys[slot] = e._key;
+                _values[slot] = e._value;
+            }
+            _totalCharacterCount += e._key.length();
+        }
+        
+        _size = n;
+        _index = m._index;
+    }
+    
+    /**
+     * A frozen map holds no entries that can be removed.
+     */
+    @Override
+    public void clear() {
+    }
+    
+    @Override
+    public void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenMap"));
+    }
+    
+    @Override
+    public int obtainIndex(String key) {
+        final int index = get(key, hashHash(key.hashCode()));
+        if (index == NOT_PRESENT) {
+            throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                    getString("message.frozenMap"));
+        }
+        return index;
+    }
+    
+    @Override
+    public void add(String key) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenMap"));
+    }
+    
+    @Override
+    public int get(String key) {
+        return get(key, hashHash(key.hashCode()));
+    }
+    
+    @Override
+    int get(String key, int hash) {
+        final int slot = _perfectHash.slot(hash);
+        if (_hashes[slot] == hash) {
+            if (key.equals(_keys[slot])) {
+                return _values[slot];
+            }
+            
+            if (_collidingKeys != null) {
+                for (int i = 0; i < _collidingKeys.length; i++) {
+                    if (key.equals(_collidingKeys[i])) {
+                        return _collidingValues[i];
+                    }
+                }
+            }
+        }
+        
+        return NOT_PRESENT;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded thread-safe pool of reusable instances, such as parsers and
+ * serializers.
+ * <p>
+ * Instances are never associated with a thread, an instance is either
+ * owned by the pool or by the caller that polled it from the pool. With
+ * thread affinity the pool is divided into stripes and a thread prefers
+ * the stripe selected by its identifier, which reduces contention while
+ * remaining bounded however many threads, including virtual threads, use
+ * the pool.
+ * <p>
+ * It is the responsibility of the caller to reset an instance before it
+ * is offered to the pool.
+ *
+ * @param <T> the type of the instances.
+ */
+public final class InstancePool<T> {
+    
+    private final ConcurrentLinkedQueue<T>[] _stripes;
+    
+    private final int _stripeMask;
+    
+    private final AtomicInteger _size = new AtomicInteger();
+    
+    private final int _maximumSize;
+    
+    /**
+     * @param maximumSize the maximum number of instances that are retained.
+     * @param threadAffinity true if threads prefer a stripe of the pool.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public InstancePool(int maximumSize, boolean threadAffinity) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalPoolSize", new Object[]{maximumSize}));
+        }
+        
+        int stripes = 1;
+        if (threadAffinity) {
+            final int limit = Math.min(maximumSize, Runtime.getRuntime().availableProcessors());
+            while (stripes < limit) {
+                stripes <<= 1;
+            }
+        }
+        
+        _stripes = new ConcurrentLinkedQueue[stripes];
+        for (int i = 0; i < stripes; i++) {
+            _stripes[i] = new ConcurrentLinkedQueue<>();
+        }
+        _stripeMask = stripes - 1;
+        _maximumSize = maximumSize;
+    }
+    
+    public int getMaximumSize() {
+        return _maximumSize;
+    }
+    
+    /**
+     * @return the number of instances retained by the pool.
+     */
+    public int size() {
+        return _size.get();
+    }
+    
+    /**
+     * Poll an instance from the pool.
+     *
+     * @return the instance, or null if the pool is empty.
+     */
+    public T poll() {
+        final int stripe = stripe();
+        for (int i = 0; i <= _stripeMask; i++) {
+            final T t = _stripes[(stripe + i) & _stripeMask].poll();
+            if (t != null) {
+                _size.decrementAndGet();
+                return t;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Offer an instance to the pool.
+     *
+     * @param t the instance.
+     * @return true if the instance is retained by the pool, otherwise false
+     *         if the pool is full.
+     */
+    public boolean offer(T t) {
+        if (t == null) {
+            throw new NullPointerException();
+        }
+        
+        if (_size.incrementAndGet() > _maximumSize) {
+            _size.decrementAndGet();
+            return false;
+        }
+        _stripes[stripe()].offer(t);
+        return true;
+    }
+    
+    /**
+     * Discard all the instances retained by the pool.
+     */
+    public void clear() {
+        for (ConcurrentLinkedQueue<T> stripe : _stripes) {
+            while (stripe.poll() != null) {
+                _size.decrementAndGet();
+            }
+        }
+    }
+    
+    private int stripe() {
+        if (_stripeMask == 0) {
+            return 0;
+        }
+        final long id = Thread.currentThread().getId();
+        return (int)(id ^ (id >>> 32)) & _stripeMask;
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,7 @@
 
 package com.sun.xml.fastinfoset.util;
 import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.Arrays;
 
 public abstract class KeyIntMap {
     public static final int NOT_PRESENT = -1;
@@ -39,6 +41,12 @@ public abstract class KeyIntMap {
      **/
     static final float DEFAULT_LOAD_FACTOR = 0.75f;
     
+    /**
+     * The load factor used by maps with open addressing when none
+     * specified in constructor.
+     **/
+    static final float DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR = 0.5f;
+    
     int _readOnlyMapSize;
     
     /**
@@ -46,6 +54,20 @@ public abstract class KeyIntMap {
      */
     int _size;
   
+    int _dynamicSizeLimit = Integer.MAX_VALUE;
+  
+    /**
+     * The size of the cache of entries by the identity of their keys.
+     * MUST be a power of two.
+     */
+    static final int IDENTITY_CACHE_SIZE = 256;
+  
+    /**
+     * The keys of the cache of entries by the identity of their keys,
+     * null if the keys are not declared to be interned.
+     */
+    String[] _identityKeys;
+  
     int _capacity;
     
     /**
@@ -88,8 +110,8 @@ public abstract class KeyIntMap {
             _threshold = (int)(_capacity * _loadFactor);
         } else {
             _capacity = DEFAULT_INITIAL_CAPACITY;
-            _loadFactor = DEFAULT_LOAD_FACTOR;
-            _threshold = (int)(DEFAULT_INITIAL_CAPACITY * DEFAULT_LOAD_FACTOR);        
+            _loadFactor = loadFactor;
+            _threshold = (int)(DEFAULT_INITIAL_CAPACITY * loadFactor);        
         }
     }
 
@@ -107,6 +129,66 @@ public abstract class KeyIntMap {
         return _size + _readOnlyMapSize;
     }
 
+    public int getDynamicSizeLimit() {
+        return _dynamicSizeLimit;
+    }
+    
+    /**
+     * Set the maximum number of entries of the map, not including the
+     * entries of the read only map.
+     * <p>
+     * A map of non identifying strings that holds the maximum number of
+     * entries is cleared when an entry is obtained that is not present, so
+     * the entry is the first of a new generation of entries. This is the
+     * same point at which a parser clears the table of the vocabulary.
+     *
+     * @param dynamicSizeLimit the maximum number of entries.
+     */
+    public void setDynamicSizeLimit(int dynamicSizeLimit) {
+        _dynamicSizeLimit = dynamicSizeLimit;
+    }
+    
+    public final boolean getInternedKeys() {
+        return _identityKeys != null;
+    }
+    
+    /**
+     * Declare that the keys used to look up entries are interned, or are
+     * otherwise the same String instance for equal keys.
+     * <p>
+     * If the keys are interned then the entries looked up are cached by
+     * the identity of their keys, in a cache that is direct mapped by
+     * {@link System#identityHashCode(Object)}, and a key is looked up in the
+     * cache before its characters are hashed and compared. A key that is
+     * not in the cache is looked up in the map, so keys that are not
+     * interned are still found.
+     *
+     * @param interned true if the keys are interned.
+     */
+    public final void setInternedKeys(boolean interned) {
+        if (interned != getInternedKeys()) {
+            _identityKeys = interned ? new String[IDENTITY_CACHE_SIZE] : null;
+            createIdentityCache();
+        }
+    }
+    
+    /**
+     * Create the values of the cache of entries by the identity of their
+     * keys, or release them if the keys are not interned.
+     */
+    void createIdentityCache() {
+    }
+    
+    final void clearIdentityCache() {
+        if (_identityKeys != null) {
+            Arrays.fill(_identityKeys, null);
+        }
+    }
+    
+    static int identitySlot(String key) {
+        return System.identityHashCode(key) & (IDENTITY_CACHE_SIZE - 1);
+    }
+    
     public abstract void clear();
     
     public abstract void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear);
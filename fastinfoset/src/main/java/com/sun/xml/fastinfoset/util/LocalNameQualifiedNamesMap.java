@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -25,9 +26,22 @@ import java.util.Arrays;
 
 public class LocalNameQualifiedNamesMap extends KeyIntMap {
 
-    private LocalNameQualifiedNamesMap _readOnlyMap;
+    protected LocalNameQualifiedNamesMap _readOnlyMap;
    
-    private int _index;
+    protected int _index;
+    
+    /**
+     * The read only map if it is frozen, otherwise null. The entries of a
+     * frozen map are shared and never modified, so an entry obtained from a
+     * frozen map is copied. The frozen map is searched first, and the copy
+     * is located by the ordinal of the entry without searching this map.
+     */
+    FrozenLocalNameQualifiedNamesMap _frozenReadOnlyMap;
+    
+    /**
+     * The copies of the entries of the frozen read only map, by ordinal.
+     */
+    Entry[] _readOnlyEntryCopies;
     
     public static class Entry {
         final String _key;
@@ -43,6 +57,14 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
             _value = new QualifiedName[1];
         }
         
+        Entry(Entry entry, Entry next) {
+            _key = entry._key;
+            _hash = entry._hash;
+            _next = next;
+            _value = Arrays.copyOf(entry._value, entry._valueIndex + 1);
+            _valueIndex = entry._valueIndex;
+        }
+        
         public void addQualifiedName(QualifiedName name) {
             if (_valueIndex < _value.length) {
                 _value[_valueIndex++] = name;
@@ -55,7 +77,12 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
         }
     }
     
-    private Entry[] _table;
+    Entry[] _table;
+    
+    /**
+     * The entries of the cache of entries by the identity of their keys.
+     */
+    Entry[] _identityEntries;
     
     public LocalNameQualifiedNamesMap(int initialCapacity, float loadFactor) {
         super(initialCapacity, loadFactor);
@@ -72,9 +99,11 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
     }
         
     @Override
-    public final void clear() {
+    public void clear() {
         Arrays.fill(_table, null);
         _size = 0;
+        clearIdentityCache();
+        clearReadOnlyEntryCopies();
         
         if (_readOnlyMap != null) {        
             _index = _readOnlyMap.getIndex();
@@ -95,6 +124,14 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
     
     public final void setReadOnlyMap(LocalNameQualifiedNamesMap readOnlyMap, boolean clear) {
         _readOnlyMap = readOnlyMap;
+        clearIdentityCache();
+        if (readOnlyMap instanceof FrozenLocalNameQualifiedNamesMap) {
+            _frozenReadOnlyMap = (FrozenLocalNameQualifiedNamesMap)readOnlyMap;
+            _readOnlyEntryCopies = new Entry[_frozenReadOnlyMap.getOrdinalCount()];
+        } else {
+            _frozenReadOnlyMap = null;
+            _readOnlyEntryCopies = null;
+        }
         if (_readOnlyMap != null) {
             _readOnlyMapSize = _readOnlyMap.size();
             _index = _readOnlyMap.getIndex();
@@ -119,10 +156,34 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
         return _index;        
     }
     
-    public final Entry obtainEntry(String key) {
-        final int hash = hashHash(key.hashCode());
+    @Override
+    void createIdentityCache() {
+        _identityEntries = (_identityKeys != null) ? new Entry[IDENTITY_CACHE_SIZE] : null;
+    }
+    
+    public Entry obtainEntry(String key) {
+        if (_identityKeys != null) {
+            final int slot = identitySlot(key);
+            if (_identityKeys[slot] == key) {
+                return _identityEntries[slot];
+            }
+            
+            final Entry entry = obtainEntry(key, hashHash(key.hashCode()));
+            _identityKeys[slot] = key;
+            _identityEntries[slot] = entry;
+            return entry;
+        }
         
-        if (_readOnlyMap != null) {
+        return obtainEntry(key, hashHash(key.hashCode()));
+    }
+    
+    Entry obtainEntry(String key, int hash) {
+        if (_frozenReadOnlyMap != null) {
+            final int ordinal = _frozenReadOnlyMap.getOrdinal(key, hash);
+            if (ordinal >= 0) {
+                return obtainReadOnlyEntryCopy(ordinal);
+            }
+        } else if (_readOnlyMap != null) {
             final Entry entry = _readOnlyMap.getEntry(key, hash);
             if (entry != null) {
                 return entry;
@@ -139,7 +200,7 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
         return addEntry(key, hash, tableIndex);        
     }
     
-    public final Entry obtainDynamicEntry(String key) {
+    public Entry obtainDynamicEntry(String key) {
         final int hash = hashHash(key.hashCode());
         
         final int tableIndex = indexFor(hash, _table.length);
@@ -152,8 +213,13 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
         return addEntry(key, hash, tableIndex);        
     }
 
-    private Entry getEntry(String key, int hash) {
-        if (_readOnlyMap != null) {
+    Entry getEntry(String key, int hash) {
+        if (_frozenReadOnlyMap != null) {
+            final int ordinal = _frozenReadOnlyMap.getOrdinal(key, hash);
+            if (ordinal >= 0) {
+                return getReadOnlyEntryCopy(ordinal);
+            }
+        } else if (_readOnlyMap != null) {
             final Entry entry = _readOnlyMap.getEntry(key, hash);
             if (entry != null) {
                 return entry;
@@ -170,6 +236,33 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
         return null;
     }
 
+    /**
+     * Obtain the copy of an entry of the frozen read only map, copying the
+     * entry when it is first obtained.
+     */
+    final Entry obtainReadOnlyEntryCopy(int ordinal) {
+        Entry e = _readOnlyEntryCopies[ordinal];
+        if (e == null) {
+            e = new Entry(_frozenReadOnlyMap.getEntry(ordinal), null);
+            _readOnlyEntryCopies[ordinal] = e;
+        }
+        return e;
+    }
+    
+    /**
+     * Get the copy of an entry of the frozen read only map, or the entry
+     * if it has not been copied.
+     */
+    final Entry getReadOnlyEntryCopy(int ordinal) {
+        final Entry e = _readOnlyEntryCopies[ordinal];
+        return (e != null) ? e : _frozenReadOnlyMap.getEntry(ordinal);
+    }
+    
+    final void clearReadOnlyEntryCopies() {
+        if (_readOnlyEntryCopies != null) {
+            Arrays.fill(_readOnlyEntryCopies, null);
+        }
+    }
 
     private Entry addEntry(String key, int hash, int bucketIndex) {
 	Entry e = _table[bucketIndex];
@@ -0,0 +1,179 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An {@link InputStream} that reads a file through memory mapped windows.
+ * <p>
+ * The whole file is mapped, one window at a time for files larger than the
+ * window size, including files larger than 2 GB, when the stream is
+ * created. The file channel is then closed by the constructor, since a
+ * mapping remains valid once its channel is closed, so the stream holds no
+ * file handle. Closing the stream releases the mapped windows, which are
+ * unmapped when they are garbage collected.
+ * <p>
+ * A decoder reads the windows directly with {@link #nextWindow()}, copying
+ * octets from the mapped region to its buffer as the buffer is refilled,
+ * rather than through the read methods of the stream.
+ */
+public class MappedFileInputStream extends InputStream {
+    
+    /**
+     * The default size of a mapped window.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    
+    private final MappedByteBuffer[] _windows;
+    
+    private final long _size;
+    
+    private final int _windowSize;
+    
+    /**
+     * The index of the current window.
+     */
+    private int _windowIndex;
+    
+    private MappedByteBuffer _window;
+    
+    private boolean _closed;
+    
+    public MappedFileInputStream(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+    
+    public MappedFileInputStream(Path path, int windowSize) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalWindowSize", new Object[]{windowSize}));
+        }
+        
+        _windowSize = windowSize;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            _size = channel.size();
+            _windows = new MappedByteBuffer[(int) Math.max(1, (_size + windowSize - 1) / windowSize)];
+            for (int i = 0; i < _windows.length; i++) {
+                final long position = (long) i * windowSize;
+                _windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(windowSize, _size - position));
+            }
+        }
+        _window = _windows[0];
+    }
+    
+    /**
+     * Return the octets of the current window that have not been read and
+     * advance the stream to the end of the window. The buffer shares the
+     * mapped region, the octets are not copied.
+     *
+     * @return the buffer of the octets, or null at the end of the file.
+     * @throws IOException if the stream is closed.
+     */
+    public ByteBuffer nextWindow() throws IOException {
+        if (!hasRemaining()) {
+            return null;
+        }
+        
+        final ByteBuffer window = _window.slice();
+        _window.position(_window.limit());
+        return window;
+    }
+    
+    @Override
+    public int read() throws IOException {
+        if (!hasRemaining()) {
+            return -1;
+        }
+        return _window.get() & 0xFF;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        
+        if (!hasRemaining()) {
+            return -1;
+        }
+        
+        final int n = Math.min(len, _window.remaining());
+        _window.get(b, off, n);
+        return n;
+    }
+    
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        long skipped = 0;
+        while (skipped < n && hasRemaining()) {
+            final int k = (int) Math.min(n - skipped, _window.remaining());
+            _window.position(_window.position() + k);
+            skipped += k;
+        }
+        return skipped;
+    }
+    
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return (int) Math.min(Integer.MAX_VALUE,
+                _size - (long) _windowIndex * _windowSize - _window.position());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!_closed) {
+            _closed = true;
+            _window = null;
+            Arrays.fill(_windows, null);
+        }
+    }
+    
+    private boolean hasRemaining() throws IOException {
+        ensureOpen();
+        while (!_window.hasRemaining()) {
+            if (_windowIndex == _windows.length - 1) {
+                return false;
+            }
+            _window = _windows[++_windowIndex];
+        }
+        return true;
+    }
+    
+    private void ensureOpen() throws IOException {
+        if (_closed) {
+            throw new IOException(CommonResourceBundle.getInstance().getString("message.streamClosed"));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import java.util.Arrays;
+
+/**
+ * A minimal perfect hash function of a set of distinct hash values, created
+ * with the hash and displace algorithm.
+ * <p>
+ * The hash values are distributed to buckets. For each bucket, from the
+ * largest to the smallest, a displacement is searched for that maps the hash
+ * values of the bucket to slots that are not yet occupied. A hash value is
+ * then mapped to its slot with one lookup of the displacement of its bucket.
+ * A hash value that is not a member of the set is mapped to any slot.
+ * <p>
+ * If the search fails for a bucket the number of slots is increased, so for
+ * very large sets the function may not be minimal.
+ */
+final class MinimalPerfectHash {
+    
+    private static final int AVERAGE_BUCKET_SIZE = 3;
+    
+    private static final int MAXIMUM_DISPLACEMENT = 1 << 16;
+    
+    private static final int DISPLACEMENT_MULTIPLIER = 0x9E3779B9;
+    
+    private final int[] _displacements;
+    
+    private final int _slotCount;
+    
+    /**
+     * @param hashes the distinct hash values.
+     */
+    MinimalPerfectHash(int[] hashes) {
+        final int[] mixedHashes = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            mixedHashes[i] = mix(hashes[i]);
+        }
+        
+        final int bucketCount = Math.max(1, 
+                (hashes.length + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+        int slotCount = Math.max(1, hashes.length);
+        int[] displacements;
+        while ((displacements = displace(mixedHashes, bucketCount, slotCount)) == null) {
+            slotCount += Math.max(1, slotCount >>> 6);
+        }
+        
+        _displacements = displacements;
+        _slotCount = slotCount;
+    }
+    
+    int getSlotCount() {
+        return _slotCount;
+    }
+    
+    int slot(int hash) {
+        final int h = mix(hash);
+        final int d = _displacements[reduce(h, _displacements.length)];
+        return reduce(mix(h + d * DISPLACEMENT_MULTIPLIER), _slotCount);
+    }
+    
+    /**
+     * Find the entries whose hash values are equal to the hash value of
+     * a preceding entry.
+     *
+     * @param hashes the hash values of the entries.
+     * @return true for each entry that has the hash value of a preceding entry.
+     */
+    static boolean[] duplicates(int[] hashes) {
+        final long[] sorted = new long[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            sorted[i] = ((long)hashes[i] << 32) | i;
+        }
+        Arrays.sort(sorted);
+        
+        final boolean[] duplicates = new boolean[hashes.length];
+        for (int i = 1; i < sorted.length; i++) {
+            if ((sorted[i] >> 32) == (sorted[i - 1] >> 32)) {
+                duplicates[(int)sorted[i]] = true;
+            }
+        }
+        return duplicates;
+    }
+    
+    private static int[] displace(int[] mixedHashes, int bucketCount, int slotCount) {
+        // Sort the hash values by bucket
+        final int[] bucketStarts = new int[bucketCount + 1];
+        for (int h : mixedHashes) {
+            bucketStarts[reduce(h, bucketCount) + 1]++;
+        }
+        int maximumBucketSize = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maximumBucketSize = Math.max(maximumBucketSize, bucketStarts[b + 1]);
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        final int[] bucketHashes = new int[mixedHashes.length];
+        final int[] bucketFill = Arrays.copyOf(bucketStarts, bucketCount);
+        for (int h : mixedHashes) {
+            bucketHashes[bucketFill[reduce(h, bucketCount)]++] = h;
+        }
+        
+        // Order the buckets from the largest to the smallest
+        final int[] sizeStarts = new int[maximumBucketSize + 2];
+        for (int b = 0; b < bucketCount; b++) {
+            sizeStarts[maximumBucketSize - (bucketStarts[b + 1] - bucketStarts[b]) + 1]++;
+        }
+        for (int s = 0; s <= maximumBucketSize; s++) {
+            sizeStarts[s + 1] += sizeStarts[s];
+        }
+        final int[] buckets = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            buckets[sizeStarts[maximumBucketSize - (bucketStarts[b + 1] - bucketStarts[b])]++] = b;
+        }
+        
+        final int[] displacements = new int[bucketCount];
+        final boolean[] occupied = new boolean[slotCount];
+        for (int b : buckets) {
+            final int start = bucketStarts[b];
+            final int end = bucketStarts[b + 1];
+            if (start == end) {
+                break;
+            }
+            
+            int d = 0;
+            while (!place(bucketHashes, start, end, d, occupied)) {
+                if (++d == MAXIMUM_DISPLACEMENT) {
+                    return null;
+                }
+            }
+            displacements[b] = d;
+        }
+        return displacements;
+    }
+    
+    private static boolean place(int[] bucketHashes, int start, int end, int d, boolean[] occupied) {
+        for (int i = start; i < end; i++) {
+            final int slot = reduce(mix(bucketHashes[i] + d * DISPLACEMENT_MULTIPLIER), occupied.length);
+            if (occupied[slot]) {
+                // Free the slots occupied by the preceding hash values of the bucket
+                for (int j = start; j < i; j++) {
+                    occupied[reduce(mix(bucketHashes[j] + d * DISPLACEMENT_MULTIPLIER), occupied.length)] = false;
+                }
+                return false;
+            }
+            occupied[slot] = true;
+        }
+        return true;
+    }
+    
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+    
+    private static int reduce(int h, int n) {
+        return (int)(((h & 0xFFFFFFFFL) * n) >>> 32);
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+
+import java.util.Arrays;
+
+/**
+ * A {@link CharArrayIntMap} that uses open addressing with linear probing.
+ * <p>
+ * The hashes, values and the offsets and lengths of the keys are held in
+ * parallel arrays, and the characters of all the keys are held in one
+ * contiguous array of characters. No object is created when an entry is
+ * added and a lookup does not follow references from one entry to the next.
+ * <p>
+ * The entries of the read only map are copied into the map when the read
+ * only map is set. A lookup probes one table, and clearing the map restores
+ * those entries by copying arrays.
+ */
+public class OpenAddressingCharArrayIntMap extends CharArrayIntMap {
+
+    private int[] _hashes;
+
+    private int[] _offsets;
+
+    private int[] _lengths;
+
+    /**
+     * The values of the map, {@link KeyIntMap#NOT_PRESENT} for an empty
+     * entry.
+     */
+    private int[] _values;
+
+    /**
+     * The characters of the keys.
+     */
+    private char[] _ch;
+
+    private int _chLength;
+
+    /**
+     * The number of entries in the table, including the entries of the read
+     * only map.
+     */
+    private int _entries;
+
+    private OpenAddressingCharArrayIntMap _readOnlyMap;
+
+    /**
+     * The table holding only the entries of the read only map, or null if
+     * there are no such entries. The characters of these entries are at the
+     * start of the array of characters.
+     */
+    private int[] _readOnlyHashes;
+
+    private int[] _readOnlyOffsets;
+
+    private int[] _readOnlyLengths;
+
+    private int[] _readOnlyValues;
+
+    private int _readOnlyEntries;
+
+    private int _readOnlyChLength;
+
+    public OpenAddressingCharArrayIntMap(int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+
+        _hashes = new int[_capacity];
+        _offsets = new int[_capacity];
+        _lengths = new int[_capacity];
+        _values = new int[_capacity];
+        Arrays.fill(_values, NOT_PRESENT);
+        _ch = new char[_capacity * 8];
+    }
+
+    public OpenAddressingCharArrayIntMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    public OpenAddressingCharArrayIntMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    @Override
+    public void clear() {
+        if (_readOnlyValues == null) {
+            Arrays.fill(_values, NOT_PRESENT);
+        } else {
+            System.arraycopy(_readOnlyHashes, 0, _hashes, 0, _hashes.length);
+            System.arraycopy(_readOnlyOffsets, 0, _offsets, 0, _offsets.length);
+            System.arraycopy(_readOnlyLengths, 0, _lengths, 0, _lengths.length);
+            System.arraycopy(_readOnlyValues, 0, _values, 0, _values.length);
+        }
+        _entries = _readOnlyEntries;
+        _chLength = _readOnlyChLength;
+        _size = 0;
+        _totalCharacterCount = 0;
+    }
+
+    @Override
+    public void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+        if (!(readOnlyMap instanceof OpenAddressingCharArrayIntMap)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{readOnlyMap}));
+        }
+
+        _readOnlyMap = (OpenAddressingCharArrayIntMap)readOnlyMap;
+        copyReadOnlyEntries(clear);
+    }
+
+    @Override
+    public int get(char[] ch, int start, int length) {
+        final int hash = hashHash(CharArray.hashCode(ch, start, length));
+        final int i = indexOf(ch, start, length, hash);
+        return (i == -1) ? NOT_PRESENT : _values[i];
+    }
+
+    @Override
+    public int obtainIndex(char[] ch, int start, int length, boolean clone) {
+        if (_size == _dynamicSizeLimit) {
+            final int index = get(ch, start, length);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+            clear();
+        }
+
+        final int hash = hashHash(CharArray.hashCode(ch, start, length));
+        final int[] values = _values;
+        final int mask = values.length - 1;
+        int i = hash & mask;
+        int v;
+        while ((v = values[i]) != NOT_PRESENT) {
+            if (_hashes[i] == hash && _lengths[i] == length
+                    && equals(_ch, _offsets[i], ch, start, length)) {
+                return v;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // The characters are always copied, so clone is not required
+        putEntry(ch, start, length, hash, _size + _readOnlyMapSize, i);
+        _size++;
+        _totalCharacterCount += length;
+        return NOT_PRESENT;
+    }
+
+    private int indexOf(char[] ch, int start, int length, int hash) {
+        final int mask = _values.length - 1;
+        int i = hash & mask;
+        while (_values[i] != NOT_PRESENT) {
+            if (_hashes[i] == hash && _lengths[i] == length
+                    && equals(_ch, _offsets[i], ch, start, length)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int freeIndexFor(int hash) {
+        final int mask = _values.length - 1;
+        int i = hash & mask;
+        while (_values[i] != NOT_PRESENT) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static boolean equals(char[] ch1, int start1, char[] ch2, int start2, int length) {
+        return Arrays.equals(ch1, start1, start1 + length, ch2, start2, start2 + length);
+    }
+
+    private void putEntry(char[] ch, int start, int length, int hash, int value, int tableIndex) {
+        if (_ch.length - _chLength < length) {
+            _ch = Arrays.copyOf(_ch, Math.max(_ch.length * 2, _chLength + length));
+        }
+        System.arraycopy(ch, start, _ch, _chLength, length);
+
+        _hashes[tableIndex] = hash;
+        _offsets[tableIndex] = _chLength;
+        _lengths[tableIndex] = length;
+        _values[tableIndex] = value;
+        _chLength += length;
+        if (++_entries >= _threshold) {
+            rehash(2 * _values.length);
+        }
+    }
+
+    /**
+     * Copy the entries of the read only map into a new table, and retain
+     * the other entries of the map if it is not cleared.
+     */
+    private void copyReadOnlyEntries(boolean clear) {
+        final int[] hashes = _hashes;
+        final int[] offsets = _offsets;
+        final int[] lengths = _lengths;
+        final int[] values = _values;
+        final char[] ch = _ch;
+        final int readOnlyChLength = _readOnlyChLength;
+
+        _hashes = new int[values.length];
+        _offsets = new int[values.length];
+        _lengths = new int[values.length];
+        _values = new int[values.length];
+        Arrays.fill(_values, NOT_PRESENT);
+        _ch = new char[ch.length];
+        _chLength = 0;
+        _readOnlyHashes = null;
+        _readOnlyOffsets = null;
+        _readOnlyLengths = null;
+        _readOnlyValues = null;
+        _entries = 0;
+
+        final OpenAddressingCharArrayIntMap readOnlyMap = _readOnlyMap;
+        if (readOnlyMap != null) {
+            for (int j = 0; j < readOnlyMap._values.length; j++) {
+                if (readOnlyMap._values[j] != NOT_PRESENT) {
+                    putEntry(readOnlyMap._ch, readOnlyMap._offsets[j], readOnlyMap._lengths[j],
+                            readOnlyMap._hashes[j], readOnlyMap._values[j],
+                            freeIndexFor(readOnlyMap._hashes[j]));
+                }
+            }
+        }
+
+        _readOnlyEntries = _entries;
+        _readOnlyMapSize = _entries;
+        _readOnlyChLength = _chLength;
+        if (_readOnlyEntries > 0) {
+            _readOnlyHashes = _hashes.clone();
+            _readOnlyOffsets = _offsets.clone();
+            _readOnlyLengths = _lengths.clone();
+            _readOnlyValues = _values.clone();
+        }
+        _size = 0;
+        _totalCharacterCount = 0;
+
+        if (!clear) {
+            for (int j = 0; j < values.length; j++) {
+                // Entries whose characters are after those of the previous
+                // read only map were added to the map
+                if (values[j] != NOT_PRESENT && offsets[j] >= readOnlyChLength
+                        && indexOf(ch, offsets[j], lengths[j], hashes[j]) == -1) {
+                    putEntry(ch, offsets[j], lengths[j], hashes[j], values[j],
+                            freeIndexFor(hashes[j]));
+                    _size++;
+                    _totalCharacterCount += lengths[j];
+                }
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        _capacity = newCapacity;
+        _threshold = (int)(_capacity * _loadFactor);
+
+        final int[] hashes = new int[newCapacity];
+        final int[] offsets = new int[newCapacity];
+        final int[] lengths = new int[newCapacity];
+        final int[] values = new int[newCapacity];
+        transfer(_hashes, _offsets, _lengths, _values, hashes, offsets, lengths, values);
+        _hashes = hashes;
+        _offsets = offsets;
+        _lengths = lengths;
+        _values = values;
+
+        if (_readOnlyValues != null) {
+            final int[] readOnlyHashes = new int[newCapacity];
+            final int[] readOnlyOffsets = new int[newCapacity];
+            final int[] readOnlyLengths = new int[newCapacity];
+            final int[] readOnlyValues = new int[newCapacity];
+            transfer(_readOnlyHashes, _readOnlyOffsets, _readOnlyLengths, _readOnlyValues,
+                    readOnlyHashes, readOnlyOffsets, readOnlyLengths, readOnlyValues);
+            _readOnlyHashes = readOnlyHashes;
+            _readOnlyOffsets = readOnlyOffsets;
+            _readOnlyLengths = readOnlyLengths;
+            _readOnlyValues = readOnlyValues;
+        }
+    }
+
+    private static void transfer(int[] srcHashes, int[] srcOffsets, int[] srcLengths, int[] srcValues,
+            int[] hashes, int[] offsets, int[] lengths, int[] values) {
+        Arrays.fill(values, NOT_PRESENT);
+        final int mask = values.length - 1;
+        for (int j = 0; j < srcValues.length; j++) {
+            if (srcValues[j] != NOT_PRESENT) {
+                int i = srcHashes[j] & mask;
+                while (values[i] != NOT_PRESENT) {
+                    i = (i + 1) & mask;
+                }
+                hashes[i] = srcHashes[j];
+                offsets[i] = srcOffsets[j];
+                lengths[i] = srcLengths[j];
+                values[i] = srcValues[j];
+            }
+        }
+    }
+}
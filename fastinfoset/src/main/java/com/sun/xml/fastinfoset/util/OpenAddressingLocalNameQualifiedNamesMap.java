@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import java.util.Arrays;
+
+/**
+ * A {@link LocalNameQualifiedNamesMap} that uses open addressing with linear
+ * probing.
+ * <p>
+ * The hashes, keys and entries of the map are held in parallel arrays, so a
+ * lookup does not follow references from one entry to the next.
+ * <p>
+ * Unlike the other maps with open addressing the entries of the read only
+ * map are not copied, since an entry is shared with the read only map and
+ * may be hidden by an entry obtained with {@link #obtainDynamicEntry}.
+ */
+public class OpenAddressingLocalNameQualifiedNamesMap extends LocalNameQualifiedNamesMap {
+
+    private int[] _hashes;
+
+    private String[] _keys;
+
+    private Entry[] _entries;
+
+    public OpenAddressingLocalNameQualifiedNamesMap(int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+
+        _hashes = new int[_capacity];
+        _keys = new String[_capacity];
+        _entries = new Entry[_capacity];
+    }
+
+    public OpenAddressingLocalNameQualifiedNamesMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    public OpenAddressingLocalNameQualifiedNamesMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(_keys, null);
+        Arrays.fill(_entries, null);
+        _size = 0;
+        clearIdentityCache();
+        clearReadOnlyEntryCopies();
+
+        if (_readOnlyMap != null) {
+            _index = _readOnlyMap.getIndex();
+        } else {
+            _index = 0;
+        }
+    }
+
+    @Override
+    Entry obtainEntry(String key, int hash) {
+        if (_frozenReadOnlyMap != null) {
+            final int ordinal = _frozenReadOnlyMap.getOrdinal(key, hash);
+            if (ordinal >= 0) {
+                return obtainReadOnlyEntryCopy(ordinal);
+            }
+        } else if (_readOnlyMap != null) {
+            final Entry entry = _readOnlyMap.getEntry(key, hash);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        return obtainDynamicEntry(key, hash);
+    }
+
+    @Override
+    public Entry obtainDynamicEntry(String key) {
+        return obtainDynamicEntry(key, hashHash(key.hashCode()));
+    }
+
+    private Entry obtainDynamicEntry(String key, int hash) {
+        final String[] keys = _keys;
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (_hashes[i] == hash && k.equals(key)) {
+                return _entries[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        final Entry entry = new Entry(key, hash, null);
+        _hashes[i] = hash;
+        keys[i] = key;
+        _entries[i] = entry;
+        if (++_size >= _threshold) {
+            rehash(2 * keys.length);
+        }
+        return entry;
+    }
+
+    @Override
+    Entry getEntry(String key, int hash) {
+        if (_frozenReadOnlyMap != null) {
+            final int ordinal = _frozenReadOnlyMap.getOrdinal(key, hash);
+            if (ordinal >= 0) {
+                return getReadOnlyEntryCopy(ordinal);
+            }
+        } else if (_readOnlyMap != null) {
+            final Entry entry = _readOnlyMap.getEntry(key, hash);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        final String[] keys = _keys;
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (_hashes[i] == hash && k.equals(key)) {
+                return _entries[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    private void rehash(int newCapacity) {
+        _capacity = newCapacity;
+        _threshold = (int)(_capacity * _loadFactor);
+
+        final int[] hashes = new int[newCapacity];
+        final String[] keys = new String[newCapacity];
+        final Entry[] entries = new Entry[newCapacity];
+        final int mask = newCapacity - 1;
+        for (int j = 0; j < _keys.length; j++) {
+            final String key = _keys[j];
+            if (key != null) {
+                int i = _hashes[j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                hashes[i] = _hashes[j];
+                keys[i] = key;
+                entries[i] = _entries[j];
+            }
+        }
+        _hashes = hashes;
+        _keys = keys;
+        _entries = entries;
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+
+import java.util.Arrays;
+
+/**
+ * A {@link StringIntMap} that uses open addressing with linear probing.
+ * <p>
+ * The hashes, keys and values of the map are held in parallel arrays, so
+ * no object is created when an entry is added and a lookup does not follow
+ * references from one entry to the next.
+ * <p>
+ * The fixed entry, if any, and the entries of the read only map are copied
+ * into the map when the read only map is set. A lookup probes one table, and
+ * clearing the map restores those entries by copying arrays.
+ */
+public class OpenAddressingStringIntMap extends StringIntMap {
+
+    private final String _fixedEntry;
+
+    private int[] _hashes;
+
+    private String[] _keys;
+
+    private int[] _values;
+
+    /**
+     * The number of entries in the table, including the fixed entry and
+     * the entries of the read only map.
+     */
+    private int _entries;
+
+    /**
+     * The table holding only the fixed entry and the entries of the read
+     * only map, or null if there are no such entries.
+     */
+    private int[] _readOnlyHashes;
+
+    private String[] _readOnlyKeys;
+
+    private int[] _readOnlyValues;
+
+    private int _readOnlyEntries;
+
+    public OpenAddressingStringIntMap(String fixedEntry, int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+
+        _fixedEntry = fixedEntry;
+        _hashes = new int[_capacity];
+        _keys = new String[_capacity];
+        _values = new int[_capacity];
+        copyReadOnlyEntries(true);
+    }
+
+    public OpenAddressingStringIntMap(String fixedEntry, int initialCapacity) {
+        this(fixedEntry, initialCapacity, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    public OpenAddressingStringIntMap(int initialCapacity) {
+        this(null, initialCapacity, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    public OpenAddressingStringIntMap() {
+        this(null, DEFAULT_INITIAL_CAPACITY, DEFAULT_OPEN_ADDRESSING_LOAD_FACTOR);
+    }
+
+    @Override
+    public void clear() {
+        if (_readOnlyKeys == null) {
+            Arrays.fill(_keys, null);
+        } else {
+            System.arraycopy(_readOnlyHashes, 0, _hashes, 0, _hashes.length);
+            System.arraycopy(_readOnlyKeys, 0, _keys, 0, _keys.length);
+            System.arraycopy(_readOnlyValues, 0, _values, 0, _values.length);
+        }
+        _entries = _readOnlyEntries;
+        _size = (_fixedEntry != null) ? 1 : 0;
+        _index = _readOnlyMapSize + _size;
+        _totalCharacterCount = 0;
+        clearIdentityCache();
+    }
+
+    @Override
+    public void setReadOnlyMap(KeyIntMap readOnlyMap, boolean clear) {
+        if (!(readOnlyMap instanceof OpenAddressingStringIntMap)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalClass", new Object[]{readOnlyMap}));
+        }
+
+        _readOnlyMap = (OpenAddressingStringIntMap)readOnlyMap;
+        copyReadOnlyEntries(clear);
+        clearIdentityCache();
+    }
+
+    @Override
+    public int obtainIndex(String key) {
+        if (_identityKeys != null) {
+            final int index = getInterned(key);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+        }
+
+        if (_index - _readOnlyMapSize == _dynamicSizeLimit) {
+            final int index = get(key);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+            clear();
+        }
+
+        final int hash = hashHash(key.hashCode());
+        final String[] keys = _keys;
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (_hashes[i] == hash && k.equals(key)) {
+                return _values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        addEntry(key, hash, i);
+        return NOT_PRESENT;
+    }
+
+    @Override
+    public void add(String key) {
+        final int hash = hashHash(key.hashCode());
+        final int i = indexOf(_hashes, _keys, key, hash);
+        if (i == -1) {
+            addEntry(key, hash, freeIndexFor(hash));
+        } else {
+            // Replace the value, as the entry added to a chained map
+            // hides the existing entry
+            _values[i] = _index++;
+            _totalCharacterCount += key.length();
+            clearIdentityCache();
+        }
+    }
+
+    @Override
+    public int get(String key) {
+        if (_identityKeys != null) {
+            return getInterned(key);
+        }
+        return get(key, hashHash(key.hashCode()));
+    }
+
+    @Override
+    int get(String key, int hash) {
+        final String[] keys = _keys;
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (_hashes[i] == hash && k.equals(key)) {
+                return _values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return NOT_PRESENT;
+    }
+
+    private void addEntry(String key, int hash, int tableIndex) {
+        _hashes[tableIndex] = hash;
+        _keys[tableIndex] = key;
+        _values[tableIndex] = _index++;
+        _size++;
+        _totalCharacterCount += key.length();
+        if (++_entries >= _threshold) {
+            rehash(2 * _keys.length);
+        }
+    }
+
+    /**
+     * Copy the fixed entry and the entries of the read only map into a new
+     * table, and retain the other entries of the map if it is not cleared.
+     */
+    private void copyReadOnlyEntries(boolean clear) {
+        final int[] hashes = _hashes;
+        final String[] keys = _keys;
+        final int[] values = _values;
+        final int[] readOnlyHashes = _readOnlyHashes;
+        final String[] readOnlyKeys = _readOnlyKeys;
+
+        _hashes = new int[keys.length];
+        _keys = new String[keys.length];
+        _values = new int[keys.length];
+        _readOnlyHashes = null;
+        _readOnlyKeys = null;
+        _readOnlyValues = null;
+        _entries = 0;
+
+        if (_fixedEntry != null) {
+            final int hash = hashHash(_fixedEntry.hashCode());
+            putEntry(_fixedEntry, hash, 0);
+        }
+
+        final OpenAddressingStringIntMap readOnlyMap = (OpenAddressingStringIntMap)_readOnlyMap;
+        if (readOnlyMap != null) {
+            for (int j = 0; j < readOnlyMap._keys.length; j++) {
+                final String key = readOnlyMap._keys[j];
+                final int hash = readOnlyMap._hashes[j];
+                if (key != null && indexOf(_hashes, _keys, key, hash) == -1) {
+                    putEntry(key, hash, readOnlyMap._values[j]);
+                }
+            }
+        }
+
+        _readOnlyEntries = _entries;
+        _readOnlyMapSize = (_fixedEntry != null) ? _entries - 1 : _entries;
+        if (_readOnlyEntries > 0) {
+            _readOnlyHashes = _hashes.clone();
+            _readOnlyKeys = _keys.clone();
+            _readOnlyValues = _values.clone();
+        }
+        _size = (_fixedEntry != null) ? 1 : 0;
+        _totalCharacterCount = 0;
+
+        if (!clear) {
+            for (int j = 0; j < keys.length; j++) {
+                final String key = keys[j];
+                final int hash = hashes[j];
+                if (key != null
+                        && (readOnlyKeys == null || indexOf(readOnlyHashes, readOnlyKeys, key, hash) == -1)
+                        && indexOf(_hashes, _keys, key, hash) == -1) {
+                    putEntry(key, hash, values[j]);
+                    _size++;
+                    _totalCharacterCount += key.length();
+                }
+            }
+        }
+        _index = _readOnlyMapSize + _size;
+    }
+
+    private void putEntry(String key, int hash, int value) {
+        final int i = freeIndexFor(hash);
+        _hashes[i] = hash;
+        _keys[i] = key;
+        _values[i] = value;
+        if (++_entries >= _threshold) {
+            rehash(2 * _keys.length);
+        }
+    }
+
+    private int freeIndexFor(int hash) {
+        final int mask = _keys.length - 1;
+        int i = hash & mask;
+        while (_keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int indexOf(int[] hashes, String[] keys, String key, int hash) {
+        final int mask = keys.length - 1;
+        int i = hash & mask;
+        String k;
+        while ((k = keys[i]) != null) {
+            if (hashes[i] == hash && k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int newCapacity) {
+        _capacity = newCapacity;
+        _threshold = (int)(_capacity * _loadFactor);
+
+        final int[] hashes = new int[newCapacity];
+        final String[] keys = new String[newCapacity];
+        final int[] values = new int[newCapacity];
+        transfer(_hashes, _keys, _values, hashes, keys, values);
+        _hashes = hashes;
+        _keys = keys;
+        _values = values;
+
+        if (_readOnlyKeys != null) {
+            final int[] readOnlyHashes = new int[newCapacity];
+            final String[] readOnlyKeys = new String[newCapacity];
+            final int[] readOnlyValues = new int[newCapacity];
+            transfer(_readOnlyHashes, _readOnlyKeys, _readOnlyValues,
+                    readOnlyHashes, readOnlyKeys, readOnlyValues);
+            _readOnlyHashes = readOnlyHashes;
+            _readOnlyKeys = readOnlyKeys;
+            _readOnlyValues = readOnlyValues;
+        }
+    }
+
+    private static void transfer(int[] srcHashes, String[] srcKeys, int[] srcValues,
+            int[] hashes, String[] keys, int[] values) {
+        final int mask = keys.length - 1;
+        for (int j = 0; j < srcKeys.length; j++) {
+            final String key = srcKeys[j];
+            if (key != null) {
+                int i = srcHashes[j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                hashes[i] = srcHashes[j];
+                keys[i] = key;
+                values[i] = srcValues[j];
+            }
+        }
+    }
+}
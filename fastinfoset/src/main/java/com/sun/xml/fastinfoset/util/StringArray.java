@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -99,6 +100,9 @@ public class StringArray extends ValueArray {
     }
  
     public final int add(String s) {
+        if (_size - _readOnlyArraySize == _dynamicSizeLimit) {
+            clear();
+        }
         if (_size == _array.length) {
             resize();
         }
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -47,6 +48,11 @@ public class StringIntMap extends KeyIntMap {
     // Total character count of Map
     protected int _totalCharacterCount;
     
+    /**
+     * The values of the cache of entries by the identity of their keys.
+     */
+    int[] _identityValues;
+    
     public StringIntMap(int initialCapacity, float loadFactor) {
         super(initialCapacity, loadFactor);
 
@@ -68,6 +74,12 @@ public class StringIntMap extends KeyIntMap {
         _size = 0;
         _index = _readOnlyMapSize;
         _totalCharacterCount = 0;
+        clearIdentityCache();
+    }
+    
+    @Override
+    void createIdentityCache() {
+        _identityValues = (_identityKeys != null) ? new int[IDENTITY_CACHE_SIZE] : null;
     }
 
     @Override
@@ -82,6 +94,7 @@ public class StringIntMap extends KeyIntMap {
     
     public final void setReadOnlyMap(StringIntMap readOnlyMap, boolean clear) {
         _readOnlyMap = readOnlyMap;
+        clearIdentityCache();
         if (_readOnlyMap != null) {
             _readOnlyMapSize = _readOnlyMap.size();
             _index = _size + _readOnlyMapSize;
@@ -103,7 +116,22 @@ public class StringIntMap extends KeyIntMap {
         return _index;        
     }
     
-    public final int obtainIndex(String key) {
+    public int obtainIndex(String key) {
+        if (_identityKeys != null) {
+            final int index = getInterned(key);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+        }
+        
+        if (_index - _readOnlyMapSize == _dynamicSizeLimit) {
+            final int index = get(key);
+            if (index != NOT_PRESENT) {
+                return index;
+            }
+            clear();
+        }
+        
         final int hash = hashHash(key.hashCode());
         
         if (_readOnlyMap != null) {
@@ -124,24 +152,46 @@ public class StringIntMap extends KeyIntMap {
         return NOT_PRESENT;
     }
 
-    public final void add(String key) {
+    public void add(String key) {
         final int hash = hashHash(key.hashCode());
         final int tableIndex = indexFor(hash, _table.length);
         addEntry(key, hash, tableIndex);
+        clearIdentityCache();
     }
 
-    public final int get(String key) {
+    public int get(String key) {
+        if (_identityKeys != null)
+            return getInterned(key);
+        
         if (key.equals(_lastEntry._key))
             return _lastEntry._value;
         
         return get(key, hashHash(key.hashCode()));
     }
     
+    /**
+     * Get the value of a key, first from the cache of entries by the
+     * identity of their keys.
+     */
+    final int getInterned(String key) {
+        final int slot = identitySlot(key);
+        if (_identityKeys[slot] == key) {
+            return _identityValues[slot];
+        }
+        
+        final int index = get(key, hashHash(key.hashCode()));
+        if (index != NOT_PRESENT) {
+            _identityKeys[slot] = key;
+            _identityValues[slot] = index;
+        }
+        return index;
+    }
+    
     public final int getTotalCharacterCount() {
         return _totalCharacterCount;
     }
     
-    private int get(String key, int hash) {
+    int get(String key, int hash) {
         if (_readOnlyMap != null) {
             final int i = _readOnlyMap.get(key, hash);
             if (i != -1) {
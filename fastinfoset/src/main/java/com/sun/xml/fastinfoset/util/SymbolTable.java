@@ -0,0 +1,181 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, thread-safe, lock-free table of canonical strings keyed by
+ * their UTF-8 encoded octets.
+ * <p>
+ * A table may be shared by decoders in different threads so that the
+ * identifying strings of documents, such as the local names, prefixes and
+ * namespace names, are resolved to the same String instances without
+ * decoding the octets of a string that is present in the table. The strings
+ * of the table are interned, so a string is the same instance as the
+ * interned string of equal characters, even when it was evicted from the
+ * table and added again.
+ * <p>
+ * The table is divided into sets of entries. A string is added to an empty
+ * entry of the set selected by the hash of its octets, otherwise it replaces
+ * an entry of the set selected at random.
+ */
+public final class SymbolTable {
+    
+    public static final int DEFAULT_CAPACITY = 1 << 13;
+    
+    /**
+     * The maximum length of octets of a string that is added to the table.
+     */
+    public static final int MAXIMUM_KEY_LENGTH = 256;
+    
+    private static final int WAYS = 4;
+    
+    private static final class Entry {
+        final int hash;
+        final byte[] octets;
+        final String value;
+        
+        Entry(int hash, byte[] octets, String value) {
+            this.hash = hash;
+            this.octets = octets;
+            this.value = value;
+        }
+    }
+    
+    private static final class DefaultHolder {
+        static final SymbolTable INSTANCE = new SymbolTable();
+    }
+    
+    private final AtomicReferenceArray<Entry> _entries;
+    
+    private final int _setMask;
+    
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param capacity the maximum number of strings of the table, rounded
+     *        up to a power of two.
+     */
+    public SymbolTable(int capacity) {
+        if (capacity < WAYS || capacity > (1 << 30)) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalCapacity", new Object[]{capacity}));
+        }
+        
+        int length = WAYS;
+        while (length < capacity) {
+            length <<= 1;
+        }
+        _entries = new AtomicReferenceArray<>(length);
+        _setMask = length - WAYS;
+    }
+    
+    /**
+     * Get the table shared by decoders that intern strings and for which no
+     * table is set.
+     *
+     * @return the default table.
+     */
+    public static SymbolTable getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+    
+    public int getCapacity() {
+        return _entries.length();
+    }
+    
+    /**
+     * Get the canonical string of UTF-8 encoded octets.
+     *
+     * @param b the array of octets.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     * @return the canonical string, or null if the string is not present.
+     */
+    public String get(byte[] b, int offset, int length) {
+        if (length > MAXIMUM_KEY_LENGTH) {
+            return null;
+        }
+        
+        final int hash = hashCode(b, offset, length);
+        final int set = hash & _setMask;
+        for (int i = 0; i < WAYS; i++) {
+            final Entry e = _entries.get(set + i);
+            if (e != null && e.hash == hash && Arrays.equals(e.octets, 0, e.octets.length,
+                    b, offset, offset + length)) {
+                return e.value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Add a string decoded from UTF-8 encoded octets, evicting a string of
+     * the table if required.
+     *
+     * @param b the array of octets.
+     * @param offset the offset into the array of octets.
+     * @param length the number of octets.
+     * @param s the string decoded from the octets.
+     * @return the canonical string.
+     */
+    public String add(byte[] b, int offset, int length, String s) {
+        s = s.intern();
+        if (length > MAXIMUM_KEY_LENGTH) {
+            return s;
+        }
+        
+        final int hash = hashCode(b, offset, length);
+        final Entry e = new Entry(hash, Arrays.copyOfRange(b, offset, offset + length), s);
+        final int set = hash & _setMask;
+        for (int i = 0; i < WAYS; i++) {
+            if (_entries.get(set + i) == null && _entries.compareAndSet(set + i, null, e)) {
+                return s;
+            }
+        }
+        _entries.set(set + ThreadLocalRandom.current().nextInt(WAYS), e);
+        return s;
+    }
+    
+    /**
+     * Remove all strings from the table.
+     */
+    public void clear() {
+        for (int i = 0; i < _entries.length(); i++) {
+            _entries.set(i, null);
+        }
+    }
+    
+    private static int hashCode(byte[] b, int offset, int length) {
+        int h = length;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            h = 31 * h + b[i];
+        }
+        h ^= (h >>> 16);
+        return h * WAYS;
+    }
+}
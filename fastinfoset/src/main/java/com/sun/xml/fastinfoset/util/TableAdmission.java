@@ -0,0 +1,210 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.util;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import org.jvnet.fastinfoset.TableStatistics;
+
+/**
+ * The admission of non identifying strings to a table of a serializer
+ * vocabulary by frequency.
+ * <p>
+ * A string that is not present in the table is added only when it has been
+ * seen at least the minimum number of times, as estimated by a
+ * {@link FrequencySketch}, so that strings seen once, such as identifiers
+ * and time stamps, do not fill the table and are encoded as literals. The
+ * decisions are recorded so that the hit rate of the table may be observed
+ * and the maximum size of the strings indexed may be adapted.
+ */
+public final class TableAdmission implements TableStatistics {
+    
+    /**
+     * The hit rate below which the maximum size of the strings indexed is
+     * halved.
+     */
+    public static final double LOW_HIT_RATE = 0.1;
+    
+    /**
+     * The hit rate above which the maximum size of the strings indexed is
+     * doubled.
+     */
+    public static final double HIGH_HIT_RATE = 0.5;
+    
+    /**
+     * The minimum number of strings looked up before the maximum size is
+     * adapted, so that the size is not adapted to a few strings.
+     */
+    public static final int MINIMUM_LOOKUPS = 64;
+    
+    /**
+     * The sketch of the frequencies, null if every string is admitted.
+     */
+    private final FrequencySketch _sketch;
+    
+    private final int _minFrequency;
+    
+    private long _hits;
+    
+    private long _admitted;
+    
+    private long _rejected;
+    
+    /**
+     * The number of hits when the maximum size was last adapted.
+     */
+    private long _adaptedHits;
+    
+    /**
+     * The number of lookups when the maximum size was last adapted.
+     */
+    private long _adaptedLookups;
+    
+    /**
+     * @param minFrequency the number of times a string must be seen before
+     *        it is added to the table, from 1 to
+     *        {@link FrequencySketch#MAXIMUM_FREQUENCY}.
+     * @throws IllegalArgumentException if the frequency is out of range.
+     */
+    public TableAdmission(int minFrequency) {
+        this(minFrequency, FrequencySketch.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param minFrequency the number of times a string must be seen before
+     *        it is added to the table, from 1 to
+     *        {@link FrequencySketch#MAXIMUM_FREQUENCY}.
+     * @param capacity the number of distinct strings expected to be seen.
+     * @throws IllegalArgumentException if the frequency is out of range.
+     */
+    public TableAdmission(int minFrequency, int capacity) {
+        checkMinFrequency(minFrequency);
+        _minFrequency = minFrequency;
+        _sketch = (minFrequency > 1) ? new FrequencySketch(capacity) : null;
+    }
+    
+    /**
+     * Check the number of times a string must be seen before it is added
+     * to a table.
+     *
+     * @param minFrequency the frequency.
+     * @throws IllegalArgumentException if the frequency is less than 1 or
+     *         greater than {@link FrequencySketch#MAXIMUM_FREQUENCY}.
+     */
+    public static void checkMinFrequency(int minFrequency) {
+        if (minFrequency < 1 || minFrequency > FrequencySketch.MAXIMUM_FREQUENCY) {
+            throw new IllegalArgumentException(CommonResourceBundle.getInstance().
+                    getString("message.illegalMinFrequency", new Object[]{minFrequency}));
+        }
+    }
+    
+    public int getMinFrequency() {
+        return _minFrequency;
+    }
+    
+    /**
+     * Count a string that is not present in the table.
+     *
+     * @param hash the hash of the string, as returned by
+     *        {@link String#hashCode()} or {@link CharArray#hashCode(char[], int, int)}.
+     * @return true if the string should be added to the table.
+     */
+    public boolean admit(int hash) {
+        if (_sketch == null || _sketch.increment(hash) >= _minFrequency) {
+            _admitted++;
+            return true;
+        } else {
+            _rejected++;
+            return false;
+        }
+    }
+    
+    /**
+     * Record a string that is present in the table.
+     */
+    public void hit() {
+        _hits++;
+    }
+    
+    @Override
+    public long getHits() {
+        return _hits;
+    }
+    
+    @Override
+    public long getAdmitted() {
+        return _admitted;
+    }
+    
+    @Override
+    public long getRejected() {
+        return _rejected;
+    }
+    
+    @Override
+    public double getHitRate() {
+        final long lookups = _hits + _admitted + _rejected;
+        return (lookups == 0) ? 0 : (double)_hits / lookups;
+    }
+    
+    @Override
+    public void resetStatistics() {
+        _hits = 0;
+        _admitted = 0;
+        _rejected = 0;
+        _adaptedHits = 0;
+        _adaptedLookups = 0;
+    }
+    
+    /**
+     * Adapt the maximum size of the strings indexed to the hit rate of the
+     * strings looked up since the size was last adapted, for example
+     * after each document is encoded.
+     * <p>
+     * The size is halved if the hit rate is below {@link #LOW_HIT_RATE},
+     * as the strings indexed are seldom repeated, and doubled if the hit
+     * rate is above {@link #HIGH_HIT_RATE}. The size is not adapted until
+     * {@link #MINIMUM_LOOKUPS} strings have been looked up.
+     *
+     * @param size the maximum size.
+     * @param lowerBound the lowest maximum size.
+     * @param upperBound the highest maximum size.
+     * @return the adapted maximum size, within the bounds.
+     */
+    public int adaptMaximumSize(int size, int lowerBound, int upperBound) {
+        final long lookups = _hits + _admitted + _rejected;
+        final long periodLookups = lookups - _adaptedLookups;
+        if (periodLookups >= MINIMUM_LOOKUPS) {
+            final double hitRate = (double)(_hits - _adaptedHits) / periodLookups;
+            if (hitRate < LOW_HIT_RATE) {
+                size >>= 1;
+            } else if (hitRate > HIGH_HIT_RATE) {
+                size = (int)Math.min((long)size << 1, Integer.MAX_VALUE);
+            }
+            _adaptedHits = _hits;
+            _adaptedLookups = lookups;
+        }
+        return Math.min(Math.max(size, lowerBound), upperBound);
+    }
+    
+    @Override
+    public String toString() {
+        return "hits=" + _hits + ", admitted=" + _admitted
+                + ", rejected=" + _rejected + ", hitRate=" + getHitRate();
+    }
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -28,6 +29,8 @@ public abstract class ValueArray {
     
     protected int _maximumCapacity;
 
+    protected int _dynamicSizeLimit = MAXIMUM_CAPACITY;
+
     protected ValueArray() {
     }
 
@@ -43,6 +46,24 @@ public abstract class ValueArray {
         _maximumCapacity = maximumCapacity;
     }
     
+    public int getDynamicSizeLimit() {
+        return _dynamicSizeLimit;
+    }
+    
+    /**
+     * Set the maximum number of items of the array, not including the items
+     * of the read only array.
+     * <p>
+     * An array of non identifying strings that holds the maximum number of
+     * items is cleared when an item is added, so the item is the first of a
+     * new generation of items.
+     *
+     * @param dynamicSizeLimit the maximum number of items.
+     */
+    public void setDynamicSizeLimit(int dynamicSizeLimit) {
+        _dynamicSizeLimit = dynamicSizeLimit;
+    }
+    
     public abstract void setReadOnlyArray(ValueArray array, boolean clear);
     
     public abstract void clear();
@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sun.xml.fastinfoset.vocab;
+
+import com.sun.xml.fastinfoset.CommonResourceBundle;
+import com.sun.xml.fastinfoset.util.FrozenCharArrayIntMap;
+import com.sun.xml.fastinfoset.util.FrozenLocalNameQualifiedNamesMap;
+import com.sun.xml.fastinfoset.util.FrozenStringIntMap;
+import com.sun.xml.fastinfoset.util.KeyIntMap;
+
+/**
+ * A serializer vocabulary that is compiled once from a vocabulary and cannot
+ * be modified, and so may be shared between threads as the external or
+ * initial vocabulary of many serializers.
+ * <p>
+ * The tables of the vocabulary locate an entry with one probe of a minimal
+ * perfect hash function. A vocabulary that has a frozen vocabulary as its
+ * read only vocabulary must not use open addressing.
+ */
+public class FrozenSerializerVocabulary extends SerializerVocabulary {
+    
+    private final byte[] _presetDictionary;
+    
+    /**
+     * Compile a vocabulary.
+     *
+     * @param v the vocabulary.
+     * @param useLocalNameAsKey true if qualified names are keyed by local
+     *        name, as for the StAX serializer, otherwise false if keyed
+     *        by qualified name, as for the SAX and DOM serializers.
+     */
+    public FrozenSerializerVocabulary(org.jvnet.fastinfoset.Vocabulary v,
+            boolean useLocalNameAsKey) {
+        super(freeze(new SerializerVocabulary(v, useLocalNameAsKey, false)));
+        
+        _useLocalNameAsKey = useLocalNameAsKey;
+        _presetDictionary = new ParserVocabulary(v).getPresetDictionary();
+    }
+    
+    public final boolean isLocalNameUsedAsKey() {
+        return _useLocalNameAsKey;
+    }
+    
+    /**
+     * Get the preset dictionary of the vocabulary for the deflate format,
+     * see {@link ParserVocabulary#getPresetDictionary()}.
+     *
+     * @return the dictionary, which must not be modified.
+     */
+    public final byte[] getPresetDictionary() {
+        return _presetDictionary;
+    }
+    
+    @Override
+    protected void setReadOnlyVocabulary(SerializerVocabulary readOnlyVocabulary,
+            boolean clear) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenVocabulary"));
+    }
+    
+    @Override
+    public void setInitialVocabulary(SerializerVocabulary initialVocabulary,
+            boolean clear) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenVocabulary"));
+    }
+    
+    @Override
+    public void setExternalVocabulary(String externalVocabularyURI,
+            SerializerVocabulary externalVocabulary, boolean clear) {
+        throw new UnsupportedOperationException(CommonResourceBundle.getInstance().
+                getString("message.frozenVocabulary"));
+    }
+    
+    private static KeyIntMap[] freeze(SerializerVocabulary v) {
+        final KeyIntMap[] tables = new KeyIntMap[v.tables.length];
+        tables[RESTRICTED_ALPHABET] = new FrozenStringIntMap(v.restrictedAlphabet);
+        tables[ENCODING_ALGORITHM] = new FrozenStringIntMap(v.encodingAlgorithm);
+        tables[PREFIX] = new FrozenStringIntMap(v.prefix);
+        tables[NAMESPACE_NAME] = new FrozenStringIntMap(v.namespaceName);
+        tables[LOCAL_NAME] = new FrozenStringIntMap(v.localName);
+        tables[OTHER_NCNAME] = new FrozenStringIntMap(v.otherNCName);
+        tables[OTHER_URI] = new FrozenStringIntMap(v.otherURI);
+        tables[ATTRIBUTE_VALUE] = new FrozenStringIntMap(v.attributeValue);
+        tables[OTHER_STRING] = new FrozenCharArrayIntMap(v.otherString);
+        tables[CHARACTER_CONTENT_CHUNK] = new FrozenCharArrayIntMap(v.characterContentChunk);
+        tables[ELEMENT_NAME] = new FrozenLocalNameQualifiedNamesMap(v.elementName);
+        tables[ATTRIBUTE_NAME] = new FrozenLocalNameQualifiedNamesMap(v.attributeName);
+        return tables;
+    }
+}
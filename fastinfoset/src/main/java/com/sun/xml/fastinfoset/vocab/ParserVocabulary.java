@@ -21,6 +21,7 @@ package com.sun.xml.fastinfoset.vocab;
 
 import com.sun.xml.fastinfoset.EncodingConstants;
 import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
 import com.sun.xml.fastinfoset.util.CharArray;
 import com.sun.xml.fastinfoset.util.CharArrayArray;
 import com.sun.xml.fastinfoset.util.ContiguousCharArrayArray;
@@ -32,7 +33,11 @@ import com.sun.xml.fastinfoset.util.QualifiedNameArray;
 import com.sun.xml.fastinfoset.util.StringArray;
 import com.sun.xml.fastinfoset.util.StringIntMap;
 import com.sun.xml.fastinfoset.util.ValueArray;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.zip.Adler32;
 import javax.xml.namespace.QName;
 
 public class ParserVocabulary extends Vocabulary {
@@ -83,6 +88,10 @@ public class ParserVocabulary extends Vocabulary {
     
     protected SerializerVocabulary _readOnlyVocabulary;
     
+    private volatile byte[] _presetDictionary;
+    
+    private volatile int _presetDictionaryId;
+    
     /** Creates a new instance of ParserVocabulary */
     public ParserVocabulary() {
         namespaceName = new StringArray(ValueArray.DEFAULT_CAPACITY, IDENTIFYING_STRING_TABLE_MAXIMUM_ITEMS, false);
@@ -148,6 +157,87 @@ public class ParserVocabulary extends Vocabulary {
         }        
     }
     
+    /**
+     * Set the maximum number of items of the tables of non identifying
+     * strings, the attribute value, other string and character content
+     * chunk tables, not including the items of the read only vocabulary.
+     * <p>
+     * A full table is cleared when an item is added, in the same manner as
+     * the corresponding map of a serializer vocabulary with the same limit.
+     *
+     * @param limit the maximum number of items.
+     */
+    public void setDynamicTableSizeLimit(int limit) {
+        attributeValue.setDynamicSizeLimit(limit);
+        otherString.setDynamicSizeLimit(limit);
+        characterContentChunk.setDynamicSizeLimit(limit);
+    }
+    
+    /**
+     * Get the preset dictionary of the vocabulary for the deflate format.
+     * <p>
+     * The dictionary is the UTF-8 encoding of the other strings, local
+     * names, attribute values and character content chunks of the tables,
+     * in that order, as strings closer to the end of a dictionary are
+     * encoded with shorter distances. If the strings are larger than
+     * {@link DeflateEncodingAlgorithm#MAX_DICTIONARY_SIZE} then the first
+     * strings are not in the dictionary.
+     * <p>
+     * The dictionary is created when first requested, so the tables should
+     * not be modified afterwards, as is the case for an external
+     * vocabulary. The returned array must not be modified.
+     *
+     * @return the dictionary.
+     */
+    public final byte[] getPresetDictionary() {
+        byte[] dictionary = _presetDictionary;
+        if (dictionary == null) {
+            final ByteArrayOutputStream b = new ByteArrayOutputStream();
+            for (int i = 0; i < otherString.getSize(); i++) {
+                final CharArray ca = otherString.get(i);
+                addToPresetDictionary(b, ca.ch, ca.start, ca.length);
+            }
+            for (int i = 0; i < localName.getSize(); i++) {
+                b.writeBytes(localName.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < attributeValue.getSize(); i++) {
+                b.writeBytes(attributeValue.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < characterContentChunk.getSize(); i++) {
+                addToPresetDictionary(b, characterContentChunk._array,
+                        characterContentChunk._offset[i], characterContentChunk._length[i]);
+            }
+            
+            dictionary = b.toByteArray();
+            if (dictionary.length > DeflateEncodingAlgorithm.MAX_DICTIONARY_SIZE) {
+                dictionary = Arrays.copyOfRange(dictionary,
+                        dictionary.length - DeflateEncodingAlgorithm.MAX_DICTIONARY_SIZE, dictionary.length);
+            }
+            
+            final Adler32 adler = new Adler32();
+            adler.update(dictionary);
+            // Publish the identifier before the dictionary
+            _presetDictionaryId = (int) adler.getValue();
+            _presetDictionary = dictionary;
+        }
+        return dictionary;
+    }
+    
+    /**
+     * Get the identifier of the preset dictionary, the Adler-32 checksum
+     * of the dictionary that identifies it in the zlib format.
+     *
+     * @return the identifier of the dictionary.
+     */
+    public final int getPresetDictionaryId() {
+        getPresetDictionary();
+        return _presetDictionaryId;
+    }
+    
+    private static void addToPresetDictionary(ByteArrayOutputStream b, char[] ch, int start, int length) {
+        b.writeBytes(new String(ch, start, length).getBytes(StandardCharsets.UTF_8));
+    }
+    
     private void convertVocabulary(org.jvnet.fastinfoset.Vocabulary v) {
         final StringIntMap prefixMap = new FixedEntryStringIntMap(
                 EncodingConstants.XML_NAMESPACE_PREFIX, 8);
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -24,11 +25,25 @@ import com.sun.xml.fastinfoset.util.CharArrayIntMap;
 import com.sun.xml.fastinfoset.util.FixedEntryStringIntMap;
 import com.sun.xml.fastinfoset.util.KeyIntMap;
 import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
+import com.sun.xml.fastinfoset.util.OpenAddressingCharArrayIntMap;
+import com.sun.xml.fastinfoset.util.OpenAddressingLocalNameQualifiedNamesMap;
+import com.sun.xml.fastinfoset.util.OpenAddressingStringIntMap;
 import com.sun.xml.fastinfoset.util.StringIntMap;
 import java.util.Iterator;
 import javax.xml.namespace.QName;
 
 public class SerializerVocabulary extends Vocabulary {
+    /**
+     * Open addressing system property. If true the tables of a vocabulary
+     * that is created without specifying the kind of tables use open
+     * addressing.
+     */
+    public static final String OPEN_ADDRESSING_PROPERTY =
+        "com.sun.xml.fastinfoset.vocab.SerializerVocabulary.openAddressing";
+
+    private static final boolean OPEN_ADDRESSING_SYSTEM_DEFAULT =
+            Boolean.getBoolean(OPEN_ADDRESSING_PROPERTY);
+
     public final StringIntMap restrictedAlphabet;
     public final StringIntMap encodingAlgorithm;
 
@@ -52,23 +67,77 @@ public class SerializerVocabulary extends Vocabulary {
     protected SerializerVocabulary _readOnlyVocabulary;
     
     public SerializerVocabulary() {
-        tables[RESTRICTED_ALPHABET] = restrictedAlphabet = new StringIntMap(4);
-        tables[ENCODING_ALGORITHM] = encodingAlgorithm = new StringIntMap(4);
-        tables[PREFIX] = prefix = new FixedEntryStringIntMap(EncodingConstants.XML_NAMESPACE_PREFIX, 8);
-        tables[NAMESPACE_NAME] = namespaceName = new FixedEntryStringIntMap(EncodingConstants.XML_NAMESPACE_NAME, 8);
-        tables[LOCAL_NAME] = localName = new StringIntMap();
-        tables[OTHER_NCNAME] = otherNCName = new StringIntMap(4);
-        tables[OTHER_URI] = otherURI = new StringIntMap(4);
-        tables[ATTRIBUTE_VALUE] = attributeValue = new StringIntMap();
-        tables[OTHER_STRING] = otherString = new CharArrayIntMap(4);
-        tables[CHARACTER_CONTENT_CHUNK] = characterContentChunk = new CharArrayIntMap();
-        tables[ELEMENT_NAME] = elementName = new LocalNameQualifiedNamesMap();
-        tables[ATTRIBUTE_NAME] = attributeName = new LocalNameQualifiedNamesMap();        
+        this(OPEN_ADDRESSING_SYSTEM_DEFAULT);
+    }
+    
+    /**
+     * Create a vocabulary.
+     * <p>
+     * The tables of a vocabulary that use open addressing hold entries
+     * in arrays rather than in chains of entry objects. The read only
+     * vocabulary of a vocabulary must use the same kind of tables.
+     *
+     * @param openAddressing true if the tables use open addressing.
+     */
+    public SerializerVocabulary(boolean openAddressing) {
+        if (openAddressing) {
+            tables[RESTRICTED_ALPHABET] = restrictedAlphabet = new OpenAddressingStringIntMap(4);
+            tables[ENCODING_ALGORITHM] = encodingAlgorithm = new OpenAddressingStringIntMap(4);
+            tables[PREFIX] = prefix = new OpenAddressingStringIntMap(EncodingConstants.XML_NAMESPACE_PREFIX, 8);
+            tables[NAMESPACE_NAME] = namespaceName = new OpenAddressingStringIntMap(EncodingConstants.XML_NAMESPACE_NAME, 8);
+            tables[LOCAL_NAME] = localName = new OpenAddressingStringIntMap();
+            tables[OTHER_NCNAME] = otherNCName = new OpenAddressingStringIntMap(4);
+            tables[OTHER_URI] = otherURI = new OpenAddressingStringIntMap(4);
+            tables[ATTRIBUTE_VALUE] = attributeValue = new OpenAddressingStringIntMap();
+            tables[OTHER_STRING] = otherString = new OpenAddressingCharArrayIntMap(4);
+            tables[CHARACTER_CONTENT_CHUNK] = characterContentChunk = new OpenAddressingCharArrayIntMap();
+            tables[ELEMENT_NAME] = elementName = new OpenAddressingLocalNameQualifiedNamesMap();
+            tables[ATTRIBUTE_NAME] = attributeName = new OpenAddressingLocalNameQualifiedNamesMap();
+        } else {
+            tables[RESTRICTED_ALPHABET] = restrictedAlphabet = new StringIntMap(4);
+            tables[ENCODING_ALGORITHM] = encodingAlgorithm = new StringIntMap(4);
+            tables[PREFIX] = prefix = new FixedEntryStringIntMap(EncodingConstants.XML_NAMESPACE_PREFIX, 8);
+            tables[NAMESPACE_NAME] = namespaceName = new FixedEntryStringIntMap(EncodingConstants.XML_NAMESPACE_NAME, 8);
+            tables[LOCAL_NAME] = localName = new StringIntMap();
+            tables[OTHER_NCNAME] = otherNCName = new StringIntMap(4);
+            tables[OTHER_URI] = otherURI = new StringIntMap(4);
+            tables[ATTRIBUTE_VALUE] = attributeValue = new StringIntMap();
+            tables[OTHER_STRING] = otherString = new CharArrayIntMap(4);
+            tables[CHARACTER_CONTENT_CHUNK] = characterContentChunk = new CharArrayIntMap();
+            tables[ELEMENT_NAME] = elementName = new LocalNameQualifiedNamesMap();
+            tables[ATTRIBUTE_NAME] = attributeName = new LocalNameQualifiedNamesMap();
+        }
     }
         
+    /**
+     * Create a vocabulary with tables.
+     *
+     * @param tables the tables, in the order of the table constants of
+     *        {@link Vocabulary}.
+     */
+    protected SerializerVocabulary(KeyIntMap[] tables) {
+        this.tables[RESTRICTED_ALPHABET] = restrictedAlphabet = (StringIntMap)tables[RESTRICTED_ALPHABET];
+        this.tables[ENCODING_ALGORITHM] = encodingAlgorithm = (StringIntMap)tables[ENCODING_ALGORITHM];
+        this.tables[PREFIX] = prefix = (StringIntMap)tables[PREFIX];
+        this.tables[NAMESPACE_NAME] = namespaceName = (StringIntMap)tables[NAMESPACE_NAME];
+        this.tables[LOCAL_NAME] = localName = (StringIntMap)tables[LOCAL_NAME];
+        this.tables[OTHER_NCNAME] = otherNCName = (StringIntMap)tables[OTHER_NCNAME];
+        this.tables[OTHER_URI] = otherURI = (StringIntMap)tables[OTHER_URI];
+        this.tables[ATTRIBUTE_VALUE] = attributeValue = (StringIntMap)tables[ATTRIBUTE_VALUE];
+        this.tables[OTHER_STRING] = otherString = (CharArrayIntMap)tables[OTHER_STRING];
+        this.tables[CHARACTER_CONTENT_CHUNK] = characterContentChunk = (CharArrayIntMap)tables[CHARACTER_CONTENT_CHUNK];
+        this.tables[ELEMENT_NAME] = elementName = (LocalNameQualifiedNamesMap)tables[ELEMENT_NAME];
+        this.tables[ATTRIBUTE_NAME] = attributeName = (LocalNameQualifiedNamesMap)tables[ATTRIBUTE_NAME];
+    }
+    
     public SerializerVocabulary(org.jvnet.fastinfoset.Vocabulary v, 
             boolean useLocalNameAsKey) {
-        this();
+        this(v, useLocalNameAsKey, OPEN_ADDRESSING_SYSTEM_DEFAULT);
+    }
+    
+    public SerializerVocabulary(org.jvnet.fastinfoset.Vocabulary v, 
+            boolean useLocalNameAsKey, boolean openAddressing) {
+        this(openAddressing);
         
         _useLocalNameAsKey = useLocalNameAsKey;
         convertVocabulary(v);
@@ -104,6 +173,38 @@ public class SerializerVocabulary extends Vocabulary {
             table.clear();
         }
     }
+
+    /**
+     * Set the maximum number of entries of the maps of non identifying
+     * strings, the attribute value, other string and character content
+     * chunk maps, not including the entries of the read only vocabulary.
+     * <p>
+     * A full map is cleared when a string that is not present is indexed,
+     * in the same manner as the corresponding table of a parser vocabulary
+     * with the same limit.
+     *
+     * @param limit the maximum number of entries.
+     */
+    public void setDynamicTableSizeLimit(int limit) {
+        attributeValue.setDynamicSizeLimit(limit);
+        otherString.setDynamicSizeLimit(limit);
+        characterContentChunk.setDynamicSizeLimit(limit);
+    }
+
+    /**
+     * Declare that the names looked up in the prefix, namespace name, local
+     * name, element name and attribute name maps are interned.
+     *
+     * @param interned true if the names are interned.
+     * @see KeyIntMap#setInternedKeys(boolean)
+     */
+    public void setInternedNames(boolean interned) {
+        prefix.setInternedKeys(interned);
+        namespaceName.setInternedKeys(interned);
+        localName.setInternedKeys(interned);
+        elementName.setInternedKeys(interned);
+        attributeName.setInternedKeys(interned);
+    }
     
     private void convertVocabulary(org.jvnet.fastinfoset.Vocabulary v) {
         addToTable(v.restrictedAlphabets.iterator(), restrictedAlphabet);
@@ -0,0 +1,66 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jvnet.fastinfoset;
+
+/**
+ * A recycler of the working buffers of parsers and serializers.
+ * <p>
+ * A parser or serializer borrows its working buffers from the recycler
+ * when the decoding or encoding of a fast infoset document starts, and
+ * releases them to the recycler when the document has been decoded or
+ * encoded. A released buffer is no longer referenced by the parser or
+ * serializer that released it.
+ * <p>
+ * An implementation may be shared by parsers and serializers in different
+ * threads, in which case the implementation must be thread-safe.
+ */
+public interface BufferRecycler {
+    /**
+     * Allocate an array of octets.
+     *
+     * @param minimumSize the minimum length of the array.
+     * @return the array, whose contents are undefined.
+     */
+    byte[] allocateOctets(int minimumSize);
+    
+    /**
+     * Release an array of octets.
+     *
+     * @param b the array, which need not have been allocated from the
+     *        recycler.
+     */
+    void releaseOctets(byte[] b);
+    
+    /**
+     * Allocate an array of characters.
+     *
+     * @param minimumSize the minimum length of the array.
+     * @return the array, whose contents are undefined.
+     */
+    char[] allocateCharacters(int minimumSize);
+    
+    /**
+     * Release an array of characters.
+     *
+     * @param c the array, which need not have been allocated from the
+     *        recycler.
+     */
+    void releaseCharacters(char[] c);
+}
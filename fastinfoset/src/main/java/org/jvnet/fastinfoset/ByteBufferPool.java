@@ -0,0 +1,49 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jvnet.fastinfoset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A pool of buffers that a serializer encodes fast infoset documents to.
+ * <p>
+ * Buffers that are backed by an accessible array are encoded to in place.
+ * Other buffers, for example direct buffers, are copied to from an internal
+ * buffer of the serializer.
+ * <p>
+ * An implementation may be shared by serializers in different threads, in
+ * which case the implementation must be thread-safe.
+ */
+public interface ByteBufferPool {
+    /**
+     * Acquire a buffer from the pool.
+     * <p>
+     * The buffer is cleared by the serializer before it is encoded to.
+     *
+     * @return the buffer, with a capacity greater than zero.
+     */
+    ByteBuffer acquire();
+    
+    /**
+     * Release a buffer to the pool.
+     *
+     * @param b the buffer that was previously acquired from the pool.
+     */
+    void release(ByteBuffer b);
+}
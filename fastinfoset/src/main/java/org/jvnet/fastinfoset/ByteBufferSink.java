@@ -0,0 +1,41 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jvnet.fastinfoset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A receiver of the buffers containing the octets of fast infoset documents
+ * encoded by a serializer.
+ */
+public interface ByteBufferSink {
+    /**
+     * Receive a buffer of encoded octets.
+     * <p>
+     * The octets are between the position and the limit of the buffer. The
+     * ownership of the buffer is transferred to the sink, which is
+     * responsible for releasing the buffer to the {@link ByteBufferPool} it
+     * was acquired from when the octets have been consumed.
+     *
+     * @param b the buffer of encoded octets.
+     * @throws IOException if the octets cannot be consumed.
+     */
+    void write(ByteBuffer b) throws IOException;
+}
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -71,6 +72,12 @@ public interface FastInfosetParser {
    String FORCE_STREAM_CLOSE_PROPERTY =
         "http://jvnet.org/fastinfoset/parser/properties/force-stream-close";
    
+    /**
+     * The default maximum number of octets of a fast infoset document
+     * decompressed from the zlib format.
+     */
+    long DEFAULT_TRANSPORT_COMPRESSION_MAXIMUM_LENGTH = 256L * 1024 * 1024;
+   
     /**
      * Set the string interning property.
      *
@@ -179,4 +186,111 @@ public interface FastInfosetParser {
      */
     boolean getForceStreamClose();
     
+    /**
+     * Set the transport compression property.
+     *
+     * <p>If the transport compression property is set to true then the 
+     * fast infoset document is decompressed from the zlib format. A preset
+     * dictionary is selected from the external vocabularies by its
+     * identifier. The decompressor is reused for each document.
+     *
+     * @param compression The transport compression property.
+     */
+    void setTransportCompression(boolean compression);
+    
+    /**
+     * Return the transport compression property.
+     *
+     * @return The transport compression property.
+     */
+    boolean getTransportCompression();
+    
+    /**
+     * Set the maximum number of octets of a fast infoset document
+     * decompressed from the zlib format.
+     *
+     * <p>The decompression of a document fails, with an
+     * {@link java.io.IOException} caused by a {@link FastInfosetException},
+     * when the document decompresses to more octets, so that a small
+     * compressed document cannot exhaust the memory of the application.
+     * The default is {@link #DEFAULT_TRANSPORT_COMPRESSION_MAXIMUM_LENGTH}.
+     *
+     * @param length The maximum number of octets.
+     * @throws IllegalArgumentException if the length is not positive.
+     */
+    void setTransportCompressionMaximumLength(long length);
+    
+    /**
+     * Return the maximum number of octets of a fast infoset document
+     * decompressed from the zlib format.
+     *
+     * @return The maximum number of octets.
+     */
+    long getTransportCompressionMaximumLength();
+    
+    /**
+     * Set the session mode property.
+     *
+     * <p>If the session mode property is set to true then the dynamic
+     * vocabulary is not cleared before a document is parsed, so that a
+     * stream of documents serialized in session mode may be parsed in
+     * order. The session checkpoint of each document is verified, and
+     * the dynamic vocabulary is cleared when the serializer resets the
+     * session or when a document is not serialized in session mode.
+     * Setting the property starts a new session.
+     *
+     * @param session The session mode property.
+     */
+    void setSession(boolean session);
+    
+    /**
+     * Return the session mode property.
+     *
+     * @return The session mode property.
+     */
+    boolean getSession();
+    
+    /**
+     * Set the limit on the number of entries of each dynamic table of
+     * non identifying strings, the attribute value, other string and
+     * character content chunk tables.
+     *
+     * <p>When a table holds the limit of entries the table is cleared
+     * before a new entry is added. The limit must be the limit of the
+     * serializer of the documents.
+     *
+     * @param limit The limit, a positive number of entries.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    void setDynamicTableSizeLimit(int limit);
+    
+    /**
+     * Return the limit on the number of entries of each dynamic table of
+     * non identifying strings.
+     *
+     * @return The limit.
+     */
+    int getDynamicTableSizeLimit();
+    
+    /**
+     * Set the buffer recycler.
+     *
+     * <p>If a buffer recycler is set then the working buffers of the
+     * parser are borrowed from the recycler when the decoding of a
+     * fast infoset document starts and are released to the recycler when
+     * the document has been decoded. A buffer recycler may be shared by
+     * many parsers and serializers.
+     *
+     * @param recycler The buffer recycler, or null if the parser owns
+     *        its working buffers.
+     */
+    void setBufferRecycler(BufferRecycler recycler);
+    
+    /**
+     * Return the buffer recycler.
+     *
+     * @return The buffer recycler, or null if no recycler is set.
+     */
+    BufferRecycler getBufferRecycler();
+    
 }
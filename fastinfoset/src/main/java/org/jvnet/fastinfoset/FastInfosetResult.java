@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -46,10 +47,24 @@ public class FastInfosetResult extends SAXResult {
 
     OutputStream _outputStream;
 
+    private boolean _transportCompression;
+
     public FastInfosetResult(OutputStream outputStream) {
         _outputStream = outputStream;
     }
 
+    /**
+     * Create a result whose fast infoset document may be compressed.
+     *
+     * @param outputStream the stream the document is written to.
+     * @param transportCompression true if the document is compressed, see
+     *        {@link FastInfosetSerializer#setTransportCompression(boolean)}.
+     */
+    public FastInfosetResult(OutputStream outputStream, boolean transportCompression) {
+        _outputStream = outputStream;
+        _transportCompression = transportCompression;
+    }
+
     @Override
     public ContentHandler getHandler() {
         ContentHandler handler = super.getHandler();
@@ -57,6 +72,9 @@ public class FastInfosetResult extends SAXResult {
             handler = new SAXDocumentSerializer();
             setHandler(handler);
         }
+        if (getTransportCompression()) {
+            ((SAXDocumentSerializer) handler).setTransportCompression(true);
+        }
         ((SAXDocumentSerializer) handler).setOutputStream(_outputStream);
         return handler;
     }
@@ -73,4 +91,12 @@ public class FastInfosetResult extends SAXResult {
     public void setOutputStream(OutputStream outputStream) {
         _outputStream = outputStream;
     }
+
+    public boolean getTransportCompression() {
+        return _transportCompression;
+    }
+
+    public void setTransportCompression(boolean transportCompression) {
+        _transportCompression = transportCompression;
+    }
 }
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -111,6 +112,12 @@ public interface FastInfosetSerializer {
      */
     int CHARACTER_CONTENT_CHUNK_MAP_MEMORY_CONSTRAINT = Integer.MAX_VALUE;
 
+    /**
+     * The default minimum size of the character content chunks, that will
+     * be compressed.
+     */
+    int MIN_COMPRESSED_CHARACTER_CONTENT_CHUNK_SIZE = 1024;
+
     /**
      * The default minimum size of the attribute values, that will be indexed.
      */
@@ -316,7 +323,275 @@ public interface FastInfosetSerializer {
      * that a length of size limit will be indexed.
      */
     void setAttributeValueMapMemoryLimit(int size);
+
+    /**
+     * Gets the minimum number of times an attribute value is seen
+     * before it is indexed.
+     *
+     * @return The minimum attribute value frequency.
+     */
+    int getMinAttributeValueFrequency();
+
+    /**
+     * Sets the minimum number of times an attribute value is seen
+     * before it is indexed.
+     * <p>
+     * If the frequency is greater than one then the attribute values
+     * that are not indexed are counted by a compact sketch, and an
+     * attribute value is indexed only when it has been seen at least
+     * the given number of times, so that values seen once do not fill
+     * the table of attribute values. The frequency is at most 15.
+     *
+     * @param frequency the minimum attribute value frequency.
+     * @throws IllegalArgumentException if the frequency is less than 1
+     *         or greater than 15.
+     */
+    void setMinAttributeValueFrequency(int frequency);
+
+    /**
+     * Gets the minimum number of times a character content chunk is seen
+     * before it is indexed.
+     *
+     * @return The minimum character content chunk frequency.
+     */
+    int getMinCharacterContentChunkFrequency();
+
+    /**
+     * Sets the minimum number of times a character content chunk is seen
+     * before it is indexed.
+     * <p>
+     * If the frequency is greater than one then the character content
+     * chunks that are not indexed are counted by a compact sketch, and a
+     * chunk is indexed only when it has been seen at least the given
+     * number of times. The frequency is at most 15.
+     *
+     * @param frequency the minimum character content chunk frequency.
+     * @throws IllegalArgumentException if the frequency is less than 1
+     *         or greater than 15.
+     */
+    void setMinCharacterContentChunkFrequency(int frequency);
+
+    /**
+     * Sets the adaptive maximum size property.
+     * <p>
+     * If the property is set to true then the attribute values and
+     * character content chunks are counted, and after each document is
+     * encoded the maximum size of the strings that will be indexed is
+     * adapted to the hit rate of the table. The size is halved when the
+     * strings indexed are seldom repeated and doubled when they are often
+     * repeated, but is never greater than the maximum size or less than
+     * the minimum size of the strings that will be indexed.
+     *
+     * @param adaptive the adaptive maximum size property.
+     */
+    void setAdaptiveMaxSize(boolean adaptive);
+
+    /**
+     * Gets the adaptive maximum size property.
+     *
+     * @return the adaptive maximum size property.
+     */
+    boolean getAdaptiveMaxSize();
+
+    /**
+     * Gets the statistics of the indexing of attribute values.
+     *
+     * @return the statistics, or null if the attribute values are not
+     *         counted, as the minimum attribute value frequency is one
+     *         and the maximum size is not adapted.
+     */
+    TableStatistics getAttributeValueStatistics();
+
+    /**
+     * Gets the statistics of the indexing of character content chunks.
+     *
+     * @return the statistics, or null if the character content chunks are
+     *         not counted, as the minimum character content chunk frequency
+     *         is one and the maximum size is not adapted.
+     */
+    TableStatistics getCharacterContentChunkStatistics();
     
+    /**
+     * Sets the URI of the encoding algorithm used to compress character
+     * content chunks.
+     * <p>
+     * A character content chunk, whose size is at least the minimum size
+     * of compressed chunks, is encoded using the algorithm if the URI is
+     * present in the vocabulary, the algorithm registered for the URI is
+     * a deflate algorithm, and the compressed octets are fewer than the
+     * characters. Otherwise the chunk is encoded as characters.
+     * <p>
+     * The octets of a deflate algorithm are the UTF-8 encoding of the
+     * characters compressed in the zlib format of RFC 1950, optionally
+     * with a preset dictionary, as for the algorithm of the URI
+     * {@code http://jvnet.org/fastinfoset/algorithm/deflate}. A parser
+     * with the same algorithm registered for the URI reports the chunk
+     * as characters.
+     *
+     * @param URI the URI of the encoding algorithm, or null if character
+     *        content chunks are not compressed.
+     */
+    void setCharacterContentCompressionAlgorithmURI(String URI);
+
+    /**
+     * Gets the URI of the encoding algorithm used to compress character
+     * content chunks.
+     *
+     * @return the URI of the encoding algorithm, or null if character
+     *         content chunks are not compressed.
+     */
+    String getCharacterContentCompressionAlgorithmURI();
+
+    /**
+     * Sets the minimum size of character content chunks that will be
+     * compressed.
+     *
+     * @param size the minimum compressed character content chunk size.
+     */
+    void setMinCompressedCharacterContentChunkSize(int size);
+
+    /**
+     * Gets the minimum size of character content chunks that will be
+     * compressed.
+     *
+     * @return the minimum compressed character content chunk size.
+     */
+    int getMinCompressedCharacterContentChunkSize();
+
+    /**
+     * Sets the transport compression property.
+     * <p>
+     * If the transport compression property is set to true then the fast
+     * infoset document written to an OutputStream is compressed in the
+     * zlib format. The document is compressed with a preset dictionary of
+     * the strings of the external vocabulary, if set, which a parser
+     * selects from its external vocabularies. The compressor is reused
+     * for each document. The property takes effect when the OutputStream
+     * is set.
+     *
+     * @param compression the transport compression property.
+     */
+    void setTransportCompression(boolean compression);
+
+    /**
+     * Gets the transport compression property.
+     *
+     * @return the transport compression property.
+     */
+    boolean getTransportCompression();
+
+    /**
+     * Sets the level of the transport compression.
+     *
+     * @param level the compression level, see
+     *        {@link java.util.zip.Deflater#setLevel(int)}.
+     */
+    void setTransportCompressionLevel(int level);
+
+    /**
+     * Gets the level of the transport compression.
+     *
+     * @return the compression level.
+     */
+    int getTransportCompressionLevel();
+
+    /**
+     * Sets the session mode property.
+     * <p>
+     * If the session mode property is set to true then the dynamic
+     * vocabulary is not cleared after a document is serialized, so that
+     * a stream of documents exchanged on a connection may refer to the
+     * literal strings and qualified names of the previous documents by
+     * index. Each document carries a session checkpoint as additional data,
+     * and the documents must be parsed in order by a parser in session
+     * mode. Setting the property starts a new session.
+     *
+     * @param session the session mode property.
+     */
+    void setSession(boolean session);
+
+    /**
+     * Gets the session mode property.
+     *
+     * @return the session mode property.
+     */
+    boolean getSession();
+
+    /**
+     * Resets the session.
+     * <p>
+     * The dynamic vocabulary is cleared when the next document is
+     * serialized, as it is by the parser of the document.
+     */
+    void resetSession();
+
+    /**
+     * Sets the limit on the number of entries of each dynamic table of
+     * non identifying strings, the attribute value, other string and
+     * character content chunk tables.
+     * <p>
+     * When a table holds the limit of entries the table is cleared before
+     * a new entry is added, so that the memory of the vocabulary is bounded
+     * for a long stream of documents serialized in session mode. A parser
+     * replays the same clearing, without any further information in the
+     * document, when it is set with the same limit.
+     *
+     * @param limit the limit, a positive number of entries.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    void setDynamicTableSizeLimit(int limit);
+
+    /**
+     * Gets the limit on the number of entries of each dynamic table of
+     * non identifying strings.
+     *
+     * @return the limit.
+     */
+    int getDynamicTableSizeLimit();
+
+    /**
+     * Sets the interned names property.
+     * <p>
+     * If the interned names property is set to true then the local names,
+     * prefixes and namespace names of elements and attributes are declared
+     * to be interned, as they are when produced by a SAX parser with the
+     * string interning feature. The names are then first looked up in the
+     * vocabulary by the identity of their instances, without hashing and
+     * comparing their characters. Names that are not interned are encoded
+     * correctly, but are looked up more slowly.
+     *
+     * @param interned the interned names property.
+     */
+    void setInternedNames(boolean interned);
+
+    /**
+     * Gets the interned names property.
+     *
+     * @return the interned names property.
+     */
+    boolean getInternedNames();
+
+    /**
+     * Set the buffer recycler.
+     * <p>
+     * If a buffer recycler is set then the working buffers of the
+     * serializer are borrowed from the recycler when the encoding of a
+     * fast infoset document starts and are released to the recycler when
+     * the document has been encoded. A buffer recycler may be shared by
+     * many parsers and serializers.
+     *
+     * @param recycler the buffer recycler, or null if the serializer owns
+     *        its working buffers.
+     */
+    void setBufferRecycler(BufferRecycler recycler);
+
+    /**
+     * Get the buffer recycler.
+     *
+     * @return the buffer recycler, or null if no recycler is set.
+     */
+    BufferRecycler getBufferRecycler();
+
     /**
      * Set the external vocabulary that shall be used when serializing.
      * 
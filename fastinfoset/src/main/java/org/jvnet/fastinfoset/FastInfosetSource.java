@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,7 +19,9 @@
 
 package org.jvnet.fastinfoset;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import javax.xml.transform.sax.SAXSource;
 
@@ -26,6 +29,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.XMLReader;
 
 import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.util.MappedFileInputStream;
 
 /**
  *  A JAXP Source implementation that supports the parsing fast
@@ -51,10 +55,41 @@ import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
  */
 public class FastInfosetSource extends SAXSource {
 
+    private boolean _transportCompression;
+
     public FastInfosetSource(InputStream inputStream) {
         super(new InputSource(inputStream));
     }
 
+    /**
+     * Create a source for a fast infoset document that may be compressed.
+     *
+     * @param inputStream the stream the document is read from.
+     * @param transportCompression true if the document is compressed, see
+     *        {@link FastInfosetParser#setTransportCompression(boolean)}.
+     */
+    public FastInfosetSource(InputStream inputStream, boolean transportCompression) {
+        super(new InputSource(inputStream));
+        _transportCompression = transportCompression;
+    }
+
+    /**
+     * Create a source for a fast infoset document in a file.
+     * <p>
+     * The file is read through memory mapped windows rather than by
+     * read system calls, see {@link MappedFileInputStream}. The file is
+     * mapped, and its channel closed, when the source is created, so the
+     * source holds no file handle and need not be closed. The mapping is
+     * released when the source is no longer referenced, or when the stream
+     * returned by {@link #getInputStream()} is closed.
+     *
+     * @param path the path of the fast infoset document.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public FastInfosetSource(Path path) throws IOException {
+        this(new MappedFileInputStream(path));
+    }
+
     @Override
     public XMLReader getXMLReader() {
         XMLReader reader = super.getXMLReader();
@@ -62,6 +97,9 @@ public class FastInfosetSource extends SAXSource {
             reader = new SAXDocumentParser();
             setXMLReader(reader);
         }
+        if (getTransportCompression()) {
+            ((SAXDocumentParser) reader).setTransportCompression(true);
+        }
         ((SAXDocumentParser) reader).setInputStream(getInputStream());
         return reader;
     }
@@ -73,4 +111,12 @@ public class FastInfosetSource extends SAXSource {
     public void setInputStream(InputStream inputStream) {
         setInputSource(new InputSource(inputStream));
     }
+
+    public boolean getTransportCompression() {
+        return _transportCompression;
+    }
+
+    public void setTransportCompression(boolean transportCompression) {
+        _transportCompression = transportCompression;
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jvnet.fastinfoset;
+
+/**
+ * The statistics of the indexing of non identifying strings, attribute
+ * values or character content chunks, by a serializer.
+ * <p>
+ * The strings that are counted are those whose size is within the minimum
+ * and maximum size of the strings that will be indexed. A string is either
+ * found in the table, added to the table, or rejected because it has not
+ * been seen the minimum number of times.
+ */
+public interface TableStatistics {
+    /**
+     * @return the number of strings that were present in the table.
+     */
+    long getHits();
+    
+    /**
+     * @return the number of strings that were added to the table.
+     */
+    long getAdmitted();
+    
+    /**
+     * @return the number of strings that were not added to the table as
+     *         they were not seen often enough.
+     */
+    long getRejected();
+    
+    /**
+     * @return the ratio of the strings that were present in the table to
+     *         the strings counted, or zero if no string was counted.
+     */
+    double getHitRate();
+    
+    /**
+     * Reset the statistics to zero.
+     */
+    void resetStatistics();
+}
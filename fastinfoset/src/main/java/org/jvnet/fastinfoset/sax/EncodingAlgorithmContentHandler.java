@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,8 @@
 
 package org.jvnet.fastinfoset.sax;
 
+import java.io.IOException;
+import java.io.InputStream;
 import org.xml.sax.SAXException;
 
 /** 
@@ -95,4 +98,46 @@ public interface EncodingAlgorithmContentHandler {
      * @see org.jvnet.fastinfoset.EncodingAlgorithmIndexes
      */
     void object(String URI, int algorithm, Object o)  throws SAXException;
+
+    /**
+     * Receive notification of encoding algorithm data as a stream
+     * of byte.
+     *
+     * <p>Such notifications may occur for a Fast Infoset SAX parser
+     * when processing encoding algorithm data, of an application defined
+     * encoding algorithm or of the HEXADECIMAL or BASE64 built-in encoding
+     * algorithms, that is larger than the internal buffer of the parser.
+     * The bytes are read from the underlying input in bounded windows as
+     * the stream is read, rather than being read in full.</p>
+     *
+     * <p>The stream is only valid for the duration of the notification, 
+     * the bytes that are not read are skipped by the parser.</p>
+     *
+     * <p>The default implementation reads all the bytes and reports them
+     * with {@link #octets(String, int, byte[], int, int)} or, for a built-in
+     * encoding algorithm, with {@link #object(String, int, Object)}.</p>
+     *
+     * @param URI the URI of the encoding algorithm, or null for a built-in
+     *        encoding algorithm
+     * @param algorithm the encoding algorithm index
+     * @param s the stream of byte
+     * @param length the number of byte to read from the stream
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.EncodingAlgorithmIndexes
+     */
+    default void octets(String URI, int algorithm, InputStream s, int length) throws SAXException {
+        final byte[] b = new byte[length];
+        try {
+            s.readNBytes(b, 0, length);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+
+        if (URI == null) {
+            object(null, algorithm, b);
+        } else {
+            octets(URI, algorithm, b, 0, length);
+        }
+    }
 }
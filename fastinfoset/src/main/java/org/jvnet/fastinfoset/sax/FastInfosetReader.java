@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -131,6 +132,14 @@ public interface FastInfosetReader extends XMLReader, FastInfosetParser {
     String PRIMITIVE_TYPE_CONTENT_HANDLER_PROPERTY =
             "http://jvnet.org/fastinfoset/sax/properties/primitive-type-content-handler";
 
+    /**
+     * The property name to be used for getting and setting the
+     * primitive type chunk size.
+     *
+     */
+    String PRIMITIVE_TYPE_CHUNK_SIZE_PROPERTY =
+            "http://jvnet.org/fastinfoset/sax/properties/primitive-type-chunk-size";
+
     /**
      * Parse a fast infoset document from an InputStream.
      *
@@ -237,4 +246,34 @@ public interface FastInfosetReader extends XMLReader, FastInfosetParser {
      * @see #setPrimitiveTypeContentHandler
      */
     PrimitiveTypeContentHandler getPrimitiveTypeContentHandler();
+
+    /**
+     * Set the primitive type chunk size.
+     *
+     * <p>If the size is greater than zero then character data encoded
+     * using the "short", "int", "long", "float" or "double" encoding
+     * algorithms, that is not added to the table, is reported to the
+     * registered primitive type handler in chunks of at most the size,
+     * using the methods with an {@code isLast} parameter. The same array,
+     * whose length is the size, is used for all the chunks and the
+     * encoded data is not read in full, so the memory used is bounded
+     * however large the data.</p>
+     *
+     * <p>The default size is zero, for which the data is reported in a
+     * single chunk.</p>
+     *
+     * @param size the maximum number of primitives reported in a chunk,
+     *        or zero to report the data in a single chunk.
+     * @see #getPrimitiveTypeChunkSize
+     */
+    void setPrimitiveTypeChunkSize(int size);
+
+    /**
+     * Return the primitive type chunk size.
+     *
+     * @return the maximum number of primitives reported in a chunk, or zero
+     *         if the data is reported in a single chunk.
+     * @see #setPrimitiveTypeChunkSize
+     */
+    int getPrimitiveTypeChunkSize();
 }
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -211,4 +212,129 @@ public interface PrimitiveTypeContentHandler {
      *            wrapping another exception
      */
     void uuids(long[] msblsb, int start, int length) throws SAXException;
+
+    /**
+     * Receive notification of a chunk of character data as an array of
+     * short.
+     *
+     * <p>Such notifications will occur for a Fast Infoset SAX parser,
+     * instead of {@link #shorts(short[], int, int)}, when processing data
+     * encoded using the "short" encoding algorithm, see subclause 10.4, and
+     * a primitive type chunk size has been set. The data is reported in
+     * chunks of at most that size using the same array.</p>
+     *
+     * <p>The default implementation invokes
+     * {@link #shorts(short[], int, int)}.</p>
+     *
+     * @param s the array of short
+     * @param start the start position in the array
+     * @param length the number of short to read from the array
+     * @param isLast true if this is the last chunk of the data
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.sax.FastInfosetReader#setPrimitiveTypeChunkSize
+     */
+    default void shorts(short[] s, int start, int length, boolean isLast) throws SAXException {
+        shorts(s, start, length);
+    }
+
+    /**
+     * Receive notification of a chunk of character data as an array of
+     * int.
+     *
+     * <p>Such notifications will occur for a Fast Infoset SAX parser,
+     * instead of {@link #ints(int[], int, int)}, when processing data
+     * encoded using the "int" encoding algorithm, see subclause 10.5, and
+     * a primitive type chunk size has been set. The data is reported in
+     * chunks of at most that size using the same array.</p>
+     *
+     * <p>The default implementation invokes
+     * {@link #ints(int[], int, int)}.</p>
+     *
+     * @param i the array of int
+     * @param start the start position in the array
+     * @param length the number of int to read from the array
+     * @param isLast true if this is the last chunk of the data
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.sax.FastInfosetReader#setPrimitiveTypeChunkSize
+     */
+    default void ints(int[] i, int start, int length, boolean isLast) throws SAXException {
+        ints(i, start, length);
+    }
+
+    /**
+     * Receive notification of a chunk of character data as an array of
+     * long.
+     *
+     * <p>Such notifications will occur for a Fast Infoset SAX parser,
+     * instead of {@link #longs(long[], int, int)}, when processing data
+     * encoded using the "long" encoding algorithm, see subclause 10.6, and
+     * a primitive type chunk size has been set. The data is reported in
+     * chunks of at most that size using the same array.</p>
+     *
+     * <p>The default implementation invokes
+     * {@link #longs(long[], int, int)}.</p>
+     *
+     * @param l the array of long
+     * @param start the start position in the array
+     * @param length the number of long to read from the array
+     * @param isLast true if this is the last chunk of the data
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.sax.FastInfosetReader#setPrimitiveTypeChunkSize
+     */
+    default void longs(long[] l, int start, int length, boolean isLast) throws SAXException {
+        longs(l, start, length);
+    }
+
+    /**
+     * Receive notification of a chunk of character data as an array of
+     * float.
+     *
+     * <p>Such notifications will occur for a Fast Infoset SAX parser,
+     * instead of {@link #floats(float[], int, int)}, when processing data
+     * encoded using the "float" encoding algorithm, see subclause 10.8, and
+     * a primitive type chunk size has been set. The data is reported in
+     * chunks of at most that size using the same array.</p>
+     *
+     * <p>The default implementation invokes
+     * {@link #floats(float[], int, int)}.</p>
+     *
+     * @param f the array of float
+     * @param start the start position in the array
+     * @param length the number of float to read from the array
+     * @param isLast true if this is the last chunk of the data
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.sax.FastInfosetReader#setPrimitiveTypeChunkSize
+     */
+    default void floats(float[] f, int start, int length, boolean isLast) throws SAXException {
+        floats(f, start, length);
+    }
+
+    /**
+     * Receive notification of a chunk of character data as an array of
+     * double.
+     *
+     * <p>Such notifications will occur for a Fast Infoset SAX parser,
+     * instead of {@link #doubles(double[], int, int)}, when processing data
+     * encoded using the "double" encoding algorithm, see subclause 10.9, and
+     * a primitive type chunk size has been set. The data is reported in
+     * chunks of at most that size using the same array.</p>
+     *
+     * <p>The default implementation invokes
+     * {@link #doubles(double[], int, int)}.</p>
+     *
+     * @param d the array of double
+     * @param start the start position in the array
+     * @param length the number of double to read from the array
+     * @param isLast true if this is the last chunk of the data
+     * @throws org.xml.sax.SAXException any SAX exception, possibly
+     *            wrapping another exception
+     * @see org.jvnet.fastinfoset.sax.FastInfosetReader#setPrimitiveTypeChunkSize
+     */
+    default void doubles(double[] d, int start, int length, boolean isLast) throws SAXException {
+        doubles(d, start, length);
+    }
 }
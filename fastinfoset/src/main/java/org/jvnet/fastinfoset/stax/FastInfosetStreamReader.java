@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,7 @@
 
 package org.jvnet.fastinfoset.stax;
 
+import java.io.InputStream;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -36,6 +38,21 @@ public interface FastInfosetStreamReader {
      */
     int peekNext() throws XMLStreamException;
 
+    /**
+     * Returns a stream of the octets of the encoding algorithm data of the
+     * current event.
+     * <p>
+     * Large encoding algorithm data may be read lazily from the underlying
+     * stream in bounded windows, rather than being read in full, in which
+     * case the octets that are not read are skipped by the next event.
+     *
+     * @return the stream, or null if the current event has no encoding
+     *         algorithm data or the reader does not support streaming.
+     */
+    default InputStream getTextAlgorithmStream() throws XMLStreamException {
+        return null;
+    }
+
     // Faster access methods without checks
 
     int accessNamespaceCount();
@@ -21,8 +21,13 @@ package algorithm;
 
 import com.sun.xml.fastinfoset.QualifiedName;
 import com.sun.xml.fastinfoset.algorithm.BASE64EncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.BuiltInEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.DoubleEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.FloatEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.FrameOfReferenceEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.HexadecimalEncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.IntegerArrayEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.IntEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.LongEncodingAlgorithm;
 import com.sun.xml.fastinfoset.algorithm.ShortEncodingAlgorithm;
@@ -37,18 +42,26 @@ import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import junit.framework.TestCase;
 import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.EncodingAlgorithmException;
 import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
 import org.jvnet.fastinfoset.FastInfosetParser;
 import org.jvnet.fastinfoset.sax.EncodingAlgorithmAttributes;
+import org.jvnet.fastinfoset.sax.FastInfosetReader;
 import org.jvnet.fastinfoset.sax.helpers.FastInfosetDefaultHandler;
 import org.w3c.dom.Document;
 import org.w3c.dom.Text;
@@ -135,6 +148,93 @@ public class AlgorithmTest extends TestCase {
         assertEquals(base64CharactersNoWS, s.toString());
     }
 
+    public void testIncrementalDecoders() throws Exception {
+        byte[] data = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            data[i] = (byte)i;
+        }
+        StringBuilder hexadecimal = new StringBuilder();
+        new HexadecimalEncodingAlgorithm().convertToCharacters(data, hexadecimal);
+
+        BASE64EncodingAlgorithm.IncrementalDecoder b64d = new BASE64EncodingAlgorithm.IncrementalDecoder();
+        HexadecimalEncodingAlgorithm.IncrementalDecoder hd = new HexadecimalEncodingAlgorithm.IncrementalDecoder();
+        for (int chunk = 1; chunk < 10; chunk++) {
+            b64d.reset();
+            char[] ch = (" " + _base64String + "\n").toCharArray();
+            for (int i = 0; i < ch.length; i += chunk) {
+                b64d.decode(ch, i, Math.min(chunk, ch.length - i));
+            }
+            b64d.finish();
+            assertTrue(Arrays.equals(data, Arrays.copyOf(b64d.getOctets(), b64d.getOctetsLength())));
+
+            hd.reset();
+            ch = hexadecimal.toString().toLowerCase().toCharArray();
+            for (int i = 0; i < ch.length; i += chunk) {
+                hd.decode(ch, i, Math.min(chunk, ch.length - i));
+            }
+            hd.finish();
+            assertTrue(Arrays.equals(data, Arrays.copyOf(hd.getOctets(), hd.getOctetsLength())));
+        }
+
+        for (String s : new String[] {"A", "AB=C", "AB$=", "ABCD="}) {
+            try {
+                b64d.reset();
+                b64d.decode(s.toCharArray(), 0, s.length());
+                b64d.finish();
+                fail(s);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        try {
+            new HexadecimalEncodingAlgorithm().convertFromCharacters("0G".toCharArray(), 0, 2);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        // A final character that does not form an octet
+        hd.reset();
+        hd.decode("0A".toCharArray(), 0, 2);
+        hd.decode("B\n".toCharArray(), 0, 2);
+        try {
+            hd.finish();
+            fail("0AB");
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(1, hd.getOctetsLength());
+        assertEquals("0AB", new String(hd.getCharacters()));
+    }
+
+    public void testIncrementalDecoderCharacters() throws Exception {
+        // The state before a chunk that is not valid is retained
+        BASE64EncodingAlgorithm.IncrementalDecoder b64d = new BASE64EncodingAlgorithm.IncrementalDecoder();
+        for (String s : new String[] {"", "AQ", "AQI", "AQID", "AQIDBA", "AQ=", "AQ==", "AQI="}) {
+            b64d.reset();
+            for (int i = 0; i < s.length(); i++) {
+                b64d.decode(new char[] {s.charAt(i), ' '}, 0, 2);
+            }
+            try {
+                b64d.decode("AQ$".toCharArray(), 0, 3);
+                fail(s);
+            } catch (IllegalArgumentException e) {
+            }
+            assertEquals(s, new String(b64d.getCharacters()));
+        }
+
+        HexadecimalEncodingAlgorithm.IncrementalDecoder hd = new HexadecimalEncodingAlgorithm.IncrementalDecoder();
+        for (String s : new String[] {"", "0", "0a", "0aF", "0aFf"}) {
+            hd.reset();
+            for (int i = 0; i < s.length(); i++) {
+                hd.decode(new char[] {s.charAt(i), '\t'}, 0, 2);
+            }
+            try {
+                hd.decode("AG".toCharArray(), 0, 2);
+                fail(s);
+            } catch (IllegalArgumentException e) {
+            }
+            assertEquals(s.toUpperCase(), new String(hd.getCharacters()));
+        }
+    }
+
     public void testShortAlgorithm() throws Exception {
         createArrayValues(ARRAY_SIZE);
 
@@ -284,6 +384,74 @@ public class AlgorithmTest extends TestCase {
         }
     }
 
+    public void testBuiltInAlgorithmsLayout() throws Exception {
+        // The octets of each value are in big-endian order
+        short[] shorts = {1, -1, 0x1234, Short.MIN_VALUE, Short.MAX_VALUE};
+        Object value = assertEncoding(new ShortEncodingAlgorithm(), shorts, octets(
+                0x00, 0x01, 0xFF, 0xFF, 0x12, 0x34, 0x80, 0x00, 0x7F, 0xFF));
+        assertTrue(Arrays.equals(shorts, (short[]) value));
+
+        int[] ints = {1, -2, 0x12345678, Integer.MIN_VALUE};
+        value = assertEncoding(new IntEncodingAlgorithm(), ints, octets(
+                0x00, 0x00, 0x00, 0x01, 0xFF, 0xFF, 0xFF, 0xFE,
+                0x12, 0x34, 0x56, 0x78, 0x80, 0x00, 0x00, 0x00));
+        assertTrue(Arrays.equals(ints, (int[]) value));
+
+        long[] longs = {1, -1, 0x0102030405060708L, Long.MIN_VALUE};
+        value = assertEncoding(new LongEncodingAlgorithm(), longs, octets(
+                0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01,
+                0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08,
+                0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00));
+        assertTrue(Arrays.equals(longs, (long[]) value));
+
+        // A NaN is encoded as the canonical NaN
+        float[] floats = {1.0f, -2.5f, 0.0f, -0.0f, Float.NaN, Float.intBitsToFloat(0x7F800001),
+                Float.NEGATIVE_INFINITY, Float.MIN_VALUE};
+        value = assertEncoding(new FloatEncodingAlgorithm(), floats, octets(
+                0x3F, 0x80, 0x00, 0x00, 0xC0, 0x20, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00, 0x80, 0x00, 0x00, 0x00,
+                0x7F, 0xC0, 0x00, 0x00, 0x7F, 0xC0, 0x00, 0x00,
+                0xFF, 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01));
+        assertTrue(Arrays.equals(floats, (float[]) value));
+
+        double[] doubles = {1.0, -2.5, 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY};
+        value = assertEncoding(new DoubleEncodingAlgorithm(), doubles, octets(
+                0x3F, 0xF0, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                0xC0, 0x04, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                0x7F, 0xF8, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                0x7F, 0xF0, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00));
+        assertTrue(Arrays.equals(doubles, (double[]) value));
+    }
+
+    private static byte[] octets(int... values) {
+        final byte[] b = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            b[i] = (byte) values[i];
+        }
+        return b;
+    }
+
+    private static Object assertEncoding(BuiltInEncodingAlgorithm a, Object array, byte[] expected)
+            throws Exception {
+        // Encode at an offset, the surrounding octets are not modified
+        final byte[] b = new byte[expected.length + 2];
+        a.encodeToBytes(array, 0, Array.getLength(array), b, 1);
+        assertTrue(Arrays.equals(expected, Arrays.copyOfRange(b, 1, expected.length + 1)));
+        assertEquals(0, b[0]);
+        assertEquals(0, b[b.length - 1]);
+
+        final ByteArrayOutputStream s = new ByteArrayOutputStream();
+        a.encodeToOutputStream(array, s);
+        assertTrue(Arrays.equals(expected, s.toByteArray()));
+
+        final Object value = a.decodeFromInputStream(new ByteArrayInputStream(expected));
+        assertTrue(Arrays.deepEquals(new Object[] {value}, new Object[] {a.decodeFromBytes(b, 1, expected.length)}));
+        return value;
+    }
+
     public void testUUIDAlgorithm() throws Exception {
         createArrayValues(ARRAY_SIZE);
 
@@ -345,6 +513,470 @@ public class AlgorithmTest extends TestCase {
         p.parse(bais);
     }
 
+    public void testChunkedBuiltInAlgorithms() throws Exception {
+        // The octets of the small arrays are in the buffer, the octets of
+        // the large arrays are streamed
+        for (int arraySize : new int[] {1, 63, 64, 65, 100, 5000}) {
+            createArrayValues(arraySize);
+
+            SAXDocumentParser p = new SAXDocumentParser();
+            ChunkedTestHandler h = new ChunkedTestHandler();
+            p.setContentHandler(h);
+            p.setPrimitiveTypeContentHandler(h);
+            p.setPrimitiveTypeChunkSize(ChunkedTestHandler.CHUNK_SIZE);
+            assertEquals(ChunkedTestHandler.CHUNK_SIZE,
+                    p.getProperty(FastInfosetReader.PRIMITIVE_TYPE_CHUNK_SIZE_PROPERTY));
+            p.parse(new ByteArrayInputStream(createBuiltInTestFastInfosetDocument()));
+
+            assertTrue(Arrays.equals(_shortArray, Arrays.copyOf(h._shorts, h._shortsLength)));
+            assertTrue(Arrays.equals(_intArray, Arrays.copyOf(h._ints, h._intsLength)));
+            assertTrue(Arrays.equals(_longArray, Arrays.copyOf(h._longs, h._longsLength)));
+            assertTrue(Arrays.equals(_floatArray, Arrays.copyOf(h._floats, h._floatsLength)));
+            assertTrue(Arrays.equals(_doubleArray, Arrays.copyOf(h._doubles, h._doublesLength)));
+            assertEquals(5, h._lastChunks);
+        }
+    }
+
+    public void testConvertFromCharacters() throws Exception {
+        char[] ch = "x \t-1 +2\n32767\r-32768 x".toCharArray();
+        assertTrue(Arrays.equals(new short[] {-1, 2, 32767, -32768},
+                (short[]) new ShortEncodingAlgorithm().convertFromCharacters(ch, 1, ch.length - 2)));
+        assertTrue(Arrays.equals(new int[] {-1, 2, 32767, -32768},
+                (int[]) new IntEncodingAlgorithm().convertFromCharacters(ch, 1, ch.length - 2)));
+
+        ch = "-9223372036854775808 9223372036854775807 000000000000000000001".toCharArray();
+        assertTrue(Arrays.equals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 1},
+                (long[]) new LongEncodingAlgorithm().convertFromCharacters(ch, 0, ch.length)));
+
+        ch = "0.1 -0.0 1e22 1e23 .5 2. 4.9E-324 NaN -Infinity 1.5d 0x1p3".toCharArray();
+        assertTrue(Arrays.equals(new double[] {0.1, -0.0, 1e22, 1e23, 0.5, 2, Double.MIN_VALUE,
+                    Double.NaN, Double.NEGATIVE_INFINITY, 1.5, 8},
+                (double[]) new DoubleEncodingAlgorithm().convertFromCharacters(ch, 0, ch.length)));
+        assertTrue(Arrays.equals(new float[] {0.1f, -0.0f, 1e22f, 1e23f, 0.5f, 2, 0,
+                    Float.NaN, Float.NEGATIVE_INFINITY, 1.5f, 8},
+                (float[]) new FloatEncodingAlgorithm().convertFromCharacters(ch, 0, ch.length)));
+
+        ch = " true false  true ".toCharArray();
+        assertTrue(Arrays.equals(new boolean[] {true, false, true},
+                (boolean[]) new BooleanEncodingAlgorithm().convertFromCharacters(ch, 0, ch.length)));
+
+        String[] illegal = {"32768", "1.5", "--1", "+", "1e5"};
+        for (String s : illegal) {
+            try {
+                new ShortEncodingAlgorithm().convertFromCharacters(s.toCharArray(), 0, s.length());
+                fail(s);
+            } catch (NumberFormatException e) {
+            }
+        }
+    }
+
+    public void testConvertToCharacters() throws Exception {
+        StringBuilder b = new StringBuilder();
+        new DoubleEncodingAlgorithm().convertToCharactersFromDoubleArray(new double[] {
+            0.0, -0.0, 1, 0.1, 100, 1e7, 1.0E-3, 9.999E-4, 123.456, 1e23, 2 * Double.MIN_VALUE,
+            Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY}, b);
+        assertEquals("0.0 -0.0 1.0 0.1 100.0 1.0E7 0.001 9.999E-4 123.456 1.0E23 9.9E-324 "
+                + "1.7976931348623157E308 NaN -Infinity", b.toString());
+
+        b = new StringBuilder();
+        new FloatEncodingAlgorithm().convertToCharactersFromFloatArray(new float[] {
+            0.0f, -1, 0.3f, 1e7f, 1e-3f, Float.MIN_VALUE, Float.MIN_NORMAL, Float.MAX_VALUE,
+            Float.POSITIVE_INFINITY}, b);
+        assertEquals("0.0 -1.0 0.3 1.0E7 0.001 1.4E-45 1.1754944E-38 3.4028235E38 Infinity",
+                b.toString());
+
+        // The characters are the shortest decimal that round trips
+        Random r = new Random(0);
+        DoubleEncodingAlgorithm dea = new DoubleEncodingAlgorithm();
+        FloatEncodingAlgorithm fea = new FloatEncodingAlgorithm();
+        double[] d = new double[10000];
+        float[] f = new float[10000];
+        for (int i = 0; i < d.length; i++) {
+            d[i] = Double.longBitsToDouble(r.nextLong());
+            f[i] = Float.intBitsToFloat(r.nextInt());
+        }
+        b = new StringBuilder();
+        dea.convertToCharactersFromDoubleArray(d, b);
+        char[] ch = b.toString().toCharArray();
+        assertTrue(Arrays.equals(d, (double[]) dea.convertFromCharacters(ch, 0, ch.length)));
+        b = new StringBuilder();
+        fea.convertToCharactersFromFloatArray(f, b);
+        ch = b.toString().toCharArray();
+        assertTrue(Arrays.equals(f, (float[]) fea.convertFromCharacters(ch, 0, ch.length)));
+    }
+
+    public void testIntegerArrayAlgorithms() throws Exception {
+        Random r = new Random(0);
+        int[][] ints = new int[5][];
+        ints[0] = new int[0];
+        ints[1] = new int[] {0, 1, -1, 127, 128, -64, -65, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        ints[2] = new int[1000];
+        ints[3] = new int[1000];
+        ints[4] = new int[1000];
+        for (int i = 0; i < 1000; i++) {
+            ints[2][i] = r.nextInt();
+            ints[3][i] = 1000000 + i * 3 + r.nextInt(3);
+            ints[4][i] = r.nextInt(100) - 50;
+        }
+        long[][] longs = new long[ints.length + 1][];
+        for (int i = 0; i < ints.length; i++) {
+            longs[i] = new long[ints[i].length];
+            for (int j = 0; j < ints[i].length; j++) {
+                longs[i][j] = ints[i][j] * 0x100000001L;
+            }
+        }
+        longs[ints.length] = new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, Long.MIN_VALUE};
+
+        Map<String, EncodingAlgorithm> algorithms =
+                IntegerArrayEncodingAlgorithm.registerEncodingAlgorithms(new HashMap<>());
+        assertEquals(IntegerArrayEncodingAlgorithm.URIS.size(), algorithms.size());
+        for (String uri : IntegerArrayEncodingAlgorithm.URIS) {
+            IntegerArrayEncodingAlgorithm a = (IntegerArrayEncodingAlgorithm) algorithms.get(uri);
+            Object[] data = a.isLong() ? longs : ints;
+            for (Object d : data) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                a.encodeToOutputStream(d, baos);
+                byte[] b = baos.toByteArray();
+                Object e = a.decodeFromBytes(b, 0, b.length);
+                assertTrue(uri, a.isLong()
+                        ? Arrays.equals((long[]) d, (long[]) e)
+                        : Arrays.equals((int[]) d, (int[]) e));
+                e = a.decodeFromInputStream(new ByteArrayInputStream(b));
+                assertTrue(uri, a.isLong()
+                        ? Arrays.equals((long[]) d, (long[]) e)
+                        : Arrays.equals((int[]) d, (int[]) e));
+
+                if (a instanceof FrameOfReferenceEncodingAlgorithm) {
+                    try {
+                        a.decodeFromBytes(b, 0, b.length - 1);
+                        fail(uri);
+                    } catch (EncodingAlgorithmException ex) {
+                    }
+                }
+            }
+        }
+
+        for (byte[] b : new byte[][] {{(byte) 0x80}, {-1, -1, -1, -1, -1, 0}}) {
+            try {
+                algorithms.get(IntegerArrayEncodingAlgorithm.INT_VARINT_URI).decodeFromBytes(b, 0, b.length);
+                fail();
+            } catch (EncodingAlgorithmException ex) {
+            }
+        }
+
+        // Increasing identifiers have a small encoding
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        algorithms.get(IntegerArrayEncodingAlgorithm.INT_DELTA_URI).encodeToOutputStream(ints[3], baos);
+        assertTrue(baos.size() < ints[3].length + 4);
+        baos = new ByteArrayOutputStream();
+        algorithms.get(IntegerArrayEncodingAlgorithm.INT_FRAME_OF_REFERENCE_URI).encodeToOutputStream(ints[4], baos);
+        assertTrue(baos.size() < ints[4].length);
+
+        // Encode and decode a document
+        SerializerVocabulary serializerVocabulary = new SerializerVocabulary();
+        ParserVocabulary parserVocabulary = new ParserVocabulary();
+        for (String uri : IntegerArrayEncodingAlgorithm.URIS) {
+            serializerVocabulary.encodingAlgorithm.add(uri);
+            parserVocabulary.encodingAlgorithm.add(uri);
+        }
+        SerializerVocabulary initialVocabulary = new SerializerVocabulary();
+        initialVocabulary.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING, serializerVocabulary, false);
+
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        baos = new ByteArrayOutputStream();
+        s.setOutputStream(baos);
+        s.setVocabulary(initialVocabulary);
+        s.setRegisteredEncodingAlgorithms(algorithms);
+        _attributes.clear();
+        s.startDocument();
+        s.startElement("", "e", "e", _attributes);
+        for (String uri : IntegerArrayEncodingAlgorithm.URIS) {
+            Object d = ((IntegerArrayEncodingAlgorithm) algorithms.get(uri)).isLong() ? longs[3] : ints[3];
+            _attributes.addAttributeWithAlgorithmData(new QualifiedName("", "", "a", "a"), uri, 0, d);
+            s.startElement("", "algorithm", "algorithm", _attributes);
+            _attributes.clear();
+            s.object(uri, 0, d);
+            s.endElement("", "algorithm", "algorithm");
+        }
+        s.endElement("", "e", "e");
+        s.endDocument();
+
+        final List<Object> objects = new ArrayList<>();
+        SAXDocumentParser p = new SAXDocumentParser();
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(EXTERNAL_VOCABULARY_URI_STRING, parserVocabulary);
+        p.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        p.setRegisteredEncodingAlgorithms(algorithms);
+        FastInfosetDefaultHandler h = new FastInfosetDefaultHandler() {
+            @Override
+            public void startElement(String namespaceURI, String localName, String qName, Attributes atts) {
+                if (atts.getLength() > 0) {
+                    objects.add(((EncodingAlgorithmAttributes) atts).getAlgorithmData(0));
+                    assertEquals(atts.getValue(0).length(), atts.getValue(0).trim().length());
+                }
+            }
+
+            @Override
+            public void object(String URI, int algorithm, Object data) {
+                objects.add(data);
+            }
+        };
+        p.setContentHandler(h);
+        p.setEncodingAlgorithmContentHandler(h);
+        p.parse(new ByteArrayInputStream(baos.toByteArray()));
+
+        assertEquals(IntegerArrayEncodingAlgorithm.URIS.size() * 2, objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            Object d = objects.get(i);
+            assertTrue(d instanceof long[]
+                    ? Arrays.equals(longs[3], (long[]) d)
+                    : Arrays.equals(ints[3], (int[]) d));
+        }
+    }
+
+    public void testDeflateCharacterContent() throws Exception {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            b.append("The quick brown fox ").append(i).append(" jumps over the lazy dog \u00e9\u4e2d. ");
+        }
+        final String text = b.toString();
+
+        org.jvnet.fastinfoset.Vocabulary v = new org.jvnet.fastinfoset.Vocabulary();
+        v.encodingAlgorithms.add(DeflateEncodingAlgorithm.URI);
+        v.characterContentChunks.add("The quick brown fox jumps over the lazy dog");
+        SerializerVocabulary serializerVocabulary = new SerializerVocabulary(v, false);
+        ParserVocabulary parserVocabulary = new ParserVocabulary(v);
+        byte[] dictionary = DeflateEncodingAlgorithm.createDictionary(v);
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put(DeflateEncodingAlgorithm.URI, new DeflateEncodingAlgorithm(9, dictionary));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        algorithms.get(DeflateEncodingAlgorithm.URI).encodeToOutputStream(text, baos);
+        byte[] data = baos.toByteArray();
+        assertEquals(text, algorithms.get(DeflateEncodingAlgorithm.URI).decodeFromBytes(data, 0, data.length));
+        assertEquals(text, algorithms.get(DeflateEncodingAlgorithm.URI).decodeFromInputStream(new ByteArrayInputStream(data)));
+        try {
+            new DeflateEncodingAlgorithm().decodeFromBytes(data, 0, data.length);
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+        try {
+            algorithms.get(DeflateEncodingAlgorithm.URI).decodeFromBytes(data, 0, data.length - 1);
+            fail();
+        } catch (EncodingAlgorithmException e) {
+        }
+
+        // The decompressed characters are limited
+        final DeflateEncodingAlgorithm limited = new DeflateEncodingAlgorithm(9, null, 1024 * 1024);
+        baos.reset();
+        limited.encodeToOutputStream(new char[1024 * 1024], 0, 1024 * 1024, baos);
+        byte[] bomb = baos.toByteArray();
+        assertEquals(1024 * 1024, ((String) limited.decodeFromBytes(bomb, 0, bomb.length)).length());
+        baos.reset();
+        limited.encodeToOutputStream(new char[1024 * 1024 + 1], 0, 1024 * 1024 + 1, baos);
+        bomb = baos.toByteArray();
+        try {
+            limited.decodeFromBytes(bomb, 0, bomb.length);
+            fail("The decompressed characters are not limited");
+        } catch (EncodingAlgorithmException e) {
+        }
+
+        byte[] plain = serializeDeflateCharacterContent(text, serializerVocabulary, null);
+        // Not compressed if the algorithm is not registered
+        assertTrue(Arrays.equals(plain,
+                serializeDeflateCharacterContent(text, serializerVocabulary, new HashMap<String, EncodingAlgorithm>())));
+        byte[] compressed = serializeDeflateCharacterContent(text, serializerVocabulary, algorithms);
+        assertTrue(compressed.length * 4 < plain.length);
+
+        Map<String, ParserVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(EXTERNAL_VOCABULARY_URI_STRING, parserVocabulary);
+        for (byte[] document : new byte[][] {plain, compressed}) {
+            final StringBuilder characters = new StringBuilder();
+            SAXDocumentParser p = new SAXDocumentParser();
+            p.setExternalVocabularies(externalVocabularies);
+            p.setRegisteredEncodingAlgorithms(algorithms);
+            p.setContentHandler(new FastInfosetDefaultHandler() {
+                @Override
+                public void characters(char[] ch, int start, int length) {
+                    characters.append(ch, start, length);
+                }
+            });
+            p.parse(new ByteArrayInputStream(document));
+            assertEquals(text + "short" + text, characters.toString());
+
+            StAXDocumentParser sp = new StAXDocumentParser(new ByteArrayInputStream(document));
+            sp.setExternalVocabularies(externalVocabularies);
+            sp.setRegisteredEncodingAlgorithms(algorithms);
+            characters.setLength(0);
+            while (sp.hasNext()) {
+                if (sp.next() == XMLStreamReader.CHARACTERS) {
+                    characters.append(sp.getText());
+                }
+            }
+            assertEquals(text + "short" + text, characters.toString());
+
+            DOMDocumentParser dp = new DOMDocumentParser();
+            dp.setExternalVocabularies(externalVocabularies);
+            dp.setRegisteredEncodingAlgorithms(algorithms);
+            Document d = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            dp.parse(d, new ByteArrayInputStream(document));
+            assertEquals(text + "short" + text, d.getDocumentElement().getTextContent());
+        }
+    }
+
+    private byte[] serializeDeflateCharacterContent(String text, SerializerVocabulary externalVocabulary,
+            Map<String, EncodingAlgorithm> algorithms) throws Exception {
+        SerializerVocabulary initialVocabulary = new SerializerVocabulary();
+        initialVocabulary.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING, externalVocabulary, false);
+
+        SAXDocumentSerializer s = new SAXDocumentSerializer();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        s.setOutputStream(baos);
+        s.setVocabulary(initialVocabulary);
+        if (algorithms != null) {
+            s.setRegisteredEncodingAlgorithms(algorithms);
+            s.setCharacterContentCompressionAlgorithmURI(DeflateEncodingAlgorithm.URI);
+        }
+        _attributes.clear();
+        s.startDocument();
+        s.startElement("", "e", "e", _attributes);
+        s.characters(text.toCharArray(), 0, text.length());
+        s.startElement("", "s", "s", _attributes);
+        s.characters("short".toCharArray(), 0, 5);
+        s.endElement("", "s", "s");
+        s.characters(text.toCharArray(), 0, text.length());
+        s.endElement("", "e", "e");
+        s.endDocument();
+        return baos.toByteArray();
+    }
+
+    public void testDecodeFromInputStream() throws Exception {
+        createArrayValues(3000);
+
+        IntEncodingAlgorithm iea = new IntEncodingAlgorithm();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        iea.encodeToOutputStreamFromIntArray(_intArray, baos);
+        int[] i = iea.decodeFromInputStreamToIntArray(new ByteArrayInputStream(baos.toByteArray()));
+        assertTrue(Arrays.equals(_intArray, i));
+
+        i = new int[2000];
+        InputStream s = new ByteArrayInputStream(baos.toByteArray());
+        assertEquals(2000, iea.decodeFromInputStreamToIntArray(i, 0, 2000, s));
+        assertTrue(Arrays.equals(Arrays.copyOf(_intArray, 2000), i));
+        assertEquals(1000, iea.decodeFromInputStreamToIntArray(i, 0, 2000, s));
+        assertTrue(Arrays.equals(Arrays.copyOfRange(_intArray, 2000, 3000), Arrays.copyOf(i, 1000)));
+        assertEquals(0, iea.decodeFromInputStreamToIntArray(i, 0, 2000, s));
+
+        DoubleEncodingAlgorithm dea = new DoubleEncodingAlgorithm();
+        baos = new ByteArrayOutputStream();
+        dea.encodeToOutputStreamFromDoubleArray(_doubleArray, baos);
+        assertTrue(Arrays.equals(_doubleArray,
+                dea.decodeFromInputStreamToDoubleArray(new ByteArrayInputStream(baos.toByteArray()))));
+
+        try {
+            iea.decodeFromInputStreamToIntArray(new ByteArrayInputStream(new byte[6]));
+            fail();
+        } catch (EOFException e) {
+        }
+    }
+
+    public static class ChunkedTestHandler extends FastInfosetDefaultHandler {
+        static final int CHUNK_SIZE = 64;
+
+        short[] _shorts = new short[0];
+        int _shortsLength;
+        int[] _ints = new int[0];
+        int _intsLength;
+        long[] _longs = new long[0];
+        int _longsLength;
+        float[] _floats = new float[0];
+        int _floatsLength;
+        double[] _doubles = new double[0];
+        int _doublesLength;
+        int _lastChunks;
+        Object _array;
+
+        private void chunk(Object array, int start, int length, boolean isLast) {
+            // The same array is used for all the chunks
+            if (_array != null && array.getClass() == _array.getClass()) {
+                assertSame(_array, array);
+            }
+            _array = array;
+            assertEquals(0, start);
+            assertTrue(length > 0 && length <= CHUNK_SIZE);
+            if (isLast) {
+                _lastChunks++;
+            } else {
+                assertEquals(CHUNK_SIZE, length);
+            }
+        }
+
+        @Override
+        public void shorts(short[] s, int start, int length) {
+            fail();
+        }
+
+        @Override
+        public void shorts(short[] s, int start, int length, boolean isLast) {
+            chunk(s, start, length, isLast);
+            _shorts = Arrays.copyOf(_shorts, _shortsLength + length);
+            System.arraycopy(s, start, _shorts, _shortsLength, length);
+            _shortsLength += length;
+        }
+
+        @Override
+        public void ints(int[] i, int start, int length) {
+            fail();
+        }
+
+        @Override
+        public void ints(int[] i, int start, int length, boolean isLast) {
+            chunk(i, start, length, isLast);
+            _ints = Arrays.copyOf(_ints, _intsLength + length);
+            System.arraycopy(i, start, _ints, _intsLength, length);
+            _intsLength += length;
+        }
+
+        @Override
+        public void longs(long[] l, int start, int length) {
+            fail();
+        }
+
+        @Override
+        public void longs(long[] l, int start, int length, boolean isLast) {
+            chunk(l, start, length, isLast);
+            _longs = Arrays.copyOf(_longs, _longsLength + length);
+            System.arraycopy(l, start, _longs, _longsLength, length);
+            _longsLength += length;
+        }
+
+        @Override
+        public void floats(float[] f, int start, int length) {
+            fail();
+        }
+
+        @Override
+        public void floats(float[] f, int start, int length, boolean isLast) {
+            chunk(f, start, length, isLast);
+            _floats = Arrays.copyOf(_floats, _floatsLength + length);
+            System.arraycopy(f, start, _floats, _floatsLength, length);
+            _floatsLength += length;
+        }
+
+        @Override
+        public void doubles(double[] d, int start, int length) {
+            fail();
+        }
+
+        @Override
+        public void doubles(double[] d, int start, int length, boolean isLast) {
+            chunk(d, start, length, isLast);
+            _doubles = Arrays.copyOf(_doubles, _doublesLength + length);
+            System.arraycopy(d, start, _doubles, _doublesLength, length);
+            _doublesLength += length;
+        }
+    }
+
     protected byte[] createBuiltInTestFastInfosetDocument() throws Exception {
         SAXDocumentSerializer s = new SAXDocumentSerializer();
 
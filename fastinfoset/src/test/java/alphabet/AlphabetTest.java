@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -189,6 +190,33 @@ public class AlphabetTest extends TestCase {
         _testApplicationAlphabet("0123456789ABCDEF", "0123456789ABCDEF0123456789ABCDEF0123456789ABCDEF");
     }
     
+    public void testApplicationAlphabetLengths() throws Exception {
+        // Alphabets of 1 to 9 bits per character with strings whose
+        // encoded bits cross the boundaries of the bit packing
+        StringBuilder alphabet = new StringBuilder("01");
+        for (int bits = 2; bits <= 9; bits++) {
+            while (alphabet.length() < (1 << bits) - 1) {
+                alphabet.append((char)('A' + alphabet.length()));
+            }
+            String a = alphabet.toString();
+            for (int length = 1; length < 40; length++) {
+                StringBuilder s = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    s.append(a.charAt((i * 7 + length) % a.length()));
+                }
+                _testApplicationAlphabet(a, s.toString());
+            }
+        }
+    }
+
+    public void testCharacterOutOfApplicationAlphabet() throws Exception {
+        try {
+            createApplicationFastInfosetDocument("01XY", "01Z");
+            fail("The character is not a member of the alphabet");
+        } catch (SAXException e) {
+        }
+    }
+
     public void _testApplicationAlphabet(String a, String s) throws Exception {
         byte[] b = createApplicationFastInfosetDocument(a, s);
         InputStream bais = new ByteArrayInputStream(b);
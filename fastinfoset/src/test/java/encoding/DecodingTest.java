@@ -22,23 +22,38 @@ package encoding;
 import com.sun.xml.fastinfoset.sax.AttributesHolder;
 import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
 import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
 import com.sun.xml.fastinfoset.tools.VocabularyGenerator;
+import com.sun.xml.fastinfoset.util.SymbolTable;
 import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamConstants;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import org.jvnet.fastinfoset.BufferRecycler;
 import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.FastInfosetException;
 import org.jvnet.fastinfoset.FastInfosetParser;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 
 public class DecodingTest extends TestCase {
 
@@ -153,6 +168,86 @@ public class DecodingTest extends TestCase {
         compare(finfDocument, obtainBytesFromStream(_finfRefVocabDocumentURL.openStream()));
     }
     
+    public void testDecodeWithTransportCompression() throws Exception {
+        VocabularyGenerator vocabularyGenerator = new VocabularyGenerator();
+        vocabularyGenerator.setCharacterContentChunkSizeLimit(0);
+        vocabularyGenerator.setAttributeValueSizeLimit(0);
+        _saxParser.parse(_xmlDocumentURL.openStream(), vocabularyGenerator);
+
+        ExternalVocabulary ev = new ExternalVocabulary(
+                EXTERNAL_VOCABULARY_URI_STRING,
+                vocabularyGenerator.getVocabulary());
+        
+        Map<String, ExternalVocabulary> externalVocabularies = new HashMap<>();
+        externalVocabularies.put(ev.URI, ev);
+        byte[] specFiDocument = obtainBytesFromStream(_finfRefVocabDocumentURL.openStream());
+        
+        // Compress the document twice reusing the serializer
+        SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        documentSerializer.setExternalVocabulary(ev);
+        documentSerializer.setTransportCompression(true);
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        documentParser.setContentHandler(documentSerializer);
+        byte[][] compressedDocuments = new byte[2][];
+        for (int i = 0; i < compressedDocuments.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            documentSerializer.setOutputStream(baos);
+            documentParser.parse(new ByteArrayInputStream(specFiDocument));
+            compressedDocuments[i] = baos.toByteArray();
+        }
+        assertTrue(Arrays.equals(compressedDocuments[0], compressedDocuments[1]));
+        assertTrue(compressedDocuments[0].length < specFiDocument.length);
+        
+        // Decompress the document reusing the parser
+        documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        documentSerializer.setExternalVocabulary(ev);
+        documentParser = new SAXDocumentParser();
+        documentParser.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        documentParser.setTransportCompression(true);
+        documentParser.setContentHandler(documentSerializer);
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            documentSerializer.setOutputStream(baos);
+            documentParser.parse(new ByteArrayInputStream(compressedDocuments[i]));
+            compare(baos.toByteArray(), specFiDocument);
+            
+            baos.reset();
+            documentSerializer.setOutputStream(baos);
+            documentParser.parse(compressedDocuments[i], 0, compressedDocuments[i].length);
+            compare(baos.toByteArray(), specFiDocument);
+        }
+        
+        // The preset dictionary is not of an external vocabulary
+        documentParser = new SAXDocumentParser();
+        documentParser.setTransportCompression(true);
+        documentParser.setContentHandler(new DefaultHandler());
+        try {
+            documentParser.parse(new ByteArrayInputStream(compressedDocuments[0]));
+            fail("A document compressed with an unknown dictionary must not be decoded");
+        } catch (ZipException e) {
+        }
+        
+        // The decompressed document is limited
+        documentParser = new SAXDocumentParser();
+        documentParser.setProperty(FastInfosetParser.EXTERNAL_VOCABULARIES_PROPERTY, externalVocabularies);
+        documentParser.setTransportCompression(true);
+        documentParser.setTransportCompressionMaximumLength(specFiDocument.length - 1);
+        documentParser.setContentHandler(new DefaultHandler());
+        try {
+            documentParser.parse(new ByteArrayInputStream(compressedDocuments[0]));
+            fail("The decompressed document is not limited");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof FastInfosetException);
+        }
+        documentParser.setTransportCompressionMaximumLength(specFiDocument.length);
+        documentParser.parse(new ByteArrayInputStream(compressedDocuments[0]));
+    }
+    
     public void testDecodeWithoutVocabulary() throws Exception {
         SerializerVocabulary initialVocabulary = new SerializerVocabulary();
 
@@ -171,6 +266,194 @@ public class DecodingTest extends TestCase {
         byte[] finfDocument = baos.toByteArray();
         compare(finfDocument, obtainBytesFromStream(_finfDocumentURL.openStream()));
     }
+    
+    public void testDecodeSession() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        
+        // Encode the document four times in a session, resetting the
+        // session before the last document
+        SAXDocumentSerializer sessionSerializer = new SAXDocumentSerializer();
+        sessionSerializer.setMaxCharacterContentChunkSize(6);
+        sessionSerializer.setMaxAttributeValueSize(6);
+        sessionSerializer.setSession(true);
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setContentHandler(sessionSerializer);
+        byte[][] documents = new byte[4][];
+        for (int i = 0; i < documents.length; i++) {
+            if (i == documents.length - 1) {
+                sessionSerializer.resetSession();
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            sessionSerializer.setOutputStream(baos);
+            documentParser.parse(new ByteArrayInputStream(specFiDocument));
+            documents[i] = baos.toByteArray();
+        }
+        assertTrue(documents[1].length < documents[0].length / 2);
+        assertEquals(documents[1].length, documents[2].length);
+        assertTrue(Arrays.equals(documents[0], documents[3]));
+        
+        // Decode the documents in a session
+        SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        SAXDocumentParser sessionParser = new SAXDocumentParser();
+        sessionParser.setSession(true);
+        sessionParser.setContentHandler(documentSerializer);
+        for (byte[] document : documents) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            documentSerializer.setOutputStream(baos);
+            sessionParser.parse(new ByteArrayInputStream(document));
+            compare(baos.toByteArray(), specFiDocument);
+        }
+        
+        StAXDocumentParser staxParser = new StAXDocumentParser();
+        staxParser.setSession(true);
+        int[] elements = new int[documents.length];
+        for (int i = 0; i < documents.length; i++) {
+            staxParser.setInputStream(new ByteArrayInputStream(documents[i]));
+            while (staxParser.hasNext()) {
+                if (staxParser.next() == XMLStreamConstants.START_ELEMENT) {
+                    elements[i]++;
+                }
+            }
+        }
+        assertTrue(elements[0] > 0);
+        assertEquals(elements[0], elements[1]);
+        assertEquals(elements[0], elements[2]);
+        
+        // A document that is not in a session clears the session
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        documentSerializer.setOutputStream(baos);
+        sessionParser.parse(new ByteArrayInputStream(specFiDocument));
+        compare(baos.toByteArray(), specFiDocument);
+        
+        // A missing document of the session is detected
+        sessionParser.parse(new ByteArrayInputStream(documents[0]));
+        try {
+            sessionParser.parse(new ByteArrayInputStream(documents[2]));
+            fail("The missing document of the session is not detected");
+        } catch (FastInfosetException e) {
+        }
+    }
+
+    public void testDecodeSessionWithVocabulary() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+
+        // The vocabularies set by the application are never cleared, the
+        // entry that is not used by the document is kept by both
+        SerializerVocabulary serializerVocabulary = new SerializerVocabulary();
+        serializerVocabulary.localName.obtainIndex("unused");
+        SAXDocumentSerializer sessionSerializer = new SAXDocumentSerializer();
+        sessionSerializer.setMaxCharacterContentChunkSize(6);
+        sessionSerializer.setMaxAttributeValueSize(6);
+        sessionSerializer.setVocabulary(serializerVocabulary);
+        sessionSerializer.setSession(true);
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setContentHandler(sessionSerializer);
+        byte[][] documents = new byte[3][];
+        for (int i = 0; i < documents.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            sessionSerializer.setOutputStream(baos);
+            documentParser.parse(new ByteArrayInputStream(specFiDocument));
+            documents[i] = baos.toByteArray();
+        }
+        assertEquals(0, serializerVocabulary.localName.get("unused"));
+
+        ParserVocabulary parserVocabulary = new ParserVocabulary();
+        parserVocabulary.localName.add("unused");
+        SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        SAXDocumentParser sessionParser = new SAXDocumentParser();
+        sessionParser.setVocabulary(parserVocabulary);
+        sessionParser.setSession(true);
+        sessionParser.setContentHandler(documentSerializer);
+        for (byte[] document : documents) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            documentSerializer.setOutputStream(baos);
+            sessionParser.parse(new ByteArrayInputStream(document));
+            compare(baos.toByteArray(), specFiDocument);
+        }
+        assertEquals("unused", parserVocabulary.localName.get(0));
+    }
+
+    public void testDecodeSessionWithDynamicTableSizeLimit() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+
+        SAXDocumentSerializer sessionSerializer = new SAXDocumentSerializer();
+        sessionSerializer.setMaxCharacterContentChunkSize(6);
+        sessionSerializer.setMaxAttributeValueSize(6);
+        sessionSerializer.setSession(true);
+        sessionSerializer.setDynamicTableSizeLimit(4);
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setContentHandler(sessionSerializer);
+        byte[][] documents = new byte[4][];
+        for (int i = 0; i < documents.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            sessionSerializer.setOutputStream(baos);
+            documentParser.parse(new ByteArrayInputStream(specFiDocument));
+            documents[i] = baos.toByteArray();
+        }
+
+        SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        SAXDocumentParser sessionParser = new SAXDocumentParser();
+        sessionParser.setSession(true);
+        sessionParser.setDynamicTableSizeLimit(4);
+        sessionParser.setContentHandler(documentSerializer);
+        for (byte[] document : documents) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            documentSerializer.setOutputStream(baos);
+            sessionParser.parse(new ByteArrayInputStream(document));
+            compare(baos.toByteArray(), specFiDocument);
+        }
+
+        try {
+            sessionParser.setDynamicTableSizeLimit(0);
+            fail("The illegal table size limit is not detected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testDecodeWithStringInterning() throws Exception {
+        final byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        final int[] elements = new int[1];
+        
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setStringInterning(true);
+        documentParser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                assertSame(uri, uri.intern());
+                assertSame(localName, localName.intern());
+                for (int i = 0; i < atts.getLength(); i++) {
+                    assertSame(atts.getLocalName(i), atts.getLocalName(i).intern());
+                }
+                elements[0]++;
+            }
+        });
+        
+        // Decode with the default table, and with a table small enough
+        // that strings are evicted
+        assertSame(SymbolTable.getDefault(), documentParser.getSymbolTable());
+        for (SymbolTable table : new SymbolTable[] {null, new SymbolTable(4)}) {
+            documentParser.setSymbolTable(table);
+            for (int i = 0; i < 2; i++) {
+                documentParser.parse(new ByteArrayInputStream(specFiDocument));
+            }
+        }
+        assertTrue(elements[0] > 0);
+        
+        SymbolTable table = new SymbolTable(16);
+        byte[] octets = "name".getBytes(StandardCharsets.UTF_8);
+        assertNull(table.get(octets, 0, octets.length));
+        String s = table.add(octets, 0, octets.length, new String("name"));
+        assertSame("name", s);
+        assertSame(s, table.get(octets, 0, octets.length));
+        table.clear();
+        assertNull(table.get(octets, 0, octets.length));
+    }
  
         
     private void compare(byte[] fiDocument, byte[] specFiDocument) throws Exception {
@@ -191,6 +474,181 @@ public class DecodingTest extends TestCase {
 
     }
 
+    public void testDecodeFromArray() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        // Place the document at a non-zero offset with trailing octets
+        byte[] input = new byte[specFiDocument.length + 16];
+        System.arraycopy(specFiDocument, 0, input, 8, specFiDocument.length);
+        byte[] copy = input.clone();
+        
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+        documentSerializer.setMaxCharacterContentChunkSize(6);
+        documentSerializer.setMaxAttributeValueSize(6);
+        documentSerializer.setOutputStream(baos);
+        documentParser.setContentHandler(documentSerializer);
+        documentParser.parse(input, 8, specFiDocument.length);
+        compare(baos.toByteArray(), specFiDocument);
+        
+        ByteBuffer direct = ByteBuffer.allocateDirect(specFiDocument.length);
+        direct.put(specFiDocument).flip();
+        baos.reset();
+        documentSerializer.setOutputStream(baos);
+        documentParser.parse(direct);
+        compare(baos.toByteArray(), specFiDocument);
+        assertEquals(0, direct.position());
+        
+        // The parser may be reused with an input stream
+        baos.reset();
+        documentSerializer.setOutputStream(baos);
+        documentParser.parse(new ByteArrayInputStream(specFiDocument));
+        compare(baos.toByteArray(), specFiDocument);
+        
+        assertTrue("The input array has been modified", Arrays.equals(copy, input));
+    }
+    
+    public void testDecodeFromDirectBufferWithBufferRecycler() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        ByteBuffer direct = ByteBuffer.allocateDirect(specFiDocument.length);
+        direct.put(specFiDocument).flip();
+        
+        // The octets of the buffer are copied as the borrowed buffer is
+        // refilled, and the borrowed buffer is released
+        final List<byte[]> borrowed = new ArrayList<>();
+        final List<byte[]> released = new ArrayList<>();
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setBufferRecycler(new BufferRecycler() {
+            @Override
+            public byte[] allocateOctets(int minimumSize) {
+                final byte[] b = new byte[minimumSize];
+                borrowed.add(b);
+                return b;
+            }
+            
+            @Override
+            public void releaseOctets(byte[] b) {
+                released.add(b);
+            }
+            
+            @Override
+            public char[] allocateCharacters(int minimumSize) {
+                return new char[minimumSize];
+            }
+            
+            @Override
+            public void releaseCharacters(char[] c) {
+            }
+        });
+        
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            SAXDocumentSerializer documentSerializer = new SAXDocumentSerializer();
+            documentSerializer.setMaxCharacterContentChunkSize(6);
+            documentSerializer.setMaxAttributeValueSize(6);
+            documentSerializer.setOutputStream(baos);
+            documentParser.setContentHandler(documentSerializer);
+            documentParser.parse(direct);
+            compare(baos.toByteArray(), specFiDocument);
+        }
+        
+        assertEquals(2, borrowed.size());
+        assertEquals(borrowed, released);
+        for (byte[] b : borrowed) {
+            assertTrue(b.length < specFiDocument.length);
+        }
+    }
+    
+    public void testDecodeFromTruncatedArray() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        byte[] copy = specFiDocument.clone();
+        
+        SAXDocumentParser documentParser = new SAXDocumentParser();
+        documentParser.setContentHandler(new DefaultHandler());
+        try {
+            documentParser.parse(specFiDocument, 0, specFiDocument.length / 2);
+            fail("A truncated document must not be decoded");
+        } catch (EOFException e) {
+        }
+        
+        assertTrue("The input array has been modified", Arrays.equals(copy, specFiDocument));
+    }
+
+    public void testDecodeLatin1Strings() throws Exception {
+        final String[] values = {
+            // Two octet characters in the range [#x80, #xFF]
+            "\u0080", "\u00FF", "\u00E9\u00E8\u00E0", "abcdefgh\u00A0ijklmnop\u00FF",
+            // Characters that are not Latin-1 are decoded by the general decoder
+            "\u0100", "abcdefgh\u0100", "\u00E9\u4E2D", "\u00FF\uD83D\uDE00"
+        };
+        
+        final byte[] document = serializeAttributeValues(values);
+        assertTrue(Arrays.equals(values, parseAttributeValues(document)));
+        
+        // An illegal continuation octet of a two octet character
+        final byte[] e = "\u00E9xyz".getBytes(StandardCharsets.UTF_8);
+        final byte[] illegal = serializeAttributeValues(new String[] {"\u00E9xyz"});
+        final int i = indexOf(illegal, e);
+        illegal[i + 1] = 'w';
+        try {
+            parseAttributeValues(illegal);
+            fail("An illegal UTF-8 encoded string must not be decoded");
+        } catch (IOException ex) {
+        }
+        
+        // An overlong encoding of a character
+        illegal[i] = (byte) 0xC0;
+        illegal[i + 1] = (byte) 0xA9;
+        try {
+            parseAttributeValues(illegal);
+            fail("An overlong UTF-8 encoded string must not be decoded");
+        } catch (IOException ex) {
+        }
+    }
+    
+    private static byte[] serializeAttributeValues(String[] values) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        SAXDocumentSerializer sds = new SAXDocumentSerializer();
+        sds.setOutputStream(baos);
+        
+        sds.startDocument();
+        sds.startElement("", "root", "root", new AttributesHolder());
+        for (String value : values) {
+            AttributesImpl atts = new AttributesImpl();
+            atts.addAttribute("", "value", "value", "CDATA", value);
+            sds.startElement("", "element", "element", atts);
+            sds.endElement("", "element", "element");
+        }
+        sds.endElement("", "root", "root");
+        sds.endDocument();
+        return baos.toByteArray();
+    }
+    
+    private static String[] parseAttributeValues(byte[] document) throws Exception {
+        final List<String> values = new ArrayList<>();
+        SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                if (atts.getLength() > 0) {
+                    values.add(atts.getValue(0));
+                }
+            }
+        });
+        parser.parse(new ByteArrayInputStream(document));
+        return values.toArray(new String[0]);
+    }
+    
+    private static int indexOf(byte[] b, byte[] s) {
+        for (int i = 0; i <= b.length - s.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(b, i, i + s.length), s)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
     public void testDecodeWithXMLDeclaration() throws Exception {
         for (byte[] xmlDeclarationValue : XML_DECLARATION_VALUES) {
             _testDecodeWithXMLDeclaration(xmlDeclarationValue);
@@ -19,19 +19,38 @@
 
 package encoding;
 
+import com.sun.xml.fastinfoset.QualifiedName;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
 import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
 import com.sun.xml.fastinfoset.tools.VocabularyGenerator;
+import com.sun.xml.fastinfoset.util.ConcurrentBufferRecycler;
+import com.sun.xml.fastinfoset.util.ConcurrentByteBufferPool;
+import com.sun.xml.fastinfoset.util.FrequencySketch;
 import com.sun.xml.fastinfoset.util.KeyIntMap;
+import com.sun.xml.fastinfoset.util.LocalNameQualifiedNamesMap;
+import com.sun.xml.fastinfoset.util.OpenAddressingLocalNameQualifiedNamesMap;
+import com.sun.xml.fastinfoset.util.TableAdmission;
+import com.sun.xml.fastinfoset.vocab.FrozenSerializerVocabulary;
 import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import junit.framework.*;
+import org.jvnet.fastinfoset.ByteBufferSink;
 import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
 
 public class EncodingTest extends TestCase {
 
@@ -126,6 +145,262 @@ public class EncodingTest extends TestCase {
         compare(obtainBytesFromStream(_finfDocumentURL.openStream()));
     }
 
+    public void testEncodeToByteBuffers() throws Exception {
+        final byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+
+        for (int bufferSize : new int[] {1, 7, 64, 8192}) {
+            for (boolean direct : new boolean[] {false, true}) {
+                final ConcurrentByteBufferPool pool = new ConcurrentByteBufferPool(bufferSize, direct, 4);
+                final List<ByteBuffer> buffers = new ArrayList<>();
+                _ds.setVocabulary(new SerializerVocabulary());
+                _ds.setOutput(pool, new ByteBufferSink() {
+                    @Override
+                    public void write(ByteBuffer b) {
+                        buffers.add(b);
+                    }
+                });
+
+                _saxParser.parse(_xmlDocumentURL.openStream(), _ds);
+
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                for (int i = 0; i < buffers.size(); i++) {
+                    ByteBuffer b = buffers.get(i);
+                    assertEquals(direct, b.isDirect());
+                    if (i < buffers.size() - 1) {
+                        assertEquals("Buffer is not full", bufferSize, b.remaining());
+                    }
+                    byte[] octets = new byte[b.remaining()];
+                    b.get(octets);
+                    baos.write(octets);
+                    pool.release(b);
+                }
+                _finfDocument = baos.toByteArray();
+                compare(specFiDocument);
+            }
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        _ds.setVocabulary(new SerializerVocabulary());
+        _ds.setOutput(Channels.newChannel(baos), new ConcurrentByteBufferPool(100, true, 4));
+        _saxParser.parse(_xmlDocumentURL.openStream(), _ds);
+        _finfDocument = baos.toByteArray();
+        compare(specFiDocument);
+
+        _initialVocabulary = new SerializerVocabulary();
+        _finfDocument = parse();
+        compare(specFiDocument);
+    }
+
+    public void testEncodeWithBufferRecycler() throws Exception {
+        final byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        final CountingBufferRecycler recycler = new CountingBufferRecycler();
+
+        _ds.setBufferRecycler(recycler);
+        try {
+            for (int i = 0; i < 2; i++) {
+                _initialVocabulary.clear();
+                _finfDocument = parse();
+                compare(specFiDocument);
+                assertTrue(recycler.allocated > 0);
+                assertEquals("Buffers are not released", recycler.allocated, recycler.released);
+            }
+        } finally {
+            _ds.setBufferRecycler(null);
+        }
+
+        final SAXDocumentParser saxParser = new SAXDocumentParser();
+        saxParser.setBufferRecycler(recycler);
+        saxParser.setContentHandler(new DefaultHandler());
+        for (int i = 0; i < 2; i++) {
+            saxParser.parse(new ByteArrayInputStream(specFiDocument));
+            assertEquals("Buffers are not released", recycler.allocated, recycler.released);
+        }
+
+        final StAXDocumentParser staxParser = new StAXDocumentParser();
+        staxParser.setBufferRecycler(recycler);
+        staxParser.setInputStream(new ByteArrayInputStream(specFiDocument));
+        while (staxParser.hasNext()) {
+            staxParser.next();
+        }
+        assertEquals("Buffers are not released", recycler.allocated, recycler.released);
+    }
+
+    private static final class CountingBufferRecycler extends ConcurrentBufferRecycler {
+        int allocated;
+        int released;
+
+        @Override
+        public byte[] allocateOctets(int minimumSize) {
+            allocated++;
+            final byte[] b = super.allocateOctets(minimumSize);
+            assertTrue(b.length >= minimumSize);
+            return b;
+        }
+
+        @Override
+        public void releaseOctets(byte[] b) {
+            released++;
+            super.releaseOctets(b);
+        }
+
+        @Override
+        public char[] allocateCharacters(int minimumSize) {
+            allocated++;
+            final char[] c = super.allocateCharacters(minimumSize);
+            assertTrue(c.length >= minimumSize);
+            return c;
+        }
+
+        @Override
+        public void releaseCharacters(char[] c) {
+            released++;
+            super.releaseCharacters(c);
+        }
+    }
+
+    public void testEncodeWithOpenAddressingVocabulary() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+
+        _initialVocabulary = new SerializerVocabulary(true);
+        for (int i = 0; i < 2; i++) {
+            _initialVocabulary.clear();
+            _finfDocument = parse();
+            compare(specFiDocument);
+        }
+
+        SerializerVocabulary externalVocabulary = new SerializerVocabulary(true);
+        VocabularyGenerator vocabularyGenerator = new VocabularyGenerator(externalVocabulary);
+        vocabularyGenerator.setCharacterContentChunkSizeLimit(0);
+        vocabularyGenerator.setAttributeValueSizeLimit(0);
+        _saxParser.parse(_xmlDocumentURL.openStream(), vocabularyGenerator);
+
+        _initialVocabulary = new SerializerVocabulary(true);
+        _initialVocabulary.setExternalVocabulary(
+                EXTERNAL_VOCABULARY_URI_STRING,
+                externalVocabulary, false);
+        specFiDocument = obtainBytesFromStream(_finfRefVocabDocumentURL.openStream());
+        for (int i = 0; i < 2; i++) {
+            _initialVocabulary.clear();
+            _finfDocument = parse();
+            compare(specFiDocument);
+        }
+
+        try {
+            _initialVocabulary = new SerializerVocabulary(true);
+            _initialVocabulary.setExternalVocabulary(
+                    EXTERNAL_VOCABULARY_URI_STRING,
+                    new SerializerVocabulary(false), false);
+            fail("The tables of the vocabularies are not of the same kind");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testEncodeWithInternedNames() throws Exception {
+        byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        byte[] specRefVocabFiDocument = obtainBytesFromStream(_finfRefVocabDocumentURL.openStream());
+
+        _ds.setInternedNames(true);
+        try {
+            for (boolean openAddressing : new boolean[]{false, true}) {
+                _initialVocabulary = new SerializerVocabulary(openAddressing);
+                for (int i = 0; i < 2; i++) {
+                    _initialVocabulary.clear();
+                    _finfDocument = parse();
+                    compare(specFiDocument);
+                }
+                assertTrue(_initialVocabulary.localName.getInternedKeys());
+
+                SerializerVocabulary externalVocabulary = new SerializerVocabulary(openAddressing);
+                VocabularyGenerator vocabularyGenerator = new VocabularyGenerator(externalVocabulary);
+                vocabularyGenerator.setCharacterContentChunkSizeLimit(0);
+                vocabularyGenerator.setAttributeValueSizeLimit(0);
+                _saxParser.parse(_xmlDocumentURL.openStream(), vocabularyGenerator);
+
+                _initialVocabulary = new SerializerVocabulary(openAddressing);
+                _initialVocabulary.setExternalVocabulary(
+                        EXTERNAL_VOCABULARY_URI_STRING,
+                        externalVocabulary, false);
+                for (int i = 0; i < 2; i++) {
+                    _initialVocabulary.clear();
+                    _finfDocument = parse();
+                    compare(specRefVocabFiDocument);
+                }
+            }
+        } finally {
+            _ds.setInternedNames(false);
+        }
+
+        // Names that are not interned are found
+        SerializerVocabulary vocabulary = new SerializerVocabulary();
+        vocabulary.setInternedNames(true);
+        vocabulary.localName.obtainIndex("name");
+        final int index = vocabulary.localName.get("name");
+        assertEquals(index, vocabulary.localName.get(new String("name")));
+        assertEquals(index, vocabulary.localName.obtainIndex(new String("name")));
+        assertSame(vocabulary.elementName.obtainEntry("name"),
+                vocabulary.elementName.obtainEntry(new String("name")));
+        vocabulary.clear();
+        assertEquals(KeyIntMap.NOT_PRESENT, vocabulary.localName.get("name"));
+    }
+
+    public void testEncodeWithFrozenVocabulary() throws Exception {
+        VocabularyGenerator vocabularyGenerator = new VocabularyGenerator();
+        vocabularyGenerator.setCharacterContentChunkSizeLimit(0);
+        vocabularyGenerator.setAttributeValueSizeLimit(0);
+        _saxParser.parse(_xmlDocumentURL.openStream(), vocabularyGenerator);
+
+        FrozenSerializerVocabulary frozenVocabulary = new FrozenSerializerVocabulary(
+                vocabularyGenerator.getVocabulary(), false);
+
+        // The frozen vocabulary is shared by the serializers and is not
+        // modified when encoding
+        byte[] specFiDocument = obtainBytesFromStream(_finfRefVocabDocumentURL.openStream());
+        for (int i = 0; i < 2; i++) {
+            SAXDocumentSerializer ds = new SAXDocumentSerializer();
+            ds.setMaxCharacterContentChunkSize(6);
+            ds.setMaxAttributeValueSize(6);
+            ds.setExternalVocabulary(EXTERNAL_VOCABULARY_URI_STRING, frozenVocabulary);
+            for (int j = 0; j < 2; j++) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                ds.setOutputStream(baos);
+                _saxParser.parse(_xmlDocumentURL.openStream(), ds);
+                _finfDocument = baos.toByteArray();
+                compare(specFiDocument);
+            }
+        }
+
+        // An entry of the frozen vocabulary is copied when first obtained
+        for (LocalNameQualifiedNamesMap elementName : new LocalNameQualifiedNamesMap[]{
+                new LocalNameQualifiedNamesMap(), new OpenAddressingLocalNameQualifiedNamesMap()}) {
+            elementName.setReadOnlyMap(frozenVocabulary.elementName, false);
+            LocalNameQualifiedNamesMap.Entry frozenEntry = frozenVocabulary.elementName.obtainEntry("Order");
+            final int frozenValueIndex = frozenEntry._valueIndex;
+            LocalNameQualifiedNamesMap.Entry entry = elementName.obtainEntry("Order");
+            assertNotSame(frozenEntry, entry);
+            assertSame(entry, elementName.obtainEntry("Order"));
+            assertSame(frozenEntry._value[0], entry._value[0]);
+            entry.addQualifiedName(new QualifiedName("", "urn:other", "Order"));
+            assertEquals(frozenValueIndex + 1, entry._valueIndex);
+            assertEquals(frozenValueIndex, frozenEntry._valueIndex);
+            assertSame(elementName.obtainEntry("notPresent"), elementName.obtainEntry("notPresent"));
+            elementName.clear();
+            assertEquals(frozenValueIndex, elementName.obtainEntry("Order")._valueIndex);
+        }
+
+        try {
+            frozenVocabulary.localName.obtainIndex("notPresent");
+            fail("A frozen table cannot be modified");
+        } catch (UnsupportedOperationException e) {
+        }
+
+        try {
+            new StAXDocumentSerializer().setExternalVocabulary(
+                    EXTERNAL_VOCABULARY_URI_STRING, frozenVocabulary);
+            fail("The qualified names of the vocabulary are not keyed by local name");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
     public void testEncodeWithMemoryLimitation() throws Exception {
         int memoryLimitation = 20;
         int charsLimitation = memoryLimitation / 2;
@@ -153,6 +428,128 @@ public class EncodingTest extends TestCase {
         }
     }
 
+    public void testEncodeWithMinimumFrequency() throws Exception {
+        final byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        SerializerVocabulary voc = _initialVocabulary;
+
+        voc.clear();
+        parse();
+        final int attributeValues = voc.attributeValue.size();
+        final int characterContentChunks = voc.characterContentChunk.size();
+        try {
+            _ds.setMinAttributeValueFrequency(2);
+            _ds.setMinCharacterContentChunkFrequency(2);
+            assertEquals(2, _ds.getMinAttributeValueFrequency());
+
+            voc.clear();
+            final byte[] finfDocument = parse();
+            final TableAdmission attributeValueAdmission = _ds.getAttributeValueAdmission();
+            final TableAdmission characterContentChunkAdmission = _ds.getCharacterContentChunkAdmission();
+            assertTrue(attributeValueAdmission.getRejected() > 0);
+            assertTrue(characterContentChunkAdmission.getRejected() > 0);
+            assertEquals(attributeValueAdmission.getAdmitted(), voc.attributeValue.size());
+            assertEquals(characterContentChunkAdmission.getAdmitted(), voc.characterContentChunk.size());
+            assertTrue(voc.attributeValue.size() <= attributeValues);
+            assertTrue(voc.characterContentChunk.size() < characterContentChunks);
+
+            assertEquals(content(specFiDocument), content(finfDocument));
+        } finally {
+            _ds.setMinAttributeValueFrequency(1);
+            _ds.setMinCharacterContentChunkFrequency(1);
+        }
+        assertNull(_ds.getAttributeValueAdmission());
+        assertNull(_ds.getAttributeValueStatistics());
+
+        try {
+            _ds.setMinAttributeValueFrequency(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            _ds.setMinCharacterContentChunkFrequency(16);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(1, _ds.getMinCharacterContentChunkFrequency());
+    }
+
+    public void testEncodeWithAdaptiveMaxSize() throws Exception {
+        final byte[] specFiDocument = obtainBytesFromStream(_finfDocumentURL.openStream());
+        SerializerVocabulary voc = _initialVocabulary;
+
+        try {
+            _ds.setAdaptiveMaxSize(true);
+            assertTrue(_ds.getAdaptiveMaxSize());
+            for (int i = 0; i < 8; i++) {
+                voc.clear();
+                final byte[] finfDocument = parse();
+                assertEquals(content(specFiDocument), content(finfDocument));
+
+                assertTrue(_ds.getAdaptedMaxAttributeValueSize() > _ds.getMinAttributeValueSize());
+                assertTrue(_ds.getAdaptedMaxAttributeValueSize() <= _ds.getMaxAttributeValueSize());
+                assertTrue(_ds.getAdaptedMaxCharacterContentChunkSize() > _ds.getMinCharacterContentChunkSize());
+                assertTrue(_ds.getAdaptedMaxCharacterContentChunkSize() <= _ds.getMaxCharacterContentChunkSize());
+            }
+            assertTrue(_ds.getAttributeValueStatistics().getAdmitted() > 0);
+            assertEquals(0, _ds.getCharacterContentChunkStatistics().getRejected());
+        } finally {
+            _ds.setAdaptiveMaxSize(false);
+        }
+        assertNull(_ds.getCharacterContentChunkStatistics());
+        assertEquals(_ds.getMaxCharacterContentChunkSize(), _ds.getAdaptedMaxCharacterContentChunkSize());
+    }
+
+    public void testAdaptMaximumSize() {
+        final TableAdmission admission = new TableAdmission(1);
+        assertEquals(64, admission.adaptMaximumSize(64, 8, 128));
+
+        // Strings seldom repeated halve the size
+        for (int i = 0; i < TableAdmission.MINIMUM_LOOKUPS; i++) {
+            assertTrue(admission.admit(i));
+        }
+        assertEquals(32, admission.adaptMaximumSize(64, 8, 128));
+        assertEquals(32, admission.adaptMaximumSize(32, 8, 128));
+
+        // Strings often repeated double the size, within the bounds
+        for (int i = 0; i < TableAdmission.MINIMUM_LOOKUPS; i++) {
+            admission.hit();
+        }
+        assertEquals(64, admission.adaptMaximumSize(32, 8, 128));
+        for (int i = 0; i < TableAdmission.MINIMUM_LOOKUPS; i++) {
+            admission.hit();
+        }
+        assertEquals(128, admission.adaptMaximumSize(100, 8, 128));
+        assertEquals(2.0 / 3, admission.getHitRate(), 0.0);
+
+        try {
+            new TableAdmission(FrequencySketch.MAXIMUM_FREQUENCY + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private static String content(byte[] finfDocument) throws Exception {
+        final StringBuilder content = new StringBuilder();
+        final SAXDocumentParser saxParser = new SAXDocumentParser();
+        saxParser.setContentHandler(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes atts) {
+                content.append('<').append(qName);
+                for (int i = 0; i < atts.getLength(); i++) {
+                    content.append(' ').append(atts.getQName(i)).append('=').append(atts.getValue(i));
+                }
+                content.append('>');
+            }
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                content.append(ch, start, length);
+            }
+        });
+        saxParser.parse(new ByteArrayInputStream(finfDocument));
+        return content.toString();
+    }
+
     private byte[] parse() throws Exception {
         _ds.setVocabulary(_initialVocabulary);
 
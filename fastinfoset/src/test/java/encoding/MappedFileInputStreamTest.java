@@ -0,0 +1,242 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package encoding;
+
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
+import com.sun.xml.fastinfoset.sax.SAXDocumentSerializer;
+import com.sun.xml.fastinfoset.util.MappedFileInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.FastInfosetSource;
+import org.xml.sax.XMLReader;
+
+public class MappedFileInputStreamTest extends TestCase {
+    
+    public static final String FINF_SPEC_UBL_FINF_RESOURCE = "X.finf/UBL-example.finf";
+    
+    private static final int WINDOW_SIZE = 8;
+    
+    private static final int FILE_SIZE = 20;
+    
+    private Path _file;
+    
+    @Override
+    protected void setUp() throws Exception {
+        final File file = File.createTempFile("mapped", ".finf");
+        file.deleteOnExit();
+        _file = file.toPath();
+        
+        final byte[] b = new byte[FILE_SIZE];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) (i + 0xF0);
+        }
+        Files.write(_file, b);
+    }
+    
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(_file);
+    }
+    
+    public void testReadAcrossWindows() throws Exception {
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            final byte[] b = new byte[5];
+            // A read does not extend beyond the end of a window
+            assertEquals(5, s.read(b, 0, 5));
+            assertEquals(3, s.read(b, 0, 5));
+            assertEquals(0xF7, b[2] & 0xFF);
+            
+            // The next window is mapped when the current window is consumed
+            assertEquals(0xF8, s.read());
+            assertEquals(5, s.read(b, 0, 5));
+            assertEquals(0xFD, b[4] & 0xFF);
+            assertEquals(0xFE, s.read());
+            assertEquals(0xFF, s.read());
+            assertEquals(0x00, s.read());
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            final byte[] b = new byte[3];
+            int n;
+            while ((n = s.read(b, 0, b.length)) != -1) {
+                out.write(b, 0, n);
+            }
+        }
+        assertTrue(Arrays.equals(Files.readAllBytes(_file), out.toByteArray()));
+    }
+    
+    public void testSkipAcrossWindows() throws Exception {
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            assertEquals(0, s.skip(0));
+            assertEquals(10, s.skip(10));
+            assertEquals(0xFA, s.read());
+            
+            // Within the window
+            assertEquals(2, s.skip(2));
+            assertEquals(0xFD, s.read());
+            
+            // Into the last window
+            assertEquals(3, s.skip(3));
+            assertEquals(0x01, s.read());
+            
+            // Beyond the end of the file
+            assertEquals(2, s.skip(100));
+            assertEquals(-1, s.read());
+            assertEquals(0, s.skip(1));
+        }
+    }
+    
+    public void testAvailable() throws Exception {
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            assertEquals(FILE_SIZE, s.available());
+            
+            final byte[] b = new byte[WINDOW_SIZE];
+            assertEquals(WINDOW_SIZE - 1, s.read(b, 0, WINDOW_SIZE - 1));
+            assertEquals(FILE_SIZE - WINDOW_SIZE + 1, s.available());
+            
+            // At the end of a window, before the next window is mapped
+            assertEquals(1, s.read(b, 0, WINDOW_SIZE));
+            assertEquals(FILE_SIZE - WINDOW_SIZE, s.available());
+            
+            assertEquals(WINDOW_SIZE, s.read(b, 0, WINDOW_SIZE));
+            assertEquals(FILE_SIZE - 2 * WINDOW_SIZE, s.available());
+            
+            assertEquals(4, s.skip(4));
+            assertEquals(0, s.available());
+        }
+    }
+    
+    public void testEndOfFile() throws Exception {
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            final byte[] b = new byte[FILE_SIZE];
+            assertEquals(WINDOW_SIZE, s.read(b, 0, b.length));
+            assertEquals(WINDOW_SIZE, s.read(b, 0, b.length));
+            assertEquals(FILE_SIZE - 2 * WINDOW_SIZE, s.read(b, 0, b.length));
+            assertEquals(-1, s.read(b, 0, b.length));
+            assertEquals(-1, s.read());
+            assertEquals(0, s.read(b, 0, 0));
+        }
+        
+        Files.write(_file, new byte[0]);
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            assertEquals(0, s.available());
+            assertEquals(-1, s.read());
+            assertEquals(-1, s.read(new byte[1], 0, 1));
+        }
+    }
+    
+    public void testNextWindow() throws Exception {
+        try (MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE)) {
+            assertEquals(0xF0, s.read());
+            
+            // The unread octets of the current window
+            ByteBuffer window = s.nextWindow();
+            assertEquals(WINDOW_SIZE - 1, window.remaining());
+            assertEquals(0xF1, window.get(0) & 0xFF);
+            assertFalse(window.hasArray());
+            
+            window = s.nextWindow();
+            assertEquals(WINDOW_SIZE, window.remaining());
+            assertEquals(0xF8, window.get(0) & 0xFF);
+            
+            assertEquals(0x00, s.read());
+            window = s.nextWindow();
+            assertEquals(FILE_SIZE - 2 * WINDOW_SIZE - 1, window.remaining());
+            assertEquals(0x01, window.get(0) & 0xFF);
+            
+            assertNull(s.nextWindow());
+            assertEquals(-1, s.read());
+        }
+    }
+    
+    public void testDecodeAcrossWindows() throws Exception {
+        final byte[] specFiDocument = readResource(FINF_SPEC_UBL_FINF_RESOURCE);
+        Files.write(_file, specFiDocument);
+        
+        // The decoder reads the mapped windows and items span the windows
+        for (int windowSize : new int[] {1, 7, 100, MappedFileInputStream.DEFAULT_WINDOW_SIZE}) {
+            try (MappedFileInputStream s = new MappedFileInputStream(_file, windowSize)) {
+                assertEquals(specFiDocument.length, s.available());
+                assertTrue(Arrays.equals(specFiDocument, decode(s)));
+                assertEquals(0, s.available());
+            }
+        }
+        
+        final FastInfosetSource source = new FastInfosetSource(_file);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final SAXDocumentSerializer serializer = new SAXDocumentSerializer();
+        serializer.setMaxCharacterContentChunkSize(6);
+        serializer.setMaxAttributeValueSize(6);
+        serializer.setOutputStream(out);
+        final XMLReader reader = source.getXMLReader();
+        reader.setContentHandler(serializer);
+        reader.parse(source.getInputSource());
+        assertTrue(Arrays.equals(specFiDocument, out.toByteArray()));
+    }
+    
+    public void testClosed() throws Exception {
+        final MappedFileInputStream s = new MappedFileInputStream(_file, WINDOW_SIZE);
+        s.close();
+        s.close();
+        try {
+            s.read();
+            fail();
+        } catch (IOException e) {
+        }
+        
+        try {
+            new MappedFileInputStream(_file, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+    
+    private byte[] decode(InputStream s) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final SAXDocumentSerializer serializer = new SAXDocumentSerializer();
+        serializer.setMaxCharacterContentChunkSize(6);
+        serializer.setMaxAttributeValueSize(6);
+        serializer.setOutputStream(out);
+        final SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setContentHandler(serializer);
+        parser.parse(s);
+        return out.toByteArray();
+    }
+    
+    private byte[] readResource(String name) throws Exception {
+        try (InputStream s = getClass().getClassLoader().getResourceAsStream(name)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] b = new byte[1024];
+            int n;
+            while ((n = s.read(b)) != -1) {
+                out.write(b, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
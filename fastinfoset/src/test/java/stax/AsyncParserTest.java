@@ -0,0 +1,284 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import com.sun.xml.fastinfoset.EncodingConstants;
+import com.sun.xml.fastinfoset.InformationItemScanner;
+import com.sun.xml.fastinfoset.stax.AsyncStAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import junit.framework.TestCase;
+
+public class AsyncParserTest extends TestCase implements XMLStreamConstants {
+    
+    public static final String FINF_SPEC_UBL_FINF_RESOURCE = "X.finf/UBL-example.finf";
+    
+    public void testSpecDocument() throws Exception {
+        final byte[] document = readResource(FINF_SPEC_UBL_FINF_RESOURCE);
+        final List<String> expected = events(new StAXDocumentParser(new ByteArrayInputStream(document)));
+        
+        for (int chunk : new int[] {1, 2, 7, 100, document.length}) {
+            assertEquals("Chunk size " + chunk, expected, feed(document, chunk));
+        }
+    }
+    
+    public void testNamespacesAndOctets() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.setPrefix("ns1", "http://envelope");
+        writer.writeStartElement("http://envelope", "Envelope");
+        writer.writeNamespace("ns1", "http://envelope");
+        writer.writeAttribute("id", "1");
+        writer.writeComment("comment");
+        writer.writeProcessingInstruction("target", "data");
+        for (int i = 0; i < 3; i++) {
+            final byte[] octets = new byte[1000 + i];
+            for (int j = 0; j < octets.length; j++) {
+                octets[j] = (byte)(i + j);
+            }
+            writer.writeOctets(octets, 0, octets.length);
+        }
+        writer.writeStartElement("http://envelope", "Body");
+        writer.writeEmptyElement("Empty");
+        writer.writeCharacters("text");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        
+        final byte[] document = out.toByteArray();
+        final List<String> expected = events(new StAXDocumentParser(new ByteArrayInputStream(document)));
+        
+        for (int chunk : new int[] {1, 3, 64, document.length}) {
+            assertEquals("Chunk size " + chunk, expected, feed(document, chunk));
+        }
+    }
+    
+    public void testByteBufferInput() throws Exception {
+        final byte[] document = readResource(FINF_SPEC_UBL_FINF_RESOURCE);
+        final List<String> expected = events(new StAXDocumentParser(new ByteArrayInputStream(document)));
+        
+        final AsyncStAXDocumentParser parser = new AsyncStAXDocumentParser();
+        final ByteBuffer b = ByteBuffer.allocateDirect(document.length);
+        b.put(document).flip();
+        parser.feedInput(b);
+        assertEquals(0, b.remaining());
+        parser.endOfInput();
+        
+        assertEquals(expected, events(parser));
+    }
+    
+    public void testIncompleteDocument() throws Exception {
+        final byte[] document = readResource(FINF_SPEC_UBL_FINF_RESOURCE);
+        
+        final AsyncStAXDocumentParser parser = new AsyncStAXDocumentParser();
+        assertTrue(parser.needMoreInput());
+        parser.feedInput(document, 0, document.length / 2);
+        assertFalse(parser.needMoreInput());
+        
+        int eventType;
+        while ((eventType = parser.next()) != AsyncStAXDocumentParser.EVENT_INCOMPLETE) {
+            assertTrue(eventType != END_DOCUMENT);
+        }
+        assertTrue(parser.needMoreInput());
+        
+        parser.endOfInput();
+        try {
+            while (parser.next() != END_DOCUMENT) {
+            }
+            fail("Incomplete document decoded");
+        } catch (XMLStreamException e) {
+            // Expected
+        }
+        
+        try {
+            parser.feedInput(document, 0, 1);
+            fail("Input fed after the end of input");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+    
+    public void testEmptyInput() throws Exception {
+        final AsyncStAXDocumentParser parser = new AsyncStAXDocumentParser();
+        assertEquals(AsyncStAXDocumentParser.EVENT_INCOMPLETE, parser.next());
+        assertTrue(parser.needMoreInput());
+        
+        parser.feedInput(new byte[0], 0, 0);
+        assertTrue(parser.needMoreInput());
+        parser.feedInput(ByteBuffer.allocate(0));
+        assertTrue(parser.needMoreInput());
+        assertEquals(AsyncStAXDocumentParser.EVENT_INCOMPLETE, parser.next());
+    }
+    
+    public void testReset() throws Exception {
+        final byte[] document = readResource(FINF_SPEC_UBL_FINF_RESOURCE);
+        final List<String> expected = events(new StAXDocumentParser(new ByteArrayInputStream(document)));
+        
+        final AsyncStAXDocumentParser parser = new AsyncStAXDocumentParser();
+        assertEquals(expected, feed(parser, document, document.length));
+        
+        parser.reset();
+        assertEquals(START_DOCUMENT, parser.getEventType());
+        assertTrue(parser.needMoreInput());
+        assertEquals(expected, feed(parser, document, 7));
+        
+        // Reset part way through a document
+        parser.reset();
+        parser.feedInput(document, 0, document.length / 2);
+        while (parser.next() != AsyncStAXDocumentParser.EVENT_INCOMPLETE) {
+        }
+        parser.reset();
+        assertTrue(parser.needMoreInput());
+        assertEquals(expected, feed(parser, document, 100));
+    }
+    
+    public void testLargeCharactersInSmallChunks() throws Exception {
+        final char[] text = new char[4 * 1024 * 1024];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (char)('a' + i % 26);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StAXDocumentSerializer writer = new StAXDocumentSerializer(out);
+        writer.writeStartDocument();
+        writer.writeStartElement("e");
+        writer.writeCharacters(text, 0, text.length);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        final byte[] document = out.toByteArray();
+        
+        // The character information item follows the element
+        final InformationItemScanner scanner = new InformationItemScanner();
+        final int itemStart = scanner.scanDocumentStart(document, 0, document.length, false);
+        final int itemEnd = scanner.scanItem(document, itemStart, document.length, false);
+        assertTrue(itemEnd - itemStart > text.length);
+        
+        // Once the length of the item is known the octets of the item are
+        // not scanned again. Replacing the first octet of the item with a
+        // terminator would otherwise complete the item
+        final Random random = new Random(0);
+        int end = itemStart + 1024 + random.nextInt(7 * 1024);
+        assertEquals(InformationItemScanner.INCOMPLETE, scanner.scanItem(document, itemStart, end, false));
+        assertEquals(itemEnd - itemStart, scanner.getRequiredLength());
+        final byte[] b = document.clone();
+        b[itemStart] = (byte)EncodingConstants.TERMINATOR;
+        while ((end += 1024 + random.nextInt(7 * 1024)) < itemEnd) {
+            assertEquals(InformationItemScanner.INCOMPLETE, scanner.scanItem(b, itemStart, end, false));
+        }
+        assertEquals(itemEnd, scanner.scanItem(document, itemStart, Math.min(end, document.length), false));
+        assertEquals(0, scanner.getRequiredLength());
+        
+        // Feed the document in chunks of 1 to 8 KB
+        final AsyncStAXDocumentParser parser = new AsyncStAXDocumentParser();
+        final StringBuilder characters = new StringBuilder();
+        int offset = 0;
+        int eventType;
+        while ((eventType = parser.next()) != END_DOCUMENT) {
+            if (eventType == AsyncStAXDocumentParser.EVENT_INCOMPLETE) {
+                final int length = Math.min(1024 + random.nextInt(7 * 1024), document.length - offset);
+                parser.feedInput(document, offset, length);
+                offset += length;
+            } else if (eventType == CHARACTERS) {
+                characters.append(parser.getTextCharacters(), parser.getTextStart(), parser.getTextLength());
+            }
+        }
+        assertEquals(document.length, offset);
+        assertEquals(new String(text), characters.toString());
+    }
+    
+    private List<String> feed(byte[] document, int chunk) throws XMLStreamException {
+        return feed(new AsyncStAXDocumentParser(), document, chunk);
+    }
+    
+    private List<String> feed(AsyncStAXDocumentParser parser, byte[] document, int chunk) throws XMLStreamException {
+        final List<String> events = new ArrayList<>();
+        int offset = 0;
+        while (true) {
+            final int eventType = parser.next();
+            if (eventType == AsyncStAXDocumentParser.EVENT_INCOMPLETE) {
+                assertTrue(offset < document.length);
+                final int length = Math.min(chunk, document.length - offset);
+                parser.feedInput(document, offset, length);
+                offset += length;
+                if (offset == document.length) {
+                    parser.endOfInput();
+                }
+                continue;
+            }
+            
+            events.add(event(parser));
+            if (eventType == END_DOCUMENT) {
+                return events;
+            }
+        }
+    }
+    
+    private List<String> events(XMLStreamReader reader) throws XMLStreamException {
+        final List<String> events = new ArrayList<>();
+        while (reader.hasNext()) {
+            reader.next();
+            events.add(event(reader));
+        }
+        return events;
+    }
+    
+    private String event(XMLStreamReader reader) {
+        switch (reader.getEventType()) {
+            case START_ELEMENT:
+                StringBuilder b = new StringBuilder("<").append(reader.getName());
+                for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                    b.append(" xmlns:").append(reader.getNamespacePrefix(i))
+                            .append("=").append(reader.getNamespaceURI(i));
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    b.append(" ").append(reader.getAttributeName(i))
+                            .append("=").append(reader.getAttributeValue(i));
+                }
+                return b.append(">").toString();
+            case END_ELEMENT:
+                return "</" + reader.getName() + ">";
+            case CHARACTERS:
+            case COMMENT:
+                return reader.getEventType() + ":" + reader.getText();
+            case PROCESSING_INSTRUCTION:
+                return "?" + reader.getPITarget() + ":" + reader.getPIData();
+            default:
+                return String.valueOf(reader.getEventType());
+        }
+    }
+    
+    private byte[] readResource(String name) throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+}
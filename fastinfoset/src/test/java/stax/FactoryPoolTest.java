@@ -0,0 +1,234 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package stax;
+
+import com.sun.xml.fastinfoset.algorithm.DeflateEncodingAlgorithm;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import com.sun.xml.fastinfoset.stax.StAXManager;
+import com.sun.xml.fastinfoset.stax.factory.StAXInputFactory;
+import com.sun.xml.fastinfoset.stax.factory.StAXOutputFactory;
+import com.sun.xml.fastinfoset.util.ConcurrentBufferRecycler;
+import com.sun.xml.fastinfoset.vocab.ParserVocabulary;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithm;
+import org.jvnet.fastinfoset.FastInfosetSerializer;
+
+public class FactoryPoolTest extends TestCase implements XMLStreamConstants {
+    
+    public void testPooledSerializer() throws Exception {
+        XMLOutputFactory factory = new StAXOutputFactory();
+        factory.setProperty(StAXManager.POOL_SIZE, 1);
+        
+        XMLStreamWriter first = factory.createXMLStreamWriter(new ByteArrayOutputStream());
+        // Close without ending the document
+        first.writeStartDocument();
+        first.writeStartElement("a");
+        first.writeAttribute("x", "1");
+        first.close();
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLStreamWriter writer = factory.createXMLStreamWriter(out);
+        assertSame(first, writer);
+        writeDocument(writer);
+        writer.close();
+        
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writeDocument(new StAXOutputFactory().createXMLStreamWriter(expected));
+        assertTrue(Arrays.equals(expected.toByteArray(), out.toByteArray()));
+        
+        // A second serializer is not retained by a pool of size 1
+        XMLStreamWriter w1 = factory.createXMLStreamWriter(new ByteArrayOutputStream());
+        XMLStreamWriter w2 = factory.createXMLStreamWriter(new ByteArrayOutputStream());
+        assertNotSame(w1, w2);
+        w1.close();
+        w2.close();
+        assertSame(w1, factory.createXMLStreamWriter(new ByteArrayOutputStream()));
+    }
+    
+    public void testPooledParser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDocument(new StAXOutputFactory().createXMLStreamWriter(out));
+        byte[] document = out.toByteArray();
+        
+        XMLInputFactory factory = new StAXInputFactory();
+        factory.setProperty(StAXManager.POOL_SIZE, "2");
+        factory.setProperty(StAXManager.POOL_THREAD_AFFINITY, Boolean.TRUE);
+        assertEquals(2, factory.getProperty(StAXManager.POOL_SIZE));
+        
+        XMLStreamReader first = factory.createXMLStreamReader(new ByteArrayInputStream(document));
+        // Close in the middle of the document
+        assertEquals(START_ELEMENT, first.next());
+        assertEquals(START_ELEMENT, first.next());
+        first.close();
+        first.close();
+        
+        XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(document));
+        assertSame(first, reader);
+        assertNotSame(first, factory.createXMLStreamReader(new ByteArrayInputStream(document)));
+        
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("root", reader.getLocalName());
+        assertEquals("http://a", reader.getNamespaceURI());
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("child", reader.getLocalName());
+        assertEquals("1", reader.getAttributeValue(null, "x"));
+        assertEquals(CHARACTERS, reader.next());
+        assertEquals("text", reader.getText());
+        assertEquals(END_ELEMENT, reader.next());
+        assertEquals(END_ELEMENT, reader.next());
+        assertEquals(END_DOCUMENT, reader.next());
+        reader.close();
+        
+        factory.setProperty(StAXManager.POOL_SIZE, 0);
+        assertNotSame(reader, factory.createXMLStreamReader(new ByteArrayInputStream(document)));
+    }
+    
+    public void testSerializerPoolRetainedOnPropertyChange() throws Exception {
+        XMLOutputFactory factory = new StAXOutputFactory();
+        factory.setProperty(StAXManager.POOL_SIZE, 1);
+        
+        XMLStreamWriter first = factory.createXMLStreamWriter(new ByteArrayOutputStream());
+        assertEquals(Boolean.FALSE, first.getProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES));
+        first.close();
+        
+        // Setting the pool size to its value retains the pool
+        factory.setProperty(StAXManager.POOL_SIZE, "1");
+        factory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, Boolean.TRUE);
+        
+        XMLStreamWriter writer = factory.createXMLStreamWriter(new ByteArrayOutputStream());
+        assertSame(first, writer);
+        assertEquals(Boolean.TRUE, writer.getProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES));
+        writer.close();
+        
+        factory.setProperty(StAXManager.POOL_THREAD_AFFINITY, Boolean.TRUE);
+        assertNotSame(first, factory.createXMLStreamWriter(new ByteArrayOutputStream()));
+    }
+    
+    public void testPooledParserRestoresDefaults() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDocument(new StAXOutputFactory().createXMLStreamWriter(out));
+        byte[] document = out.toByteArray();
+        
+        XMLInputFactory factory = new StAXInputFactory();
+        factory.setProperty(StAXManager.POOL_SIZE, 1);
+        
+        StAXDocumentParser first = (StAXDocumentParser)factory.createXMLStreamReader(
+                new ByteArrayInputStream(document));
+        final boolean stringInterning = first.getStringInterning();
+        Map<String, ParserVocabulary> vocabularies = new HashMap<>();
+        vocabularies.put("urn:v", new ParserVocabulary());
+        first.setExternalVocabularies(vocabularies);
+        Map<String, EncodingAlgorithm> algorithms = new HashMap<>();
+        algorithms.put("urn:a", null);
+        first.setRegisteredEncodingAlgorithms(algorithms);
+        first.setStringInterning(!stringInterning);
+        first.setParseFragments(true);
+        first.setForceStreamClose(true);
+        first.setDynamicTableSizeLimit(10);
+        first.setVocabulary(new ParserVocabulary());
+        first.close();
+        
+        StAXDocumentParser reader = (StAXDocumentParser)factory.createXMLStreamReader(
+                new ByteArrayInputStream(document));
+        assertSame(first, reader);
+        assertNull(reader.getExternalVocabularies());
+        assertTrue(reader.getRegisteredEncodingAlgorithms().isEmpty());
+        assertEquals(stringInterning, reader.getStringInterning());
+        assertFalse(reader.getParseFragments());
+        assertFalse(reader.getForceStreamClose());
+        assertEquals(Integer.MAX_VALUE, reader.getDynamicTableSizeLimit());
+        
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("root", reader.getLocalName());
+        assertEquals(START_ELEMENT, reader.next());
+        assertEquals("child", reader.getLocalName());
+        reader.close();
+    }
+    
+    public void testPooledSerializerRestoresDefaults() throws Exception {
+        XMLOutputFactory factory = new StAXOutputFactory();
+        factory.setProperty(StAXManager.POOL_SIZE, 1);
+        
+        StAXDocumentSerializer first = (StAXDocumentSerializer)factory.createXMLStreamWriter(
+                new ByteArrayOutputStream());
+        first.setVocabulary(new SerializerVocabulary());
+        first.setSession(true);
+        first.setBufferRecycler(new ConcurrentBufferRecycler());
+        first.setCharacterContentCompressionAlgorithmURI(DeflateEncodingAlgorithm.URI);
+        first.setDynamicTableSizeLimit(10);
+        first.setMinAttributeValueFrequency(2);
+        first.setMinCharacterContentChunkFrequency(3);
+        first.setAdaptiveMaxSize(true);
+        first.setInternedNames(true);
+        first.setTransportCompression(true);
+        first.setIgnoreComments(true);
+        first.setMaxAttributeValueSize(6);
+        writeDocument(first);
+        first.close();
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer writer = (StAXDocumentSerializer)factory.createXMLStreamWriter(out);
+        assertSame(first, writer);
+        assertFalse(writer.getSession());
+        assertNull(writer.getBufferRecycler());
+        assertNull(writer.getCharacterContentCompressionAlgorithmURI());
+        assertEquals(Integer.MAX_VALUE, writer.getDynamicTableSizeLimit());
+        assertEquals(1, writer.getMinAttributeValueFrequency());
+        assertEquals(1, writer.getMinCharacterContentChunkFrequency());
+        assertFalse(writer.getAdaptiveMaxSize());
+        assertNull(writer.getAttributeValueStatistics());
+        assertFalse(writer.getInternedNames());
+        assertFalse(writer.getTransportCompression());
+        assertFalse(writer.getIgnoreComments());
+        assertEquals(FastInfosetSerializer.MAX_ATTRIBUTE_VALUE_SIZE, writer.getMaxAttributeValueSize());
+        
+        // The document is encoded as by a new serializer
+        writeDocument(writer);
+        writer.close();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writeDocument(new StAXOutputFactory().createXMLStreamWriter(expected));
+        assertTrue(Arrays.equals(expected.toByteArray(), out.toByteArray()));
+    }
+    
+    private void writeDocument(XMLStreamWriter writer) throws Exception {
+        writer.writeStartDocument();
+        writer.setPrefix("a", "http://a");
+        writer.writeStartElement("http://a", "root");
+        writer.writeNamespace("a", "http://a");
+        writer.writeStartElement("child");
+        writer.writeAttribute("x", "1");
+        writer.writeCharacters("text");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+    }
+}
@@ -20,15 +20,25 @@
 package stax;
 
 import com.sun.xml.fastinfoset.algorithm.BASE64EncodingAlgorithm;
+import com.sun.xml.fastinfoset.sax.SAXDocumentParser;
 import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
 import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import junit.framework.TestCase;
+import org.jvnet.fastinfoset.EncodingAlgorithmIndexes;
+import org.jvnet.fastinfoset.sax.EncodingAlgorithmContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * @author Alexey Stashok
@@ -132,6 +142,117 @@ public class OctetEncodingTest extends TestCase implements
         in.close();
     }
     
+    public void testStreamedOctets() throws Exception {
+        Random random = new Random(7);
+        byte[][] chunks = new byte[4][];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new byte[100000 + i * 1001];
+            random.nextBytes(chunks[i]);
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer(out);
+        serializer.writeStartDocument();
+        serializer.writeStartElement("root");
+        for (byte[] chunk : chunks) {
+            serializer.writeStartElement("data");
+            serializer.writeOctets(chunk, 0, chunk.length);
+            serializer.writeEndElement();
+        }
+        serializer.writeEndElement();
+        serializer.writeEndDocument();
+        serializer.flush();
+        final byte[] document = out.toByteArray();
+        
+        StAXDocumentParser reader = new StAXDocumentParser(new ByteArrayInputStream(document));
+        assertEquals(START_ELEMENT, reader.nextTag());
+        
+        // Read the stream in small windows
+        assertEquals(START_ELEMENT, reader.nextTag());
+        assertEquals(CHARACTERS, reader.next());
+        assertTrue(reader.hasTextAlgorithmBytes());
+        assertEquals(chunks[0].length, reader.getTextAlgorithmLength());
+        assertTrue(Arrays.equals(chunks[0], readFully(reader.getTextAlgorithmStream(), 100)));
+        assertEquals(END_ELEMENT, reader.next());
+        
+        // Read part of the stream, the remaining octets are skipped
+        assertEquals(START_ELEMENT, reader.nextTag());
+        assertEquals(CHARACTERS, reader.next());
+        InputStream s = reader.getTextAlgorithmStream();
+        assertEquals(chunks[1][0] & 0xFF, s.read());
+        try {
+            reader.getTextAlgorithmBytesClone();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(END_ELEMENT, reader.next());
+        assertEquals(-1, s.read());
+        
+        // Access the data as an array of octets
+        assertEquals(START_ELEMENT, reader.nextTag());
+        assertEquals(CHARACTERS, reader.next());
+        assertTrue(Arrays.equals(chunks[2], reader.getTextAlgorithmBytesClone()));
+        assertEquals(END_ELEMENT, reader.next());
+        
+        // Peek at the next event without reading the stream
+        assertEquals(START_ELEMENT, reader.nextTag());
+        assertEquals(CHARACTERS, reader.next());
+        assertEquals(END_ELEMENT, reader.peekNext());
+        assertTrue(Arrays.equals(chunks[3], readFully(reader.getTextAlgorithmStream(), 65536)));
+        assertEquals(END_ELEMENT, reader.next());
+        
+        assertEquals(END_ELEMENT, reader.nextTag());
+        assertEquals(END_DOCUMENT, reader.next());
+        
+        // Receive the octets as a stream and, by default, as objects
+        final List<byte[]> streamed = new ArrayList<>();
+        final List<byte[]> objects = new ArrayList<>();
+        SAXDocumentParser parser = new SAXDocumentParser();
+        parser.setContentHandler(new DefaultHandler());
+        parser.setEncodingAlgorithmContentHandler(new EncodingAlgorithmContentHandler() {
+            @Override
+            public void octets(String URI, int algorithm, byte[] b, int start, int length) {
+                fail();
+            }
+            
+            @Override
+            public void object(String URI, int algorithm, Object o) {
+                assertEquals(EncodingAlgorithmIndexes.BASE64, algorithm);
+                objects.add((byte[]) o);
+            }
+            
+            @Override
+            public void octets(String URI, int algorithm, InputStream s, int length) throws SAXException {
+                if (streamed.size() == objects.size()) {
+                    try {
+                        streamed.add(readFully(s, 4096));
+                    } catch (IOException e) {
+                        throw new SAXException(e);
+                    }
+                } else {
+                    EncodingAlgorithmContentHandler.super.octets(URI, algorithm, s, length);
+                }
+            }
+        });
+        parser.parse(new ByteArrayInputStream(document));
+        
+        assertEquals(2, streamed.size());
+        assertEquals(2, objects.size());
+        for (int i = 0; i < chunks.length; i++) {
+            assertTrue(Arrays.equals(chunks[i], (i % 2 == 0) ? streamed.get(i / 2) : objects.get(i / 2)));
+        }
+    }
+    
+    private static byte[] readFully(InputStream s, int window) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] b = new byte[window];
+        int n;
+        while ((n = s.read(b)) != -1) {
+            out.write(b, 0, n);
+        }
+        return out.toByteArray();
+    }
+    
     private String createRandomString(int length) {
         StringBuilder sb = new StringBuilder(length);
         Random random = new Random();
@@ -24,6 +24,8 @@ import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import junit.framework.TestCase;
@@ -66,6 +68,96 @@ public class StringTest extends TestCase {
         }
     }
     
+    public void testUtf8Strings() throws Exception {
+        String ascii = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 ~";
+        String[] others = {"\t", "\r\n", "\u007F", "\u00E9", "\u4E2D\u6587", "\uD83D\uDE00"};
+        
+        List<String> strings = new ArrayList<>();
+        for (int length = 1; length < 40; length++) {
+            String s = ascii.substring(0, length);
+            strings.add(s);
+            for (String other : others) {
+                for (int i = 0; i <= length; i += 3) {
+                    strings.add(s.substring(0, i) + other + s.substring(i));
+                }
+                strings.add(other + other + s + other);
+            }
+        }
+        
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        XMLStreamWriter w = new StAXDocumentSerializer(baos);
+        w.writeStartDocument();
+        w.writeStartElement("root");
+        // Each string is written twice so indexed strings are also decoded
+        for (int j = 0; j < 2; j++) {
+            for (String string : strings) {
+                w.writeStartElement("content");
+                w.writeAttribute("value", string);
+                w.writeCharacters(string);
+                w.writeEndElement();
+            }
+        }
+        w.writeEndElement();
+        w.writeEndDocument();
+        w.flush();
+        
+        XMLStreamReader r = new StAXDocumentParser(new ByteArrayInputStream(baos.toByteArray()));
+        r.nextTag();
+        for (int j = 0; j < 2; j++) {
+            for (String string : strings) {
+                assertEquals(XMLStreamReader.START_ELEMENT, r.nextTag());
+                assertEquals(string, r.getAttributeValue(null, "value"));
+                assertEquals(XMLStreamReader.CHARACTERS, r.next());
+                assertEquals(string, r.getText());
+                assertEquals(XMLStreamReader.END_ELEMENT, r.next());
+            }
+        }
+    }
+    
+    public void testUtf8StringLengths() throws Exception {
+        // The lengths of the UTF-8 encoded strings cross the limits of
+        // the encoded lengths of octet strings
+        String[] others = {"a", "\u00E9", "\u4E2D", "\uD83D\uDE00"};
+
+        List<String> strings = new ArrayList<>();
+        for (String other : others) {
+            StringBuilder b = new StringBuilder();
+            for (int length = 1; length < 400; length++) {
+                b.append(length % 5 == 0 ? other : "x");
+                strings.add(b.toString());
+            }
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        XMLStreamWriter w = new StAXDocumentSerializer(baos);
+        w.writeStartDocument();
+        w.writeStartElement("root");
+        for (String string : strings) {
+            w.writeStartElement("content");
+            w.writeAttribute("value", string);
+            w.writeCharacters(string);
+            w.writeEndElement();
+            w.writeStartElement("x" + string.replaceAll("[^x]", "y"));
+            w.writeEndElement();
+        }
+        w.writeEndElement();
+        w.writeEndDocument();
+        w.flush();
+
+        XMLStreamReader r = new StAXDocumentParser(new ByteArrayInputStream(baos.toByteArray()));
+        r.nextTag();
+        for (String string : strings) {
+            assertEquals(XMLStreamReader.START_ELEMENT, r.nextTag());
+            assertEquals(string, r.getAttributeValue(null, "value"));
+            assertEquals(XMLStreamReader.CHARACTERS, r.next());
+            assertEquals(string, r.getText());
+            assertEquals(XMLStreamReader.END_ELEMENT, r.next());
+            assertEquals(XMLStreamReader.START_ELEMENT, r.nextTag());
+            assertEquals("x" + string.replaceAll("[^x]", "y"), r.getLocalName());
+            assertEquals(XMLStreamReader.END_ELEMENT, r.nextTag());
+        }
+    }
+
     InputStream createDocumentWithIndexedStrings() throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         StAXDocumentSerializer s = new StAXDocumentSerializer(baos);
@@ -1,6 +1,7 @@
 /*
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 2004, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * Oracle licenses this file to You under the Apache License, Version 2.0
@@ -18,6 +19,9 @@
 
 package com.sun.xml.fastinfoset.streambuffer;
 
+import com.sun.xml.fastinfoset.algorithm.BASE64EncodingAlgorithm;
+import com.sun.xml.fastinfoset.algorithm.HexadecimalEncodingAlgorithm;
+import com.sun.xml.fastinfoset.types.ValueInstance;
 import com.sun.xml.fastinfoset.types.XSDataType;
 import com.sun.xml.fastinfoset.types.LexicalSpaceConvertor;
 import com.sun.xml.stream.buffer.AbstractCreator;
@@ -30,6 +34,7 @@ import com.sun.xml.stream.buffer.sax.Features;
 import com.sun.xml.stream.buffer.sax.Properties;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import javax.xml.parsers.SAXParserFactory;
@@ -70,6 +75,18 @@ public class TypedSAXBufferCreator extends AbstractCreator
 
     protected Set<XSDataType> _textContentTypes;
     
+    /**
+     * The type of the text content that is decoded as it is reported,
+     * either BASE64BINARY or HEXBINARY, otherwise null.
+     */
+    protected XSDataType _binaryTextContentType;
+    
+    protected BASE64EncodingAlgorithm.IncrementalDecoder _base64Decoder =
+            new BASE64EncodingAlgorithm.IncrementalDecoder();
+    
+    protected HexadecimalEncodingAlgorithm.IncrementalDecoder _hexadecimalDecoder =
+            new HexadecimalEncodingAlgorithm.IncrementalDecoder();
+    
     public static XMLStreamBuffer create(
             Map<String, Set<XSDataType>> elements, 
             Map<String, Set<XSDataType>> attributes, 
@@ -149,6 +166,7 @@ public class TypedSAXBufferCreator extends AbstractCreator
     public void reset() {
         _buffer = null;
         _namespaceAttributesPtr = 0;
+        _binaryTextContentType = null;
     }
     
     
@@ -176,6 +194,7 @@ public class TypedSAXBufferCreator extends AbstractCreator
         // Obtain the XS types associated with the local name of this 
         // element
         _textContentTypes = _elements.get(localName);
+        startBinaryTextContent();
         
         storeQualifiedName(T_ELEMENT_LN,
                 uri, localName, qName);
@@ -201,6 +220,21 @@ public class TypedSAXBufferCreator extends AbstractCreator
     @Override
     public void characters(char ch[], int start, int length) throws SAXException {
         _storeTextContent = true;
+        
+        if (_binaryTextContentType != null) {
+            try {
+                if (_binaryTextContentType == XSDataType.BASE64BINARY) {
+                    _base64Decoder.decode(ch, start, length);
+                } else {
+                    _hexadecimalDecoder.decode(ch, start, length);
+                }
+                return;
+            } catch (IllegalArgumentException e) {
+                // Not in the lexical space, the text content is stored
+                // as characters
+                abandonBinaryTextContent();
+            }
+        }
         _textContent.append(ch, start, length);
     }
     
@@ -227,7 +261,72 @@ public class TypedSAXBufferCreator extends AbstractCreator
     
     //
     
+    private void startBinaryTextContent() {
+        _binaryTextContentType = null;
+        if (_textContentTypes == null || _textContentTypes.size() != 1) {
+            return;
+        }
+        
+        // The octets of an element of a single binary type are decoded
+        // from each chunk of characters as it is reported
+        final XSDataType type = _textContentTypes.iterator().next();
+        if (type == XSDataType.BASE64BINARY) {
+            _base64Decoder.reset();
+            _binaryTextContentType = type;
+        } else if (type == XSDataType.HEXBINARY) {
+            _hexadecimalDecoder.reset();
+            _binaryTextContentType = type;
+        }
+    }
+    
+    private byte[] finishBinaryTextContent() {
+        try {
+            if (_binaryTextContentType == XSDataType.BASE64BINARY) {
+                _base64Decoder.finish();
+                return Arrays.copyOf(_base64Decoder.getOctets(), _base64Decoder.getOctetsLength());
+            } else {
+                _hexadecimalDecoder.finish();
+                return Arrays.copyOf(_hexadecimalDecoder.getOctets(), _hexadecimalDecoder.getOctetsLength());
+            }
+        } catch (IllegalArgumentException e) {
+            abandonBinaryTextContent();
+            return null;
+        } finally {
+            _binaryTextContentType = null;
+        }
+    }
+    
+    /**
+     * Store the characters decoded so far as text content, so that the
+     * remaining characters are appended to them. The characters decoded
+     * are those of the canonical representation, white space that was
+     * reported is not retained.
+     */
+    private void abandonBinaryTextContent() {
+        _textContent.append((_binaryTextContentType == XSDataType.BASE64BINARY)
+                ? _base64Decoder.getCharacters()
+                : _hexadecimalDecoder.getCharacters());
+        _binaryTextContentType = null;
+        // The text content is not in the lexical space of the only type
+        _textContentTypes = null;
+    }
+    
     private void storeTextContent() {
+        if (_storeTextContent && _binaryTextContentType != null) {
+            final XSDataType type = _binaryTextContentType;
+            final byte[] octets = finishBinaryTextContent();
+            if (octets != null) {
+                storeStructure(T_TEXT_AS_OBJECT);
+                storeContentObject(new ValueInstance(type.encodingAlgorithmId, octets));
+                
+                _textContentTypes = null;
+                _storeTextContent = false;
+                _textContent.setLength(0);
+                return;
+            }
+        }
+        _binaryTextContentType = null;
+        
         if (_storeTextContent) {
             Object o = LexicalSpaceConvertor.convertToValueSpace(_textContentTypes, 
                     _textContent.getValue(), 0, _textContent.length(),